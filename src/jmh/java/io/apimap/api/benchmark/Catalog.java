@@ -0,0 +1,103 @@
+package io.apimap.api.benchmark;
+
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.dataset.Dataset;
+import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.IApiVersion;
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.mongodb.MongoRESTConverter;
+import io.apimap.api.repository.nitrite.NitriteRESTConverter;
+import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.rest.TaxonomyTreeDataRestEntity;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/*
+Deterministic synthetic data shared by the benchmarks, the same size always gives the same catalog.
+Built by the dataset generator so benchmarks see the same data as a generated catalog and the load tests.
+ */
+public class Catalog {
+    public static final long SEED = 42;
+
+    public enum Backend {
+        NITRITE,
+        MONGODB
+    }
+
+    private Catalog() {
+    }
+
+    public static String apiName(int index) {
+        return Dataset.apiName(index);
+    }
+
+    public static Dataset dataset(Backend backend, int size) {
+        final DatasetConfiguration settings = new DatasetConfiguration();
+        settings.setSeed(SEED);
+        settings.setApis(size);
+        settings.setTaxonomyNid("apimap");
+        settings.setTaxonomyUrns(Math.max(1, size));
+        settings.setTaxonomyFanOut(10);
+
+        final IRESTConverter converter = backend == Backend.NITRITE ? new NitriteRESTConverter() : new MongoRESTConverter();
+        return new Dataset(converter, settings);
+    }
+
+    /*
+    Metadata documents of the first APIs, older versions included
+     */
+    public static List<IMetadata> metadata(Backend backend, int size) {
+        final List<IMetadata> metadata = dataset(backend, size).apis(0, size).getMetadata();
+        return new ArrayList<>(metadata.subList(0, size));
+    }
+
+    /*
+    Every API with metadata and a latest version, as returned by latestApiVersionsWithMetadata
+     */
+    public static List<Tuple3<Optional<IApi>, Optional<IMetadata>, Optional<IApiVersion>>> apis(Backend backend, int size) {
+        final Dataset.Batch batch = dataset(backend, size).apis(0, size);
+
+        // Versions are generated oldest first
+        final Map<String, IApiVersion> latest = new HashMap<>();
+        batch.getVersions().forEach(version -> latest.put(version.getApiId(), version));
+
+        final Map<String, IMetadata> metadata = batch.getMetadata()
+                .stream()
+                .collect(Collectors.toMap(IMetadata::getId, value -> value));
+
+        final List<Tuple3<Optional<IApi>, Optional<IMetadata>, Optional<IApiVersion>>> result = new ArrayList<>(size);
+        for (IApi api : batch.getApis()) {
+            final IApiVersion version = latest.get(api.getId());
+            result.add(Tuples.of(
+                    Optional.of(api),
+                    Optional.ofNullable(metadata.get(IMetadata.createId(api.getId(), version.getVersion()))),
+                    Optional.of(version)));
+        }
+
+        return result;
+    }
+
+    /*
+    Taxonomy nodes with a fan out of ten in random order, so inserts also create and later fill empty parents
+     */
+    public static List<TaxonomyTreeDataRestEntity> taxonomy(int size) {
+        final List<TaxonomyTreeDataRestEntity> result = dataset(Backend.NITRITE, size)
+                .taxonomyUrns()
+                .stream()
+                .map(urn -> new TaxonomyTreeDataRestEntity(urn.getUrn(), urn.getTitle(), urn.getUrl(), urn.getDescription(), null, urn.getVersion(), TaxonomyDataRestEntity.ReferenceType.CLASSIFICATION, new ArrayList<>()))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        Collections.shuffle(result, new Random(SEED));
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package io.apimap.api.repository;
+
+import io.apimap.api.benchmark.Catalog;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.IApiVersion;
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.mongodb.MongoRESTConverter;
+import io.apimap.api.repository.nitrite.NitriteRESTConverter;
+import io.apimap.api.rest.ApiCollectionRootRestEntity;
+import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.util.function.Tuple3;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RESTConverterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"NITRITE", "MONGODB"})
+    Catalog.Backend backend;
+
+    URI uri;
+    IRESTConverter converter;
+    List<Tuple3<Optional<IApi>, Optional<IMetadata>, Optional<IApiVersion>>> apis;
+
+    @Setup
+    public void setUp() {
+        uri = URI.create("https://apimap.example.com/api");
+        converter = backend == Catalog.Backend.NITRITE ? new NitriteRESTConverter() : new MongoRESTConverter();
+        apis = Catalog.apis(backend, size);
+    }
+
+    @Benchmark
+    public JsonApiRestResponseWrapper<ApiCollectionRootRestEntity> encodeApis() {
+        return converter.encodeApis(uri, apis).block();
+    }
+}
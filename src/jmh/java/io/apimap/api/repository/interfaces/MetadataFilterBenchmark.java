@@ -0,0 +1,58 @@
+package io.apimap.api.repository.interfaces;
+
+import io.apimap.api.benchmark.Catalog;
+import io.apimap.api.rest.MetadataDataRestEntity;
+import io.apimap.api.service.query.Filter;
+import io.apimap.api.service.query.MetadataFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Filtering the whole catalog the way SearchRepository does for every classification search
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MetadataFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    List<IMetadata> metadata;
+    List<Filter> filters;
+
+    @Setup
+    public void setUp() {
+        metadata = Catalog.metadata(Catalog.Backend.NITRITE, size);
+        filters = List.of(
+                new MetadataFilter(MetadataDataRestEntity.RELEASE_STATUS_KEY, "Production"),
+                new MetadataFilter(MetadataDataRestEntity.RELEASE_STATUS_KEY, "Deprecated"),
+                new MetadataFilter(MetadataDataRestEntity.VISIBILITY_KEY, "Public"),
+                new MetadataFilter(MetadataDataRestEntity.ARCHITECTURE_LAYER_KEY, "Backend")
+        );
+    }
+
+    @Benchmark
+    public int compliesWithFilters() {
+        int matches = 0;
+        for (IMetadata entity : metadata) {
+            if (IMetadata.compliesWithFilters(entity, filters)) matches++;
+        }
+        return matches;
+    }
+}
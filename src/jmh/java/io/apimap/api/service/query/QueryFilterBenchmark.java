@@ -0,0 +1,41 @@
+package io.apimap.api.service.query;
+
+import io.apimap.api.rest.MetadataDataRestEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryFilterBenchmark {
+
+    // Queries are limited to RequestUtil.MAX_QUERY_FIELD_LENGTH characters
+    @Param({"payment", "customer order api", "a b c d e f g h i j"})
+    String query;
+
+    QueryFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new QueryFilter(MetadataDataRestEntity.NAME_KEY, query);
+    }
+
+    @Benchmark
+    public String createQueryString() {
+        return filter.createQueryString(query);
+    }
+}
@@ -0,0 +1,120 @@
+package io.apimap.api.service.response;
+
+import io.apimap.api.benchmark.Catalog;
+import io.apimap.api.configuration.ApimapConfiguration;
+import io.apimap.api.repository.nitrite.NitriteRESTConverter;
+import io.apimap.api.rest.ApiCollectionDataRestEntity;
+import io.apimap.api.rest.ApiCollectionRootRestEntity;
+import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+Serialization of the API collection, materialized and streamed, written to an in-memory response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseBuilderBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    URI uri;
+    ApimapConfiguration apimapConfiguration;
+    ArrayList<ApiCollectionDataRestEntity> content;
+    ServerResponse.Context context;
+
+    @Setup
+    public void setUp() {
+        uri = URI.create("https://apimap.example.com/api");
+        apimapConfiguration = new ApimapConfiguration(
+                new HashMap<>(),
+                new ApimapConfiguration.Enabled(false),
+                new ApimapConfiguration.Enabled(false),
+                "benchmark",
+                new ApimapConfiguration.Limits(1024 * 1024));
+        content = new ArrayList<>(new NitriteRESTConverter()
+                .encodeApis(uri, Catalog.apis(Catalog.Backend.NITRITE, size))
+                .block()
+                .getData()
+                .getData());
+
+        final List<HttpMessageWriter<?>> writers = HandlerStrategies.withDefaults().messageWriters();
+        context = new ServerResponse.Context() {
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return writers;
+            }
+
+            @Override
+            public List<ViewResolver> viewResolvers() {
+                return List.of();
+            }
+        };
+    }
+
+    @Benchmark
+    public long okCollection() {
+        final ServerResponse response = ResponseBuilder
+                .builder(System.currentTimeMillis(), apimapConfiguration)
+                .withResourceURI(uri)
+                .withBody(new JsonApiRestResponseWrapper<>(new ApiCollectionRootRestEntity(new ArrayList<>(content))))
+                .okCollection()
+                .block();
+
+        return write(response);
+    }
+
+    @Benchmark
+    public long okCollectionStreamed() {
+        final ApiCollectionDataRestEntity placeholder = new ApiCollectionDataRestEntity(
+                "placeholder-" + UUID.randomUUID(), "", "", "", "", new ArrayList<>(), "", null);
+
+        final ServerResponse response = ResponseBuilder
+                .builder(System.currentTimeMillis(), apimapConfiguration)
+                .withResourceURI(uri)
+                .withBody(new JsonApiRestResponseWrapper<>(new ApiCollectionRootRestEntity(new ArrayList<>(List.of(placeholder)))))
+                .okCollection(Flux.fromIterable(content), placeholder)
+                .block();
+
+        return write(response);
+    }
+
+    protected long write(final ServerResponse response) {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri.toString()));
+        response.writeTo(exchange, context).block();
+
+        return exchange.getResponse()
+                .getBody()
+                .map(buffer -> (long) buffer.readableByteCount())
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
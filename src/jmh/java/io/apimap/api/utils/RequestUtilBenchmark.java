@@ -0,0 +1,62 @@
+package io.apimap.api.utils;
+
+import io.apimap.api.rest.MetadataDataRestEntity;
+import io.apimap.api.service.query.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestUtilBenchmark {
+
+    // Number of filter values in the query string
+    @Param({"1", "10", "100"})
+    int filters;
+
+    ServerRequest request;
+
+    @Setup
+    public void setUp() {
+        final MockServerHttpRequest.BaseBuilder<?> builder = MockServerHttpRequest.get("/api");
+
+        for (int i = 0; i < filters; i++) {
+            switch (i % 3) {
+                case 0:
+                    builder.queryParam(RequestUtil.FILTER_METADATA_KEY + "[" + MetadataDataRestEntity.RELEASE_STATUS_KEY + "]", "Production,Deprecated");
+                    break;
+                case 1:
+                    builder.queryParam(RequestUtil.FILTER_CLASSIFICATION_KEY + "[urn:apimap:" + i + "]", "urn:apimap:" + i);
+                    break;
+                default:
+                    builder.queryParam(RequestUtil.FILTER_NAME_KEY, "api-" + i);
+            }
+        }
+
+        request = ServerRequest.create(MockServerWebExchange.from(builder.build()), HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    @Benchmark
+    public List<Filter> requestFilters() {
+        return RequestUtil.requestFilters(request);
+    }
+}
@@ -0,0 +1,47 @@
+package io.apimap.api.utils;
+
+import io.apimap.api.benchmark.Catalog;
+import io.apimap.api.rest.TaxonomyTreeDataRestEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaxonomyTreeBuilderBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    List<TaxonomyTreeDataRestEntity> nodes;
+
+    @Setup
+    public void setUp() {
+        nodes = Catalog.taxonomy(size);
+    }
+
+    @Benchmark
+    public ArrayList<TaxonomyTreeDataRestEntity> insert() {
+        final TaxonomyTreeBuilder builder = TaxonomyTreeBuilder.empty();
+        for (TaxonomyTreeDataRestEntity node : nodes) {
+            builder.insert(node);
+        }
+        return builder.getTree();
+    }
+}
@@ -0,0 +1,62 @@
+package io.apimap.api.utils;
+
+import io.apimap.api.benchmark.Catalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+The links written for every entity of the API collection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class URIUtilBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    URI uri;
+    List<String> names;
+
+    @Setup
+    public void setUp() {
+        uri = URI.create("https://apimap.example.com/api?filter[metadata][release status]=Production");
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(Catalog.apiName(i));
+        }
+    }
+
+    @Benchmark
+    public void collectionLinks(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(URIUtil.rootLevelFromURI(uri).append("api").append(name).append("version").uriValue());
+            blackhole.consume(URIUtil.rootLevelFromURI(uri).append("api").append(name).stringValue());
+        }
+    }
+
+    @Benchmark
+    public void pageLinks(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(URIUtil.fromURI(uri).withQueryParameter(RequestUtil.PAGE_CURSOR_KEY, name).uriValue());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.accesslog;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.AccessLogConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+Access log of the handled requests. Request threads only sample and enqueue a record,
+a single writer thread formats and logs them in batches.
+ */
+@Component
+@ConditionalOnProperty(value = "access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLog implements DisposableBean {
+    // Same logger as the access log has always used, so existing log routing keeps working
+    private static final Logger LOGGER = LoggerFactory.getLogger("io.apimap.api.repository.memory.LogUsageInformationRepository");
+
+    public static final String QUEUED = "apimap.accesslog.queued";
+    public static final String WRITTEN = "apimap.accesslog.written";
+    public static final String DROPPED = "apimap.accesslog.dropped";
+
+    protected final AccessLogBuffer buffer;
+    protected final int batchSize;
+    protected final long flushIntervalNanos;
+    // Indexed by status / 100
+    protected final double[] sampleRates = {1.0, 1.0, 1.0, 1.0, 1.0, 1.0};
+
+    protected final Counter written;
+    protected final Counter droppedFull;
+    protected final Counter droppedSampled;
+
+    protected final StringBuilder line = new StringBuilder(256);
+    protected final Thread thread;
+    protected volatile boolean running = true;
+
+    @SuppressFBWarnings
+    public AccessLog(final AccessLogConfiguration accessLogConfiguration,
+                     final MeterRegistry meterRegistry) {
+        this.buffer = new AccessLogBuffer(accessLogConfiguration.getCapacity());
+        this.batchSize = Math.max(1, accessLogConfiguration.getBatchSize());
+        this.flushIntervalNanos = accessLogConfiguration.getFlushInterval().toNanos();
+
+        accessLogConfiguration.getSampleRates().forEach((statusClass, rate) -> {
+            final int index = statusClass.isEmpty() ? -1 : Character.digit(statusClass.charAt(0), 10);
+            if (index < 1 || index >= sampleRates.length || !statusClass.substring(1).equalsIgnoreCase("xx")) {
+                throw new IllegalArgumentException("Unknown status class " + statusClass + ", expected 1xx to 5xx");
+            }
+            sampleRates[index] = rate;
+        });
+
+        Gauge.builder(QUEUED, buffer, AccessLogBuffer::size)
+                .description("Access log records waiting to be written")
+                .register(meterRegistry);
+
+        this.written = Counter.builder(WRITTEN)
+                .description("Access log records written")
+                .register(meterRegistry);
+
+        this.droppedFull = dropped("full", meterRegistry);
+        this.droppedSampled = dropped("sampled", meterRegistry);
+
+        this.thread = new Thread(this::writeLoop, "apimap-access-log");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /*
+    Called on the request threads, does not block
+     */
+    public void record(final String method, final URI uri, final int status, final long durationNanos) {
+        final int statusClass = status / 100;
+        final double rate = statusClass >= 0 && statusClass < sampleRates.length ? sampleRates[statusClass] : 1.0;
+
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            droppedSampled.increment();
+            return;
+        }
+
+        if (!buffer.offer(method, uri, status, durationNanos)) {
+            droppedFull.increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(1000);
+    }
+
+    protected void writeLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+
+        // Whatever was queued before the shutdown
+        int drained;
+        do {
+            drained = drain();
+        } while (drained > 0);
+    }
+
+    protected int drain() {
+        final int drained = buffer.drain(this::write, batchSize);
+        written.increment(drained);
+        return drained;
+    }
+
+    protected void write(final AccessLogBuffer.Record record) {
+        if (!LOGGER.isInfoEnabled()) return;
+
+        line.setLength(0);
+        line.append("Method=").append(record.getMethod())
+                .append(", URI=").append(record.getUri())
+                .append(", Status=").append(record.getStatus())
+                .append(", Timetaken=").append(TimeUnit.NANOSECONDS.toMillis(record.getDurationNanos()))
+                .append(" milliseconds");
+
+        LOGGER.info(line.toString());
+    }
+
+    protected static Counter dropped(final String cause, final MeterRegistry meterRegistry) {
+        return Counter.builder(DROPPED)
+                .description("Access log records not written")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+}
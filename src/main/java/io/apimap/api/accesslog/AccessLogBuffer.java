@@ -0,0 +1,142 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.accesslog;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Bounded multi-producer, single-consumer ring of preallocated records.
+
+Producers claim a slot by advancing the tail, fill it in and publish it through the sequence
+of the slot, so offering a record neither locks nor allocates. Only one thread may drain it.
+ */
+public class AccessLogBuffer {
+    protected final Record[] slots;
+    protected final int mask;
+    protected final AtomicLong tail = new AtomicLong();
+    protected volatile long head;
+
+    public AccessLogBuffer(final int capacity) {
+        final int size = capacity <= 1 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.slots = new Record[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Record(i);
+        }
+    }
+
+    /*
+    Returns false if the buffer is full
+     */
+    public boolean offer(final String method, final URI uri, final int status, final long durationNanos) {
+        long position = tail.get();
+
+        while (true) {
+            final Record slot = slots[(int) (position & mask)];
+            final long difference = slot.sequence.get() - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.method = method;
+                    slot.uri = uri;
+                    slot.status = status;
+                    slot.durationNanos = durationNanos;
+                    slot.sequence.set(position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not freed this slot yet
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /*
+    Passes up to max published records to the consumer, in the order they were claimed.
+    A record must not be kept after the consumer returns, its slot is reused.
+     */
+    public int drain(final Consumer consumer, final int max) {
+        int drained = 0;
+        long position = head;
+
+        while (drained < max) {
+            final Record slot = slots[(int) (position & mask)];
+            if (slot.sequence.get() != position + 1) break;
+
+            consumer.accept(slot);
+
+            slot.method = null;
+            slot.uri = null;
+            slot.sequence.set(position + slots.length);
+
+            position++;
+            drained++;
+        }
+
+        head = position;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public interface Consumer {
+        void accept(Record record);
+    }
+
+    public static class Record {
+        protected final AtomicLong sequence;
+
+        protected String method;
+        protected URI uri;
+        protected int status;
+        protected long durationNanos;
+
+        protected Record(final long sequence) {
+            this.sequence = new AtomicLong(sequence);
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
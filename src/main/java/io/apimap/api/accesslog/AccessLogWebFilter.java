@@ -0,0 +1,60 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.accesslog;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/*
+Hands every finished request to the AccessLog, runs first so the whole request is timed
+ */
+@Component
+@ConditionalOnProperty(value = "access-log.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogWebFilter implements WebFilter {
+    protected final AccessLog accessLog;
+
+    @SuppressFBWarnings
+    public AccessLogWebFilter(final AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final long start = System.nanoTime();
+
+        return chain
+                .filter(exchange)
+                .doFinally(signal -> {
+                    final ServerHttpRequest request = exchange.getRequest();
+                    final Integer status = exchange.getResponse().getRawStatusCode();
+
+                    accessLog.record(request.getMethodValue(), request.getURI(), status == null ? 200 : status, System.nanoTime() - start);
+                });
+    }
+}
@@ -0,0 +1,84 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.configuration;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+public class AccessLogConfiguration {
+    protected boolean enabled = true;
+    // Requests waiting to be written, rounded up to a power of two. Requests are dropped when it is full
+    protected int capacity = 8192;
+    // Most requests written per pass of the writer
+    protected int batchSize = 256;
+    // How long the writer sleeps when there is nothing to write
+    protected Duration flushInterval = Duration.ofMillis(100);
+    // Share of the requests logged per status class, "1xx" to "5xx", missing classes are always logged
+    protected Map<String, Double> sampleRates = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @SuppressFBWarnings
+    public Map<String, Double> getSampleRates() {
+        return sampleRates;
+    }
+
+    @SuppressFBWarnings
+    public void setSampleRates(Map<String, Double> sampleRates) {
+        this.sampleRates = sampleRates;
+    }
+}
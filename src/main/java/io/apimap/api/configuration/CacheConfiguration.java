@@ -0,0 +1,128 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.configuration;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache")
+public class CacheConfiguration {
+    protected Settings taxonomy = new Settings();
+    // Digests of the API and taxonomy tokens, kept briefly so write bursts skip the lookup
+    protected Settings tokens = new Settings(10000, Duration.ofSeconds(30));
+    // Rendered README and CHANGELOG HTML, changelogs can be hundreds of KB so fewer entries are kept
+    protected Settings documents = new Settings(500, Duration.ofMinutes(30));
+    // Statistics per catalog version, a write moves the version so only the latest few are useful
+    protected Settings statistics = new Settings(16, Duration.ofMinutes(5));
+    // ETags and If-None-Match handling on read endpoints
+    protected boolean conditionalRequests = true;
+
+    @SuppressFBWarnings
+    public Settings getTaxonomy() {
+        return taxonomy;
+    }
+
+    @SuppressFBWarnings
+    public void setTaxonomy(Settings taxonomy) {
+        this.taxonomy = taxonomy;
+    }
+
+    @SuppressFBWarnings
+    public Settings getTokens() {
+        return tokens;
+    }
+
+    @SuppressFBWarnings
+    public void setTokens(Settings tokens) {
+        this.tokens = tokens;
+    }
+
+    @SuppressFBWarnings
+    public Settings getDocuments() {
+        return documents;
+    }
+
+    @SuppressFBWarnings
+    public void setDocuments(Settings documents) {
+        this.documents = documents;
+    }
+
+    @SuppressFBWarnings
+    public Settings getStatistics() {
+        return statistics;
+    }
+
+    @SuppressFBWarnings
+    public void setStatistics(Settings statistics) {
+        this.statistics = statistics;
+    }
+
+    public boolean isConditionalRequests() {
+        return conditionalRequests;
+    }
+
+    public void setConditionalRequests(boolean conditionalRequests) {
+        this.conditionalRequests = conditionalRequests;
+    }
+
+    public static class Settings {
+        protected boolean enabled = true;
+        // Maximum number of entries kept per cache
+        protected int maximumSize = 10000;
+        // Entries are reloaded after this long even if they have not been invalidated
+        protected Duration timeToLive = Duration.ofMinutes(10);
+
+        public Settings() {
+        }
+
+        public Settings(int maximumSize, Duration timeToLive) {
+            this.maximumSize = maximumSize;
+            this.timeToLive = timeToLive;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dataset")
+public class DatasetConfiguration {
+    // Fill an empty catalog with a generated dataset when the application starts
+    protected boolean generateOnStartup = false;
+    // The same seed and sizes always give the same catalog
+    protected long seed = 1;
+    protected int apis = 100000;
+    // Upper bounds, the actual number per API version is drawn from a Zipf distribution
+    protected int versions = 5;
+    protected int classifications = 3;
+    protected int votes = 20;
+    // Zipf exponent used for all skewed values, higher is more skewed
+    protected double skew = 1.1;
+    protected String taxonomyNid = "dataset";
+    protected int taxonomyUrns = 5000;
+    protected int taxonomyFanOut = 12;
+    // APIs written per repository call
+    protected int batchSize = 1000;
+    protected int concurrency = 4;
+
+    public boolean isGenerateOnStartup() {
+        return generateOnStartup;
+    }
+
+    public void setGenerateOnStartup(boolean generateOnStartup) {
+        this.generateOnStartup = generateOnStartup;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getApis() {
+        return apis;
+    }
+
+    public void setApis(int apis) {
+        this.apis = apis;
+    }
+
+    public int getVersions() {
+        return versions;
+    }
+
+    public void setVersions(int versions) {
+        this.versions = versions;
+    }
+
+    public int getClassifications() {
+        return classifications;
+    }
+
+    public void setClassifications(int classifications) {
+        this.classifications = classifications;
+    }
+
+    public int getVotes() {
+        return votes;
+    }
+
+    public void setVotes(int votes) {
+        this.votes = votes;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public String getTaxonomyNid() {
+        return taxonomyNid;
+    }
+
+    public void setTaxonomyNid(String taxonomyNid) {
+        this.taxonomyNid = taxonomyNid;
+    }
+
+    public int getTaxonomyUrns() {
+        return taxonomyUrns;
+    }
+
+    public void setTaxonomyUrns(int taxonomyUrns) {
+        this.taxonomyUrns = taxonomyUrns;
+    }
+
+    public int getTaxonomyFanOut() {
+        return taxonomyFanOut;
+    }
+
+    public void setTaxonomyFanOut(int taxonomyFanOut) {
+        this.taxonomyFanOut = taxonomyFanOut;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
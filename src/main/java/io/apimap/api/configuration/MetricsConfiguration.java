@@ -0,0 +1,164 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.configuration;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "metrics")
+public class MetricsConfiguration {
+    protected Settings repository = new Settings();
+    protected Timing timing = new Timing();
+    protected FlightRecorder flightRecorder = new FlightRecorder();
+
+    @SuppressFBWarnings
+    public Settings getRepository() {
+        return repository;
+    }
+
+    @SuppressFBWarnings
+    public void setRepository(Settings repository) {
+        this.repository = repository;
+    }
+
+    @SuppressFBWarnings
+    public Timing getTiming() {
+        return timing;
+    }
+
+    @SuppressFBWarnings
+    public void setTiming(Timing timing) {
+        this.timing = timing;
+    }
+
+    @SuppressFBWarnings
+    public FlightRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    @SuppressFBWarnings
+    public void setFlightRecorder(FlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    public static class Settings {
+        protected boolean enabled = true;
+        // Publish a percentile histogram with the default buckets of the registry
+        protected boolean percentileHistogram = false;
+        // Fixed histogram buckets, empty for none
+        protected List<Duration> buckets = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        @SuppressFBWarnings
+        public List<Duration> getBuckets() {
+            return buckets;
+        }
+
+        @SuppressFBWarnings
+        public void setBuckets(List<Duration> buckets) {
+            this.buckets = buckets;
+        }
+    }
+
+    public static class Timing {
+        protected boolean enabled = true;
+        // Adds the phases to the response as a Server-Timing header
+        protected boolean serverTimingHeader = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isServerTimingHeader() {
+            return serverTimingHeader;
+        }
+
+        public void setServerTimingHeader(boolean serverTimingHeader) {
+            this.serverTimingHeader = serverTimingHeader;
+        }
+    }
+
+    public static class FlightRecorder {
+        protected boolean enabled = true;
+        // Settings used when a recording is started without any, "default" or "profile"
+        protected String configuration = "default";
+        // Recorded data older than this is discarded
+        protected Duration maxAge = Duration.ofMinutes(30);
+        // Where dumps are written, the temporary directory if empty
+        protected String directory = "";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getConfiguration() {
+            return configuration;
+        }
+
+        public void setConfiguration(String configuration) {
+            this.configuration = configuration;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+}
@@ -19,10 +19,17 @@ under the License.
 
 package io.apimap.api.configuration;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.tracing.ReactorRequestContext;
+import io.apimap.api.tracing.Tracer;
+import io.apimap.api.tracing.TracingCommandListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -38,16 +45,30 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
 public class MongoConfiguration extends AbstractReactiveMongoConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoConfiguration.class);
 
+    protected final ObjectProvider<Tracer> tracer;
+
     protected String databaseName;
     protected String uri;
 
-    public MongoConfiguration() {
+    @SuppressFBWarnings
+    public MongoConfiguration(final ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
         LOGGER.info("Configuring MongoDB database");
     }
 
     @Bean
     public MongoClient reactiveMongoClient() {
-        return MongoClients.create(getUri());
+        final MongoClientSettings.Builder settings = MongoClientSettings
+                .builder()
+                .applyConnectionString(new ConnectionString(getUri()));
+
+        final Tracer commandTracer = tracer.getIfAvailable();
+        if (commandTracer != null && commandTracer.isEnabled()) {
+            settings.contextProvider(ReactorRequestContext.PROVIDER)
+                    .addCommandListener(new TracingCommandListener(commandTracer));
+        }
+
+        return MongoClients.create(settings.build());
     }
 
     @Bean
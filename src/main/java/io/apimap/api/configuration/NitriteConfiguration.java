@@ -19,6 +19,7 @@ under the License.
 
 package io.apimap.api.configuration;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -35,6 +36,7 @@ public class NitriteConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(NitriteConfiguration.class);
 
     protected String filePath;
+    protected Scheduler scheduler = new Scheduler();
 
     public NitriteConfiguration() {
         LOGGER.info("Configuring Nitrite database");
@@ -53,6 +55,16 @@ public class NitriteConfiguration {
         this.filePath = filePath;
     }
 
+    @SuppressFBWarnings
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @SuppressFBWarnings
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
     public boolean hasFilesystem() {
         if (this.filePath == null) {
             return false;
@@ -60,4 +72,37 @@ public class NitriteConfiguration {
 
         return Files.exists(Paths.get(this.filePath));
     }
+
+    public static class Scheduler {
+        // Number of threads serving queries
+        protected int readThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        // Number of threads serving inserts, updates and removals
+        protected int writeThreads = 1;
+        // Maximum number of queued operations per lane before new ones are rejected
+        protected int queueDepth = 1000;
+
+        public int getReadThreads() {
+            return readThreads;
+        }
+
+        public void setReadThreads(int readThreads) {
+            this.readThreads = readThreads;
+        }
+
+        public int getWriteThreads() {
+            return writeThreads;
+        }
+
+        public void setWriteThreads(int writeThreads) {
+            this.writeThreads = writeThreads;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(int queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+    }
 }
@@ -19,22 +19,29 @@ under the License.
 
 package io.apimap.api.configuration;
 
+import io.apimap.api.jfr.FlightRecorderEndpoint;
+import io.apimap.api.security.Authorizer;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
 
 @Configuration
 @EnableWebFluxSecurity
 @EnableReactiveMethodSecurity
 public class SecurityConfiguration {
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) throws Exception {
-        // only method-by-method security
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, Authorizer authorizer) throws Exception {
+        // only method-by-method security, except for the actuator endpoints that need the node access token
         return http
                 .authorizeExchange()
+                .matchers(EndpointRequest.to(FlightRecorderEndpoint.class))
+                .access((authentication, context) -> Mono.just(new AuthorizationDecision(authorizer.isValidAccessToken(context.getExchange().getRequest()))))
                 .anyExchange().permitAll()
                 .and()
                 .csrf().disable()
@@ -0,0 +1,136 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.configuration;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "votes")
+public class VoteConfiguration {
+    // Build the rating summaries from the stored votes when the application starts and none exist yet
+    protected boolean backfillOnStartup = true;
+    // Rebuild the rating summaries on every start, such as after summary updates failed or once a rolling
+    // upgrade from a release without summaries has finished
+    protected boolean rebuildOnStartup = false;
+    protected WriteBehind writeBehind = new WriteBehind();
+
+    public boolean isBackfillOnStartup() {
+        return backfillOnStartup;
+    }
+
+    public void setBackfillOnStartup(boolean backfillOnStartup) {
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    public boolean isRebuildOnStartup() {
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @SuppressFBWarnings
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    @SuppressFBWarnings
+    public void setWriteBehind(WriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public static class WriteBehind {
+        // Acknowledge votes once they are in the journal and store them in batches
+        protected boolean enabled = false;
+        // Append-only file holding the votes that are not stored yet, replayed on startup. Required when
+        // enabled, and must be on persistent storage such as next to the database files
+        protected String journal;
+        // Maximum number of votes waiting to be stored
+        protected int capacity = 10000;
+        // A batch is stored when it is full, or after the flush interval
+        protected int batchSize = 500;
+        protected Duration flushInterval = Duration.ofSeconds(1);
+        // Time a vote waits for room in a full queue before it is rejected with 503
+        protected Duration enqueueTimeout = Duration.ofSeconds(2);
+        // Stored votes kept in the journal before it is rewritten with only the waiting ones
+        protected int compactAfter = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getJournal() {
+            return journal;
+        }
+
+        public void setJournal(String journal) {
+            this.journal = journal;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getEnqueueTimeout() {
+            return enqueueTimeout;
+        }
+
+        public void setEnqueueTimeout(Duration enqueueTimeout) {
+            this.enqueueTimeout = enqueueTimeout;
+        }
+
+        public int getCompactAfter() {
+            return compactAfter;
+        }
+
+        public void setCompactAfter(int compactAfter) {
+            this.compactAfter = compactAfter;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.dataset;
+
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.interfaces.*;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/*
+Deterministic synthetic catalog, the same settings always give the same entities for either backend.
+
+Every API is generated from its own random stream so a range of APIs can be built in any order
+or in parallel, values are ordered from most to least common and drawn from Zipf distributions.
+ */
+public class Dataset {
+    public static final String TAXONOMY_VERSION = "1";
+    public static final Instant FIRST_CREATED = Instant.parse("2019-01-01T00:00:00Z");
+    public static final int CREATED_DAYS = 3 * 365;
+
+    public static final String[] RELEASE_STATUS = {"Production", "Under Development", "Design", "Deprecated", "Retired"};
+    public static final String[] VISIBILITY = {"Internal", "Public", "Private"};
+    public static final String[] ARCHITECTURE_LAYER = {"Backend", "Integration", "Frontend", "Platform", "Data"};
+    public static final String[] INTERFACE_SPECIFICATION = {"OpenAPI 3.0", "OpenAPI 2.0", "AsyncAPI 2.0", "GraphQL", "WSDL 1.1"};
+    public static final String[] INTERFACE_DESCRIPTION_LANGUAGE = {"JSON", "YAML", "XML"};
+    public static final Integer[] RATINGS = {4, 5, 3, 1, 2};
+    public static final int BUSINESS_UNITS = 50;
+    public static final int SYSTEM_IDENTIFIERS = 2000;
+
+    // Separate streams for the taxonomy and the APIs
+    protected static final long TAXONOMY_STREAM = -1;
+
+    protected final IRESTConverter converter;
+    protected final DatasetConfiguration settings;
+
+    protected final ZipfDistribution versions;
+    protected final ZipfDistribution classifications;
+    protected final ZipfDistribution votes;
+    protected final ZipfDistribution urns;
+    protected final ZipfDistribution releaseStatus;
+    protected final ZipfDistribution visibility;
+    protected final ZipfDistribution architectureLayer;
+    protected final ZipfDistribution interfaceSpecification;
+    protected final ZipfDistribution interfaceDescriptionLanguage;
+    protected final ZipfDistribution businessUnit;
+    protected final ZipfDistribution systemIdentifier;
+    protected final ZipfDistribution rating;
+
+    public Dataset(final IRESTConverter converter, final DatasetConfiguration settings) {
+        this.converter = converter;
+        this.settings = settings;
+
+        final double skew = settings.getSkew();
+        this.versions = new ZipfDistribution(settings.getVersions(), skew);
+        this.classifications = new ZipfDistribution(settings.getClassifications(), skew);
+        this.votes = new ZipfDistribution(settings.getVotes() + 1, skew);
+        this.urns = new ZipfDistribution(settings.getTaxonomyUrns(), skew);
+        this.releaseStatus = new ZipfDistribution(RELEASE_STATUS.length, skew);
+        this.visibility = new ZipfDistribution(VISIBILITY.length, skew);
+        this.architectureLayer = new ZipfDistribution(ARCHITECTURE_LAYER.length, skew);
+        this.interfaceSpecification = new ZipfDistribution(INTERFACE_SPECIFICATION.length, skew);
+        this.interfaceDescriptionLanguage = new ZipfDistribution(INTERFACE_DESCRIPTION_LANGUAGE.length, skew);
+        this.businessUnit = new ZipfDistribution(BUSINESS_UNITS, skew);
+        this.systemIdentifier = new ZipfDistribution(SYSTEM_IDENTIFIERS, skew);
+        this.rating = new ZipfDistribution(RATINGS.length, skew);
+    }
+
+    public static String apiName(final int index) {
+        return "dataset-api-" + index;
+    }
+
+    /*
+     * Every API has 1.0.0, later versions are 1.1.0, 1.2.0 ...
+     */
+    public static String apiVersion(final int index) {
+        return "1." + index + ".0";
+    }
+
+    /*
+     * URNs are numbered from one, urn:<nid>:1
+     */
+    public static String urn(final String nid, final int index) {
+        return "urn:" + nid + ":" + index;
+    }
+
+    public DatasetConfiguration getSettings() {
+        return settings;
+    }
+
+    public ITaxonomyCollection taxonomyCollection() {
+        final ITaxonomyCollection collection = converter.createTaxonomyCollection();
+        collection.setId(ITaxonomyCollection.createId(settings.getTaxonomyNid()));
+        collection.setNid(settings.getTaxonomyNid());
+        collection.setName("Generated taxonomy " + settings.getTaxonomyNid());
+        collection.setDescription("Generated with seed " + settings.getSeed());
+        collection.setCreated(FIRST_CREATED);
+        return collection;
+    }
+
+    public ITaxonomyCollectionVersion taxonomyVersion() {
+        final ITaxonomyCollectionVersion version = converter.createTaxonomyCollectionVersion();
+        version.setId(ITaxonomyCollectionVersion.createId(settings.getTaxonomyNid(), TAXONOMY_VERSION));
+        version.setNid(settings.getTaxonomyNid());
+        version.setVersion(TAXONOMY_VERSION);
+        version.setCreated(FIRST_CREATED);
+        return version;
+    }
+
+    /*
+    A tree with the configured fan out in breadth first order, node i is a child of node (i - 1) / fanOut.
+    The most classified URNs are the first ones, close to the root.
+     */
+    public List<ITaxonomyCollectionVersionURN> taxonomyUrns() {
+        final SplittableRandom random = random(TAXONOMY_STREAM);
+        final String nid = settings.getTaxonomyNid();
+        final int size = settings.getTaxonomyUrns();
+
+        final List<String> urls = new ArrayList<>(size + 1);
+        urls.add("taxonomy:/");
+
+        final List<ITaxonomyCollectionVersionURN> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            final String title = "Category " + i;
+            final String url = urls.get((i - 1) / settings.getTaxonomyFanOut()) + "/" + title;
+            urls.add(url);
+
+            final ITaxonomyCollectionVersionURN urn = converter.createTaxonomyCollectionVersionURN();
+            urn.setId(ITaxonomyCollectionVersionURN.createId(urn(nid, i), TAXONOMY_VERSION));
+            urn.setUrn(urn(nid, i));
+            urn.setUrl(url);
+            urn.setTitle(title);
+            urn.setDescription("Generated category " + i + " with " + (1 + random.nextInt(100)) + " words of description");
+            urn.setNid(nid);
+            urn.setVersion(TAXONOMY_VERSION);
+            urn.setType(ITaxonomyRepository.DEFAULT_TAXONOMY_TYPE);
+            urn.setCreated(FIRST_CREATED);
+            result.add(urn);
+        }
+
+        return result;
+    }
+
+    /*
+    APIs with index from (inclusive) to (exclusive), with all their versions, metadata, classifications and votes
+     */
+    public Batch apis(final int from, final int to) {
+        final Batch batch = new Batch();
+
+        for (int index = from; index < to; index++) {
+            api(batch, index);
+        }
+
+        return batch;
+    }
+
+    protected void api(final Batch batch, final int index) {
+        final SplittableRandom random = random(index);
+        final String name = apiName(index);
+
+        Instant created = FIRST_CREATED.plus(Duration.ofSeconds(random.nextLong(CREATED_DAYS * 86400L)));
+
+        final IApi api = converter.createApi();
+        api.setId(id(name));
+        api.setName(name);
+        api.setCodeRepositoryUrl("https://git.example.com/" + name);
+        api.setCreated(created);
+        // Drawn from the API stream, so the same seed gives the same write tokens
+        api.setToken(new UUID(random.nextLong(), random.nextLong()).toString());
+        batch.apis.add(api);
+
+        final int versionCount = 1 + versions.sample(random);
+        for (int v = 0; v < versionCount; v++) {
+            final String version = apiVersion(v);
+
+            final IApiVersion apiVersion = converter.createApiVersion();
+            apiVersion.setId(IApiVersion.createId(api.getId(), version));
+            apiVersion.setApiId(api.getId());
+            apiVersion.setVersion(version);
+            apiVersion.setCreated(created);
+            batch.versions.add(apiVersion);
+
+            batch.metadata.add(metadata(random, api, version, created));
+            classifications(random, batch, api, version, created);
+            votes(random, batch, api, version, created);
+
+            created = created.plus(Duration.ofDays(1 + random.nextInt(90)));
+        }
+    }
+
+    protected IMetadata metadata(final SplittableRandom random, final IApi api, final String version, final Instant created) {
+        final IMetadata metadata = converter.createMetadata();
+        metadata.setId(IMetadata.createId(api.getId(), version));
+        metadata.setApiId(api.getId());
+        metadata.setApiVersion(version);
+        metadata.setName(api.getName());
+        metadata.setDescription("Generated API " + api.getName() + " version " + version);
+        metadata.setVisibility(visibility.sample(random, VISIBILITY));
+        metadata.setReleaseStatus(releaseStatus.sample(random, RELEASE_STATUS));
+        metadata.setArchitectureLayer(architectureLayer.sample(random, ARCHITECTURE_LAYER));
+        metadata.setInterfaceSpecification(interfaceSpecification.sample(random, INTERFACE_SPECIFICATION));
+        metadata.setInterfaceDescriptionLanguage(interfaceDescriptionLanguage.sample(random, INTERFACE_DESCRIPTION_LANGUAGE));
+        metadata.setBusinessUnit("Unit " + (businessUnit.sample(random) + 1));
+        metadata.setSystemIdentifier(String.format("SYS%04d", systemIdentifier.sample(random) + 1));
+        metadata.setMetadataVersion(IRESTConverter.SUPPORTED_METADATA_VERSION);
+        metadata.setDocumentation(List.of("https://docs.example.com/" + api.getName() + "/" + version));
+        metadata.setCreated(created);
+        return metadata;
+    }
+
+    protected void classifications(final SplittableRandom random, final Batch batch, final IApi api, final String version, final Instant created) {
+        final String nid = settings.getTaxonomyNid();
+
+        final int count = 1 + classifications.sample(random);
+        final Set<String> selected = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            selected.add(urn(nid, urns.sample(random) + 1));
+        }
+
+        for (String urn : selected) {
+            final IApiClassification classification = converter.createClassification();
+            classification.setId(IApiClassification.createId(api.getId(), version, urn));
+            classification.setApiId(api.getId());
+            classification.setApiVersion(version);
+            classification.setTaxonomyNid(nid);
+            classification.setTaxonomyVersion(TAXONOMY_VERSION);
+            classification.setTaxonomyUrn(urn);
+            classification.setCreated(created);
+            batch.classifications.add(classification);
+        }
+    }
+
+    protected void votes(final SplittableRandom random, final Batch batch, final IApi api, final String version, final Instant created) {
+        final int count = votes.sample(random);
+
+        for (int i = 0; i < count; i++) {
+            final IVote vote = converter.createVote();
+            vote.setId(id(api.getId() + "/" + version + "/" + i));
+            vote.setApiId(api.getId());
+            vote.setApiVersion(version);
+            vote.setRating(rating.sample(random, RATINGS));
+            vote.setCreated(created.plus(Duration.ofHours(1 + random.nextInt(24 * 30))));
+            batch.votes.add(vote);
+        }
+    }
+
+    protected SplittableRandom random(final long stream) {
+        return new SplittableRandom(settings.getSeed() * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    protected static String id(final String value) {
+        return UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    public static class Batch {
+        protected final List<IApi> apis = new ArrayList<>();
+        protected final List<IApiVersion> versions = new ArrayList<>();
+        protected final List<IMetadata> metadata = new ArrayList<>();
+        protected final List<IApiClassification> classifications = new ArrayList<>();
+        protected final List<IVote> votes = new ArrayList<>();
+
+        public List<IApi> getApis() {
+            return apis;
+        }
+
+        public List<IApiVersion> getVersions() {
+            return versions;
+        }
+
+        public List<IMetadata> getMetadata() {
+            return metadata;
+        }
+
+        public List<IApiClassification> getClassifications() {
+            return classifications;
+        }
+
+        public List<IVote> getVotes() {
+            return votes;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.dataset;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IClassificationRepository;
+import io.apimap.api.repository.repository.IMetadataRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.service.response.ResourceVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Writes a generated dataset through the repository interfaces of the active backend,
+APIs and their dependents are written in batches with the bulk methods used by the archive import.
+ */
+@Service
+public class DatasetGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    public static final String TAXONOMY_URNS = "taxonomyUrns";
+    public static final String APIS = "apis";
+    public static final String VERSIONS = "versions";
+    public static final String METADATA = "metadata";
+    public static final String CLASSIFICATIONS = "classifications";
+    public static final String VOTES = "votes";
+
+    // Votes and URNs have no bulk methods
+    protected static final int WRITE_CONCURRENCY = 16;
+
+    final protected IRESTConverter entityMapper;
+    final protected IApiRepository apiRepository;
+    final protected IMetadataRepository metadataRepository;
+    final protected ITaxonomyRepository taxonomyRepository;
+    final protected IClassificationRepository classificationRepository;
+    final protected IVoteRepository voteRepository;
+    final protected ResourceVersions resourceVersions;
+
+    @SuppressFBWarnings
+    public DatasetGenerator(final IRESTConverter entityMapper,
+                            final IApiRepository apiRepository,
+                            final IMetadataRepository metadataRepository,
+                            final ITaxonomyRepository taxonomyRepository,
+                            final IClassificationRepository classificationRepository,
+                            final IVoteRepository voteRepository,
+                            final ResourceVersions resourceVersions) {
+        this.entityMapper = entityMapper;
+        this.apiRepository = apiRepository;
+        this.metadataRepository = metadataRepository;
+        this.taxonomyRepository = taxonomyRepository;
+        this.classificationRepository = classificationRepository;
+        this.voteRepository = voteRepository;
+        this.resourceVersions = resourceVersions;
+    }
+
+    /*
+    Number of entities written per type, fails if the taxonomy already exists
+     */
+    public Mono<Map<String, Long>> generate(final DatasetConfiguration settings) {
+        final Dataset dataset = new Dataset(entityMapper, settings);
+        final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+        return Mono.fromSupplier(System::currentTimeMillis)
+                .flatMap(startTime -> writeTaxonomy(dataset, counts)
+                        .thenMany(Flux.range(0, (settings.getApis() + settings.getBatchSize() - 1) / settings.getBatchSize()))
+                        .flatMap(batch -> Mono
+                                        .fromSupplier(() -> dataset.apis(
+                                                batch * settings.getBatchSize(),
+                                                Math.min(settings.getApis(), (batch + 1) * settings.getBatchSize())))
+                                        .subscribeOn(Schedulers.parallel())
+                                        .flatMap(apis -> writeApis(apis, counts)),
+                                Math.max(1, settings.getConcurrency()))
+                        .then(Mono.fromSupplier(() -> summary(counts, startTime))))
+                .doFinally(signal -> {
+                    resourceVersions.catalogModified();
+                    resourceVersions.taxonomyModified();
+                });
+    }
+
+    protected Mono<Void> writeTaxonomy(final Dataset dataset, final Map<String, Long> counts) {
+        final Mono<Long> urns = Flux.fromIterable(dataset.taxonomyUrns())
+                .flatMap(urn -> taxonomyRepository.addTaxonomyCollectionVersionURN(urn), WRITE_CONCURRENCY)
+                .count()
+                .doOnNext(count -> counts.merge(TAXONOMY_URNS, count, Long::sum));
+
+        return taxonomyRepository.addTaxonomyCollection(dataset.taxonomyCollection())
+                .then(taxonomyRepository.addTaxonomyCollectionVersion(dataset.taxonomyVersion()))
+                .then(urns)
+                .then();
+    }
+
+    protected Mono<Void> writeApis(final Dataset.Batch batch, final Map<String, Long> counts) {
+        return apiRepository.addAll(batch.getApis())
+                .doOnNext(count -> counts.merge(APIS, (Long) count, Long::sum))
+                .then(apiRepository.addAllApiVersions(batch.getVersions()))
+                .doOnNext(count -> counts.merge(VERSIONS, (Long) count, Long::sum))
+                .then(metadataRepository.addAll(batch.getMetadata()))
+                .doOnNext(count -> counts.merge(METADATA, (Long) count, Long::sum))
+                .then(classificationRepository.addAll(batch.getClassifications()))
+                .doOnNext(count -> counts.merge(CLASSIFICATIONS, (Long) count, Long::sum))
+                .then(Flux.fromIterable(batch.getVotes())
+                        .flatMap(vote -> voteRepository.add(vote), WRITE_CONCURRENCY)
+                        .count()
+                        .doOnNext(count -> counts.merge(VOTES, count, Long::sum)))
+                .then();
+    }
+
+    protected Map<String, Long> summary(final Map<String, Long> counts, final long startTime) {
+        final Map<String, Long> summary = new LinkedHashMap<>();
+        for (String key : new String[]{TAXONOMY_URNS, APIS, VERSIONS, METADATA, CLASSIFICATIONS, VOTES}) {
+            summary.put(key, counts.getOrDefault(key, 0L));
+        }
+
+        LOGGER.info("Generated dataset in {} ms {}", System.currentTimeMillis() - startTime, summary);
+        return summary;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.dataset;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.repository.repository.IApiRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+Generates the configured dataset before the application takes traffic, an existing catalog is left untouched
+ */
+@Component
+@ConditionalOnProperty(value = "dataset.generate-on-startup", havingValue = "true", matchIfMissing = false)
+public class DatasetRunner implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetRunner.class);
+
+    final protected DatasetGenerator datasetGenerator;
+    final protected DatasetConfiguration datasetConfiguration;
+    final protected IApiRepository apiRepository;
+
+    @SuppressFBWarnings
+    public DatasetRunner(final DatasetGenerator datasetGenerator,
+                         final DatasetConfiguration datasetConfiguration,
+                         final IApiRepository apiRepository) {
+        this.datasetGenerator = datasetGenerator;
+        this.datasetConfiguration = datasetConfiguration;
+        this.apiRepository = apiRepository;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final Long existing = (Long) apiRepository.numberOfApis().block();
+
+        if (existing != null && existing > 0) {
+            LOGGER.info("Skipping dataset generation, the catalog already contains {} APIs", existing);
+            return;
+        }
+
+        datasetGenerator.generate(datasetConfiguration).block();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+Ranks 0 to size - 1 where rank k is drawn with a probability proportional to 1 / (k + 1)^exponent,
+sampled by a binary search over the precomputed cumulative distribution
+ */
+public class ZipfDistribution {
+    protected final double[] cumulative;
+
+    public ZipfDistribution(final int size, final double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be at least one");
+        }
+
+        cumulative = new double[size];
+
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int sample(final SplittableRandom random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+
+    /*
+    Values ordered from most to least common, the distribution must be created with the same size
+     */
+    public <T> T sample(final SplittableRandom random, final T[] values) {
+        return values[sample(random)];
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
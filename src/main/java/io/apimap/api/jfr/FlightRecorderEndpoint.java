@@ -0,0 +1,154 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.jfr;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.MetricsConfiguration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Starts, stops and dumps a flight recording without restarting the node:
+
+  GET    /actuator/flightrecorder       state of the recording
+  POST   /actuator/flightrecorder       starts a new recording, optionally {"configuration": "profile", "maxAge": "PT10M"}
+  DELETE /actuator/flightrecorder       stops the recording, it can still be dumped
+  GET    /actuator/flightrecorder/dump  the recording so far as a .jfr file
+
+Only one recording is kept, starting a new one discards the previous. Access requires the
+node access token, see SecurityConfiguration.
+ */
+@Component
+@ConditionalOnProperty(value = "metrics.flight-recorder.enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    public static final String RECORDING_NAME = "apimap";
+    public static final String DUMP = "dump";
+
+    protected final MetricsConfiguration.FlightRecorder settings;
+
+    protected Recording recording;
+
+    @SuppressFBWarnings
+    public FlightRecorderEndpoint(final MetricsConfiguration metricsConfiguration) {
+        this.settings = metricsConfiguration.getFlightRecorder();
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        final Map<String, Object> status = new LinkedHashMap<>();
+
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String configuration, @Nullable Duration maxAge) throws IOException, ParseException {
+        final Recording next = new Recording(Configuration.getConfiguration(configuration == null ? settings.getConfiguration() : configuration));
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(maxAge == null ? settings.getMaxAge() : maxAge);
+
+        close();
+        recording = next;
+        recording.start();
+
+        LOGGER.info("Started flight recording using the {} configuration", configuration == null ? settings.getConfiguration() : configuration);
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            LOGGER.info("Stopped flight recording");
+        }
+
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!DUMP.equals(action) || recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        // Each dump replaces the previous one
+        final Path file = directory().resolve(RECORDING_NAME + ".jfr");
+        recording.dump(file);
+
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @Override
+    public synchronized void destroy() {
+        close();
+    }
+
+    protected void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    protected Path directory() {
+        if (settings.getDirectory() == null || settings.getDirectory().isEmpty()) {
+            return Paths.get(System.getProperty("java.io.tmpdir"));
+        }
+
+        return Paths.get(settings.getDirectory());
+    }
+}
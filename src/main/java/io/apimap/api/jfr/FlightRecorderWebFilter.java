@@ -0,0 +1,127 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.jfr;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Emits a RequestEvent for every request and a SerializationEvent for every response body
+while a flight recording with the events enabled is running, otherwise it only passes the request on
+ */
+@Component
+@ConditionalOnProperty(value = "metrics.flight-recorder.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        event.begin();
+        final RecordedResponse response = new RecordedResponse(exchange);
+
+        return chain
+                .filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        final Integer status = response.getRawStatusCode();
+
+                        event.method = exchange.getRequest().getMethodValue();
+                        event.route = route(exchange);
+                        event.status = status == null ? 0 : status;
+                        event.bytes = response.bytes.get();
+                        event.commit();
+                    }
+                });
+    }
+
+    protected static String route(final ServerWebExchange exchange) {
+        final Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : "UNKNOWN";
+    }
+
+    /*
+    Counts the bytes written and times the encoding of the body
+     */
+    protected static class RecordedResponse extends ServerHttpResponseDecorator {
+        protected final ServerWebExchange exchange;
+        protected final AtomicLong bytes = new AtomicLong();
+
+        protected RecordedResponse(final ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+            final SerializationEvent event = new SerializationEvent();
+            final AtomicLong written = new AtomicLong();
+            event.begin();
+
+            // Keep single buffer bodies a Mono, the response handles them differently
+            if (body instanceof Mono) {
+                return super.writeWith(((Mono<? extends DataBuffer>) body)
+                        .doOnNext(buffer -> count(written, buffer))
+                        .doFinally(signal -> commit(event, written.get())));
+            }
+
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> count(written, buffer))
+                    .doFinally(signal -> commit(event, written.get())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(chunk -> Flux.from(chunk).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+        }
+
+        protected void count(final AtomicLong written, final DataBuffer buffer) {
+            written.addAndGet(buffer.readableByteCount());
+            bytes.addAndGet(buffer.readableByteCount());
+        }
+
+        protected void commit(final SerializationEvent event, final long written) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = exchange.getRequest().getMethodValue();
+                event.route = route(exchange);
+                event.bytes = written;
+                event.commit();
+            }
+        }
+    }
+}
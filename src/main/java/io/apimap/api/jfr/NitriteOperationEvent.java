@@ -0,0 +1,48 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/*
+Committed on the Nitrite thread running the operation, so the stack trace points
+at the repository method that submitted it
+ */
+@Name("io.apimap.NitriteOperation")
+@Label("Nitrite Operation")
+@Category({"Apimap", "Repository"})
+@Description("A blocking Nitrite operation executed on one of the scheduler lanes")
+public class NitriteOperationEvent extends Event {
+    @Label("Lane")
+    public String lane;
+
+    @Label("Queued")
+    @Description("Time spent waiting for a thread of the lane")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queued;
+
+    @Label("Success")
+    public boolean success;
+}
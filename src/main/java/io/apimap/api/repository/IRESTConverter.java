@@ -19,6 +19,7 @@ under the License.
 
 package io.apimap.api.repository;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.apimap.api.repository.generic.ClassificationCollection;
 import io.apimap.api.repository.generic.StatisticsCollection;
 import io.apimap.api.repository.generic.StatisticsValue;
@@ -28,6 +29,7 @@ import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ApiContext;
 import io.apimap.api.service.context.TaxonomyContext;
+import io.apimap.api.utils.TaxonomyTreeBuilder;
 import io.apimap.api.utils.URIUtil;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
@@ -35,7 +37,9 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
+import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -80,6 +84,102 @@ public interface IRESTConverter {
         );
     }
 
+    /*
+     From archive, documents written by the ZIP export
+     */
+
+    default IApi decodeArchivedApi(JsonNode node) {
+        IApi api = createApi();
+        api.setId(archivedText(node, "id"));
+        api.setName(archivedText(node, "name"));
+        api.setCodeRepositoryUrl(archivedText(node, "codeRepositoryUrl"));
+        api.setToken(archivedText(node, "token"));
+        api.setCreated(archivedInstant(node, "created"));
+        return api;
+    }
+
+    default IApiVersion decodeArchivedApiVersion(JsonNode node) {
+        IApiVersion version = createApiVersion();
+        version.setId(archivedText(node, "id"));
+        version.setApiId(archivedText(node, "apiId"));
+        version.setVersion(archivedText(node, "version"));
+        version.setCreated(archivedInstant(node, "created"));
+        return version;
+    }
+
+    default IMetadata decodeArchivedMetadata(JsonNode node) {
+        IMetadata metadata = createMetadata();
+        metadata.setId(archivedText(node, "id"));
+        metadata.setApiId(archivedText(node, "apiId"));
+        metadata.setApiVersion(archivedText(node, "apiVersion"));
+        metadata.setName(archivedText(node, "name"));
+        metadata.setDescription(archivedText(node, "description"));
+        metadata.setVisibility(archivedText(node, "visibility"));
+        metadata.setInterfaceDescriptionLanguage(archivedText(node, "interfaceDescriptionLanguage"));
+        metadata.setArchitectureLayer(archivedText(node, "architectureLayer"));
+        metadata.setBusinessUnit(archivedText(node, "businessUnit"));
+        metadata.setMetadataVersion(archivedText(node, "metadataVersion"));
+        metadata.setReleaseStatus(archivedText(node, "releaseStatus"));
+        metadata.setInterfaceSpecification(archivedText(node, "interfaceSpecification"));
+        metadata.setSystemIdentifier(archivedText(node, "systemIdentifier"));
+        metadata.setCreated(archivedInstant(node, "created"));
+
+        if (node.hasNonNull("documentation")) {
+            List<String> documentation = new ArrayList<>();
+            node.get("documentation").forEach(element -> documentation.add(element.asText()));
+            metadata.setDocumentation(documentation);
+        }
+
+        return metadata;
+    }
+
+    default IApiClassification decodeArchivedClassification(JsonNode node) {
+        IApiClassification classification = createClassification();
+        classification.setId(archivedText(node, "id"));
+        classification.setApiId(archivedText(node, "apiId"));
+        classification.setApiVersion(archivedText(node, "apiVersion"));
+        classification.setTaxonomyVersion(archivedText(node, "taxonomyVersion"));
+        classification.setTaxonomyUrn(archivedText(node, "taxonomyUrn"));
+        classification.setTaxonomyNid(archivedText(node, "taxonomyNid"));
+        classification.setCreated(archivedInstant(node, "created"));
+        return classification;
+    }
+
+    private static String archivedText(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    // Instants are exported as decimal epoch seconds by the JavaTimeModule defaults
+    private static Instant archivedInstant(JsonNode node, String field) {
+        if (!node.hasNonNull(field)) {
+            return null;
+        }
+
+        JsonNode value = node.get(field);
+        if (value.isNumber()) {
+            BigDecimal seconds = value.decimalValue();
+            return Instant.ofEpochSecond(seconds.longValue(), seconds.remainder(BigDecimal.ONE).movePointRight(9).longValue());
+        }
+
+        return Instant.parse(value.asText());
+    }
+
+    IApi createApi();
+
+    IApiVersion createApiVersion();
+
+    IMetadata createMetadata();
+
+    IApiClassification createClassification();
+
+    ITaxonomyCollection createTaxonomyCollection();
+
+    ITaxonomyCollectionVersion createTaxonomyCollectionVersion();
+
+    ITaxonomyCollectionVersionURN createTaxonomyCollectionVersionURN();
+
+    IVote createVote();
+
     /*
      From REST
      */
@@ -148,6 +248,27 @@ public interface IRESTConverter {
 
     Mono<JsonApiRestResponseWrapper<TaxonomyTreeRootRestEntity>> encodeTaxonomyCollectionVersionURNs(URI uri, List<ITaxonomyCollectionVersionURN> urns);
 
+    default ArrayList<TaxonomyTreeDataRestEntity> encodeTaxonomyTree(URI uri, List<ITaxonomyCollectionVersionURN> urns) {
+        TaxonomyTreeBuilder taxonomyTreeBuilder = TaxonomyTreeBuilder.empty();
+
+        urns
+                .stream()
+                .filter(e -> e.getType() == null || !("REFERENCE").equalsIgnoreCase(e.getType()))
+                .map(e -> new TaxonomyTreeDataRestEntity(
+                        e.getUrn(),
+                        e.getTitle(),
+                        e.getUrl(),
+                        e.getDescription(),
+                        URIUtil.fromURI(uri).append(e.getUrn()).stringValue(),
+                        e.getVersion(),
+                        TaxonomyDataRestEntity.ReferenceType.CLASSIFICATION,
+                        null
+                ))
+                .forEach(taxonomyTreeBuilder::insert);
+
+        return taxonomyTreeBuilder.getTree();
+    }
+
     /* Vote */
     Mono<JsonApiRestResponseWrapper<VoteDataRestEntity>> encodeVote(URI uri, IVote vote);
     Mono<JsonApiRestResponseWrapper<VoteRootRestEntity>> encodeVotes(URI uri, List<IVote> votes);
@@ -0,0 +1,206 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.buffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.apimap.api.repository.interfaces.IVote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+Append-only file of the votes waiting to be stored, one JSON object per line. A vote is forced to disk
+before it is acknowledged. After each stored batch a flushed line records how many of the oldest votes
+no longer need to be replayed. The file is truncated whenever no vote is waiting, and rewritten with only
+the waiting votes when the caller compacts it.
+ */
+public class VoteJournal implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VoteJournal.class);
+
+    protected static final String FLUSHED = "flushed";
+
+    protected final Path path;
+    protected final Supplier<? extends IVote> votes;
+    protected final ObjectMapper mapper = new ObjectMapper();
+    protected FileChannel channel;
+    // Votes recorded as flushed but still in the file
+    protected long flushed = 0;
+
+    public VoteJournal(final Path path, final Supplier<? extends IVote> votes) throws IOException {
+        this.path = path;
+        this.votes = votes;
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        this.channel = open(path);
+
+        // End a line cut short by a crash, so the next vote starts on a line of its own
+        if (channel.size() > 0) {
+            final ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+    }
+
+    /*
+    Votes written but not flushed, oldest first
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends IVote> List<T> pending() throws IOException {
+        final List<T> pending = new ArrayList<>();
+        long count = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final Map<String, Object> record;
+                try {
+                    record = mapper.readValue(line, Map.class);
+                } catch (IOException e) {
+                    // A line cut short by a crash was never acknowledged
+                    LOGGER.warn("Skipping unreadable vote journal line");
+                    continue;
+                }
+
+                if (record.containsKey(FLUSHED)) {
+                    count += ((Number) record.get(FLUSHED)).longValue();
+                } else {
+                    pending.add((T) vote(record));
+                }
+            }
+        }
+
+        flushed = Math.min(count, pending.size());
+        return new ArrayList<>(pending.subList((int) flushed, pending.size()));
+    }
+
+    public synchronized void append(final IVote vote) throws IOException {
+        write(record(vote));
+    }
+
+    public synchronized void flushed(final int count) throws IOException {
+        write(Map.of(FLUSHED, count));
+        flushed += count;
+    }
+
+    /*
+    Number of flushed votes a compaction would drop from the file
+     */
+    public synchronized long flushed() {
+        return flushed;
+    }
+
+    public synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(false);
+        flushed = 0;
+    }
+
+    /*
+    Replaces the file with one holding only the given waiting votes. The new file is written next to
+    the journal and moved over it, a crash during compaction leaves either the old or the new file.
+     */
+    public synchronized void compact(final List<? extends IVote> waiting) throws IOException {
+        final Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (IVote vote : waiting) {
+                final ByteBuffer buffer = ByteBuffer.wrap(line(record(vote)));
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+            }
+            target.force(false);
+        }
+
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(path);
+        flushed = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    protected Map<String, Object> record(final IVote vote) {
+        final Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", vote.getId());
+        record.put("apiId", vote.getApiId());
+        record.put("apiVersion", vote.getApiVersion());
+        record.put("rating", vote.getRating());
+        record.put("created", vote.getCreated() == null ? null : vote.getCreated().toEpochMilli());
+        return record;
+    }
+
+    protected void write(final Map<String, Object> record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(line(record));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    protected byte[] line(final Map<String, Object> record) throws IOException {
+        final byte[] json = mapper.writeValueAsBytes(record);
+        final byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    /*
+    Votes are created by the storage converter, the journal holds no type information
+     */
+    protected IVote vote(final Map<String, Object> record) {
+        final IVote vote = votes.get();
+        vote.setId((String) record.get("id"));
+        vote.setApiId((String) record.get("apiId"));
+        vote.setApiVersion((String) record.get("apiVersion"));
+        vote.setRating(((Number) record.get("rating")).intValue());
+        vote.setCreated(record.get("created") == null ? null : Instant.ofEpochMilli(((Number) record.get("created")).longValue()));
+        return vote;
+    }
+
+    protected static FileChannel open(final Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,338 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.buffer;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.VoteConfiguration;
+import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.IVote;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.service.query.Page;
+import io.apimap.api.service.response.ResourceVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Write-behind in front of the vote repository. A vote is acknowledged once it is in the VoteJournal,
+and stored with the other waiting votes in one addAll call when a batch is full or the flush interval
+has passed. Votes left in the journal by a stop without shutdown are stored after the next start.
+The journal is rewritten with only the waiting votes once enough stored votes have piled up in it.
+
+Waiting votes are not counted in ratings until they are stored, the ETags of their APIs move again
+once they are. The number of waiting votes is bounded, a vote waits up to the enqueue timeout for
+room and is then rejected with 503, as are votes arriving after shutdown has begun.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(value = "votes.write-behind.enabled", havingValue = "true")
+public class WriteBehindVoteRepository<TIVote extends IVote> implements IVoteRepository<TIVote>, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindVoteRepository.class);
+
+    protected final IVoteRepository<TIVote> delegate;
+    protected final IApiRepository apiRepository;
+    protected final ResourceVersions resourceVersions;
+    protected final VoteConfiguration.WriteBehind settings;
+    protected final VoteJournal journal;
+    // Set holding the journal lock, no vote is journaled after it
+    protected boolean closed = false;
+
+    // Same order as the journal, both are written holding the journal lock
+    protected final Queue<TIVote> queue = new ConcurrentLinkedQueue<>();
+    protected final AtomicInteger waiting = new AtomicInteger();
+    protected final Semaphore room;
+    protected final ScheduledExecutorService flusher;
+
+    // Batch taken from the queue but not stored yet, only used holding the flush lock
+    protected final Object flushLock = new Object();
+    protected List<TIVote> batch = new ArrayList<>();
+
+    protected final DistributionSummary batchSizes;
+    protected final Timer flushed;
+    protected final Timer failed;
+    protected final Counter rejected;
+
+    @SuppressFBWarnings
+    public WriteBehindVoteRepository(final IVoteRepository delegate,
+                                     final IRESTConverter converter,
+                                     final IApiRepository apiRepository,
+                                     final ResourceVersions resourceVersions,
+                                     final VoteConfiguration voteConfiguration,
+                                     final MeterRegistry meterRegistry) throws IOException {
+        this.delegate = delegate;
+        this.apiRepository = apiRepository;
+        this.resourceVersions = resourceVersions;
+        this.settings = voteConfiguration.getWriteBehind();
+        if (settings.getJournal() == null || settings.getJournal().isBlank()) {
+            throw new IllegalStateException("votes.writeBehind.journal must be set to a file on persistent storage");
+        }
+
+        this.journal = new VoteJournal(Paths.get(settings.getJournal()), converter::createVote);
+
+        final List<TIVote> pending = journal.pending();
+        queue.addAll(pending);
+        waiting.set(pending.size());
+
+        // Votes replayed from the journal may leave less room than the capacity, or none at all
+        this.room = new Semaphore(settings.getCapacity() - pending.size());
+
+        if (!pending.isEmpty()) {
+            LOGGER.info("Replaying {} vote(s) from {}", pending.size(), settings.getJournal());
+        }
+
+        this.batchSizes = DistributionSummary.builder("apimap.votes.batch.size")
+                .description("Votes stored per write-behind batch")
+                .register(meterRegistry);
+
+        this.flushed = flushTimer("success", meterRegistry);
+        this.failed = flushTimer("failure", meterRegistry);
+
+        this.rejected = Counter.builder("apimap.votes.rejected")
+                .description("Votes rejected because the write-behind queue stayed full")
+                .register(meterRegistry);
+
+        Gauge.builder("apimap.votes.waiting", waiting, AtomicInteger::get)
+                .description("Votes acknowledged but not stored yet")
+                .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "apimap-vote-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final long interval = settings.getFlushInterval().toMillis();
+        this.flusher.scheduleWithFixedDelay(() -> flush(true), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Flux<TIVote> all(String apiId, String apiVersion) {
+        return delegate.all(apiId, apiVersion);
+    }
+
+    @Override
+    public Flux<TIVote> all(String apiId, String apiVersion, Page page) {
+        return delegate.all(apiId, apiVersion, page);
+    }
+
+    @Override
+    public Mono<TIVote> add(TIVote entity) {
+        // Waiting for room and forcing the journal to disk both block
+        return Mono.fromCallable(() -> enqueue(entity)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Long> addAll(List<TIVote> entities) {
+        return delegate.addAll(entities);
+    }
+
+    @Override
+    public Mono<Integer> rating(String apiId, String apiVersion) {
+        return delegate.rating(apiId, apiVersion);
+    }
+
+    @Override
+    public Mono<Map<String, Integer>> ratings(String apiId, List<String> apiVersions) {
+        return delegate.ratings(apiId, apiVersions);
+    }
+
+    @Override
+    public Mono<Boolean> delete(String apiId, String apiVersion) {
+        // Store waiting votes first, they would otherwise outlive the delete
+        return Mono.fromRunnable(() -> flush(true))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(delegate.delete(apiId, apiVersion));
+    }
+
+    @Override
+    public Mono<Long> rebuildSummaries() {
+        return Mono.fromRunnable(() -> flush(true))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(delegate.rebuildSummaries());
+    }
+
+    @Override
+    public Mono<Boolean> hasSummaries() {
+        return delegate.hasSummaries();
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        synchronized (journal) {
+            closed = true;
+        }
+
+        flusher.shutdown();
+        flusher.awaitTermination(settings.getFlushInterval().toMillis() + 10000, TimeUnit.MILLISECONDS);
+
+        flush(true);
+
+        if (waiting.get() > 0) {
+            LOGGER.warn("{} vote(s) could not be stored before shutdown, they are kept in {}", waiting.get(), settings.getJournal());
+        }
+
+        journal.close();
+    }
+
+    protected TIVote enqueue(final TIVote entity) throws InterruptedException {
+        entity.setCreated(Instant.now());
+
+        if (!room.tryAcquire(settings.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many votes waiting to be stored, try again later");
+        }
+
+        try {
+            synchronized (journal) {
+                if (closed) {
+                    room.release();
+                    rejected.increment();
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Votes are not accepted while shutting down");
+                }
+
+                journal.append(entity);
+                queue.add(entity);
+            }
+        } catch (IOException e) {
+            room.release();
+            throw new UncheckedIOException(e);
+        }
+
+        if (waiting.incrementAndGet() >= settings.getBatchSize()) {
+            try {
+                flusher.execute(() -> flush(false));
+            } catch (RejectedExecutionException e) {
+                // Shutdown began after the vote was journaled, the final flush stores it
+                LOGGER.debug("Vote flush not scheduled during shutdown");
+            }
+        }
+
+        return entity;
+    }
+
+    /*
+    Stores full batches, or everything waiting when all is set. Stops at the first failure, the
+    failed batch is retried first on the next flush so votes are stored in journal order.
+     */
+    protected void flush(final boolean all) {
+        synchronized (flushLock) {
+            while (true) {
+                while (batch.size() < settings.getBatchSize() && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+
+                if (batch.isEmpty() || (!all && batch.size() < settings.getBatchSize())) {
+                    return;
+                }
+
+                final Timer.Sample sample = Timer.start();
+                try {
+                    delegate.addAll(batch).block();
+                } catch (RuntimeException e) {
+                    sample.stop(failed);
+                    LOGGER.warn("Storing {} vote(s) failed, retrying with the next flush", batch.size(), e);
+                    return;
+                }
+
+                sample.stop(flushed);
+                batchSizes.record(batch.size());
+
+                final int stored = batch.size();
+                final List<String> apiIds = batch.stream().map(IVote::getApiId).distinct().collect(Collectors.toList());
+                batch = new ArrayList<>();
+
+                try {
+                    synchronized (journal) {
+                        journal.flushed(stored);
+                        if (queue.isEmpty()) {
+                            journal.truncate();
+                        } else if (journal.flushed() >= settings.getCompactAfter()) {
+                            // Every waiting vote is in the queue, the batch was just stored
+                            journal.compact(new ArrayList<>(queue));
+                        }
+                    }
+                } catch (IOException e) {
+                    // The votes are stored, a replay after a restart skips them as their ids are already stored
+                    LOGGER.warn("Recording flushed votes in the journal failed", e);
+                }
+
+                waiting.addAndGet(-stored);
+                room.release(stored);
+
+                apisModified(apiIds);
+            }
+        }
+    }
+
+    /*
+    Moves the ETags of the APIs with new votes, responses cached while the votes were waiting hold the old ratings
+     */
+    protected void apisModified(final List<String> apiIds) {
+        try {
+            apiRepository
+                    .allByApiIds(apiIds)
+                    .doOnNext(api -> resourceVersions.apiModified(((IApi) api).getName()))
+                    .blockLast();
+        } catch (RuntimeException e) {
+            // The votes are stored, only the ETags are left behind
+            LOGGER.warn("Looking up the APIs of {} stored vote(s) failed, moving all ETags", apiIds.size(), e);
+            resourceVersions.catalogModified();
+        }
+    }
+
+    protected static Timer flushTimer(final String outcome, final MeterRegistry meterRegistry) {
+        return Timer.builder("apimap.votes.flush")
+                .description("Time spent storing a write-behind batch")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
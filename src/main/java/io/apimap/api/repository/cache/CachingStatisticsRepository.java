@@ -0,0 +1,69 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.cache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import io.apimap.api.service.response.ResourceVersions;
+import io.apimap.api.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/*
+Read-through cache in front of the statistics repository. Entries are keyed by the catalog version
+from ResourceVersions, every write through the services moves it so the next read computes new
+statistics. Writes made by other instances are seen once the entry has lived for the time to live.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(value = "cache.statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingStatisticsRepository implements IStatisticsRepository {
+    protected static final String SEPARATOR = "#";
+
+    protected final IStatisticsRepository delegate;
+    protected final ResourceVersions resourceVersions;
+
+    // metadata#catalog version
+    protected final BoundedCache<String, Map<String, Map<String, Long>>> metadataCounts;
+
+    @SuppressFBWarnings
+    public CachingStatisticsRepository(final IStatisticsRepository delegate,
+                                       final ResourceVersions resourceVersions,
+                                       final CacheConfiguration cacheConfiguration,
+                                       final MeterRegistry meterRegistry) {
+        final CacheConfiguration.Settings settings = cacheConfiguration.getStatistics();
+
+        this.delegate = delegate;
+        this.resourceVersions = resourceVersions;
+        this.metadataCounts = new BoundedCache<>("statistics.metadata", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+    }
+
+    @Override
+    public Mono<Map<String, Map<String, Long>>> metadataCounts() {
+        final String key = "metadata" + SEPARATOR + resourceVersions.catalogVersion();
+        return metadataCounts.get(key, delegate::metadataCounts);
+    }
+}
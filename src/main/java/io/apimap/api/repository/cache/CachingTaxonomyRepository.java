@@ -0,0 +1,234 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.cache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.ITaxonomyCollection;
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersion;
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersionURN;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+Read-through cache in front of the taxonomy repository. Taxonomies are read for every
+classification lookup but rarely change, the write methods evict the entries they affect.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(value = "cache.taxonomy.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingTaxonomyRepository<TITaxonomyCollection extends ITaxonomyCollection,
+                                       TITaxonomyCollectionVersion extends ITaxonomyCollectionVersion,
+                                       TITaxonomyCollectionVersionURN extends ITaxonomyCollectionVersionURN>
+        implements ITaxonomyRepository<TITaxonomyCollection, TITaxonomyCollectionVersion, TITaxonomyCollectionVersionURN> {
+
+    protected static final String SEPARATOR = "#";
+    protected static final String LATEST = "latest";
+
+    protected final ITaxonomyRepository<TITaxonomyCollection, TITaxonomyCollectionVersion, TITaxonomyCollectionVersionURN> delegate;
+
+    // nid
+    protected final BoundedCache<String, TITaxonomyCollection> collections;
+    // nid#version, including "latest"
+    protected final BoundedCache<String, TITaxonomyCollectionVersion> versions;
+    // nid
+    protected final BoundedCache<String, List<TITaxonomyCollectionVersion>> versionLists;
+    // urn#version#type
+    protected final BoundedCache<String, TITaxonomyCollectionVersionURN> urns;
+    // nid#version, including "latest"
+    protected final BoundedCache<String, List<TITaxonomyCollectionVersionURN>> urnLists;
+
+    @SuppressFBWarnings
+    public CachingTaxonomyRepository(final ITaxonomyRepository delegate,
+                                     final CacheConfiguration cacheConfiguration,
+                                     final MeterRegistry meterRegistry) {
+        final CacheConfiguration.Settings settings = cacheConfiguration.getTaxonomy();
+
+        this.delegate = delegate;
+        this.collections = new BoundedCache<>("taxonomy.collections", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        this.versions = new BoundedCache<>("taxonomy.versions", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        this.versionLists = new BoundedCache<>("taxonomy.version.lists", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        this.urns = new BoundedCache<>("taxonomy.urns", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        this.urnLists = new BoundedCache<>("taxonomy.urn.lists", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+    }
+
+    @Override
+    public Mono<Long> numberOfTaxonomies() {
+        return delegate.numberOfTaxonomies();
+    }
+
+    /* TC */
+
+    @Override
+    public Flux<TITaxonomyCollection> allTaxonomyCollection() {
+        return delegate.allTaxonomyCollection();
+    }
+
+    @Override
+    public Mono<TITaxonomyCollection> addTaxonomyCollection(TITaxonomyCollection entity) {
+        return delegate
+                .addTaxonomyCollection(entity)
+                .doFinally(signal -> collections.invalidate(entity.getNid()));
+    }
+
+    @Override
+    public Mono<TITaxonomyCollection> getTaxonomyCollection(String nid) {
+        return collections.get(nid, () -> delegate.getTaxonomyCollection(nid));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollection(String nid) {
+        return delegate
+                .deleteTaxonomyCollection(nid)
+                .doFinally(signal -> collections.invalidate(nid));
+    }
+
+    /* TCV */
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollectionVersions(String nid) {
+        return delegate
+                .deleteTaxonomyCollectionVersions(nid)
+                .doFinally(signal -> invalidateVersions(nid));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollectionVersion(String nid, String version) {
+        return delegate
+                .deleteTaxonomyCollectionVersion(nid, version)
+                .doFinally(signal -> invalidateVersions(nid));
+    }
+
+    @Override
+    public Flux<TITaxonomyCollectionVersion> allTaxonomyCollectionVersions(String nid) {
+        return versionLists
+                .get(nid, () -> delegate.allTaxonomyCollectionVersions(nid).collectList())
+                .flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Mono<TITaxonomyCollectionVersion> addTaxonomyCollectionVersion(TITaxonomyCollectionVersion entity) {
+        return delegate
+                .addTaxonomyCollectionVersion(entity)
+                .doFinally(signal -> invalidateVersions(entity.getNid()));
+    }
+
+    @Override
+    public Mono<TITaxonomyCollectionVersion> getTaxonomyCollectionVersion(String nid, String version) {
+        return versions.get(nid + SEPARATOR + version, () -> delegate.getTaxonomyCollectionVersion(nid, version));
+    }
+
+    /* TCVU */
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollectionVersionURNs(String nid) {
+        return delegate
+                .deleteTaxonomyCollectionVersionURNs(nid)
+                .doFinally(signal -> invalidateURNs(nid));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollectionVersionURN(String urn, String taxonomyVersion) {
+        return delegate
+                .deleteTaxonomyCollectionVersionURN(urn, taxonomyVersion)
+                .doFinally(signal -> invalidateURN(urn, taxonomyVersion, null));
+    }
+
+    @Override
+    public Mono<Boolean> deleteTaxonomyCollectionVersionURNs(String nid, String version) {
+        return delegate
+                .deleteTaxonomyCollectionVersionURNs(nid, version)
+                .doFinally(signal -> invalidateURNs(nid));
+    }
+
+    @Override
+    public Flux<TITaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURN(String taxonomyCollectionVersion) {
+        return delegate.allTaxonomyCollectionVersionURN(taxonomyCollectionVersion);
+    }
+
+    @Override
+    public Flux<TITaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURNCollection(String nid, String version) {
+        return urnLists
+                .get(nid + SEPARATOR + version, () -> delegate.allTaxonomyCollectionVersionURNCollection(nid, version).collectList())
+                .flatMapIterable(list -> list);
+    }
+
+    @Override
+    public Flux<TITaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURNsBellowUrl(String url) {
+        return delegate.allTaxonomyCollectionVersionURNsBellowUrl(url);
+    }
+
+    @Override
+    public Mono<TITaxonomyCollectionVersionURN> getTaxonomyCollectionVersionURN(String urn, String taxonomyVersion, TaxonomyDataRestEntity.ReferenceType type) {
+        return urns.get(
+                urn + SEPARATOR + taxonomyVersion + SEPARATOR + type.getValue(),
+                () -> delegate.getTaxonomyCollectionVersionURN(urn, taxonomyVersion, type));
+    }
+
+    @Override
+    public Mono<TITaxonomyCollectionVersionURN> addTaxonomyCollectionVersionURN(TITaxonomyCollectionVersionURN entity) {
+        return delegate
+                .addTaxonomyCollectionVersionURN(entity)
+                .doFinally(signal -> invalidateURN(entity.getUrn(), entity.getVersion(), entity.getNid()));
+    }
+
+    @Override
+    public Mono<TITaxonomyCollectionVersionURN> update(TITaxonomyCollectionVersionURN entity, String urn, String taxonomyVersion) {
+        return delegate
+                .update(entity, urn, taxonomyVersion)
+                .doFinally(signal -> invalidateURN(urn, taxonomyVersion, entity.getNid()));
+    }
+
+    /* Invalidation */
+
+    protected void invalidateVersions(final String nid) {
+        versions.invalidateIf(key -> key.startsWith(nid + SEPARATOR));
+        versionLists.invalidate(nid);
+
+        // "latest" may now resolve to another version, URN keys do not carry the nid so all "latest" lookups go
+        urnLists.invalidateIf(key -> key.startsWith(nid + SEPARATOR));
+        urns.invalidateIf(key -> key.contains(SEPARATOR + LATEST + SEPARATOR));
+    }
+
+    protected void invalidateURNs(final String nid) {
+        urns.invalidateAll();
+        urnLists.invalidateIf(key -> key.startsWith(nid + SEPARATOR));
+    }
+
+    protected void invalidateURN(final String urn, final String taxonomyVersion, final String nid) {
+        urns.invalidateIf(key -> key.startsWith(urn + SEPARATOR + taxonomyVersion + SEPARATOR)
+                || key.startsWith(urn + SEPARATOR + LATEST + SEPARATOR));
+
+        if (nid == null) {
+            urnLists.invalidateAll();
+        } else {
+            urnLists.invalidateIf(key -> key.startsWith(nid + SEPARATOR));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package io.apimap.api.repository.interfaces;
 
+import io.apimap.api.utils.CompressionUtil;
+
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 public interface IDocument {
@@ -12,6 +15,32 @@ public interface IDocument {
         return apiId + "#" + apiVersion + "#" + type;
     }
 
+    /*
+    Stores the body gzip compressed when that makes it smaller, the encoding marks which format is stored.
+    Documents written before bodies were compressed have no encoding and keep their text in body.
+     */
+    static void encodeBody(IDocument document, byte[] body) {
+        final byte[] compressed = CompressionUtil.gzip(body);
+
+        if (compressed.length < body.length) {
+            document.setBody(null);
+            document.setContent(compressed);
+            document.setEncoding(CompressionUtil.GZIP);
+        } else {
+            document.setBody(new String(body, StandardCharsets.UTF_8));
+            document.setContent(null);
+            document.setEncoding(null);
+        }
+    }
+
+    static String decodeBody(IDocument document) {
+        if (CompressionUtil.GZIP.equals(document.getEncoding()) && document.getContent() != null) {
+            return new String(CompressionUtil.gunzip(document.getContent()), StandardCharsets.UTF_8);
+        }
+
+        return document.getBody();
+    }
+
     public String getId();
 
     public void setId(String id);
@@ -28,6 +57,24 @@ public interface IDocument {
 
     public void setBody(String body);
 
+    /*
+    Body in the format named by the encoding, null for documents stored as text
+     */
+    public byte[] getContent();
+
+    public void setContent(byte[] content);
+
+    public String getEncoding();
+
+    public void setEncoding(String encoding);
+
+    /*
+    HTML rendered from the body when it was written, null for documents written before it was stored
+     */
+    public String getHtml();
+
+    public void setHtml(String html);
+
     public Instant getCreated();
 
     public void setCreated(Instant created);
@@ -0,0 +1,39 @@
+package io.apimap.api.repository.interfaces;
+
+import java.util.Map;
+
+/*
+Running totals of the votes of one API version, updated with every vote so ratings never read the votes
+ */
+public interface IVoteSummary {
+    int NO_RATING = -1;
+
+    static String createId(String apiId, String apiVersion) {
+        return apiId + "#" + apiVersion;
+    }
+
+    /*
+    Average rating truncated to an integer, NO_RATING without votes
+     */
+    static Integer rating(IVoteSummary summary) {
+        if (summary == null || summary.getCount() == null || summary.getCount() == 0) {
+            return NO_RATING;
+        }
+
+        return (int) (summary.getSum() / summary.getCount());
+    }
+
+    public String getApiId();
+    public void setApiId(String apiId);
+    public String getApiVersion();
+    public void setApiVersion(String apiVersion);
+    public Long getCount();
+    public void setCount(Long count);
+    public Long getSum();
+    public void setSum(Long sum);
+    // Number of votes per rating, keyed "1" to "5"
+    public Map<String, Long> getHistogram();
+    public void setHistogram(Map<String, Long> histogram);
+    public String getId();
+    public void setId(String id);
+}
@@ -0,0 +1,127 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.metrics;
+
+import io.apimap.api.configuration.MetricsConfiguration;
+import io.apimap.api.repository.SearchRepository;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IClassificationRepository;
+import io.apimap.api.repository.repository.IMetadataRepository;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.tracing.Tracer;
+import io.apimap.api.tracing.TracingRepositoryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/*
+Wraps the storage repositories of the active backend, and the search on top of them, in a proxy
+recording RepositoryMetricsInterceptor metrics and, with tracing enabled, a span per call. Decorators such as the taxonomy cache are left alone,
+they are given the instrumented repository so only calls that reach the storage are timed.
+
+The registry and tracer are looked up when the first repository is created, not when this post processor is.
+ */
+@Component
+public class InstrumentedRepositoryPostProcessor implements BeanPostProcessor {
+    protected static final String[] STORAGE_PACKAGES = {
+            "io.apimap.api.repository.nitrite.",
+            "io.apimap.api.repository.mongodb."
+    };
+
+    protected final ObjectProvider<MeterRegistry> meterRegistry;
+    protected final ObjectProvider<MetricsConfiguration> metricsConfiguration;
+    protected final ObjectProvider<Tracer> tracer;
+    protected final Environment environment;
+
+    public InstrumentedRepositoryPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry,
+                                               final ObjectProvider<MetricsConfiguration> metricsConfiguration,
+                                               final ObjectProvider<Tracer> tracer,
+                                               final Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.metricsConfiguration = metricsConfiguration;
+        this.tracer = tracer;
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof SearchRepository) {
+            return instrument(bean, "search", false);
+        }
+
+        if (!isStorage(bean)) {
+            return bean;
+        }
+
+        if (bean instanceof IApiRepository) return instrument(bean, "api", true);
+        if (bean instanceof IMetadataRepository) return instrument(bean, "metadata", true);
+        if (bean instanceof ITaxonomyRepository) return instrument(bean, "taxonomy", true);
+        if (bean instanceof IClassificationRepository) return instrument(bean, "classification", true);
+        if (bean instanceof IVoteRepository) return instrument(bean, "vote", true);
+        if (bean instanceof IStatisticsRepository) return instrument(bean, "statistics", true);
+
+        return bean;
+    }
+
+    protected Object instrument(final Object bean, final String repository, final boolean storage) {
+        final MetricsConfiguration.Settings settings = metricsConfiguration.getObject().getRepository();
+        final MeterRegistry registry = meterRegistry.getIfAvailable();
+        final Tracer repositoryTracer = tracer.getIfAvailable();
+
+        final boolean metrics = settings.isEnabled() && registry != null;
+        final boolean tracing = repositoryTracer != null && repositoryTracer.isEnabled();
+
+        if (!metrics && !tracing) {
+            return bean;
+        }
+
+        // The search is injected by class, the storage repositories by interface
+        final ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(!storage);
+
+        // Tracing first, so the span is in the context the metrics see
+        if (tracing) {
+            factory.addAdvice(new TracingRepositoryInterceptor(repositoryTracer, backend(), repository));
+        }
+
+        if (metrics) {
+            factory.addAdvice(new RepositoryMetricsInterceptor(backend(), repository, storage, settings, registry));
+        }
+
+        return factory.getProxy();
+    }
+
+    protected String backend() {
+        return environment.getProperty("mongodb.enabled", Boolean.class, false) ? "mongodb" : "nitrite";
+    }
+
+    protected static boolean isStorage(final Object bean) {
+        final String name = bean.getClass().getName();
+        for (String prefix : STORAGE_PACKAGES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
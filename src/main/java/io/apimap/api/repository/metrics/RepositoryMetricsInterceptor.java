@@ -0,0 +1,247 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.metrics;
+
+import io.apimap.api.configuration.MetricsConfiguration;
+import io.apimap.api.jfr.RepositoryCallEvent;
+import io.apimap.api.service.timing.RequestTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Times every call to a repository from subscription to completion, error or cancellation
+and counts the elements it emitted. Storage repositories also count towards the storage
+calls of the request, see StorageCallsWebFilter, and to the storage phase of its RequestTiming.
+Each call is also a RepositoryCallEvent in a running flight recording.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+    public static final String CALLS = "apimap.repository.calls";
+    public static final String ERRORS = "apimap.repository.errors";
+    public static final String ELEMENTS = "apimap.repository.elements";
+
+    // AtomicInteger in the Reactor Context of a request
+    public static final String STORAGE_CALLS_KEY = "apimap.storage.calls";
+
+    protected final String backend;
+    protected final String repository;
+    protected final boolean storage;
+    protected final MetricsConfiguration.Settings settings;
+    protected final MeterRegistry meterRegistry;
+
+    protected final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(final String backend,
+                                        final String repository,
+                                        final boolean storage,
+                                        final MetricsConfiguration.Settings settings,
+                                        final MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.repository = repository;
+        this.storage = storage;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(final T target, final RepositoryMetricsInterceptor interceptor, final boolean proxyTargetClass) {
+        final ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvice(interceptor);
+        return (T) factory.getProxy();
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        final Meters meters = this.meters.computeIfAbsent(invocation.getMethod(), method -> new Meters(method.getName()));
+        final RepositoryCallEvent event = new RepositoryCallEvent();
+        final long start = System.nanoTime();
+        event.begin();
+
+        final Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            meters.record(SignalType.ON_ERROR, System.nanoTime() - start, 0);
+            meters.commit(event, SignalType.ON_ERROR, 0);
+            throw e;
+        }
+
+        if (result instanceof Mono) {
+            return Mono.deferContextual(context -> {
+                countStorageCall(context);
+                return instrument((Mono<?>) result, meters, context);
+            });
+        }
+
+        if (result instanceof Flux) {
+            return Flux.deferContextual(context -> {
+                countStorageCall(context);
+                return instrument((Flux<?>) result, meters, context);
+            });
+        }
+
+        meters.record(SignalType.ON_COMPLETE, System.nanoTime() - start, result == null ? 0 : 1);
+        meters.commit(event, SignalType.ON_COMPLETE, result == null ? 0 : 1);
+        return result;
+    }
+
+    protected Mono<?> instrument(final Mono<?> mono, final Meters meters, final ContextView context) {
+        final RepositoryCallEvent event = new RepositoryCallEvent();
+        final long start = System.nanoTime();
+        final AtomicLong elements = new AtomicLong();
+        event.begin();
+
+        // Operators like next() cancel a Mono once it has emitted, that is still a successful call
+        return mono
+                .doOnNext(element -> elements.incrementAndGet())
+                .doFinally(signal -> {
+                    final long nanos = System.nanoTime() - start;
+                    final SignalType outcome = signal == SignalType.CANCEL && elements.get() > 0 ? SignalType.ON_COMPLETE : signal;
+                    meters.record(outcome, nanos, elements.get());
+                    meters.commit(event, outcome, elements.get());
+                    addStorageTime(context, nanos);
+                });
+    }
+
+    protected Flux<?> instrument(final Flux<?> flux, final Meters meters, final ContextView context) {
+        final RepositoryCallEvent event = new RepositoryCallEvent();
+        final long start = System.nanoTime();
+        final AtomicLong elements = new AtomicLong();
+        event.begin();
+
+        return flux
+                .doOnNext(element -> elements.incrementAndGet())
+                .doFinally(signal -> {
+                    final long nanos = System.nanoTime() - start;
+                    meters.record(signal, nanos, elements.get());
+                    meters.commit(event, signal, elements.get());
+                    addStorageTime(context, nanos);
+                });
+    }
+
+    protected void countStorageCall(final ContextView context) {
+        if (storage) {
+            context.<AtomicInteger>getOrEmpty(STORAGE_CALLS_KEY).ifPresent(AtomicInteger::incrementAndGet);
+        }
+    }
+
+    protected void addStorageTime(final ContextView context, final long nanos) {
+        if (storage) {
+            RequestTiming.from(context).ifPresent(timing -> timing.add(RequestTiming.Phase.STORAGE, nanos));
+        }
+    }
+
+    protected static String outcome(final SignalType signal) {
+        switch (signal) {
+            case ON_ERROR:
+                return "error";
+            case CANCEL:
+                return "cancelled";
+            default:
+                return "success";
+        }
+    }
+
+    protected class Meters {
+        protected final String method;
+        protected final Timer success;
+        protected final Timer error;
+        protected final Timer cancelled;
+        protected final Counter errors;
+        protected final DistributionSummary elements;
+
+        protected Meters(final String method) {
+            final Tags tags = Tags.of("backend", backend, "repository", repository, "method", method);
+
+            this.method = method;
+
+            this.success = timer(tags.and("outcome", outcome(SignalType.ON_COMPLETE)));
+            this.error = timer(tags.and("outcome", outcome(SignalType.ON_ERROR)));
+            this.cancelled = timer(tags.and("outcome", outcome(SignalType.CANCEL)));
+            this.errors = Counter.builder(ERRORS)
+                    .description("Failed repository calls")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.elements = DistributionSummary.builder(ELEMENTS)
+                    .description("Elements emitted per repository call")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        protected Timer timer(final Tags tags) {
+            return Timer.builder(CALLS)
+                    .description("Repository calls from subscription to termination")
+                    .tags(tags)
+                    .publishPercentileHistogram(settings.isPercentileHistogram())
+                    .serviceLevelObjectives(settings.getBuckets().toArray(new Duration[0]))
+                    .register(meterRegistry);
+        }
+
+        protected void record(final SignalType signal, final long nanos, final long count) {
+            switch (signal) {
+                case ON_ERROR:
+                    error.record(nanos, TimeUnit.NANOSECONDS);
+                    errors.increment();
+                    break;
+                case CANCEL:
+                    cancelled.record(nanos, TimeUnit.NANOSECONDS);
+                    break;
+                default:
+                    success.record(nanos, TimeUnit.NANOSECONDS);
+            }
+
+            elements.record(count);
+        }
+
+        protected void commit(final RepositoryCallEvent event, final SignalType signal, final long count) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.backend = backend;
+                event.repository = repository;
+                event.method = method;
+                event.outcome = outcome(signal);
+                event.rows = count;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Counts the storage repository calls made while handling a request, the counter is kept
+in the Reactor Context and in the exchange attributes under STORAGE_CALLS_KEY
+ */
+@Component
+@ConditionalOnProperty(value = "metrics.repository.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageCallsWebFilter implements WebFilter {
+    public static final String STORAGE_CALLS = "apimap.request.storage.calls";
+
+    protected final MeterRegistry meterRegistry;
+
+    public StorageCallsWebFilter(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final AtomicInteger calls = new AtomicInteger();
+        exchange.getAttributes().put(RepositoryMetricsInterceptor.STORAGE_CALLS_KEY, calls);
+
+        return chain
+                .filter(exchange)
+                .contextWrite(context -> context.put(RepositoryMetricsInterceptor.STORAGE_CALLS_KEY, calls))
+                .doFinally(signal -> DistributionSummary.builder(STORAGE_CALLS)
+                        .description("Storage repository calls per request")
+                        .tag("method", exchange.getRequest().getMethodValue())
+                        .tag("uri", route(exchange))
+                        .register(meterRegistry)
+                        .record(calls.get()));
+    }
+
+    protected static String route(final ServerWebExchange exchange) {
+        final Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : "UNKNOWN";
+    }
+}
@@ -24,13 +24,19 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.repository.mongodb.documents.Api;
 import io.apimap.api.repository.mongodb.documents.ApiVersion;
 import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IMetadataRepository;
 import io.apimap.api.service.query.Filter;
+import io.apimap.api.service.query.Page;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -41,10 +47,13 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.or;
@@ -54,11 +63,11 @@ import static java.util.stream.Collectors.toCollection;
 @ConditionalOnBean(io.apimap.api.configuration.MongoConfiguration.class)
 public class MongoDBApiRepository extends MongoDBRepository implements IApiRepository<Api, ApiVersion, Bson> {
 
-    final protected MongoDBMetadataRepository metadataRepository;
+    final protected IMetadataRepository metadataRepository;
 
     @SuppressFBWarnings
     public MongoDBApiRepository(final ReactiveMongoTemplate template,
-                                final MongoDBMetadataRepository metadataRepository) {
+                                final IMetadataRepository metadataRepository) {
         super(template);
         this.metadataRepository = metadataRepository;
     }
@@ -88,13 +97,40 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
                         })
                         .switchIfEmpty(collection.find(Document.class))
                 )
-                .flatMap(e -> Mono.just(new Api(
-                        e.get("name", String.class),
-                        e.get("codeRepositoryUrl", String.class),
-                        null,
-                        e.get("created", Object.class),
-                        e.get("_id", String.class)
-                )));
+                .flatMap(e -> Mono.just(apiFromDocument(e)));
+    }
+
+    @Override
+    public Flux<Api> allByFilters(Mono<List<Bson>> filters, Page page) {
+        return template
+                .getCollection("api")
+                .flatMapMany(collection -> filters
+                        .defaultIfEmpty(new ArrayList<>())
+                        .flatMapMany(filterList -> {
+                            final List<Bson> conditions = new ArrayList<>(filterList);
+                            final Bson range = page.mongoObjectFilter("_id");
+
+                            if (range != null) {
+                                conditions.add(range);
+                            }
+
+                            return collection
+                                    .find(conditions.isEmpty() ? new Document() : and(conditions), Document.class)
+                                    .sort(page.mongoSort("_id"))
+                                    .limit(page.getLimit());
+                        })
+                )
+                .map(this::apiFromDocument);
+    }
+
+    protected Api apiFromDocument(final Document document) {
+        return new Api(
+                document.get("name", String.class),
+                document.get("codeRepositoryUrl", String.class),
+                null,
+                document.get("created", Object.class),
+                document.get("_id", String.class)
+        );
     }
 
     @Override
@@ -117,6 +153,18 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
                 .switchIfEmpty(Mono.defer(() -> template.insert(entity)));
     }
 
+    @Override
+    public Mono<Long> addAll(final List<Api> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return template
+                .insert(entities, Api.class)
+                .count()
+                .onErrorMap(DuplicateKeyException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, "One or more APIs already exist"));
+    }
+
     @Override
     public Mono<Api> update(final Api entity, final String apiName) {
         final Query query = new Query().addCriteria(Criteria.where("name").is(apiName));
@@ -170,6 +218,20 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
         return template.estimatedCount(Api.class);
     }
 
+    @Override
+    public Mono<NavigableMap<LocalDate, Long>> numberOfApisCreated(final Instant start, final Instant end) {
+        final TypedAggregation<Api> aggregation = Aggregation.newAggregation(Api.class,
+                Aggregation.match(Criteria.where("created").gte(start).lt(end)),
+                Aggregation.project().and(DateOperators.DateToString.dateOf("created").toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("day").count().as("count")
+        );
+
+        return template
+                .aggregate(aggregation, Api.class, Document.class)
+                .collect(TreeMap::new, (NavigableMap<LocalDate, Long> days, Document day) ->
+                        days.put(LocalDate.parse(day.getString("_id")), ((Number) day.get("count")).longValue()));
+    }
+
     /* AV */
 
     @Override
@@ -178,6 +240,24 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
         return template.findOne(query, ApiVersion.class);
     }
 
+    @Override
+    public Flux<ApiVersion> getLatestApiVersions(final List<String> apiIds) {
+        if (apiIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        final String FIELD_NAME = "latest";
+
+        final TypedAggregation<ApiVersion> aggregation = Aggregation.newAggregation(ApiVersion.class,
+                Aggregation.match(Criteria.where("apiId").in(apiIds)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "created")),
+                Aggregation.group("apiId").first(Aggregation.ROOT).as(FIELD_NAME),
+                Aggregation.replaceRoot(FIELD_NAME)
+        );
+
+        return template.aggregate(aggregation, ApiVersion.class);
+    }
+
     @Override
     public Mono<Boolean> deleteApiVersion(final String apiId, final String apiVersion) {
         final Query query = new Query().addCriteria(Criteria.where("apiId").is(apiId));
@@ -199,12 +279,23 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
         return template.findOne(query, ApiVersion.class);
     }
 
+    @Override
+    public Flux<ApiVersion> allApiVersions() {
+        return template.findAll(ApiVersion.class);
+    }
+
     @Override
     public Flux<ApiVersion> allApiVersions(final String apiId) {
         final Query query = new Query().addCriteria(Criteria.where("apiId").is(apiId));
         return template.find(query, ApiVersion.class);
     }
 
+    @Override
+    public Flux<ApiVersion> allApiVersions(final String apiId, final Page page) {
+        final Query query = page.mongoQuery(new Query().addCriteria(Criteria.where("apiId").is(apiId)), "id");
+        return template.find(query, ApiVersion.class);
+    }
+
     @Override
     public Mono<ApiVersion> addApiVersion(final ApiVersion entity) {
         entity.setCreated(Instant.now());
@@ -216,6 +307,18 @@ public class MongoDBApiRepository extends MongoDBRepository implements IApiRepos
                 .switchIfEmpty(Mono.defer(() -> template.insert(entity)));
     }
 
+    @Override
+    public Mono<Long> addAllApiVersions(final List<ApiVersion> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return template
+                .insert(entities, ApiVersion.class)
+                .count()
+                .onErrorMap(DuplicateKeyException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, "One or more API Versions already exist"));
+    }
+
     /* OB */
 
     @Override
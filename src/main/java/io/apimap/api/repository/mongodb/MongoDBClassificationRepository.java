@@ -23,13 +23,17 @@ import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.Sorts;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.repository.mongodb.documents.ApiClassification;
+import io.apimap.api.repository.mongodb.documents.TaxonomyCollection;
+import io.apimap.api.repository.mongodb.documents.TaxonomyCollectionVersion;
 import io.apimap.api.repository.mongodb.documents.TaxonomyCollectionVersionURN;
 import io.apimap.api.repository.repository.IClassificationRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
 import io.apimap.api.service.query.Filter;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -53,11 +57,11 @@ import static org.springframework.data.mongodb.core.aggregation.Aggregation.grou
 @ConditionalOnBean(io.apimap.api.configuration.MongoConfiguration.class)
 public class MongoDBClassificationRepository extends MongoDBRepository implements IClassificationRepository<ApiClassification, Bson> {
 
-    final protected MongoDBTaxonomyRepository taxonomyRepository;
+    final protected ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> taxonomyRepository;
 
     @SuppressFBWarnings
     public MongoDBClassificationRepository(final ReactiveMongoTemplate template,
-                                           final MongoDBTaxonomyRepository taxonomyRepository) {
+                                           final ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> taxonomyRepository) {
         super(template);
         this.taxonomyRepository = taxonomyRepository;
     }
@@ -150,6 +154,18 @@ public class MongoDBClassificationRepository extends MongoDBRepository implement
                 .switchIfEmpty(Mono.defer(() -> template.insert(entity)));
     }
 
+    @Override
+    public Mono<Long> addAll(final List<ApiClassification> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return template
+                .insert(entities, ApiClassification.class)
+                .count()
+                .onErrorMap(DuplicateKeyException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, "One or more classifications already exist"));
+    }
+
     @Override
     public Mono<ApiClassification> get(final String apiId, final String apiVersion, final String taxonomyUrn) {
         final Query query = new Query().addCriteria(Criteria.where("apiId").is(apiId));
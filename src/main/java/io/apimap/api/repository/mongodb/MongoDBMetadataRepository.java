@@ -22,6 +22,7 @@ package io.apimap.api.repository.mongodb;
 import com.mongodb.client.model.Sorts;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.repository.interfaces.IDocument;
+import io.apimap.api.repository.interfaces.IMetadata;
 import io.apimap.api.repository.mongodb.documents.Document;
 import io.apimap.api.repository.mongodb.documents.Metadata;
 import io.apimap.api.repository.repository.IMetadataRepository;
@@ -29,6 +30,7 @@ import io.apimap.api.service.query.Filter;
 import io.apimap.api.service.query.QueryFilter;
 import org.bson.conversions.Bson;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -39,12 +41,14 @@ import org.springframework.stereotype.Repository;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.or;
@@ -112,6 +116,18 @@ public class MongoDBMetadataRepository extends MongoDBRepository implements IMet
                 .switchIfEmpty(Mono.defer(() -> template.insert(entity)));
     }
 
+    @Override
+    public Mono<Long> addAll(final List<Metadata> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return template
+                .insert(entities, Metadata.class)
+                .count()
+                .onErrorMap(DuplicateKeyException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, "Metadata for one or more API Versions already exist"));
+    }
+
     @Override
     public Mono<Metadata> update(final Metadata entity) {
         return get(entity.getApiId(), entity.getApiVersion())
@@ -146,6 +162,21 @@ public class MongoDBMetadataRepository extends MongoDBRepository implements IMet
         return template.findOne(query, Metadata.class);
     }
 
+    @Override
+    public Flux<Metadata> getAll(final List<Tuple2<String, String>> apiVersions) {
+        if (apiVersions.isEmpty()) {
+            return Flux.empty();
+        }
+
+        final List<String> ids = apiVersions
+                .stream()
+                .map(apiVersion -> IMetadata.createId(apiVersion.getT1(), apiVersion.getT2()))
+                .collect(Collectors.toList());
+
+        final Query query = new Query().addCriteria(Criteria.where("id").in(ids));
+        return template.find(query, Metadata.class);
+    }
+
     @Override
     public Mono<Boolean> delete(final String apiId) {
         final Query query = new Query().addCriteria(Criteria.where("apiId").is(apiId));
@@ -236,6 +267,9 @@ public class MongoDBMetadataRepository extends MongoDBRepository implements IMet
                 .flatMap(document -> {
                     final Update update = new Update();
                     update.set("body", entity.getBody());
+                    update.set("content", entity.getContent());
+                    update.set("encoding", entity.getEncoding());
+                    update.set("html", entity.getHtml());
 
                     final FindAndModifyOptions options = new FindAndModifyOptions();
                     options.returnNew(true);
@@ -0,0 +1,76 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.mongodb;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.repository.mongodb.documents.Metadata;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@ConditionalOnBean(io.apimap.api.configuration.MongoConfiguration.class)
+public class MongoDBStatisticsRepository extends MongoDBRepository implements IStatisticsRepository {
+    protected static final String[] METADATA_FIELDS = {INTERFACE_SPECIFICATION, ARCHITECTURE_LAYER};
+
+    @SuppressFBWarnings
+    public MongoDBStatisticsRepository(ReactiveMongoTemplate template) {
+        super(template);
+    }
+
+    /*
+    One $facet aggregation groups the metadata by every field, only the counts leave the database
+     */
+    @Override
+    public Mono<Map<String, Map<String, Long>>> metadataCounts() {
+        final TypedAggregation<Metadata> aggregation = Aggregation.newAggregation(Metadata.class,
+                Aggregation.facet(Aggregation.group(INTERFACE_SPECIFICATION).count().as("count")).as(INTERFACE_SPECIFICATION)
+                        .and(Aggregation.group(ARCHITECTURE_LAYER).count().as("count")).as(ARCHITECTURE_LAYER)
+        );
+
+        return template
+                .aggregate(aggregation, Metadata.class, org.bson.Document.class)
+                .next()
+                .map(result -> {
+                    final Map<String, Map<String, Long>> counts = new HashMap<>();
+
+                    for (String field : METADATA_FIELDS) {
+                        final Map<String, Long> values = new HashMap<>();
+                        final List<org.bson.Document> groups = result.getList(field, org.bson.Document.class, List.of());
+
+                        groups.stream()
+                                .filter(group -> group.get("_id") != null)
+                                .forEach(group -> values.put(group.get("_id").toString(), ((Number) group.get("count")).longValue()));
+
+                        counts.put(field, values);
+                    }
+
+                    return counts;
+                });
+    }
+}
@@ -20,11 +20,13 @@ under the License.
 package io.apimap.api.repository.mongodb;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
 import io.apimap.api.repository.mongodb.documents.TaxonomyCollection;
 import io.apimap.api.repository.mongodb.documents.TaxonomyCollectionVersion;
 import io.apimap.api.repository.mongodb.documents.TaxonomyCollectionVersionURN;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.utils.TaxonomyUrlIndex;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
@@ -45,9 +47,13 @@ import java.util.Objects;
 @ConditionalOnBean(io.apimap.api.configuration.MongoConfiguration.class)
 public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> {
 
+    protected final TaxonomyUrlIndex<TaxonomyCollectionVersionURN> urlIndex;
+
     @SuppressFBWarnings
-    public MongoDBTaxonomyRepository(ReactiveMongoTemplate template) {
+    public MongoDBTaxonomyRepository(ReactiveMongoTemplate template,
+                                     CacheConfiguration cacheConfiguration) {
         super(template);
+        this.urlIndex = new TaxonomyUrlIndex<>(cacheConfiguration.getTaxonomy().getTimeToLive());
     }
 
     @Override
@@ -165,8 +171,7 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
 
     @Override
     public Flux<TaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURNsBellowUrl(String url) {
-        final Query query = new Query().addCriteria(Criteria.where("url").regex("^(" + url + ").*"));
-        return template.find(query, TaxonomyCollectionVersionURN.class);
+        return urlIndex.below(url, () -> template.findAll(TaxonomyCollectionVersionURN.class));
     }
 
     @Override
@@ -177,7 +182,8 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
                 .doOnNext(api -> {
                     throw new ResponseStatusException(HttpStatus.CONFLICT, "The Classification '" + entity.getUrn() + "' already exists");
                 })
-                .switchIfEmpty(Mono.defer(() -> template.insert(entity)));
+                .switchIfEmpty(Mono.defer(() -> template.insert(entity)))
+                .doOnNext(urlIndex::put);
     }
 
     @Override
@@ -202,6 +208,7 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
         final Query query = new Query().addCriteria(Criteria.where("id").is(urn + "#" + taxonomyVersion));
         return template
                 .remove(query, TaxonomyCollectionVersionURN.class)
+                .doOnNext(result -> urlIndex.remove(entity -> (urn + "#" + taxonomyVersion).equals(entity.getId())))
                 .flatMap(result -> Mono.just((result.getDeletedCount() > 0)));
     }
 
@@ -211,6 +218,7 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
         query.addCriteria(Criteria.where("version").is(version));
         return template
                 .remove(query, TaxonomyCollectionVersionURN.class)
+                .doOnNext(result -> urlIndex.remove(entity -> nid.equals(entity.getNid()) && version.equals(entity.getVersion())))
                 .flatMap(result -> Mono.just((result.getDeletedCount() > 0)));
     }
 
@@ -219,6 +227,7 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
         final Query query = new Query().addCriteria(Criteria.where("nid").is(nid));
         return template
                 .remove(query, TaxonomyCollectionVersionURN.class)
+                .doOnNext(result -> urlIndex.remove(entity -> nid.equals(entity.getNid())))
                 .flatMap(result -> Mono.just((result.getDeletedCount() > 0)));
     }
 
@@ -238,6 +247,7 @@ public class MongoDBTaxonomyRepository extends MongoDBRepository implements ITax
                     update.set("type", entity.getType());
 
                     return template.findAndModify(query, update, options, TaxonomyCollectionVersionURN.class)
+                            .doOnNext(urlIndex::put)
                             .switchIfEmpty(addTaxonomyCollectionVersionURN(entity));
                 });
 
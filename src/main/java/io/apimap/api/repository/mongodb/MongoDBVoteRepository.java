@@ -1,24 +1,44 @@
 package io.apimap.api.repository.mongodb;
 
+import com.mongodb.client.result.UpdateResult;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.repository.interfaces.IVoteSummary;
 import io.apimap.api.repository.mongodb.documents.Vote;
+import io.apimap.api.repository.mongodb.documents.VoteSummary;
 import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.service.query.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Repository
 @ConditionalOnBean(io.apimap.api.configuration.MongoConfiguration.class)
 public class MongoDBVoteRepository extends MongoDBRepository implements IVoteRepository<Vote> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoDBVoteRepository.class);
+
+    // Times a summary changing while it is rebuilt is read and counted again
+    protected static final int REBUILD_ATTEMPTS = 5;
 
     @SuppressFBWarnings
     public MongoDBVoteRepository(final ReactiveMongoTemplate template) {
@@ -34,27 +54,83 @@ public class MongoDBVoteRepository extends MongoDBRepository implements IVoteRep
                 .find(query, Vote.class);
     }
 
+    @Override
+    public Flux<Vote> all(String apiId, String apiVersion, Page page){
+        final Query query = new Query().addCriteria(Criteria.where("apiId").is(apiId));
+        query.addCriteria(Criteria.where("apiVersion").is(apiVersion));
+
+        return template
+                .find(page.mongoQuery(query, "id"), Vote.class);
+    }
+
     @Override
     public Mono<Vote> add(Vote entity){
         entity.setCreated(Instant.now());
-        return template.insert(entity);
+
+        return template
+                .insert(entity)
+                .flatMap(vote -> summarize(List.of(vote)).thenReturn(vote));
+    }
+
+    @Override
+    public Mono<Long> addAll(List<Vote> entities) {
+        if (entities.isEmpty()) return Mono.just(0L);
+
+        final Instant now = Instant.now();
+        entities.forEach(entity -> {
+            if (entity.getCreated() == null) entity.setCreated(now);
+        });
+
+        final List<String> ids = entities.stream().map(Vote::getId).collect(Collectors.toList());
+
+        return template
+                .find(new Query(Criteria.where("id").in(ids)), Vote.class)
+                .map(Vote::getId)
+                .collect(Collectors.toSet())
+                .flatMap(stored -> {
+                    final List<Vote> votes = entities
+                            .stream()
+                            .filter(vote -> !stored.contains(vote.getId()))
+                            .collect(Collectors.toList());
+
+                    if (votes.isEmpty()) return Mono.just(0L);
+
+                    // Votes are only kept when they are also counted, a failed batch takes back what it wrote
+                    final List<VoteSummary> applied = new ArrayList<>();
+                    return template
+                            .insertAll(votes)
+                            .count()
+                            .flatMap(inserted -> summarize(votes, applied).thenReturn(inserted))
+                            .onErrorResume(e -> Flux.fromIterable(applied)
+                                    .concatMap(total -> increment(total, -1))
+                                    .then(template.remove(new Query(Criteria.where("id").in(votes.stream().map(Vote::getId).collect(Collectors.toList()))), Vote.class))
+                                    .then(Mono.error(e)));
+                });
     }
 
     @Override
     public Mono<Integer> rating(String apiId, String apiVersion) {
-        final String FIELD_NAME = "averageRating";
+        return template
+                .findOne(summaryQuery(apiId, apiVersion), VoteSummary.class)
+                .map(IVoteSummary::rating)
+                .defaultIfEmpty(IVoteSummary.NO_RATING);
+    }
 
-         final TypedAggregation<Vote> aggregation = Aggregation.newAggregation(Vote.class,
-                 Aggregation.match(Criteria.where("apiVersion").is(apiVersion)),
-                 Aggregation.match(Criteria.where("apiId").is(apiId)),
-                 Aggregation.group("apiId").avg("rating").as(FIELD_NAME)
-        );
+    @Override
+    public Mono<Map<String, Integer>> ratings(String apiId, List<String> apiVersions) {
+        final List<String> ids = apiVersions
+                .stream()
+                .map(apiVersion -> IVoteSummary.createId(apiId, apiVersion))
+                .collect(Collectors.toList());
 
         return template
-                .aggregate(aggregation, Vote.class, LinkedHashMap.class)
-                .flatMap(e -> Mono.just(((Double) e.get(FIELD_NAME)).intValue()))
-                .take(1)
-                .single(-1);
+                .find(new Query(Criteria.where("id").in(ids)), VoteSummary.class)
+                .collectMap(VoteSummary::getApiVersion, IVoteSummary::rating)
+                .map(found -> {
+                    final Map<String, Integer> ratings = new LinkedHashMap<>();
+                    apiVersions.forEach(apiVersion -> ratings.put(apiVersion, found.getOrDefault(apiVersion, IVoteSummary.NO_RATING)));
+                    return ratings;
+                });
     }
 
     @Override
@@ -63,7 +139,159 @@ public class MongoDBVoteRepository extends MongoDBRepository implements IVoteRep
                 .addCriteria(Criteria.where("apiId").is(apiId))
                 .addCriteria(Criteria.where("apiVersion").is(apiVersion));
 
-        return template.remove(query, Vote.class)
+        return template.remove(summaryQuery(apiId, apiVersion), VoteSummary.class)
+                .then(template.remove(query, Vote.class))
                 .map(result -> result.getDeletedCount() > 0);
     }
+
+    /*
+    Rebuilds the summaries without losing votes counted by other instances meanwhile. The summaries are read
+    before the votes are counted by the database, each summary is then moved to the counted totals with $inc
+    on the condition that its revision is still the one read. A summary changed in between is read and counted
+    again. Only a vote stored before the count but added to its summary after the correction is counted twice.
+     */
+    @Override
+    public Mono<Long> rebuildSummaries() {
+        return template
+                .findAll(VoteSummary.class)
+                .collectMap(VoteSummary::getId)
+                .zipWhen(current -> countVotes(new Criteria()))
+                .flatMapMany(summaries -> {
+                    final Map<String, VoteSummary> current = summaries.getT1();
+                    final Map<String, VoteSummary> counted = summaries.getT2();
+
+                    final Set<String> ids = new LinkedHashSet<>(current.keySet());
+                    ids.addAll(counted.keySet());
+
+                    return Flux.fromIterable(ids).concatMap(id -> {
+                        final VoteSummary summary = current.get(id);
+                        return correct(summary, counted.containsKey(id) ? counted.get(id) : new VoteSummary(summary.getApiId(), summary.getApiVersion()), REBUILD_ATTEMPTS);
+                    });
+                })
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+    @Override
+    public Mono<Boolean> hasSummaries() {
+        return template.exists(new Query(), VoteSummary.class);
+    }
+
+    protected Mono<Void> summarize(List<Vote> votes) {
+        return summarize(votes, new ArrayList<>());
+    }
+
+    /*
+    One upsert per API version, incrementing its summary by the totals of the given votes.
+    The totals written are added to applied, so a failed batch can take them back.
+     */
+    protected Mono<Void> summarize(List<Vote> votes, List<VoteSummary> applied) {
+        final Map<String, VoteSummary> totals = new LinkedHashMap<>();
+        votes.forEach(vote -> totals
+                .computeIfAbsent(IVoteSummary.createId(vote.getApiId(), vote.getApiVersion()), id -> new VoteSummary(vote.getApiId(), vote.getApiVersion()))
+                .add(vote.getRating(), 1));
+
+        return Flux.fromIterable(totals.values())
+                .concatMap(total -> increment(total, 1).doOnSuccess(result -> applied.add(total)))
+                .then();
+    }
+
+    /*
+    Adds the totals to the summary of their version, or subtracts them with a sign of -1
+     */
+    protected Mono<UpdateResult> increment(VoteSummary total, long sign) {
+        final Update update = new Update()
+                .setOnInsert("apiId", total.getApiId())
+                .setOnInsert("apiVersion", total.getApiVersion())
+                .inc("count", sign * total.getCount())
+                .inc("sum", sign * total.getSum())
+                .inc("revision", 1);
+        total.getHistogram().forEach((rating, count) -> update.inc("histogram." + rating, sign * count));
+
+        return template.upsert(summaryQuery(total.getApiId(), total.getApiVersion()), update, VoteSummary.class);
+    }
+
+    /*
+    Sets the summary to the counted totals unless it changed since it was read, current is null when it did not exist
+     */
+    protected Mono<Boolean> correct(VoteSummary current, VoteSummary counted, int attempts) {
+        final Mono<Boolean> written;
+        if (current == null) {
+            written = template.insert(counted)
+                    .thenReturn(true)
+                    .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+        } else {
+            final Query unchanged = summaryQuery(current.getApiId(), current.getApiVersion())
+                    .addCriteria(Criteria.where("revision").is(current.getRevision()));
+            written = template.updateFirst(unchanged, difference(current, counted), VoteSummary.class)
+                    .map(result -> result.getMatchedCount() > 0);
+        }
+
+        return written.flatMap(done -> {
+            if (done) return Mono.just(true);
+
+            if (attempts <= 1) {
+                LOGGER.warn("Vote summary {} kept changing while it was rebuilt, it is left as it is", counted.getId());
+                return Mono.just(false);
+            }
+
+            final String apiId = counted.getApiId();
+            final String apiVersion = counted.getApiVersion();
+            return template.findOne(summaryQuery(apiId, apiVersion), VoteSummary.class)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .zipWhen(summary -> countVotes(Criteria.where("apiId").is(apiId).and("apiVersion").is(apiVersion)))
+                    .flatMap(summary -> correct(
+                            summary.getT1().orElse(null),
+                            summary.getT2().getOrDefault(counted.getId(), new VoteSummary(apiId, apiVersion)),
+                            attempts - 1));
+        });
+    }
+
+    /*
+    Votes per API version and rating counted by the database, keyed by summary id
+     */
+    protected Mono<Map<String, VoteSummary>> countVotes(Criteria criteria) {
+        final TypedAggregation<Vote> aggregation = Aggregation.newAggregation(Vote.class,
+                Aggregation.match(criteria),
+                Aggregation.group("apiId", "apiVersion", "rating").count().as("count")
+        );
+
+        return template
+                .aggregate(aggregation, Vote.class, org.bson.Document.class)
+                .collect(HashMap::new, (summaries, row) -> {
+                    final org.bson.Document group = row.get("_id", org.bson.Document.class);
+                    final String apiId = group.getString("apiId");
+                    final String apiVersion = group.getString("apiVersion");
+
+                    summaries.computeIfAbsent(IVoteSummary.createId(apiId, apiVersion), id -> new VoteSummary(apiId, apiVersion))
+                            .add(group.getInteger("rating"), ((Number) row.get("count")).longValue());
+                });
+    }
+
+    /*
+    $inc moving the current totals to the counted ones
+     */
+    protected static Update difference(VoteSummary current, VoteSummary counted) {
+        final Update update = new Update()
+                .inc("count", value(counted.getCount()) - value(current.getCount()))
+                .inc("sum", value(counted.getSum()) - value(current.getSum()))
+                .inc("revision", 1);
+
+        final Map<String, Long> currentHistogram = current.getHistogram() == null ? Map.of() : current.getHistogram();
+        final Map<String, Long> countedHistogram = counted.getHistogram() == null ? Map.of() : counted.getHistogram();
+        final Set<String> ratings = new LinkedHashSet<>(currentHistogram.keySet());
+        ratings.addAll(countedHistogram.keySet());
+        ratings.forEach(rating -> update.inc("histogram." + rating, value(countedHistogram.get(rating)) - value(currentHistogram.get(rating))));
+
+        return update;
+    }
+
+    protected static long value(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    protected static Query summaryQuery(String apiId, String apiVersion) {
+        return new Query(Criteria.where("id").is(IVoteSummary.createId(apiId, apiVersion)));
+    }
 }
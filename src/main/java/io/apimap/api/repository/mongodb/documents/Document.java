@@ -1,5 +1,6 @@
 package io.apimap.api.repository.mongodb.documents;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.repository.interfaces.IDocument;
 import org.springframework.data.annotation.Id;
 
@@ -10,6 +11,9 @@ public class Document implements IDocument {
     protected String apiId;
     protected String apiVersion;
     protected String body;
+    protected byte[] content;
+    protected String encoding;
+    protected String html;
     protected Instant created;
     protected DocumentType type;
 
@@ -75,6 +79,32 @@ public class Document implements IDocument {
         this.body = body;
     }
 
+    @SuppressFBWarnings
+    public byte[] getContent() {
+        return content;
+    }
+
+    @SuppressFBWarnings
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public void setHtml(String html) {
+        this.html = html;
+    }
+
     public Instant getCreated() {
         return created;
     }
@@ -0,0 +1,76 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.nitrite;
+
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Metadata counts kept up to date by the metadata repository, so statistics never scan the metadata.
+They are counted from the stored metadata when the repository is opened. Writes change the counts
+while holding this object's lock, so a snapshot always matches the stored metadata.
+ */
+@Component
+@ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
+public class MetadataCounters {
+    // field -> value -> number of API versions
+    protected final Map<String, Map<String, Long>> counts = new HashMap<>();
+
+    public synchronized void reset(final Iterable<? extends IMetadata> metadata) {
+        counts.clear();
+        metadata.forEach(this::added);
+    }
+
+    public synchronized void added(final IMetadata metadata) {
+        if (metadata == null) return;
+        count(IStatisticsRepository.INTERFACE_SPECIFICATION, metadata.getInterfaceSpecification(), 1);
+        count(IStatisticsRepository.ARCHITECTURE_LAYER, metadata.getArchitectureLayer(), 1);
+    }
+
+    public synchronized void removed(final IMetadata metadata) {
+        if (metadata == null) return;
+        count(IStatisticsRepository.INTERFACE_SPECIFICATION, metadata.getInterfaceSpecification(), -1);
+        count(IStatisticsRepository.ARCHITECTURE_LAYER, metadata.getArchitectureLayer(), -1);
+    }
+
+    public synchronized Map<String, Map<String, Long>> snapshot() {
+        final Map<String, Map<String, Long>> copy = new HashMap<>();
+        counts.forEach((field, values) -> copy.put(field, new HashMap<>(values)));
+        return copy;
+    }
+
+    protected void count(final String field, final String value, final long delta) {
+        if (value == null) return;
+
+        final Map<String, Long> values = counts.computeIfAbsent(field, key -> new HashMap<>());
+        final long count = values.getOrDefault(value, 0L) + delta;
+
+        if (count > 0) {
+            values.put(value, count);
+        } else {
+            values.remove(value);
+        }
+    }
+}
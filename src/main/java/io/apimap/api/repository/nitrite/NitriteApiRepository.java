@@ -26,6 +26,7 @@ import io.apimap.api.repository.nitrite.entities.Api;
 import io.apimap.api.repository.nitrite.entities.ApiVersion;
 import io.apimap.api.repository.repository.IApiRepository;
 import io.apimap.api.service.query.Filter;
+import io.apimap.api.service.query.Page;
 import org.dizitart.no2.FindOptions;
 import org.dizitart.no2.SortOrder;
 import org.dizitart.no2.objects.Cursor;
@@ -38,9 +39,14 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import static java.util.stream.Collectors.toCollection;
 import static org.dizitart.no2.objects.filters.ObjectFilters.*;
@@ -49,17 +55,24 @@ import static org.dizitart.no2.objects.filters.ObjectFilters.*;
 @ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
 public class NitriteApiRepository extends NitriteRepository implements IApiRepository<Api, ApiVersion, ObjectFilter> {
 
+    // UTC day -> number of APIs created that day, counted when opened and changed by the writes holding its lock
+    protected final NavigableMap<LocalDate, Long> createdPerDay = new TreeMap<>();
+
     @SuppressFBWarnings
-    public NitriteApiRepository(NitriteConfiguration nitriteConfiguration) {
-        super(nitriteConfiguration, "api");
+    public NitriteApiRepository(NitriteConfiguration nitriteConfiguration,
+                                NitriteScheduler scheduler) {
+        super(nitriteConfiguration, scheduler, "api");
+
+        synchronized (createdPerDay) {
+            database.getRepository(Api.class).find().forEach(api -> countCreated(api, 1));
+        }
     }
 
     /* A */
     @Override
     public Flux<Api> all() {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
-        Cursor<Api> cursor = repository.find();
-        return Flux.fromIterable(cursor);
+        return readAll(() -> repository.find().toList());
     }
 
     @Override
@@ -72,18 +85,33 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
                         return all();
                     }else{
                         ObjectFilter objectFilter = and(filterList.toArray(ObjectFilter[]::new));
-                        Cursor<Api> cursor = repository.find(objectFilter);
-                        return Flux.fromIterable(cursor.toList());
+                        return readAll(() -> repository.find(objectFilter).toList());
                     }
                 });
     }
 
+    @Override
+    public Flux<Api> allByFilters(Mono<List<ObjectFilter>> filters, Page page) {
+        ObjectRepository<Api> repository = database.getRepository(Api.class);
+
+        return filters
+                .defaultIfEmpty(new ArrayList<>())
+                .flatMapMany(filterList -> {
+                    ObjectFilter objectFilter = page.objectFilter("id", filterList.isEmpty() ? null : and(filterList.toArray(ObjectFilter[]::new)));
+
+                    if (objectFilter == null) {
+                        return readAll(() -> repository.find(page.findOptions("id")).toList());
+                    }
+
+                    return readAll(() -> repository.find(objectFilter, page.findOptions("id")).toList());
+                });
+    }
+
     @Override
     public Flux<Api> allByApiIds(List<String> apiIds) {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
         Object[] id = apiIds.toArray();
-        Cursor<Api> cursor = repository.find(in("id", id));
-        return Flux.fromIterable(cursor);
+        return readAll(() -> repository.find(in("id", id)).toList());
     }
 
     @Override
@@ -91,7 +119,27 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
         ObjectRepository<Api> repository = database.getRepository(Api.class);
         entity.generateToken();
         entity.setCreated(Instant.now());
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> {
+            synchronized (createdPerDay) {
+                final Api added = repository.getById(repository.insert(entity).iterator().next());
+                countCreated(added, 1);
+                return added;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Long> addAll(List<Api> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        ObjectRepository<Api> repository = database.getRepository(Api.class);
+        return write(() -> {
+            synchronized (createdPerDay) {
+                return insertAll(repository, entities, new Api[0], Api::getId, api -> countCreated(api, 1));
+            }
+        });
     }
 
     @Override
@@ -103,43 +151,75 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
                     api.setName(entity.getName());
                     api.setCodeRepositoryUrl(entity.getCodeRepositoryUrl());
 
-                    Api updateValues = repository.getById(repository.update(eq("name", apiName), api).iterator().next());
-                    updateValues.clearToken();
-                    return Mono.just(updateValues);
+                    return write(() -> {
+                        Api updateValues = repository.getById(repository.update(eq("name", apiName), api).iterator().next());
+                        updateValues.clearToken();
+                        return updateValues;
+                    });
                 });
     }
 
     @Override
     public Mono<Api> get(String apiName) {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
-        return Mono.justOrEmpty(
-                repository
-                        .find(eq("name", apiName))
-                        .firstOrDefault()
+        return read(() -> repository
+                .find(eq("name", apiName))
+                .firstOrDefault()
         );
     }
 
     @Override
     public Mono<Api> getById(String apiId) {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
-        return Mono.justOrEmpty(
-                repository
-                        .find(eq("id", apiId))
-                        .firstOrDefault()
+        return read(() -> repository
+                .find(eq("id", apiId))
+                .firstOrDefault()
         );
     }
 
     @Override
     public Mono<Boolean> delete(String apiName) {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
-        return Mono.justOrEmpty(repository.remove(eq("name", apiName)).getAffectedCount() > 0);
+        return write(() -> {
+            synchronized (createdPerDay) {
+                final List<Api> removed = repository.find(eq("name", apiName)).toList();
+                final boolean affected = repository.remove(eq("name", apiName)).getAffectedCount() > 0;
+
+                removed.forEach(api -> countCreated(api, -1));
+                return affected;
+            }
+        });
     }
 
     @Override
     public Mono<Long> numberOfApis() {
         ObjectRepository<Api> repository = database.getRepository(Api.class);
-        Cursor<Api> cursor = repository.find();
-        return Mono.justOrEmpty((long) cursor.totalCount());
+        return read(() -> (long) repository.find().totalCount());
+    }
+
+    @Override
+    public Mono<NavigableMap<LocalDate, Long>> numberOfApisCreated(Instant start, Instant end) {
+        final LocalDate first = LocalDate.ofInstant(start, ZoneOffset.UTC);
+        final LocalDate last = LocalDate.ofInstant(end, ZoneOffset.UTC);
+
+        return Mono.fromCallable(() -> {
+            synchronized (createdPerDay) {
+                return new TreeMap<>(createdPerDay.subMap(first, true, last, false));
+            }
+        });
+    }
+
+    protected void countCreated(final Api api, final long delta) {
+        if (api == null || api.getCreated() == null) return;
+
+        final LocalDate day = LocalDate.ofInstant(api.getCreated(), ZoneOffset.UTC);
+        final long count = createdPerDay.getOrDefault(day, 0L) + delta;
+
+        if (count > 0) {
+            createdPerDay.put(day, count);
+        } else {
+            createdPerDay.remove(day);
+        }
     }
 
     /* AV */
@@ -147,16 +227,35 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
     @Override
     public Mono<ApiVersion> getLatestApiVersion(String apiId) {
         ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
-        return Mono.justOrEmpty(repository.find(
+        return read(() -> repository.find(
                 ObjectFilters.eq("apiId", apiId),
                 FindOptions.sort("created", SortOrder.Descending)
         ).firstOrDefault());
     }
 
+    @Override
+    public Flux<ApiVersion> getLatestApiVersions(List<String> apiIds) {
+        if (apiIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
+        return readAll(() -> {
+            Cursor<ApiVersion> cursor = repository.find(
+                    in("apiId", apiIds.toArray()),
+                    FindOptions.sort("created", SortOrder.Descending)
+            );
+
+            LinkedHashMap<String, ApiVersion> latest = new LinkedHashMap<>();
+            cursor.forEach(version -> latest.putIfAbsent(version.getApiId(), version));
+            return latest.values();
+        });
+    }
+
     @Override
     public Mono<Boolean> deleteApiVersion(String apiName, String apiVersion) {
         ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
-        return Mono.just(repository.remove(eq("id", IApiVersion.createId(apiName, apiVersion))).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("id", IApiVersion.createId(apiName, apiVersion))).getAffectedCount() > 0);
     }
 
     @Override
@@ -167,18 +266,32 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
         }
 
         ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
-        return Mono.justOrEmpty(repository.find(
+        return read(() -> repository.find(
                 eq("id", IApiVersion.createId(apiId, apiVersion))
         ).firstOrDefault());
     }
 
+    @Override
+    public Flux<ApiVersion> allApiVersions() {
+        ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
+        return readAll(() -> repository.find().toList());
+    }
+
     @Override
     public Flux<ApiVersion> allApiVersions(String apiId) {
         ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
-        Cursor<ApiVersion> cursor = repository.find(
+        return readAll(() -> repository.find(
                 eq("apiId", apiId)
-        );
-        return Flux.fromIterable(cursor);
+        ).toList());
+    }
+
+    @Override
+    public Flux<ApiVersion> allApiVersions(String apiId, Page page) {
+        ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
+        return readAll(() -> repository.find(
+                page.objectFilter("id", eq("apiId", apiId)),
+                page.findOptions("id")
+        ).toList());
     }
 
     @Override
@@ -186,7 +299,17 @@ public class NitriteApiRepository extends NitriteRepository implements IApiRepos
         entity.setCreated(Instant.now());
 
         ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> repository.getById(repository.insert(entity).iterator().next()));
+    }
+
+    @Override
+    public Mono<Long> addAllApiVersions(List<ApiVersion> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        ObjectRepository<ApiVersion> repository = database.getRepository(ApiVersion.class);
+        return write(() -> insertAll(repository, entities, new ApiVersion[0]));
     }
 
     /* OB */
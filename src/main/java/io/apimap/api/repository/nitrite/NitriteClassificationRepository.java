@@ -22,11 +22,13 @@ package io.apimap.api.repository.nitrite;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.NitriteConfiguration;
 import io.apimap.api.repository.nitrite.entities.ApiClassification;
+import io.apimap.api.repository.nitrite.entities.TaxonomyCollection;
+import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersion;
 import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersionURN;
 import io.apimap.api.repository.repository.IClassificationRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
 import io.apimap.api.service.query.Filter;
-import org.dizitart.no2.objects.Cursor;
 import org.dizitart.no2.objects.ObjectFilter;
 import org.dizitart.no2.objects.ObjectRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -46,12 +48,13 @@ public class NitriteClassificationRepository extends NitriteRepository implement
 
     public static final String TAXONOMY_VERSION = "1";
 
-    protected NitriteTaxonomyRepository taxonomyRepository;
+    protected ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> taxonomyRepository;
 
     @SuppressFBWarnings
     public NitriteClassificationRepository(NitriteConfiguration nitriteConfiguration,
-                                           NitriteTaxonomyRepository taxonomyRepository) {
-        super(nitriteConfiguration, "classification");
+                                           NitriteScheduler scheduler,
+                                           ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> taxonomyRepository) {
+        super(nitriteConfiguration, scheduler, "classification");
         this.taxonomyRepository = taxonomyRepository;
     }
 
@@ -60,15 +63,13 @@ public class NitriteClassificationRepository extends NitriteRepository implement
     @Override
     public Flux<ApiClassification> all() {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        Cursor<ApiClassification> cursor = repository.find();
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find().toList());
     }
 
     @Override
     public Flux<ApiClassification> allByURN(String taxonomyUrn) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        Cursor<ApiClassification> cursor = repository.find(eq("taxonomyUrn", taxonomyUrn));
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find(eq("taxonomyUrn", taxonomyUrn)).toList());
     }
 
     @Override
@@ -80,8 +81,7 @@ public class NitriteClassificationRepository extends NitriteRepository implement
                 .filter(list -> list.size() > 0)
                 .flatMapMany(filterList -> {
                     ObjectFilter objectFilter = or(filterList.toArray(ObjectFilter[]::new));
-                    Cursor<ApiClassification> cursor = repository.find(objectFilter);
-                    return Flux.fromIterable(cursor.toList());
+                    return readAll(() -> repository.find(objectFilter).toList());
                 })
                 .groupBy(ApiClassification::getApiId)
                 .flatMap(classification -> classification.reduce((api1, api2) -> api1.getCreated().compareTo(api2.getCreated()) > 0 ? api1 : api2));
@@ -90,23 +90,21 @@ public class NitriteClassificationRepository extends NitriteRepository implement
     @Override
     public Flux<ApiClassification> all(String apiId) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        Cursor<ApiClassification> cursor = repository.find(eq("apiId", apiId));
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find(eq("apiId", apiId)).toList());
     }
 
     @Override
     public Flux<ApiClassification> all(String apiId, String apiVersion) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        Cursor<ApiClassification> cursor = repository.find(
+        return readAll(() -> repository.find(
                 and(eq("apiId", apiId), eq("apiVersion", apiVersion))
-        );
-        return Flux.fromIterable(cursor.toList());
+        ).toList());
     }
 
     @Override
     public Mono<ApiClassification> update(ApiClassification entity, String apiId) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        return Mono.justOrEmpty(repository.getById(repository.update(eq("apiId", apiId), entity).iterator().next()));
+        return write(() -> repository.getById(repository.update(eq("apiId", apiId), entity).iterator().next()));
     }
 
     @Override
@@ -114,13 +112,23 @@ public class NitriteClassificationRepository extends NitriteRepository implement
         entity.setCreated(Instant.now());
 
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> repository.getById(repository.insert(entity).iterator().next()));
+    }
+
+    @Override
+    public Mono<Long> addAll(List<ApiClassification> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
+        return write(() -> insertAll(repository, entities, new ApiClassification[0]));
     }
 
     @Override
     public Mono<ApiClassification> get(String apiId, String api, String taxonomyUrn) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        return Mono.justOrEmpty(repository.find(
+        return read(() -> repository.find(
                 and(eq("apiId", apiId),
                         eq("taxonomyUrn", taxonomyUrn)
                 )
@@ -130,7 +138,7 @@ public class NitriteClassificationRepository extends NitriteRepository implement
     @Override
     public Mono<Boolean> delete(String apiId, String apiVersion) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        return Mono.just(repository.remove(
+        return write(() -> repository.remove(
                 and(eq("apiId", apiId), eq("apiVersion", apiVersion))
         ).getAffectedCount() > 0);
     }
@@ -138,7 +146,7 @@ public class NitriteClassificationRepository extends NitriteRepository implement
     @Override
     public Mono<Boolean> delete(String apiId) {
         ObjectRepository<ApiClassification> repository = database.getRepository(ApiClassification.class);
-        return Mono.just(repository.remove(eq("apiId", apiId)).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("apiId", apiId)).getAffectedCount() > 0);
     }
 
     /* OB */
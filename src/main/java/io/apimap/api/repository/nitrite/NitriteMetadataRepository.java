@@ -22,18 +22,19 @@ package io.apimap.api.repository.nitrite;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.NitriteConfiguration;
 import io.apimap.api.repository.interfaces.IDocument;
+import io.apimap.api.repository.interfaces.IMetadata;
 import io.apimap.api.repository.nitrite.entities.Document;
 import io.apimap.api.repository.nitrite.entities.Metadata;
 import io.apimap.api.repository.repository.IMetadataRepository;
 import io.apimap.api.service.query.Filter;
 import io.apimap.api.service.query.QueryFilter;
-import org.dizitart.no2.objects.Cursor;
 import org.dizitart.no2.objects.ObjectFilter;
 import org.dizitart.no2.objects.ObjectRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -48,9 +49,16 @@ import static org.dizitart.no2.objects.filters.ObjectFilters.*;
 @ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
 public class NitriteMetadataRepository extends NitriteRepository implements IMetadataRepository<Metadata, Document, ObjectFilter> {
 
+    protected final MetadataCounters metadataCounters;
+
     @SuppressFBWarnings
-    public NitriteMetadataRepository(NitriteConfiguration nitriteConfiguration) {
-        super(nitriteConfiguration, "metadata");
+    public NitriteMetadataRepository(NitriteConfiguration nitriteConfiguration,
+                                     NitriteScheduler scheduler,
+                                     MetadataCounters metadataCounters) {
+        super(nitriteConfiguration, scheduler, "metadata");
+
+        this.metadataCounters = metadataCounters;
+        this.metadataCounters.reset(database.getRepository(Metadata.class).find().toList());
     }
 
     /* M */
@@ -63,56 +71,107 @@ public class NitriteMetadataRepository extends NitriteRepository implements IMet
                 .filter(list -> list.size() > 0)
                 .flatMapMany(filterList -> {
                     ObjectFilter objectFilter = and(filterList.toArray(ObjectFilter[]::new));
-                    Cursor<Metadata> cursor = repository.find(objectFilter);
-                    return Flux.fromIterable(cursor.toList());
+                    return readAll(() -> repository.find(objectFilter).toList());
                 });
     }
 
     public Flux<Metadata> allByApiId(String apiId) {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        Cursor<Metadata> cursor = repository.find(eq("apiId", apiId));
-        return Flux.fromIterable(cursor);
+        return readAll(() -> repository.find(eq("apiId", apiId)).toList());
     }
 
     public Flux<Metadata> all() {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        Cursor<Metadata> cursor = repository.find();
-        return Flux.fromIterable(cursor);
+        return readAll(() -> repository.find().toList());
     }
 
     public Mono<Metadata> add(Metadata entity) {
         entity.setCreated(Instant.now());
 
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> {
+            synchronized (metadataCounters) {
+                final Metadata added = repository.getById(repository.insert(entity).iterator().next());
+                metadataCounters.added(added);
+                return added;
+            }
+        });
+    }
+
+    public Mono<Long> addAll(List<Metadata> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
+        return write(() -> {
+            synchronized (metadataCounters) {
+                return insertAll(repository, entities, new Metadata[0], Metadata::getId, metadataCounters::added);
+            }
+        });
     }
 
     public Mono<Metadata> update(Metadata entity) {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        return Mono.justOrEmpty(repository.getById(repository.update(
-                eq("id", entity.getId())
-                , entity
-                , true
-        ).iterator().next()));
+        return write(() -> {
+            synchronized (metadataCounters) {
+                metadataCounters.removed(repository.find(eq("id", entity.getId())).firstOrDefault());
+
+                final Metadata updated = repository.getById(repository.update(
+                        eq("id", entity.getId())
+                        , entity
+                        , true
+                ).iterator().next());
+
+                metadataCounters.added(updated);
+                return updated;
+            }
+        });
     }
 
     public Mono<Metadata> get(String apiId, String version) {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        return Mono.justOrEmpty(repository.find(
+        return read(() -> repository.find(
                 and(eq("apiId", apiId), eq("apiVersion", version))
         ).firstOrDefault());
     }
 
+    @Override
+    public Flux<Metadata> getAll(List<Tuple2<String, String>> apiVersions) {
+        if (apiVersions.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Object[] id = apiVersions
+                .stream()
+                .map(apiVersion -> IMetadata.createId(apiVersion.getT1(), apiVersion.getT2()))
+                .toArray();
+
+        ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
+        return readAll(() -> repository.find(in("id", id)).toList());
+    }
+
     public Mono<Boolean> delete(String apiId) {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        return Mono.just(repository.remove(eq("apiId", apiId)).getAffectedCount() > 0);
+        return write(() -> remove(repository, eq("apiId", apiId)));
     }
 
     public Mono<Boolean> delete(String apiId, String version) {
         ObjectRepository<Metadata> repository = database.getRepository(Metadata.class);
-        return Mono.just(repository.remove(
-                and(eq("apiId", apiId), eq("apiVersion", version))
-        ).getAffectedCount() > 0);
+        return write(() -> remove(repository, and(eq("apiId", apiId), eq("apiVersion", version))));
+    }
+
+    /*
+    Removes the matching metadata and its counts, must be called on the write lane
+     */
+    protected boolean remove(final ObjectRepository<Metadata> repository, final ObjectFilter filter) {
+        synchronized (metadataCounters) {
+            final List<Metadata> removed = repository.find(filter).toList();
+            final boolean affected = repository.remove(filter).getAffectedCount() > 0;
+
+            removed.forEach(metadataCounters::removed);
+            return affected;
+        }
     }
 
     /* OB */
@@ -148,7 +207,7 @@ public class NitriteMetadataRepository extends NitriteRepository implements IMet
     @Override
     public Mono<Document> getDocument(final String apiId, final String apiVersion, final IDocument.DocumentType documentType) {
         final ObjectRepository<Document> repository = database.getRepository(Document.class);
-        return Mono.justOrEmpty(repository.find(
+        return read(() -> repository.find(
                 and(
                         eq("apiId", apiId),
                         eq("apiVersion", apiVersion),
@@ -160,7 +219,7 @@ public class NitriteMetadataRepository extends NitriteRepository implements IMet
     @Override
     public Mono<Boolean> deleteDocument(final String apiId, final String apiVersion, final IDocument.DocumentType documentType) {
         final ObjectRepository<Document> repository = database.getRepository(Document.class);
-        return Mono.just(repository.remove(
+        return write(() -> repository.remove(
                 and(
                         eq("apiId", apiId),
                         eq("apiVersion", apiVersion),
@@ -175,7 +234,7 @@ public class NitriteMetadataRepository extends NitriteRepository implements IMet
         entity.setApiVersion(apiVersion);
 
         final ObjectRepository<Document> repository = database.getRepository(Document.class);
-        return Mono.justOrEmpty(repository.getById(repository.update(
+        return write(() -> repository.getById(repository.update(
                 eq("id", entity.getId()),
                 entity,
                 true
@@ -189,6 +248,6 @@ public class NitriteMetadataRepository extends NitriteRepository implements IMet
         entity.setApiVersion(apiVersion);
 
         final ObjectRepository<Document> repository = database.getRepository(Document.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> repository.getById(repository.insert(entity).iterator().next()));
     }
 }
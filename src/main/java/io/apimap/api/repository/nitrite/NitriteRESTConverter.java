@@ -11,7 +11,6 @@ import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ApiContext;
 import io.apimap.api.service.context.TaxonomyContext;
 import io.apimap.api.utils.Comparator;
-import io.apimap.api.utils.TaxonomyTreeBuilder;
 import io.apimap.api.utils.URIUtil;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.core.io.ByteArrayResource;
@@ -20,7 +19,6 @@ import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,6 +26,50 @@ import java.util.stream.Collectors;
 @Service
 @ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
 public class NitriteRESTConverter implements IRESTConverter {
+    /*
+     From archive
+     */
+
+    @Override
+    public IApi createApi() {
+        return new Api();
+    }
+
+    @Override
+    public IApiVersion createApiVersion() {
+        return new ApiVersion();
+    }
+
+    @Override
+    public IMetadata createMetadata() {
+        return new Metadata();
+    }
+
+    @Override
+    public IApiClassification createClassification() {
+        return new ApiClassification();
+    }
+
+    @Override
+    public ITaxonomyCollection createTaxonomyCollection() {
+        return new TaxonomyCollection();
+    }
+
+    @Override
+    public ITaxonomyCollectionVersion createTaxonomyCollectionVersion() {
+        return new TaxonomyCollectionVersion();
+    }
+
+    @Override
+    public ITaxonomyCollectionVersionURN createTaxonomyCollectionVersionURN() {
+        return new TaxonomyCollectionVersionURN();
+    }
+
+    @Override
+    public IVote createVote() {
+        return new Vote();
+    }
+
     /*
      From REST
      */
@@ -158,15 +200,16 @@ public class NitriteRESTConverter implements IRESTConverter {
 
     @Override
     public Mono<IDocument> decodeMetadataDocument(ApiContext apiContext, ByteArrayResource resource, IDocument.DocumentType type){
-        return Mono.just(
-                new Document(
-                        apiContext.getApiId(),
-                        apiContext.getApiVersion(),
-                        new String(resource.getByteArray(), StandardCharsets.UTF_8),
-                        Instant.now(),
-                        type
-                )
+        final Document document = new Document(
+                apiContext.getApiId(),
+                apiContext.getApiVersion(),
+                null,
+                Instant.now(),
+                type
         );
+
+        IDocument.encodeBody(document, resource.getByteArray());
+        return Mono.just(document);
     }
 
     @Override
@@ -284,7 +327,7 @@ public class NitriteRESTConverter implements IRESTConverter {
     @Override
     public Mono<Object> encodeMetadataDocument(URI uri, IDocument object) {
         return Mono.just(
-            object.getBody()
+            IDocument.decodeBody(object)
         );
     }
 
@@ -431,31 +474,8 @@ public class NitriteRESTConverter implements IRESTConverter {
 
     @Override
     public Mono<JsonApiRestResponseWrapper<TaxonomyTreeRootRestEntity>> encodeTaxonomyCollectionVersionURNs(URI uri, List<ITaxonomyCollectionVersionURN> urns) {
-        TaxonomyTreeBuilder taxonomyTreeBuilder = TaxonomyTreeBuilder.empty();
-
-        urns
-                .stream()
-                .map(e -> {
-                    if (e.getType() == null
-                            || !("REFERENCE").equalsIgnoreCase(e.getType())) {
-                        return new TaxonomyTreeDataRestEntity(
-                                e.getUrn(),
-                                e.getTitle(),
-                                e.getUrl(),
-                                e.getDescription(),
-                                URIUtil.fromURI(uri).append(e.getUrn()).stringValue(),
-                                e.getVersion(),
-                                TaxonomyDataRestEntity.ReferenceType.CLASSIFICATION,
-                                null
-                        );
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .forEach(taxonomyTreeBuilder::insert);
-
         return Mono.just(
-                new JsonApiRestResponseWrapper<TaxonomyTreeRootRestEntity>(new TaxonomyTreeRootRestEntity(taxonomyTreeBuilder.getTree()))
+                new JsonApiRestResponseWrapper<TaxonomyTreeRootRestEntity>(new TaxonomyTreeRootRestEntity(encodeTaxonomyTree(uri, urns)))
         );
     }
 
@@ -22,20 +22,39 @@ package io.apimap.api.repository.nitrite;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.NitriteConfiguration;
 import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
+import org.dizitart.no2.objects.ObjectRepository;
+import org.dizitart.no2.objects.filters.ObjectFilters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class NitriteRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(NitriteRepository.class);
 
     protected final NitriteConfiguration nitriteConfiguration;
 
+    protected final NitriteScheduler scheduler;
+
     protected final Nitrite database;
 
     @SuppressFBWarnings
     public NitriteRepository(final NitriteConfiguration nitriteConfiguration,
+                             final NitriteScheduler scheduler,
                              final String identifier) {
         this.nitriteConfiguration = nitriteConfiguration;
+        this.scheduler = scheduler;
 
         String dbFileName = null;
 
@@ -62,4 +81,64 @@ public class NitriteRepository {
     public Nitrite getDatabase() {
         return database;
     }
+
+    protected <T> Mono<T> read(final Callable<T> query) {
+        return scheduler.read(query);
+    }
+
+    protected <T> Flux<T> readAll(final Callable<? extends Iterable<T>> query) {
+        return scheduler.readAll(query);
+    }
+
+    protected <T> Mono<T> write(final Callable<T> operation) {
+        return scheduler.write(operation);
+    }
+
+    /*
+    Inserts all entities in one batch, must be called on the write lane
+     */
+    protected <T> Long insertAll(final ObjectRepository<T> repository, final List<T> entities, final T[] type) {
+        try {
+            final T[] others = entities.subList(1, entities.size()).toArray(type);
+            return (long) repository.insert(entities.get(0), others).getAffectedCount();
+        } catch (UniqueConstraintException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "One or more entities already exist");
+        }
+    }
+
+    /*
+    Inserts all entities in one batch and passes each stored one to inserted, including the ones stored
+    before an insert failed partway, so counts kept next to the collection follow what is stored.
+    Must be called on the write lane.
+     */
+    protected <T> Long insertAll(final ObjectRepository<T> repository,
+                                 final List<T> entities,
+                                 final T[] type,
+                                 final Function<T, String> id,
+                                 final Consumer<T> inserted) {
+        final Set<String> existing = storedIds(repository, entities, id);
+
+        try {
+            final Long count = insertAll(repository, entities, type);
+            entities.forEach(inserted);
+            return count;
+        } catch (RuntimeException e) {
+            final Set<String> stored = storedIds(repository, entities, id);
+            stored.removeAll(existing);
+
+            entities.stream()
+                    .filter(entity -> stored.remove(id.apply(entity)))
+                    .forEach(inserted);
+            throw e;
+        }
+    }
+
+    protected <T> Set<String> storedIds(final ObjectRepository<T> repository, final List<T> entities, final Function<T, String> id) {
+        final Object[] ids = entities.stream().map(id).toArray();
+        return repository.find(ObjectFilters.in("id", ids))
+                .toList()
+                .stream()
+                .map(id)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
 }
@@ -0,0 +1,167 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.nitrite;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.jfr.NitriteOperationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Nitrite (MVStore) calls are blocking, all repository operations are deferred onto
+separate read and write lanes to keep them off the request threads
+ */
+@Component
+@ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
+public class NitriteScheduler implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NitriteScheduler.class);
+
+    protected final Lane readLane;
+    protected final Lane writeLane;
+
+    @SuppressFBWarnings
+    public NitriteScheduler(final NitriteConfiguration nitriteConfiguration,
+                            final MeterRegistry meterRegistry) {
+        final NitriteConfiguration.Scheduler configuration = nitriteConfiguration.getScheduler();
+
+        this.readLane = new Lane("read", configuration.getReadThreads(), configuration.getQueueDepth(), meterRegistry);
+        this.writeLane = new Lane("write", configuration.getWriteThreads(), configuration.getQueueDepth(), meterRegistry);
+
+        LOGGER.info("Nitrite scheduler using {} read thread(s), {} write thread(s) and queue depth {}",
+                configuration.getReadThreads(),
+                configuration.getWriteThreads(),
+                configuration.getQueueDepth());
+    }
+
+    public <T> Mono<T> read(final Callable<T> query) {
+        return readLane.schedule(query);
+    }
+
+    public <T> Flux<T> readAll(final Callable<? extends Iterable<T>> query) {
+        return readLane.schedule(query).flatMapIterable(result -> result);
+    }
+
+    public <T> Mono<T> write(final Callable<T> operation) {
+        return writeLane.schedule(operation);
+    }
+
+    @Override
+    public void destroy() {
+        readLane.dispose();
+        writeLane.dispose();
+    }
+
+    protected static class Lane {
+        protected final String name;
+        protected final int capacity;
+        protected final Scheduler scheduler;
+        protected final AtomicInteger pending = new AtomicInteger();
+        protected final Timer timer;
+        protected final Counter rejected;
+
+        protected Lane(final String name,
+                       final int threads,
+                       final int queueDepth,
+                       final MeterRegistry meterRegistry) {
+            this.name = name;
+            this.capacity = threads + queueDepth;
+            this.scheduler = Schedulers.newBoundedElastic(threads, queueDepth, "nitrite-" + name);
+
+            Gauge.builder("nitrite.scheduler.pending", pending, AtomicInteger::get)
+                    .description("Nitrite operations queued or running")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+
+            this.timer = Timer.builder("nitrite.scheduler.execution")
+                    .description("Time spent executing Nitrite operations")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+
+            this.rejected = Counter.builder("nitrite.scheduler.rejected")
+                    .description("Nitrite operations rejected because the lane was full")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+        }
+
+        protected <T> Mono<T> schedule(final Callable<T> callable) {
+            return Mono.defer(() -> {
+                if (pending.incrementAndGet() > capacity) {
+                    pending.decrementAndGet();
+                    return Mono.error(rejection());
+                }
+
+                final long queued = System.nanoTime();
+                return Mono.fromCallable(() -> execute(callable, queued))
+                        .subscribeOn(scheduler)
+                        .doFinally(signal -> pending.decrementAndGet())
+                        .onErrorMap(RejectedExecutionException.class, e -> rejection())
+                        .publishOn(Schedulers.parallel());
+            });
+        }
+
+        protected <T> T execute(final Callable<T> callable, final long queued) throws Exception {
+            final NitriteOperationEvent event = new NitriteOperationEvent();
+            final long start = System.nanoTime();
+            event.begin();
+
+            boolean success = false;
+            try {
+                final T result = timer.recordCallable(callable);
+                success = true;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.lane = name;
+                    event.queued = start - queued;
+                    event.success = success;
+                    event.commit();
+                }
+            }
+        }
+
+        protected ResponseStatusException rejection() {
+            rejected.increment();
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending database " + name + " operations");
+        }
+
+        protected void dispose() {
+            scheduler.dispose();
+        }
+    }
+}
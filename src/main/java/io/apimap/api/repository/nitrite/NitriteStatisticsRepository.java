@@ -0,0 +1,44 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.nitrite;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Repository
+@ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
+public class NitriteStatisticsRepository implements IStatisticsRepository {
+    protected final MetadataCounters metadataCounters;
+
+    @SuppressFBWarnings
+    public NitriteStatisticsRepository(final MetadataCounters metadataCounters) {
+        this.metadataCounters = metadataCounters;
+    }
+
+    @Override
+    public Mono<Map<String, Map<String, Long>>> metadataCounts() {
+        return Mono.fromCallable(metadataCounters::snapshot);
+    }
+}
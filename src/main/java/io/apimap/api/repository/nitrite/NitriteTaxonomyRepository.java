@@ -20,6 +20,7 @@ under the License.
 package io.apimap.api.repository.nitrite;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
 import io.apimap.api.configuration.NitriteConfiguration;
 import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersionURN;
 import io.apimap.api.repository.nitrite.entities.TaxonomyCollection;
@@ -27,9 +28,9 @@ import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersion;
 import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersionURN;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.utils.TaxonomyUrlIndex;
 import org.dizitart.no2.FindOptions;
 import org.dizitart.no2.SortOrder;
-import org.dizitart.no2.objects.Cursor;
 import org.dizitart.no2.objects.ObjectRepository;
 import org.dizitart.no2.objects.filters.ObjectFilters;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -47,9 +48,14 @@ import static org.dizitart.no2.objects.filters.ObjectFilters.*;
 @ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
 public class NitriteTaxonomyRepository extends NitriteRepository implements ITaxonomyRepository<TaxonomyCollection, TaxonomyCollectionVersion, TaxonomyCollectionVersionURN> {
 
+    protected final TaxonomyUrlIndex<TaxonomyCollectionVersionURN> urlIndex;
+
     @SuppressFBWarnings
-    public NitriteTaxonomyRepository(NitriteConfiguration nitriteConfiguration) {
-        super(nitriteConfiguration, "taxonomy");
+    public NitriteTaxonomyRepository(NitriteConfiguration nitriteConfiguration,
+                                     NitriteScheduler scheduler,
+                                     CacheConfiguration cacheConfiguration) {
+        super(nitriteConfiguration, scheduler, "taxonomy");
+        this.urlIndex = new TaxonomyUrlIndex<>(cacheConfiguration.getTaxonomy().getTimeToLive());
     }
 
     @Override
@@ -58,8 +64,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
             return Mono.just(Long.valueOf(0));
         }
         ObjectRepository<TaxonomyCollection> repository = database.getRepository(TaxonomyCollection.class);
-        Cursor<TaxonomyCollection> cursor = repository.find();
-        return Mono.just(Long.valueOf(cursor.totalCount()));
+        return read(() -> Long.valueOf(repository.find().totalCount()));
     }
 
     /* TC */
@@ -67,8 +72,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
     @Override
     public Flux<TaxonomyCollection> allTaxonomyCollection() {
         ObjectRepository<TaxonomyCollection> repository = database.getRepository(TaxonomyCollection.class);
-        Cursor<TaxonomyCollection> cursor = repository.find();
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find().toList());
     }
 
     @Override
@@ -81,20 +85,20 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
                 .doOnNext(api -> {
                     throw new ResponseStatusException(HttpStatus.CONFLICT, "The Taxonomy '" + entity.getName() + "' already exists");
                 })
-                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next())))
+                .switchIfEmpty(Mono.defer(() -> write(() -> repository.getById(repository.insert(entity).iterator().next())))
                 );
     }
 
     @Override
     public Mono<TaxonomyCollection> getTaxonomyCollection(String nid) {
         ObjectRepository<TaxonomyCollection> repository = database.getRepository(TaxonomyCollection.class);
-        return Mono.justOrEmpty(repository.find((eq("nid", nid))).firstOrDefault());
+        return read(() -> repository.find((eq("nid", nid))).firstOrDefault());
     }
 
     @Override
     public Mono<Boolean> deleteTaxonomyCollection(String nid) {
         ObjectRepository<TaxonomyCollection> repository = database.getRepository(TaxonomyCollection.class);
-        return Mono.justOrEmpty(repository.remove(eq("nid", nid)).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("nid", nid)).getAffectedCount() > 0);
     }
 
     /* TCV */
@@ -102,8 +106,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
     @Override
     public Flux<TaxonomyCollectionVersion> allTaxonomyCollectionVersions(String nid) {
         ObjectRepository<TaxonomyCollectionVersion> repository = database.getRepository(TaxonomyCollectionVersion.class);
-        Cursor<TaxonomyCollectionVersion> cursor = repository.find(eq("nid", nid));
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find(eq("nid", nid)).toList());
     }
 
     @Override
@@ -111,7 +114,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
         entity.setCreated(Instant.now());
 
         ObjectRepository<TaxonomyCollectionVersion> repository = database.getRepository(TaxonomyCollectionVersion.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> repository.getById(repository.insert(entity).iterator().next()));
     }
 
     @Override
@@ -119,12 +122,12 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
         ObjectRepository<TaxonomyCollectionVersion> repository = database.getRepository(TaxonomyCollectionVersion.class);
 
         if ("latest".equals(version)) {
-            return Mono.justOrEmpty(repository.find(
+            return read(() -> repository.find(
                     ObjectFilters.eq("nid", nid),
                     FindOptions.sort("created", SortOrder.Ascending)
             ).firstOrDefault());
         } else {
-            return Mono.justOrEmpty(repository.find(
+            return read(() -> repository.find(
                     and(eq("nid", nid), eq("version", version))
             ).firstOrDefault());
         }
@@ -133,7 +136,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
     @Override
     public Mono<Boolean> deleteTaxonomyCollectionVersion(String nid, String version) {
         ObjectRepository<TaxonomyCollectionVersion> repository = database.getRepository(TaxonomyCollectionVersion.class);
-        return Mono.just(repository.remove(
+        return write(() -> repository.remove(
                 and(eq("nid", nid), eq("version", version))
         ).getAffectedCount() > 0);
     }
@@ -141,7 +144,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
     @Override
     public Mono<Boolean> deleteTaxonomyCollectionVersions(String nid) {
         ObjectRepository<TaxonomyCollectionVersion> repository = database.getRepository(TaxonomyCollectionVersion.class);
-        return Mono.justOrEmpty(repository.remove(eq("nid", nid)).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("nid", nid)).getAffectedCount() > 0);
     }
 
     /* TCVU */
@@ -149,8 +152,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
     @Override
     public Flux<TaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURN(String taxonomyCollectionVersion) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        Cursor<TaxonomyCollectionVersionURN> cursor = repository.find(eq("taxonomyVersion", taxonomyCollectionVersion));
-        return Flux.fromIterable(cursor.toList());
+        return readAll(() -> repository.find(eq("taxonomyVersion", taxonomyCollectionVersion)).toList());
     }
 
     @Override
@@ -158,25 +160,20 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
         if ("latest".equals(version)) {
             return getTaxonomyCollectionVersion(nid, version)
-                    .flatMapMany(cv -> {
-                        Cursor<TaxonomyCollectionVersionURN> cursor = repository.find(
-                                and(eq("nid", nid), eq("version", cv.getVersion()))
-                        );
-                        return Flux.fromIterable(cursor.toList());
-                    });
+                    .flatMapMany(cv -> readAll(() -> repository.find(
+                            and(eq("nid", nid), eq("version", cv.getVersion()))
+                    ).toList()));
         }
 
-        Cursor<TaxonomyCollectionVersionURN> cursor = repository.find(
+        return readAll(() -> repository.find(
                 and(eq("nid", nid), eq("version", version))
-        );
-        return Flux.fromIterable(cursor.toList());
+        ).toList());
     }
 
     @Override
     public Flux<TaxonomyCollectionVersionURN> allTaxonomyCollectionVersionURNsBellowUrl(String url) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        Cursor<TaxonomyCollectionVersionURN> cursor = repository.find(regex("url", "^(" + url + ").*"));
-        return Flux.fromIterable(cursor.toList());
+        return urlIndex.below(url, () -> readAll(() -> repository.find().toList()));
     }
 
     @Override
@@ -185,7 +182,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
 
         if ("latest".equals(taxonomyVersion)) {
             if (!type.getValue().equals(TaxonomyDataRestEntity.ReferenceType.UNKNOWN.getValue())) {
-                return Mono.justOrEmpty(repository.find(
+                return read(() -> repository.find(
                         and(
                                 eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion)),
                                 eq("type", type.getValue())
@@ -193,7 +190,7 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
                         FindOptions.sort("created", SortOrder.Ascending)
                 ).firstOrDefault());
             }else{
-                return Mono.justOrEmpty(repository.find(
+                return read(() -> repository.find(
                         and(
                                 eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion))
                         ),
@@ -203,12 +200,12 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
         }
 
         if (!type.getValue().equals(TaxonomyDataRestEntity.ReferenceType.UNKNOWN.getValue())) {
-            return Mono.justOrEmpty(repository.find(and(
+            return read(() -> repository.find(and(
                     eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion)),
                     eq("type", type.getValue()))).firstOrDefault());
         }
 
-        return Mono.justOrEmpty(repository.find(and(
+        return read(() -> repository.find(and(
                 eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion)))).firstOrDefault());
     }
 
@@ -217,32 +214,37 @@ public class NitriteTaxonomyRepository extends NitriteRepository implements ITax
         entity.setCreated(Instant.now());
 
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        return write(() -> repository.getById(repository.insert(entity).iterator().next()))
+                .doOnNext(urlIndex::put);
     }
 
     @Override
     public Mono<Boolean> deleteTaxonomyCollectionVersionURN(String urn, String taxonomyVersion) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        return Mono.justOrEmpty(repository.remove(eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion))).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion))).getAffectedCount() > 0)
+                .doOnNext(result -> urlIndex.remove(entity -> ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion).equals(entity.getId())));
     }
 
     @Override
     public Mono<Boolean> deleteTaxonomyCollectionVersionURNs(String nid, String version) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        return Mono.justOrEmpty(repository.remove(and(
+        return write(() -> repository.remove(and(
                 eq("nid", nid), eq("version", version)
-        )).getAffectedCount() > 0);
+        )).getAffectedCount() > 0)
+                .doOnNext(result -> urlIndex.remove(entity -> nid.equals(entity.getNid()) && version.equals(entity.getVersion())));
     }
 
     @Override
     public Mono<Boolean> deleteTaxonomyCollectionVersionURNs(String nid) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        return Mono.just(repository.remove(eq("nid", nid)).getAffectedCount() > 0);
+        return write(() -> repository.remove(eq("nid", nid)).getAffectedCount() > 0)
+                .doOnNext(result -> urlIndex.remove(entity -> nid.equals(entity.getNid())));
     }
 
     @Override
     public Mono<TaxonomyCollectionVersionURN> update(TaxonomyCollectionVersionURN entity, String urn, String taxonomyVersion) {
         ObjectRepository<TaxonomyCollectionVersionURN> repository = database.getRepository(TaxonomyCollectionVersionURN.class);
-        return Mono.justOrEmpty(repository.getById(repository.update(eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion)), entity).iterator().next()));
+        return write(() -> repository.getById(repository.update(eq("id", ITaxonomyCollectionVersionURN.createId(urn, taxonomyVersion)), entity).iterator().next()))
+                .doOnNext(urlIndex::put);
     }
 }
@@ -2,36 +2,59 @@ package io.apimap.api.repository.nitrite;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.repository.interfaces.IVoteSummary;
 import io.apimap.api.repository.nitrite.entities.Vote;
+import io.apimap.api.repository.nitrite.entities.VoteSummary;
 import io.apimap.api.repository.repository.IVoteRepository;
-import org.dizitart.no2.objects.Cursor;
+import io.apimap.api.service.query.Page;
 import org.dizitart.no2.objects.ObjectRepository;
+import org.dizitart.no2.objects.filters.ObjectFilters;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.dizitart.no2.objects.filters.ObjectFilters.and;
 import static org.dizitart.no2.objects.filters.ObjectFilters.eq;
+import static org.dizitart.no2.objects.filters.ObjectFilters.in;
 
 @Repository
 @ConditionalOnBean(io.apimap.api.configuration.NitriteConfiguration.class)
 public class NitriteVoteRepository extends NitriteRepository implements IVoteRepository<Vote> {
 
+    // Held while votes and their summaries change together, so a rebuild never sees a vote without its count
+    protected final Object summaryLock = new Object();
+
     @SuppressFBWarnings
-    public NitriteVoteRepository(final NitriteConfiguration nitriteConfiguration) {
-        super(nitriteConfiguration, "vote");
+    public NitriteVoteRepository(final NitriteConfiguration nitriteConfiguration,
+                                 final NitriteScheduler scheduler) {
+        super(nitriteConfiguration, scheduler, "vote");
     }
 
     @Override
     public Flux<Vote> all(final String apiId, final String apiVersion) {
         final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
-        Cursor<Vote> cursor = repository.find(
+        return readAll(() -> repository.find(
                 and(eq("apiId", apiId), eq("apiVersion", apiVersion))
-        );
-        return Flux.fromIterable(cursor);
+        ).toList());
+    }
+
+    @Override
+    public Flux<Vote> all(final String apiId, final String apiVersion, final Page page) {
+        final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
+        return readAll(() -> repository.find(
+                page.objectFilter("id", and(eq("apiId", apiId), eq("apiVersion", apiVersion))),
+                page.findOptions("id")
+        ).toList());
     }
 
     @Override
@@ -39,31 +62,140 @@ public class NitriteVoteRepository extends NitriteRepository implements IVoteRep
         entity.setCreated(Instant.now());
 
         final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
-        return Mono.justOrEmpty(repository.getById(repository.insert(entity).iterator().next()));
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return write(() -> {
+            synchronized (summaryLock) {
+                final Vote vote = repository.getById(repository.insert(entity).iterator().next());
+                summarize(summaries, List.of(vote));
+                return vote;
+            }
+        });
     }
 
     @Override
-    public Mono<Integer> rating(String apiId, String apiVersion) {
+    public Mono<Long> addAll(final List<Vote> entities) {
+        if (entities.isEmpty()) return Mono.just(0L);
+
+        final Instant now = Instant.now();
+        entities.forEach(entity -> {
+            if (entity.getCreated() == null) entity.setCreated(now);
+        });
+
         final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
-        Cursor<Vote> cursor = repository.find(
-                and(eq("apiId", apiId), eq("apiVersion", apiVersion))
-        );
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return write(() -> {
+            // Holding the summary lock, so a concurrent batch cannot see the votes before they are counted
+            synchronized (summaryLock) {
+                final Set<String> stored = repository.find(in("id", entities.stream().map(Vote::getId).toArray()))
+                        .toList()
+                        .stream()
+                        .map(Vote::getId)
+                        .collect(Collectors.toSet());
+
+                final List<Vote> votes = entities
+                        .stream()
+                        .filter(vote -> !stored.contains(vote.getId()))
+                        .collect(Collectors.toList());
+
+                if (votes.isEmpty()) return 0L;
+
+                // Votes are only kept when they are also counted, a failed batch leaves nothing behind
+                try {
+                    final Long inserted = insertAll(repository, votes, new Vote[0]);
+                    summarize(summaries, votes);
+                    return inserted;
+                } catch (RuntimeException e) {
+                    repository.remove(in("id", votes.stream().map(Vote::getId).toArray()));
+                    throw e;
+                }
+            }
+        });
+    }
 
-        double average = cursor
-                .toList()
-                .stream()
-                .mapToDouble(Vote::getRating)
-                .average()
-                .orElse(-1);
+    @Override
+    public Mono<Integer> rating(String apiId, String apiVersion) {
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return read(() -> IVoteSummary.rating(
+                summaries.find(eq("id", IVoteSummary.createId(apiId, apiVersion))).firstOrDefault()
+        ));
+    }
 
-        return Mono.just(Double.valueOf(average).intValue());
+    @Override
+    public Mono<Map<String, Integer>> ratings(String apiId, List<String> apiVersions) {
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return read(() -> {
+            final Map<String, Integer> ratings = new LinkedHashMap<>();
+            for (String apiVersion : apiVersions) {
+                ratings.put(apiVersion, IVoteSummary.rating(
+                        summaries.find(eq("id", IVoteSummary.createId(apiId, apiVersion))).firstOrDefault()
+                ));
+            }
+            return ratings;
+        });
     }
 
     @Override
     public Mono<Boolean> delete(String apiId, String apiVersion) {
         final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
-        return Mono.just(repository.remove(
-                and(eq("apiId", apiId), eq("apiVersion", apiVersion))
-        ).getAffectedCount() > 0);
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return write(() -> {
+            synchronized (summaryLock) {
+                summaries.remove(eq("id", IVoteSummary.createId(apiId, apiVersion)));
+
+                return repository.remove(
+                        and(eq("apiId", apiId), eq("apiVersion", apiVersion))
+                ).getAffectedCount() > 0;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Long> rebuildSummaries() {
+        final ObjectRepository<Vote> repository = database.getRepository(Vote.class);
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return write(() -> {
+            // Counting holds the summary lock too, votes stored meanwhile would otherwise be lost or counted twice
+            synchronized (summaryLock) {
+                final Map<String, VoteSummary> rebuilt = new HashMap<>();
+                for (Vote vote : repository.find()) {
+                    rebuilt.computeIfAbsent(
+                            IVoteSummary.createId(vote.getApiId(), vote.getApiVersion()),
+                            id -> new VoteSummary(vote.getApiId(), vote.getApiVersion())
+                    ).add(vote.getRating(), 1);
+                }
+
+                summaries.remove(ObjectFilters.ALL);
+                if (rebuilt.isEmpty()) return 0L;
+
+                return insertAll(summaries, List.copyOf(rebuilt.values()), new VoteSummary[0]);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Boolean> hasSummaries() {
+        final ObjectRepository<VoteSummary> summaries = database.getRepository(VoteSummary.class);
+        return read(() -> summaries.find().firstOrDefault() != null);
+    }
+
+    /*
+    Adds the votes to the summaries of their versions, must be called on the write lane holding the summary
+    lock, which also makes reading and updating each summary one step with more than one write thread
+     */
+    protected void summarize(final ObjectRepository<VoteSummary> summaries, final List<Vote> votes) {
+        final Map<String, List<Vote>> byVersion = new LinkedHashMap<>();
+        votes.forEach(vote -> byVersion
+                .computeIfAbsent(IVoteSummary.createId(vote.getApiId(), vote.getApiVersion()), id -> new ArrayList<>())
+                .add(vote));
+
+        byVersion.forEach((id, versionVotes) -> {
+            VoteSummary summary = summaries.find(eq("id", id)).firstOrDefault();
+            if (summary == null) summary = new VoteSummary(versionVotes.get(0).getApiId(), versionVotes.get(0).getApiVersion());
+
+            for (Vote vote : versionVotes) {
+                summary.add(vote.getRating(), 1);
+            }
+            summaries.update(eq("id", id), summary, true);
+        });
     }
 }
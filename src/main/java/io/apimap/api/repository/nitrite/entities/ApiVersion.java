@@ -20,11 +20,17 @@ under the License.
 package io.apimap.api.repository.nitrite.entities;
 
 import io.apimap.api.repository.interfaces.IApiVersion;
+import org.dizitart.no2.IndexType;
 import org.dizitart.no2.objects.Id;
+import org.dizitart.no2.objects.Index;
+import org.dizitart.no2.objects.Indices;
 
 import java.time.Instant;
 import java.util.Objects;
 
+@Indices({
+        @Index(value = "apiId", type = IndexType.NonUnique)
+})
 public class ApiVersion implements IApiVersion {
     protected String version;
     protected Instant created;
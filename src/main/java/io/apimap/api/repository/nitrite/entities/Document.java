@@ -19,6 +19,7 @@ under the License.
 
 package io.apimap.api.repository.nitrite.entities;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.repository.interfaces.IDocument;
 import org.dizitart.no2.objects.Id;
 
@@ -28,6 +29,9 @@ public class Document implements IDocument {
     protected String apiId;
     protected String apiVersion;
     protected String body;
+    protected byte[] content;
+    protected String encoding;
+    protected String html;
     protected Instant created;
     protected DocumentType type;
 
@@ -78,6 +82,38 @@ public class Document implements IDocument {
         this.body = body;
     }
 
+    @Override
+    @SuppressFBWarnings
+    public byte[] getContent() {
+        return content;
+    }
+
+    @Override
+    @SuppressFBWarnings
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    @Override
+    public String getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    @Override
+    public String getHtml() {
+        return html;
+    }
+
+    @Override
+    public void setHtml(String html) {
+        this.html = html;
+    }
+
     @Override
     public Instant getCreated() {
         return created;
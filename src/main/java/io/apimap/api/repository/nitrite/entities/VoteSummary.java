@@ -0,0 +1,123 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.nitrite.entities;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.repository.interfaces.IVoteSummary;
+import org.dizitart.no2.objects.Id;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class VoteSummary implements IVoteSummary {
+    protected String apiId;
+    protected String apiVersion;
+    protected Long count;
+    protected Long sum;
+    protected Map<String, Long> histogram;
+
+    @Id
+    private String id;
+
+    public VoteSummary() {
+    }
+
+    public VoteSummary(String apiId, String apiVersion) {
+        this.apiId = apiId;
+        this.apiVersion = apiVersion;
+        this.count = 0L;
+        this.sum = 0L;
+        this.histogram = new HashMap<>();
+        this.id = IVoteSummary.createId(apiId, apiVersion);
+    }
+
+    /*
+    Counts the given number of votes with the rating
+     */
+    public void add(Integer rating, long votes) {
+        this.count = (count == null ? 0 : count) + votes;
+        this.sum = (sum == null ? 0 : sum) + rating * votes;
+
+        if (histogram == null) histogram = new HashMap<>();
+        histogram.merge(String.valueOf(rating), votes, Long::sum);
+    }
+
+    public String getApiId() {
+        return apiId;
+    }
+
+    public void setApiId(String apiId) {
+        this.apiId = apiId;
+    }
+
+    public String getApiVersion() {
+        return apiVersion;
+    }
+
+    public void setApiVersion(String apiVersion) {
+        this.apiVersion = apiVersion;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Long getSum() {
+        return sum;
+    }
+
+    public void setSum(Long sum) {
+        this.sum = sum;
+    }
+
+    @SuppressFBWarnings
+    public Map<String, Long> getHistogram() {
+        return histogram;
+    }
+
+    @SuppressFBWarnings
+    public void setHistogram(Map<String, Long> histogram) {
+        this.histogram = histogram;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        return "VoteSummary{" +
+                "apiId='" + apiId + '\'' +
+                ", apiVersion='" + apiVersion + '\'' +
+                ", count=" + count +
+                ", sum=" + sum +
+                ", histogram=" + histogram +
+                ", id='" + id + '\'' +
+                '}';
+    }
+}
@@ -22,10 +22,14 @@ package io.apimap.api.repository.repository;
 import io.apimap.api.repository.interfaces.IApi;
 import io.apimap.api.repository.interfaces.IApiVersion;
 import io.apimap.api.service.query.Filter;
+import io.apimap.api.service.query.Page;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.NavigableMap;
 
 public interface IApiRepository<TIApi extends IApi,
                                 TIApiVersion extends IApiVersion,
@@ -35,10 +39,14 @@ public interface IApiRepository<TIApi extends IApi,
 
     Flux<TIApi> allByFilters(Mono<List<OB>> filters);
 
+    Flux<TIApi> allByFilters(Mono<List<OB>> filters, Page page);
+
     Flux<TIApi> allByApiIds(List<String> apiIds);
 
     Mono<TIApi> add(TIApi entity);
 
+    Mono<Long> addAll(List<TIApi> entities);
+
     Mono<TIApi> update(TIApi entity, String apiName);
 
     Mono<TIApi> get(String apiName);
@@ -49,17 +57,30 @@ public interface IApiRepository<TIApi extends IApi,
 
     Mono<Long> numberOfApis();
 
+    /*
+    Number of existing APIs created per UTC day from start to end, exclusive. Days without any are left out.
+     */
+    Mono<NavigableMap<LocalDate, Long>> numberOfApisCreated(Instant start, Instant end);
+
     /* AV */
     Mono<TIApiVersion> getLatestApiVersion(String apiId);
 
+    Flux<TIApiVersion> getLatestApiVersions(List<String> apiIds);
+
     Mono<Boolean> deleteApiVersion(String apiId, String apiVersion);
 
     Mono<TIApiVersion> getApiVersion(String apiId, String apiVersion);
 
+    Flux<TIApiVersion> allApiVersions();
+
     Flux<TIApiVersion> allApiVersions(String apiId);
 
+    Flux<TIApiVersion> allApiVersions(String apiId, Page page);
+
     Mono<TIApiVersion> addApiVersion(TIApiVersion entity);
 
+    Mono<Long> addAllApiVersions(List<TIApiVersion> entities);
+
     /* OB */
     Mono<List<OB>> queryFilters(List<Filter> filters);
 
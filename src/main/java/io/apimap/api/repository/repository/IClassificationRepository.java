@@ -41,6 +41,8 @@ public interface IClassificationRepository<TApiClassification extends IApiClassi
 
     Mono<TApiClassification> add(TApiClassification entity);
 
+    Mono<Long> addAll(List<TApiClassification> entities);
+
     Mono<TApiClassification> get(String apiId, String api, String taxonomyUrn);
 
     Flux<TApiClassification> allByURN(String taxonomyUrn);
@@ -25,6 +25,7 @@ import io.apimap.api.service.query.Filter;
 import io.apimap.api.service.query.QueryFilter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.util.List;
 
@@ -40,10 +41,14 @@ public interface IMetadataRepository<TIMetadata extends IMetadata,
 
     Mono<TIMetadata> add(TIMetadata entity);
 
+    Mono<Long> addAll(List<TIMetadata> entities);
+
     Mono<TIMetadata> update(TIMetadata entity);
 
     Mono<TIMetadata> get(String apiId, String apiVersion);
 
+    Flux<TIMetadata> getAll(List<Tuple2<String, String>> apiVersions);
+
     Mono<Boolean> delete(String apiId);
 
     Mono<Boolean> delete(String apiId, String apiVersion);
@@ -1,13 +1,26 @@
 package io.apimap.api.repository.repository;
 
 import io.apimap.api.repository.interfaces.IVote;
+import io.apimap.api.service.query.Page;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 public interface IVoteRepository <TIVote extends IVote> {
 
     Flux<TIVote> all(String apiId, String apiVersion);
+    Flux<TIVote> all(String apiId, String apiVersion, Page page);
     Mono<TIVote> add(TIVote entity);
+    // Stores the votes in one batch, keeping their created time when set, returns the number stored.
+    // Votes with an id that is already stored are skipped, so a failed batch can be retried as is.
+    Mono<Long> addAll(List<TIVote> entities);
     Mono<Integer> rating(String apiId, String apiVersion);
+    // Rating per version in one call, versions without votes are mapped to IVoteSummary.NO_RATING
+    Mono<Map<String, Integer>> ratings(String apiId, List<String> apiVersions);
     Mono<Boolean> delete(String apiId, String apiVersion);
+    // Recreates the summaries from the stored votes, returns the number of summaries written
+    Mono<Long> rebuildSummaries();
+    Mono<Boolean> hasSummaries();
 }
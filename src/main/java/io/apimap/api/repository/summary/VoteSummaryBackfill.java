@@ -0,0 +1,66 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.repository.summary;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.VoteConfiguration;
+import io.apimap.api.repository.repository.IVoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/*
+Builds the per version rating summaries from the stored votes once, so votes written before the
+summaries existed are counted. Other starts leave the summaries alone unless a rebuild is asked for,
+such as after summary updates failed.
+ */
+@Component
+public class VoteSummaryBackfill implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VoteSummaryBackfill.class);
+
+    final protected IVoteRepository voteRepository;
+    final protected VoteConfiguration voteConfiguration;
+
+    @SuppressFBWarnings
+    public VoteSummaryBackfill(final IVoteRepository voteRepository,
+                               final VoteConfiguration voteConfiguration) {
+        this.voteRepository = voteRepository;
+        this.voteConfiguration = voteConfiguration;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (!voteConfiguration.isRebuildOnStartup()) {
+            if (!voteConfiguration.isBackfillOnStartup()) return;
+
+            if (Boolean.TRUE.equals(voteRepository.hasSummaries().block())) {
+                LOGGER.info("Skipping the vote summary backfill, the summaries already exist");
+                return;
+            }
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final Long summaries = (Long) voteRepository.rebuildSummaries().block();
+
+        LOGGER.info("Rebuilt {} vote summaries in {} ms", summaries, System.currentTimeMillis() - startTime);
+    }
+}
@@ -22,6 +22,7 @@ package io.apimap.api.router;
 import io.apimap.api.rest.*;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.*;
+import io.apimap.api.tracing.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -67,6 +68,9 @@ public class ApiRouter {
        - Query parameters:
            - filter[metadata][{attribute name}] = value
            - filter[classification][{taxonomy nid}] = [{urn}]
+           - page[size] = {entries per page}
+           - page[cursor] = {cursor from the next or prev link}
+           - Pages are ordered by id, unpaged collections keep their creation order
      /api/{apiName}
      /api/{apiName}/version
      /api/{apiName}/version/{version}/classification
@@ -108,6 +112,19 @@ public class ApiRouter {
                                             in = ParameterIn.QUERY,
                                             required = false,
                                             example = "filter[name]=hello%20world"
+                                    ),
+                                    @Parameter(
+                                            name = "page[size]",
+                                            description = "Number of entries per page, the response links to the next and previous page. Pages are ordered by id, not by creation time. Without page parameters the whole collection is returned in its usual order.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "page[size]=100"
+                                    ),
+                                    @Parameter(
+                                            name = "page[cursor]",
+                                            description = "Opaque cursor taken from the next or prev link of a previous page",
+                                            in = ParameterIn.QUERY,
+                                            required = false
                                     )
                             },
                             responses = {
@@ -132,6 +149,24 @@ public class ApiRouter {
                             },
                             requestBody = @RequestBody(content = @Content(schema = @Schema(implementation = ApiDataRestEntity.Attributes.class)))
                     )),
+            @RouterOperation(
+                    path = ROOT_PATH,
+                    method = RequestMethod.POST,
+                    beanClass = ApiResourceService.class,
+                    beanMethod = "importApisZip",
+                    operation = @Operation(
+                            operationId = "importApisZip",
+                            summary = "Import APIs from a ZIP archive.",
+                            description = "Restores APIs, versions, metadata and classifications from an archive created by the ZIP export. " +
+                                    "Requires the access token used for the export.",
+                            tags = {"API"},
+                            security = {@SecurityRequirement(name = "token")},
+                            responses = {
+                                    @ApiResponse(responseCode = "201", description = "Archive imported, returns the number of documents imported per type", content = @Content(schema = @Schema(implementation = JsonApiRestResponseWrapper.class))),
+                                    @ApiResponse(responseCode = "409", description = "Conflict, the archive contains documents that already exist", content = @Content(schema = @Schema(implementation = JsonApiRestResponseWrapper.class)))
+                            },
+                            requestBody = @RequestBody(content = @Content(mediaType = "application/zip"))
+                    )),
             @RouterOperation(
                     path = ITEM_PATH,
                     method = RequestMethod.GET,
@@ -204,7 +239,20 @@ public class ApiRouter {
                             summary = "Get a overview of all API versions.",
                             tags = {"API"},
                             parameters = {
-                                    @Parameter(in = ParameterIn.PATH, name = "apiName", description = "URL encoded API name")
+                                    @Parameter(in = ParameterIn.PATH, name = "apiName", description = "URL encoded API name"),
+                                    @Parameter(
+                                            name = "page[size]",
+                                            description = "Number of entries per page, the response links to the next and previous page. Pages are ordered by id, not by creation time. Without page parameters the whole collection is returned in its usual order.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "page[size]=100"
+                                    ),
+                                    @Parameter(
+                                            name = "page[cursor]",
+                                            description = "Opaque cursor taken from the next or prev link of a previous page",
+                                            in = ParameterIn.QUERY,
+                                            required = false
+                                    )
                             },
                             responses = {
                                     @ApiResponse(responseCode = "200", description = "API updated", content = @Content(schema = @Schema(implementation = List.class)))
@@ -630,7 +678,20 @@ public class ApiRouter {
                             requestBody = @RequestBody(content = @Content(schema = @Schema(implementation = String.class))),
                             parameters = {
                                     @Parameter(in = ParameterIn.PATH, name = "apiName", description = "URL encoded API name"),
-                                    @Parameter(in = ParameterIn.PATH, name = "apiVersion", description = "URL encoded API version identifier")
+                                    @Parameter(in = ParameterIn.PATH, name = "apiVersion", description = "URL encoded API version identifier"),
+                                    @Parameter(
+                                            name = "page[size]",
+                                            description = "Number of entries per page, the response links to the next and previous page. Pages are ordered by id, not by creation time. Without page parameters the whole collection is returned in its usual order.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "page[size]=100"
+                                    ),
+                                    @Parameter(
+                                            name = "page[cursor]",
+                                            description = "Opaque cursor taken from the next or prev link of a previous page",
+                                            in = ParameterIn.QUERY,
+                                            required = false
+                                    )
                             },
                             responses = {
                                     @ApiResponse(responseCode = "200", description = "All API Version Votes", content = @Content(array = @ArraySchema(schema = @Schema(implementation = VoteRootRestEntity.class)))),
@@ -644,11 +705,13 @@ public class ApiRouter {
                                              ApiMetadataService metadataService,
                                              ApiClassificationService classificationService,
                                              ApiVoteService apiVoteService,
-                                             ApiDocumentService apiDocumentService) {
+                                             ApiDocumentService apiDocumentService,
+                                             Tracer tracer) {
         return RouterFunctions
                 .route(GET(ROOT_PATH).and(accept(APPLICATION_JSON)), apiService::allApis)
                 .andRoute(GET(ROOT_PATH).and(accept(new MediaType("application", "zip"))), apiService::allApisZip)
                 .andRoute(POST(ROOT_PATH).and(contentType(APPLICATION_JSON)), apiService::createApi)
+                .andRoute(POST(ROOT_PATH).and(contentType(new MediaType("application", "zip"))), apiService::importApisZip)
                 .andRoute(GET(ITEM_PATH).and(accept(APPLICATION_JSON)), apiService::getApi)
                 .andRoute(PUT(ITEM_PATH).and(contentType(APPLICATION_JSON)), apiService::updateApi)
                 .andRoute(DELETE(ITEM_PATH), apiService::deleteApi)
@@ -675,6 +738,7 @@ public class ApiRouter {
                 .andRoute(DELETE(CHANGELOG_PATH), apiDocumentService::deleteChangelog)
                 .andRoute(PUT(CHANGELOG_PATH).and(contentType(MediaType.TEXT_MARKDOWN)), apiDocumentService::updateChangelog)
                 .andRoute(POST(VOTE_PATH).and(contentType(APPLICATION_JSON)), apiVoteService::createVote)
-                .andRoute(GET(VOTE_PATH).and(accept(APPLICATION_JSON)), apiVoteService::allVotes);
+                .andRoute(GET(VOTE_PATH).and(accept(APPLICATION_JSON)), apiVoteService::allVotes)
+                .filter(tracer.handlerFilter("ApiRouter"));
     }
 }
\ No newline at end of file
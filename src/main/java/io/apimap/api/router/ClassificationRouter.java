@@ -21,6 +21,7 @@ package io.apimap.api.router;
 
 import io.apimap.api.rest.ClassificationTreeDataRestEntity;
 import io.apimap.api.service.ClassificationResourceService;
+import io.apimap.api.tracing.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -112,9 +113,10 @@ public class ClassificationRouter {
                             }
                     )),
     })
-    RouterFunction<ServerResponse> classificationRoutes(ClassificationResourceService service) {
+    RouterFunction<ServerResponse> classificationRoutes(ClassificationResourceService service, Tracer tracer) {
         return RouterFunctions
                 .route(GET(ROOT_PATH).and(accept(APPLICATION_JSON)), service::allClassifications)
-                .andRoute(GET(TREE_PATH).and(accept(APPLICATION_JSON)), service::getClassification);
+                .andRoute(GET(TREE_PATH).and(accept(APPLICATION_JSON)), service::getClassification)
+                .filter(tracer.handlerFilter("ClassificationRouter"));
     }
 }
@@ -21,7 +21,10 @@ package io.apimap.api.router;
 
 import io.apimap.api.rest.StatisticsCollectionDataRestEntity;
 import io.apimap.api.service.StatisticsService;
+import io.apimap.api.tracing.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -57,6 +60,7 @@ public class StatisticsRouter {
      /statistics/taxonomies
      /statistics/interface-specification
      /statistics/architecture-layer
+     /statistics/apis-history
     */
     @Bean
     @RouterOperations({
@@ -125,14 +129,52 @@ public class StatisticsRouter {
                                     @ApiResponse(responseCode = "200", description = "Statistic collection", content = @Content(array = @ArraySchema(schema = @Schema(implementation = HashMap.class)))),
                             }
                     )),
+            @RouterOperation(
+                    path = API_CREATED_STATISTICS_PATH,
+                    method = RequestMethod.GET,
+                    beanClass = StatisticsService.class,
+                    beanMethod = "getApiCreatedStatistics",
+                    operation = @Operation(
+                            operationId = "getApiCreatedStatistics",
+                            summary = "Number of APIs created per day, week or month, keyed by the first day of each bucket.",
+                            tags = {"STATISTICS"},
+                            parameters = {
+                                    @Parameter(
+                                            name = "granularity",
+                                            description = "Bucket size, day, week (starting on Monday) or month. Defaults to month.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "granularity=week"
+                                    ),
+                                    @Parameter(
+                                            name = "from",
+                                            description = "First UTC date, yyyy-MM-dd. Defaults to 12 buckets before the to date.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "from=2022-01-01"
+                                    ),
+                                    @Parameter(
+                                            name = "to",
+                                            description = "Last UTC date, yyyy-MM-dd. Defaults to today. At most 366 buckets can be requested.",
+                                            in = ParameterIn.QUERY,
+                                            required = false,
+                                            example = "to=2022-12-31"
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(responseCode = "200", description = "Statistic collection", content = @Content(array = @ArraySchema(schema = @Schema(implementation = HashMap.class)))),
+                                    @ApiResponse(responseCode = "400", description = "Invalid granularity or dates, or too many buckets"),
+                            }
+                    )),
     })
-    RouterFunction<ServerResponse> statisticsRoutes(StatisticsService service) {
+    RouterFunction<ServerResponse> statisticsRoutes(StatisticsService service, Tracer tracer) {
         return RouterFunctions
                 .route(GET(ROOT_PATH).and(accept(APPLICATION_JSON)), service::allStatistics)
                 .andRoute(GET(API_COUNT_STATISTICS_PATH), service::getApiCountStatistics)
                 .andRoute(GET(TAXONOMIES_COUNT_STATISTICS_PATH), service::getTaxonomiesStatistics)
                 .andRoute(GET(INTERFACE_SPECIFICATION_STATISTICS_PATH), service::getInterfaceSpecificationStatistics)
                 .andRoute(GET(ARCHITECTURE_LAYER_STATISTICS_PATH), service::getArchitectureLayerStatistics)
-                .andRoute(GET(API_CREATED_STATISTICS_PATH), service::getApiCreatedStatistics);
+                .andRoute(GET(API_CREATED_STATISTICS_PATH), service::getApiCreatedStatistics)
+                .filter(tracer.handlerFilter("StatisticsRouter"));
     }
 }
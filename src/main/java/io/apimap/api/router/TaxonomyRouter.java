@@ -24,6 +24,7 @@ import io.apimap.api.rest.TaxonomyCollectionRootRestEntity;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.TaxonomyResourceService;
+import io.apimap.api.tracing.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -236,7 +237,7 @@ public class TaxonomyRouter {
                             security = {@SecurityRequirement(name = "token")}
                     ))
     })
-    RouterFunction<ServerResponse> taxonomyRoutes(TaxonomyResourceService service) {
+    RouterFunction<ServerResponse> taxonomyRoutes(TaxonomyResourceService service, Tracer tracer) {
         return RouterFunctions
                 .route(GET(ROOT_PATH).and(accept(APPLICATION_JSON)), service::allCollections)
                 .andRoute(POST(ROOT_PATH), service::createCollection)
@@ -249,6 +250,7 @@ public class TaxonomyRouter {
                 .andRoute(POST(URN_PATH).and(contentType(APPLICATION_JSON)), service::createURN)
                 .andRoute(GET(URN_PATH).and(accept(APPLICATION_JSON)), service::allURNs)
                 .andRoute(GET(URN_ITEM_PATH).and(accept(APPLICATION_JSON)), service::getURN)
-                .andRoute(DELETE(URN_ITEM_PATH), service::deleteURN);
+                .andRoute(DELETE(URN_ITEM_PATH), service::deleteURN)
+                .filter(tracer.handlerFilter("TaxonomyRouter"));
     }
 }
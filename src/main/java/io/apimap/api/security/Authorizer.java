@@ -21,37 +21,27 @@ package io.apimap.api.security;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.AccessConfiguration;
-import io.apimap.api.repository.interfaces.IApi;
-import io.apimap.api.repository.interfaces.ITaxonomyCollection;
-import io.apimap.api.repository.repository.IApiRepository;
-import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.service.context.ApiContext;
 import io.apimap.api.service.context.AuthorizationContext;
 import io.apimap.api.service.context.TaxonomyContext;
 import io.apimap.api.utils.RequestUtil;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.util.concurrent.ExecutionException;
+import java.util.Optional;
 
 /*
  This is not to add security, it is just a minimal effort to make it a little harder
-  to update someone else's information
+  to update someone else's information. API and taxonomy tokens are checked by the
+  TokenVerificationWebFilter, a request it did not check is denied.
  */
 @Component("Authorizer")
 public class Authorizer {
-    protected final IApiRepository apiRepository;
-    protected final ITaxonomyRepository taxonomyRepository;
     protected final AccessConfiguration accessConfiguration;
 
     @SuppressFBWarnings
-    public Authorizer(final IApiRepository apiRepository,
-                      final ITaxonomyRepository taxonomyRepository,
-                      final AccessConfiguration accessConfiguration) {
-        this.apiRepository = apiRepository;
-        this.taxonomyRepository = taxonomyRepository;
+    public Authorizer(final AccessConfiguration accessConfiguration) {
         this.accessConfiguration = accessConfiguration;
     }
 
@@ -65,19 +55,9 @@ public class Authorizer {
         final TaxonomyContext taxonomyContext = RequestUtil.taxonomyContextFromRequest(request);
         if (taxonomyContext.getNid() == null) return Boolean.FALSE;
 
-        try {
-            return (Boolean) taxonomyRepository
-                    .getTaxonomyCollection(taxonomyContext.getNid())
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .filter(collection -> ((ITaxonomyCollection) collection).getToken() != null)
-                    .filter(collection -> ((ITaxonomyCollection) collection).getToken().equals(authorizationContext.getToken()))
-                    .flatMap(collection -> Mono.just(Boolean.TRUE))
-                    .switchIfEmpty(Mono.defer(() -> Mono.just(Boolean.FALSE)))
-                    .toFuture()
-                    .get(); // Fix: Spring 5.8.x
-        } catch (ExecutionException | InterruptedException e) {
-            return false;
-        }
+        // Checked by TokenVerificationWebFilter before the handler was called
+        final Optional<Object> verified = request.attribute(TokenVerificationWebFilter.taxonomyAttribute(taxonomyContext.getNid()));
+        return verified.map(Boolean.TRUE::equals).orElse(Boolean.FALSE);
     }
 
     /*
@@ -90,19 +70,9 @@ public class Authorizer {
         final ApiContext apiContext = RequestUtil.apiContextFromRequest(request);
         if (apiContext.getApiName() == null) return Boolean.FALSE;
 
-        try {
-            return (Boolean) apiRepository
-                    .get(apiContext.getApiName())
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .filter(api -> ((IApi) api).getToken() != null)
-                    .filter(api -> ((IApi) api).getToken().equals(authorizationContext.getToken()))
-                    .flatMap(api -> Mono.just(Boolean.TRUE))
-                    .switchIfEmpty(Mono.defer(() -> Mono.just(Boolean.FALSE)))
-                    .toFuture()
-                    .get(); // Fix: Spring 5.8.x
-        } catch (ExecutionException | InterruptedException e) {
-            return false;
-        }
+        // Checked by TokenVerificationWebFilter before the handler was called
+        final Optional<Object> verified = request.attribute(TokenVerificationWebFilter.apiAttribute(apiContext.getApiName()));
+        return verified.map(Boolean.TRUE::equals).orElse(Boolean.FALSE);
     }
 
     /*
@@ -114,4 +84,14 @@ public class Authorizer {
 
         return accessConfiguration.getToken().equals(authorizationContext.getToken());
     }
+
+    /*
+    Is the token valid to use the protected actuator endpoints?
+     */
+    public boolean isValidAccessToken(ServerHttpRequest request) {
+        final AuthorizationContext authorizationContext = new AuthorizationContext(RequestUtil.bearerTokenFromRequest(request));
+        if (authorizationContext.isEmpty()) return Boolean.FALSE;
+
+        return accessConfiguration.getToken().equals(authorizationContext.getToken());
+    }
 }
@@ -0,0 +1,111 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.security;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.router.ApiRouter;
+import io.apimap.api.router.TaxonomyRouter;
+import io.apimap.api.service.context.AuthorizationContext;
+import io.apimap.api.utils.RequestUtil;
+import io.apimap.api.utils.URLDecodeEncodeUtil;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/*
+Checks the bearer token of API and taxonomy writes before the handler runs and keeps the outcome
+in the exchange attributes, where the @PreAuthorize expressions of the Authorizer read it.
+The expressions are evaluated synchronously, this keeps the token lookup off the request thread.
+ */
+@Component
+public class TokenVerificationWebFilter implements WebFilter {
+    protected static final PathPattern API_PATTERN = PathPatternParser.defaultInstance.parse(ApiRouter.ITEM_PATH + "/**");
+    protected static final PathPattern TAXONOMY_PATTERN = PathPatternParser.defaultInstance.parse(TaxonomyRouter.COLLECTION_PATH + "/**");
+
+    protected final TokenVerifier tokenVerifier;
+
+    @SuppressFBWarnings
+    public TokenVerificationWebFilter(final TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    /*
+    Attribute holding whether the token is valid for the API or taxonomy
+     */
+    public static String apiAttribute(final String apiName) {
+        return "apimap.token.api:" + apiName;
+    }
+
+    public static String taxonomyAttribute(final String nid) {
+        return "apimap.token.taxonomy:" + nid;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final HttpMethod method = request.getMethod();
+
+        if (method == null || method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+
+        final AuthorizationContext authorizationContext = new AuthorizationContext(RequestUtil.bearerTokenFromRequest(request));
+        if (authorizationContext.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        final PathPattern.PathMatchInfo api = API_PATTERN.matchAndExtract(request.getPath().pathWithinApplication());
+        if (api != null) {
+            final String apiName = decode(api.getUriVariables().get(ApiRouter.API_NAME_KEY));
+            return tokenVerifier
+                    .isValidApiToken(apiName, authorizationContext.getToken())
+                    .doOnNext(valid -> exchange.getAttributes().put(apiAttribute(apiName), valid))
+                    .then(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        final PathPattern.PathMatchInfo taxonomy = TAXONOMY_PATTERN.matchAndExtract(request.getPath().pathWithinApplication());
+        if (taxonomy != null) {
+            final String nid = decode(taxonomy.getUriVariables().get(TaxonomyRouter.TAXONOMY_NID_KEY));
+            return tokenVerifier
+                    .isValidTaxonomyToken(nid, authorizationContext.getToken())
+                    .doOnNext(valid -> exchange.getAttributes().put(taxonomyAttribute(nid), valid))
+                    .then(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        return chain.filter(exchange);
+    }
+
+    /*
+    Decoded the same way as RequestUtil decodes the path variables of the routes
+     */
+    protected static String decode(final String value) {
+        try {
+            return URLDecodeEncodeUtil.urlDecodeString(value);
+        } catch (Exception ignored) {
+            return value;
+        }
+    }
+}
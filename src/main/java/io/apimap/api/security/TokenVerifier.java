@@ -0,0 +1,148 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.security;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.ITaxonomyCollection;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+Checks API and taxonomy tokens without blocking. The SHA-256 digest of the stored token is cached
+per API name and taxonomy nid for a short time, writes that rename or delete them evict it. Names
+and nids that do not exist are not cached, the token of an API or taxonomy created right after a
+denied write must be accepted at once, whichever instance created it.
+ */
+@Component
+public class TokenVerifier {
+    public static final String CHECKS = "apimap.authorization.checks";
+
+    protected static final String API = "api";
+    protected static final String TAXONOMY = "taxonomy";
+    protected static final byte[] NO_TOKEN = new byte[0];
+
+    protected final IApiRepository apiRepository;
+    protected final ITaxonomyRepository taxonomyRepository;
+    protected final MeterRegistry meterRegistry;
+
+    // Both null when the cache is disabled
+    protected final BoundedCache<String, byte[]> apiTokens;
+    protected final BoundedCache<String, byte[]> taxonomyTokens;
+
+    @SuppressFBWarnings
+    public TokenVerifier(final IApiRepository apiRepository,
+                         final ITaxonomyRepository taxonomyRepository,
+                         final CacheConfiguration cacheConfiguration,
+                         final MeterRegistry meterRegistry) {
+        final CacheConfiguration.Settings settings = cacheConfiguration.getTokens();
+
+        this.apiRepository = apiRepository;
+        this.taxonomyRepository = taxonomyRepository;
+        this.meterRegistry = meterRegistry;
+
+        if (settings.isEnabled()) {
+            this.apiTokens = new BoundedCache<>("tokens.api", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+            this.taxonomyTokens = new BoundedCache<>("tokens.taxonomy", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        } else {
+            this.apiTokens = null;
+            this.taxonomyTokens = null;
+        }
+    }
+
+    public Mono<Boolean> isValidApiToken(final String apiName, final String token) {
+        final Supplier<Mono<byte[]>> loader = () -> apiRepository
+                .get(apiName)
+                .map(api -> digest(((IApi) api).getToken()));
+
+        return verify(API, apiTokens, apiName, token, loader);
+    }
+
+    public Mono<Boolean> isValidTaxonomyToken(final String nid, final String token) {
+        final Supplier<Mono<byte[]>> loader = () -> taxonomyRepository
+                .getTaxonomyCollection(nid)
+                .map(collection -> digest(((ITaxonomyCollection) collection).getToken()));
+
+        return verify(TAXONOMY, taxonomyTokens, nid, token, loader);
+    }
+
+    public void apiModified(final String apiName) {
+        if (apiTokens != null && apiName != null) apiTokens.invalidate(apiName);
+    }
+
+    public void taxonomyModified(final String nid) {
+        if (taxonomyTokens != null && nid != null) taxonomyTokens.invalidate(nid);
+    }
+
+    protected Mono<Boolean> verify(final String type,
+                                   final BoundedCache<String, byte[]> cache,
+                                   final String key,
+                                   final String token,
+                                   final Supplier<Mono<byte[]>> loader) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            final byte[] presented = digest(token);
+
+            return (cache == null ? loader.get() : cached(cache, key, loader))
+                    .map(stored -> stored != NO_TOKEN && MessageDigest.isEqual(stored, presented))
+                    .defaultIfEmpty(Boolean.FALSE)
+                    .doOnNext(valid -> record(type, valid, System.nanoTime() - start));
+        });
+    }
+
+    protected static Mono<byte[]> cached(final BoundedCache<String, byte[]> cache,
+                                         final String key,
+                                         final Supplier<Mono<byte[]>> loader) {
+        return cache
+                .get(key, loader)
+                .switchIfEmpty(Mono.fromRunnable(() -> cache.invalidate(key)));
+    }
+
+    protected void record(final String type, final boolean valid, final long nanos) {
+        Timer.builder(CHECKS)
+                .description("Time spent checking API and taxonomy tokens")
+                .tag("type", type)
+                .tag("outcome", valid ? "granted" : "denied")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    protected static byte[] digest(final String token) {
+        if (token == null) return NO_TOKEN;
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import io.apimap.api.rest.ClassificationRootRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ApiContext;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
 import io.apimap.api.utils.RequestUtil;
 import org.jetbrains.annotations.NotNull;
@@ -54,16 +55,19 @@ public class ApiClassificationService {
     final protected IApiRepository apiRepository;
     final protected IRESTConverter entityMapper;
     final protected ApimapConfiguration apimapConfiguration;
+    final protected ResourceVersions resourceVersions;
 
     @SuppressFBWarnings
     public ApiClassificationService(final IRESTConverter entityMapper,
                                     final IClassificationRepository classificationRepository,
                                     final IApiRepository apiRepository,
-                                    final ApimapConfiguration apimapConfiguration) {
+                                    final ApimapConfiguration apimapConfiguration,
+                                    final ResourceVersions resourceVersions) {
         this.classificationRepository = classificationRepository;
         this.apiRepository = apiRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
+        this.resourceVersions = resourceVersions;
     }
 
     @NotNull
@@ -80,7 +84,8 @@ public class ApiClassificationService {
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .noContent())
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     @NotNull
@@ -101,6 +106,11 @@ public class ApiClassificationService {
 
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
         final URI uri = request.uri();
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
@@ -112,6 +122,7 @@ public class ApiClassificationService {
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) classification)
+                        .withETag(etag)
                         .okCollection()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
@@ -144,6 +155,7 @@ public class ApiClassificationService {
                         .withBody((JsonApiRestResponseWrapper<?>) classification)
                         .created(false)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 }
\ No newline at end of file
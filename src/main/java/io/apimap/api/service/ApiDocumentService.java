@@ -27,24 +27,25 @@ import io.apimap.api.repository.interfaces.IDocument;
 import io.apimap.api.repository.repository.IApiRepository;
 import io.apimap.api.repository.repository.IMetadataRepository;
 import io.apimap.api.service.context.ApiContext;
+import io.apimap.api.service.response.DocumentRenderer;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
+import io.apimap.api.utils.CompressionUtil;
 import io.apimap.api.utils.RequestUtil;
-import org.commonmark.parser.Parser;
-import org.commonmark.renderer.html.HtmlRenderer;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 @Service
 public class ApiDocumentService {
@@ -54,16 +55,22 @@ public class ApiDocumentService {
     final protected IMetadataRepository metadataRepository;
     final protected IApiRepository apiRepository;
     final protected ApimapConfiguration apimapConfiguration;
+    final protected ResourceVersions resourceVersions;
+    final protected DocumentRenderer documentRenderer;
 
     @SuppressFBWarnings
     public ApiDocumentService(final IRESTConverter entityMapper,
                               final IMetadataRepository metadataRepository,
                               final IApiRepository apiRepository,
-                              final ApimapConfiguration apimapConfiguration) {
+                              final ApimapConfiguration apimapConfiguration,
+                              final ResourceVersions resourceVersions,
+                              final DocumentRenderer documentRenderer) {
         this.metadataRepository = metadataRepository;
         this.apiRepository = apiRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
+        this.resourceVersions = resourceVersions;
+        this.documentRenderer = documentRenderer;
     }
 
     /*
@@ -82,22 +89,7 @@ public class ApiDocumentService {
 
     @NotNull
     public Mono<ServerResponse> getFormattedReadme(final ServerRequest request) {
-        final long startTime = System.currentTimeMillis();
-        final ApiContext context = RequestUtil.apiContextFromRequest(request);
-
-        return apiRepository
-                .get(context.getApiName())
-                .flatMap(api -> metadataRepository.getDocument(((IApi) api).getId(), context.getApiVersion(), IDocument.DocumentType.README))
-                .flatMap(document -> {
-                    Parser parser = Parser.builder().build();
-                    HtmlRenderer renderer = HtmlRenderer.builder().sanitizeUrls(true).escapeHtml(true).build();
-                    return Mono.justOrEmpty(renderer.render(parser.parse(((IDocument) document).getBody())));
-                })
-                .flatMap(text -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .text((String) text, MediaType.TEXT_HTML)
-                )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+        return getFormattedDocument(request, IDocument.DocumentType.README);
     }
 
     @NotNull
@@ -134,22 +126,7 @@ public class ApiDocumentService {
 
     @NotNull
     public Mono<ServerResponse> getFormattedChangelog(final ServerRequest request) {
-        final long startTime = System.currentTimeMillis();
-        final ApiContext context = RequestUtil.apiContextFromRequest(request);
-
-        return apiRepository
-                .get(context.getApiName())
-                .flatMap(api -> metadataRepository.getDocument(((IApi) api).getId(), context.getApiVersion(), IDocument.DocumentType.CHANGELOG))
-                .flatMap(document -> {
-                    Parser parser = Parser.builder().build();
-                    HtmlRenderer renderer = HtmlRenderer.builder().sanitizeUrls(true).escapeHtml(true).build();
-                    return Mono.justOrEmpty(renderer.render(parser.parse(((IDocument) document).getBody())));
-                })
-                .flatMap(text -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .text((String) text, MediaType.TEXT_HTML)
-                )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+        return getFormattedDocument(request, IDocument.DocumentType.CHANGELOG);
     }
 
     @NotNull
@@ -168,24 +145,21 @@ public class ApiDocumentService {
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
 
-        return request
-                .bodyToMono(ByteArrayResource.class)
-                .doOnNext(bytes -> {
-                    if( bytes.contentLength() > apimapConfiguration.getLimits().getMaximumMetadataDocumentSize()){
-                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Maximum upload size is " + apimapConfiguration.getLimits().getMaximumMetadataDocumentSize() + " byte(s)");
-                    }
-                })
-                .flatMap(bytes -> entityMapper.decodeMetadataDocument(context, bytes, type))
+        return RequestUtil
+                .boundedBody(request, apimapConfiguration.getLimits().getMaximumMetadataDocumentSize())
+                .flatMap(bytes -> decodeDocument(context, bytes, type))
                 .flatMap(document -> apiRepository
                         .get(context.getApiName())
                         .flatMap(api -> metadataRepository.addDocument(((IApi) api).getId(), context.getApiVersion(), document))
                 )
+                .doOnNext(document -> documentRenderer.invalidate(((IDocument) document).getApiId(), context.getApiVersion(), type))
                 .flatMap(document -> entityMapper.encodeMetadataDocument(uri, (IDocument) document))
                 .flatMap(content -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .text((String) content, MediaType.TEXT_MARKDOWN)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     protected Mono<ServerResponse> getDocument(final ServerRequest request, final IDocument.DocumentType type) {
@@ -193,15 +167,60 @@ public class ApiDocumentService {
 
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
                 .flatMap(api -> metadataRepository.getDocument(((IApi) api).getId(), context.getApiVersion(), type))
-                .flatMap(document -> entityMapper.encodeMetadataDocument(uri, (IDocument) document))
-                .flatMap(content -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .text((String) content, MediaType.TEXT_MARKDOWN)
-                )
+                .flatMap(document -> {
+                    final IDocument stored = (IDocument) document;
+
+                    // Compressed bodies are sent as stored to clients accepting the encoding
+                    if (CompressionUtil.GZIP.equals(stored.getEncoding()) && RequestUtil.acceptsEncoding(request, CompressionUtil.GZIP)) {
+                        return ResponseBuilder
+                                .builder(startTime, apimapConfiguration)
+                                .withETag(etag)
+                                .encoded(stored.getContent(), CompressionUtil.GZIP, MediaType.TEXT_MARKDOWN);
+                    }
+
+                    return entityMapper
+                            .encodeMetadataDocument(uri, stored)
+                            .flatMap(content -> ResponseBuilder
+                                    .builder(startTime, apimapConfiguration)
+                                    .withETag(etag)
+                                    .text((String) content, MediaType.TEXT_MARKDOWN)
+                            );
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    /*
+    HTML rendered when the document was written, served with a strong ETag of its content
+     */
+    protected Mono<ServerResponse> getFormattedDocument(final ServerRequest request, final IDocument.DocumentType type) {
+        final long startTime = System.currentTimeMillis();
+        final ApiContext context = RequestUtil.apiContextFromRequest(request);
+
+        return apiRepository
+                .get(context.getApiName())
+                .flatMap(api -> documentRenderer.rendered(((IApi) api).getId(), context.getApiVersion(), type,
+                        () -> metadataRepository.getDocument(((IApi) api).getId(), context.getApiVersion(), type)))
+                .flatMap(rendered -> {
+                    final DocumentRenderer.Rendered document = (DocumentRenderer.Rendered) rendered;
+
+                    if (RequestUtil.isNotModified(request, document.getEtag())) {
+                        return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(document.getEtag()).notModified();
+                    }
+
+                    return ResponseBuilder
+                            .builder(startTime, apimapConfiguration)
+                            .withETag(document.getEtag())
+                            .text(document.getHtml(), MediaType.TEXT_HTML);
+                })
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
 
@@ -212,12 +231,14 @@ public class ApiDocumentService {
 
         return apiRepository
                 .get(context.getApiName())
-                .flatMap(api -> metadataRepository.deleteDocument(((IApi) api).getId(), context.getApiVersion(), type))
+                .flatMap(api -> metadataRepository.deleteDocument(((IApi) api).getId(), context.getApiVersion(), type)
+                        .doOnNext(deleted -> documentRenderer.invalidate(((IApi) api).getId(), context.getApiVersion(), type)))
                 .filter(value -> (Boolean) value)
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .noContent())
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     protected Mono<ServerResponse> updateDocument(final ServerRequest request, final IDocument.DocumentType type) {
@@ -226,24 +247,37 @@ public class ApiDocumentService {
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
 
-        return request
-                .bodyToMono(ByteArrayResource.class)
-                .doOnNext(bytes -> {
-                    if( bytes.contentLength() > apimapConfiguration.getLimits().getMaximumMetadataDocumentSize()){
-                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Maximum upload size is " + apimapConfiguration.getLimits().getMaximumMetadataDocumentSize() + " byte(s)");
-                    }
-                })
-                .flatMap(byteArrayResource -> apiRepository
+        return RequestUtil
+                .boundedBody(request, apimapConfiguration.getLimits().getMaximumMetadataDocumentSize())
+                .flatMap(bytes -> apiRepository
                         .get(context.getApiName())
-                        .flatMap(api -> entityMapper.decodeMetadataDocument(context.withApiId(((IApi) api).getId()), byteArrayResource, type)
+                        .flatMap(api -> decodeDocument(context.withApiId(((IApi) api).getId()), bytes, type)
                                 .flatMap(document -> metadataRepository.updateDocument(((IApi) api).getId(), context.getApiVersion(), document))
                         )
                 )
+                .doOnNext(document -> documentRenderer.invalidate(((IDocument) document).getApiId(), context.getApiVersion(), type))
                 .flatMap(document -> entityMapper.encodeMetadataDocument(uri, (IDocument) document))
                 .flatMap(content -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .text((String) content, MediaType.TEXT_MARKDOWN)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
+    }
+
+    /*
+    Compresses and renders the uploaded body before it is stored, so reads never parse Markdown.
+    Large bodies are compressed off the event loop, DocumentRenderer does the same when rendering.
+     */
+    protected Mono<IDocument> decodeDocument(final ApiContext context, final byte[] body, final IDocument.DocumentType type) {
+        final Mono<IDocument> document = Mono.defer(() -> entityMapper.decodeMetadataDocument(context, new ByteArrayResource(body), type));
+
+        return (body.length > DocumentRenderer.OFFLOAD_SIZE ? document.subscribeOn(Schedulers.boundedElastic()) : document)
+                .flatMap(decoded -> documentRenderer
+                        .render(new String(body, StandardCharsets.UTF_8))
+                        .map(html -> {
+                            decoded.setHtml(html);
+                            return decoded;
+                        }));
     }
-}
+}
\ No newline at end of file
@@ -32,6 +32,7 @@ import io.apimap.api.rest.MetadataDataRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ApiContext;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
 import io.apimap.api.utils.RequestUtil;
 import io.apimap.api.utils.URIUtil;
@@ -52,16 +53,19 @@ public class ApiMetadataService {
     final protected IMetadataRepository metadataRepository;
     final protected IApiRepository apiRepository;
     final protected ApimapConfiguration apimapConfiguration;
+    final protected ResourceVersions resourceVersions;
 
     @SuppressFBWarnings
     public ApiMetadataService(final IRESTConverter entityMapper,
                               final IMetadataRepository metadataRepository,
                               final IApiRepository apiRepository,
-                              final ApimapConfiguration apimapConfiguration) {
+                              final ApimapConfiguration apimapConfiguration,
+                              final ResourceVersions resourceVersions) {
         this.metadataRepository = metadataRepository;
         this.apiRepository = apiRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
+        this.resourceVersions = resourceVersions;
     }
 
     @NotNull
@@ -78,7 +82,8 @@ public class ApiMetadataService {
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .noContent())
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     @NotNull
@@ -108,7 +113,8 @@ public class ApiMetadataService {
                         .withBody((JsonApiRestResponseWrapper<MetadataDataRestEntity>) version)
                         .okResource()
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     @NotNull
@@ -117,6 +123,11 @@ public class ApiMetadataService {
 
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
@@ -129,6 +140,7 @@ public class ApiMetadataService {
                         .addRelatedRef(JsonApiRestResponseWrapper.VERSION_COLLECTION, URIUtil.rootLevelFromURI(uri).append("api").append(context.getApiName()).append("version").uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.API_ELEMENT, URIUtil.rootLevelFromURI(uri).append("api").append(context.getApiName()).uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.API_COLLECTION, URIUtil.rootLevelFromURI(uri).append("api").uriValue())
+                        .withETag(etag)
                         .okResource()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
@@ -161,6 +173,7 @@ public class ApiMetadataService {
                         .withBody((JsonApiRestResponseWrapper<MetadataDataRestEntity>) version)
                         .created(true)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 }
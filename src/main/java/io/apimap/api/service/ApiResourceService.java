@@ -26,50 +26,72 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.ApimapConfiguration;
 import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.generic.StatisticsValue;
 import io.apimap.api.repository.interfaces.IApi;
 import io.apimap.api.repository.interfaces.IApiVersion;
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.interfaces.IVoteSummary;
 import io.apimap.api.repository.repository.*;
+import io.apimap.api.rest.ApiCollectionDataRestEntity;
 import io.apimap.api.rest.ApiCollectionRootRestEntity;
 import io.apimap.api.rest.ApiDataRestEntity;
 import io.apimap.api.rest.ApiVersionCollectionRootRestEntity;
 import io.apimap.api.rest.ApiVersionDataRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
+import io.apimap.api.security.TokenVerifier;
 import io.apimap.api.service.context.ApiContext;
+import io.apimap.api.service.query.Page;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
 import io.apimap.api.utils.RequestUtil;
 import io.apimap.api.utils.URIUtil;
-import io.netty.buffer.UnpooledByteBufAllocator;
+import io.apimap.api.utils.ZipStreamReader;
+import io.apimap.api.utils.ZipStreamWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
+import reactor.util.function.Tuple3;
 import reactor.util.function.Tuples;
 
-import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class ApiResourceService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApiResourceService.class);
 
+    public static final String ARCHIVE_APIS = "apis.json";
+    public static final String ARCHIVE_VERSIONS = "versions.json";
+    public static final String ARCHIVE_CLASSIFICATIONS = "classifications.json";
+    public static final String ARCHIVE_METADATA = "metadata.json";
+
+    protected static final int IMPORT_BATCH_SIZE = 500;
+    protected static final int STREAM_BATCH_SIZE = 500;
+
     final protected IRESTConverter entityMapper;
     final protected IApiRepository apiRepository;
     final protected IMetadataRepository metadataRepository;
@@ -78,6 +100,9 @@ public class ApiResourceService {
     final protected IVoteRepository voteRepository;
 
     final protected ApimapConfiguration apimapConfiguration;
+    final protected MeterRegistry meterRegistry;
+    final protected ResourceVersions resourceVersions;
+    final protected TokenVerifier tokenVerifier;
 
     @SuppressFBWarnings
     public ApiResourceService(final IApiRepository apiRepository,
@@ -86,7 +111,10 @@ public class ApiResourceService {
                               final IClassificationRepository classificationRepository,
                               final ApimapConfiguration apimapConfiguration,
                               final IRESTConverter entityMapper,
-                              final IVoteRepository voteRepository) {
+                              final IVoteRepository voteRepository,
+                              final MeterRegistry meterRegistry,
+                              final ResourceVersions resourceVersions,
+                              final TokenVerifier tokenVerifier) {
         this.apiRepository = apiRepository;
         this.taxonomyRepository = taxonomyRepository;
         this.metadataRepository = metadataRepository;
@@ -94,6 +122,9 @@ public class ApiResourceService {
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
         this.voteRepository = voteRepository;
+        this.meterRegistry = meterRegistry;
+        this.resourceVersions = resourceVersions;
+        this.tokenVerifier = tokenVerifier;
     }
 
     @NotNull
@@ -101,107 +132,177 @@ public class ApiResourceService {
         final long startTime = System.currentTimeMillis();
 
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final Page page = RequestUtil.pageFromRequest(request);
         final URI uri = request.uri();
+        final String etag = resourceVersions.catalogTag();
 
-        return apiRepository
-                .allByFilters(apiRepository.queryFilters(context.getFilters()))
-                .flatMap(api -> apiRepository.getLatestApiVersion(((IApi) api).getId())
-                                .flatMap(apiVersion -> Mono.just(Tuples.of(api, apiVersion)))
-                                .flatMap(tuple -> metadataRepository.get(((IApi) ((Tuple2) tuple).getT1()).getId(), ((IApiVersion) ((Tuple2) tuple).getT2()).getVersion())
-                                    .flatMap(metadata -> Mono.just(Tuples.of(Optional.of(api), Optional.of(metadata), Optional.of(((Tuple2<?, ?>) tuple).getT2())))))
-                        .switchIfEmpty(Mono.defer(() -> Mono.just(Tuples.of(Optional.of(api), Optional.empty(), Optional.empty())))))
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
+
+        if (page == null) {
+            return streamApis(context, uri, etag, startTime);
+        }
+
+        final Flux<IApi> apis = apiRepository.allByFilters(apiRepository.queryFilters(context.getFilters()), page);
+
+        return apis
                 .collectList()
-                .flatMap(result -> entityMapper.encodeApis(uri, (List) result))
-                .flatMap(collection -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .withResourceURI(uri)
-                        .withBody((JsonApiRestResponseWrapper<ApiCollectionRootRestEntity>) collection)
-                        .okCollection()
-                )
+                .map(collection -> page.slice(collection, IApi::getId))
+                .flatMap(slice -> latestApiVersionsWithMetadata(slice.getContent())
+                        .flatMap(result -> entityMapper.encodeApis(uri, (List) result))
+                        .flatMap(collection -> ResponseBuilder
+                                .builder(startTime, apimapConfiguration)
+                                .withResourceURI(uri)
+                                .withBody((JsonApiRestResponseWrapper<ApiCollectionRootRestEntity>) collection)
+                                .withPage(slice)
+                                .withETag(etag)
+                                .okCollection()
+                        ))
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.noContent().build()));
     }
 
-    @SuppressFBWarnings(value = "OS_OPEN_STREAM", justification = "in-memory buffers, can be GCed just fine")
+    /*
+    The whole collection is written while it is read, versions and metadata are resolved in batches
+     */
+    protected Mono<ServerResponse> streamApis(final ApiContext context, final URI uri, final String etag, final long startTime) {
+        final ApiCollectionDataRestEntity placeholder = new ApiCollectionDataRestEntity(
+                "placeholder-" + UUID.randomUUID(), "", "", "", "", new ArrayList<>(), "", null);
+
+        final Flux<ApiCollectionDataRestEntity> entities = apiRepository
+                .allByFilters(apiRepository.queryFilters(context.getFilters()))
+                .buffer(STREAM_BATCH_SIZE)
+                .concatMap(apis -> latestApiVersionsWithMetadata((List<IApi>) apis)
+                        .flatMap(result -> entityMapper.encodeApis(uri, (List) result)))
+                .flatMapIterable(collection -> ((JsonApiRestResponseWrapper<ApiCollectionRootRestEntity>) collection).getData().getData());
+
+        return ResponseBuilder
+                .builder(startTime, apimapConfiguration)
+                .withResourceURI(uri)
+                .withBody(new JsonApiRestResponseWrapper<>(new ApiCollectionRootRestEntity(new ArrayList<>(List.of(placeholder)))))
+                .withETag(etag)
+                .okCollection(entities, placeholder);
+    }
+
+    /*
+    Resolves the latest version and its metadata for every API using one bulk lookup per collection,
+    APIs without a version or without metadata for the latest version are returned without either
+     */
+    protected Mono<List<Tuple3<Optional<IApi>, Optional<IMetadata>, Optional<IApiVersion>>>> latestApiVersionsWithMetadata(final List<IApi> apis) {
+        final List<String> apiIds = apis
+                .stream()
+                .map(IApi::getId)
+                .collect(Collectors.toList());
+
+        return apiRepository
+                .getLatestApiVersions(apiIds)
+                .collectMap(version -> ((IApiVersion) version).getApiId())
+                .flatMap(versions -> metadataRepository
+                        .getAll(((Map<String, IApiVersion>) versions)
+                                .values()
+                                .stream()
+                                .map(version -> Tuples.of(version.getApiId(), version.getVersion()))
+                                .collect(Collectors.toList()))
+                        .collectMap(metadata -> ((IMetadata) metadata).getApiId())
+                        .map(metadata -> apis
+                                .stream()
+                                .map(api -> {
+                                    final IApiVersion version = ((Map<String, IApiVersion>) versions).get(api.getId());
+                                    final IMetadata apiMetadata = ((Map<String, IMetadata>) metadata).get(api.getId());
+
+                                    if (version == null || apiMetadata == null) {
+                                        return Tuples.of(Optional.of(api), Optional.<IMetadata>empty(), Optional.<IApiVersion>empty());
+                                    }
+
+                                    return Tuples.of(Optional.of(api), Optional.of(apiMetadata), Optional.of(version));
+                                })
+                                .collect(Collectors.toList())));
+    }
+
     @NotNull
     @PreAuthorize("@Authorizer.isValidAccessToken(#request)")
     public Mono<ServerResponse> allApisZip(final ServerRequest request){
-        NettyDataBufferFactory nettyDataBufferFactory = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
-        DataBuffer dataBuffer = nettyDataBufferFactory.allocateBuffer();
-
-        ReentrantLock lock = new ReentrantLock();
-
-        ObjectMapper mapper = new ObjectMapper()
+        final ObjectMapper mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
 
-        ZipOutputStream zipOutputStream = new ZipOutputStream(dataBuffer.asOutputStream());
-        return Mono.when(
-                        apiRepository
-                                .all()
-                                .collectList()
-                                .publishOn(Schedulers.boundedElastic())
-                                .doOnNext(collection -> {
-                                    try {
-                                        lock.lock();
-                                        zipOutputStream.putNextEntry(new ZipEntry("apis.json"));
-                                        zipOutputStream.write(mapper.writeValueAsBytes(collection));
-                                        zipOutputStream.closeEntry();
-                                    } catch (IOException e) {
-                                        LOGGER.warn("failed to serialize APIs", e);
-                                    } finally {
-                                        lock.unlock();
-                                    }
-                                }),
-                        classificationRepository
-                                .all()
-                                .collectList()
-                                .publishOn(Schedulers.boundedElastic())
-                                .doOnNext(collection -> {
-                                    try {
-                                        lock.lock();
-                                        zipOutputStream.putNextEntry(new ZipEntry("classifications.json"));
-                                        zipOutputStream.write(mapper.writeValueAsBytes(collection));
-                                        zipOutputStream.closeEntry();
-                                    } catch (IOException e) {
-                                        LOGGER.warn("failed to serialize classifications", e);
-                                    } finally {
-                                        lock.unlock();
-                                    }
-                                }),
-                        metadataRepository
-                                .all()
-                                .collectList()
-                                .publishOn(Schedulers.boundedElastic())
-                                .doOnNext(collection -> {
-                                    try {
-                                        lock.lock();
-                                        zipOutputStream.putNextEntry(new ZipEntry("metadata.json"));
-                                        zipOutputStream.write(mapper.writeValueAsBytes(collection));
-                                        zipOutputStream.closeEntry();
-                                    } catch (IOException e) {
-                                        LOGGER.warn("failed to serialize metadata", e);
-                                    } finally {
-                                        lock.unlock();
-                                    }
-                                })
+        final ZipStreamWriter writer = new ZipStreamWriter(
+                new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT),
+                mapper,
+                meterRegistry,
+                ZipStreamWriter.DEFAULT_CHUNK_SIZE);
+
+        final Flux<DataBuffer> body = Flux.concat(
+                        writer.entry(ARCHIVE_APIS, apiRepository.all()),
+                        writer.entry(ARCHIVE_CLASSIFICATIONS, classificationRepository.all()),
+                        writer.entry(ARCHIVE_METADATA, metadataRepository.all()),
+                        writer.entry(ARCHIVE_VERSIONS, apiRepository.allApiVersions()),
+                        writer.finish()
                 )
-                .thenReturn(Boolean.TRUE)
-                .publishOn(Schedulers.boundedElastic())
-                .flatMap(status -> {
-                    try {
-                        zipOutputStream.finish();
-                        zipOutputStream.close();
-                        return ServerResponse.status(HttpStatus.OK)
-                                .header("Access-Control-Allow-Origin", "*")
-                                .header("Access-Control-Request-Method", "GET")
-                                .contentType(new MediaType("application", "zip"))
-                                .body(Mono.just(dataBuffer), DataBuffer.class);
-                    } catch (IOException e) {
-                        LOGGER.warn("Error creating ZIP", e);
-                        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                .bodyValue("Error creating ZIP");
-                    }
-                });
+                .doOnError(e -> LOGGER.warn("Error creating ZIP", e))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .doFinally(signal -> writer.release());
+
+        return ServerResponse.status(HttpStatus.OK)
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Request-Method", "GET")
+                .contentType(new MediaType("application", "zip"))
+                .body(body, DataBuffer.class);
+    }
+
+    @NotNull
+    @PreAuthorize("@Authorizer.isValidAccessToken(#request)")
+    public Mono<ServerResponse> importApisZip(final ServerRequest request) {
+        final long startTime = System.currentTimeMillis();
+
+        final URI uri = request.uri();
+        final Map<String, Long> counts = new LinkedHashMap<>();
+
+        return ZipStreamReader
+                .read(request.body(BodyExtractors.toDataBuffers()), new ObjectMapper(), IMPORT_BATCH_SIZE)
+                .concatMap(batch -> importBatch(batch)
+                        .doOnNext(count -> counts.merge(batch.getEntryName(), count, Long::sum)))
+                .then(Mono.fromSupplier(() -> importStatistics(counts, startTime)))
+                .flatMap(statistics -> entityMapper.encodeStatistics(uri, statistics))
+                .flatMap(statistics -> ResponseBuilder
+                        .builder(startTime, apimapConfiguration)
+                        .withResourceURI(URIUtil.apiCollectionFromURI(uri).uriValue())
+                        .withBody((JsonApiRestResponseWrapper<?>) statistics)
+                        .created(false)
+                )
+                .doFinally(signal -> resourceVersions.catalogModified());
+    }
+
+    protected Mono<Long> importBatch(final ZipStreamReader.Batch batch) {
+        switch (batch.getEntryName()) {
+            case ARCHIVE_APIS:
+                return apiRepository.addAll(batch.getDocuments().stream().map(entityMapper::decodeArchivedApi).collect(Collectors.toList()));
+            case ARCHIVE_VERSIONS:
+                return apiRepository.addAllApiVersions(batch.getDocuments().stream().map(entityMapper::decodeArchivedApiVersion).collect(Collectors.toList()));
+            case ARCHIVE_CLASSIFICATIONS:
+                return classificationRepository.addAll(batch.getDocuments().stream().map(entityMapper::decodeArchivedClassification).collect(Collectors.toList()));
+            case ARCHIVE_METADATA:
+                return metadataRepository.addAll(batch.getDocuments().stream().map(entityMapper::decodeArchivedMetadata).collect(Collectors.toList()));
+            default:
+                LOGGER.warn("Skipping unknown archive entry '{}'", batch.getEntryName());
+                return Mono.just(0L);
+        }
+    }
+
+    protected List<StatisticsValue> importStatistics(final Map<String, Long> counts, final long startTime) {
+        final long duration = Math.max(1, System.currentTimeMillis() - startTime);
+        final long documents = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        LOGGER.info("Imported {} documents in {} ms {}", documents, duration, counts);
+
+        return List.of(
+                new StatisticsValue("apis", String.valueOf(counts.getOrDefault(ARCHIVE_APIS, 0L))),
+                new StatisticsValue("versions", String.valueOf(counts.getOrDefault(ARCHIVE_VERSIONS, 0L))),
+                new StatisticsValue("classifications", String.valueOf(counts.getOrDefault(ARCHIVE_CLASSIFICATIONS, 0L))),
+                new StatisticsValue("metadata", String.valueOf(counts.getOrDefault(ARCHIVE_METADATA, 0L))),
+                new StatisticsValue("duration-ms", String.valueOf(duration)),
+                new StatisticsValue("documents-per-second", String.valueOf(documents * 1000 / duration))
+        );
     }
 
     @NotNull
@@ -216,6 +317,7 @@ public class ApiResourceService {
                 .filter(Objects::nonNull)
                 .flatMap(api -> entityMapper.decodeApi((JsonApiRestRequestWrapper<ApiDataRestEntity>) api))
                 .flatMap(api -> apiRepository.add(api))
+                .doOnNext(api -> resourceVersions.apiModified(((IApi) api).getName()))
                 .flatMap(api -> entityMapper.encodeApi(uri, (IApi) api))
                 .flatMap(api -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -243,6 +345,8 @@ public class ApiResourceService {
                 .filter(Objects::nonNull)
                 .flatMap(api -> entityMapper.decodeApi((JsonApiRestRequestWrapper<ApiDataRestEntity>) api))
                 .flatMap(api -> apiRepository.update(api, context.getApiName()))
+                .doOnNext(api -> resourceVersions.apiModified(((IApi) api).getName()))
+                .doOnNext(api -> tokenVerifier.apiModified(((IApi) api).getName()))
                 .flatMap(api -> entityMapper.encodeApi(uri, (IApi) api))
                 .flatMap(api -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -253,7 +357,11 @@ public class ApiResourceService {
                         .addRelatedRef(JsonApiRestResponseWrapper.TAXONOMY_COLLECTION, URIUtil.taxonomyCollectionFromURI(request.uri()).uriValue())
                         .okResource()
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .doFinally(signal -> {
+                    resourceVersions.apiModified(context.getApiName());
+                    tokenVerifier.apiModified(context.getApiName());
+                });
     }
 
     @NotNull
@@ -262,6 +370,11 @@ public class ApiResourceService {
 
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
@@ -271,6 +384,7 @@ public class ApiResourceService {
                         .withResourceURI(URIUtil.apiCollectionFromURI(uri).append(((JsonApiRestResponseWrapper<ApiDataRestEntity>) api).getData().getName()).uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.VERSION_COLLECTION, URIUtil.apiCollectionFromURI(uri).append(((JsonApiRestResponseWrapper<ApiDataRestEntity>) api).getData().getName()).append("version").uriValue())
                         .withBody((JsonApiRestResponseWrapper<?>) api)
+                        .withETag(etag)
                         .okResource()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
@@ -293,7 +407,11 @@ public class ApiResourceService {
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .noContent())
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> {
+                    resourceVersions.apiModified(context.getApiName());
+                    tokenVerifier.apiModified(context.getApiName());
+                });
     }
 
     /*
@@ -306,6 +424,11 @@ public class ApiResourceService {
 
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
@@ -321,6 +444,7 @@ public class ApiResourceService {
                         .addRelatedRef(JsonApiRestResponseWrapper.CLASSIFICATION_COLLECTION, URIUtil.apiCollectionFromURI(uri).append(context.getApiName()).append("version").append(context.getApiVersion()).append("classification").uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.README_ELEMENT, URIUtil.apiCollectionFromURI(uri).append(context.getApiName()).append("version").append(context.getApiVersion()).append("readme").uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.CHANGELOG_ELEMENT, URIUtil.apiCollectionFromURI(uri).append(context.getApiName()).append("version").append(context.getApiVersion()).append("changelog").uriValue())
+                        .withETag(etag)
                         .okResource()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
@@ -331,25 +455,53 @@ public class ApiResourceService {
         final long startTime = System.currentTimeMillis();
 
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final Page page = RequestUtil.pageFromRequest(request);
         final URI uri = request.uri();
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
-                .flatMapMany(api -> apiRepository.allApiVersions(((IApi) api).getId())
-                        .flatMap(version -> voteRepository.rating(((IApi) api).getId(), ((IApiVersion) version).getVersion())
-                                .flatMap(rating -> Mono.justOrEmpty(Tuples.of((IApiVersion) version, rating)))))
+                .flatMapMany(api -> (page == null ? apiRepository.allApiVersions(((IApi) api).getId()) : apiRepository.allApiVersions(((IApi) api).getId(), page))
+                        .collectList()
+                        .flatMap(versions -> withRatings(((IApi) api).getId(), (List<IApiVersion>) versions))
+                        .flatMapIterable(versions -> versions))
                 .collectList()
-                .flatMap(collection -> entityMapper.encodeApiVersions(uri, (List<Tuple2<IApiVersion, Integer>>) collection))
-                .flatMap(collection -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .withResourceURI(uri)
-                        .withBody((JsonApiRestResponseWrapper<ApiVersionCollectionRootRestEntity>) collection)
-                        .addRelatedRef(JsonApiRestResponseWrapper.API_ELEMENT, URIUtil.apiCollectionFromURI(uri).append(context.getApiName()).uriValue())
-                        .okCollection()
-                )
+                .flatMap(collection -> {
+                    final Page.Slice<Tuple2<IApiVersion, Integer>> slice = Page.sliceOf(page, (List<Tuple2<IApiVersion, Integer>>) collection, version -> version.getT1().getId());
+
+                    return entityMapper
+                            .encodeApiVersions(uri, slice.getContent())
+                            .flatMap(versions -> ResponseBuilder
+                                    .builder(startTime, apimapConfiguration)
+                                    .withResourceURI(uri)
+                                    .withBody((JsonApiRestResponseWrapper<ApiVersionCollectionRootRestEntity>) versions)
+                                    .addRelatedRef(JsonApiRestResponseWrapper.API_ELEMENT, URIUtil.apiCollectionFromURI(uri).append(context.getApiName()).uriValue())
+                                    .withPage(slice)
+                                    .withETag(etag)
+                                    .okCollection()
+                            );
+                })
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.noContent().build()));
     }
 
+    /*
+    Pairs the versions with their rating, looked up for all versions in one call
+     */
+    protected Mono<List<Tuple2<IApiVersion, Integer>>> withRatings(final String apiId, final List<IApiVersion> versions) {
+        final List<String> names = versions.stream().map(IApiVersion::getVersion).collect(Collectors.toList());
+
+        return voteRepository
+                .ratings(apiId, names)
+                .map(ratings -> versions
+                        .stream()
+                        .map(version -> Tuples.of(version, ((Map<String, Integer>) ratings).getOrDefault(version.getVersion(), IVoteSummary.NO_RATING)))
+                        .collect(Collectors.toList()));
+    }
+
     @NotNull
     @PreAuthorize("@Authorizer.isValidApiAccessToken(#request)")
     public Mono<ServerResponse> createApiVersion(final ServerRequest request) {
@@ -374,7 +526,8 @@ public class ApiResourceService {
                         .addRelatedRef(JsonApiRestResponseWrapper.API_ELEMENT, URIUtil.apiCollectionFromURI(request.uri()).append(context.getApiName()).uriValue())
                         .created(true)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     @NotNull
@@ -393,6 +546,7 @@ public class ApiResourceService {
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .noContent())
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ import io.apimap.api.rest.VoteDataRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ApiContext;
+import io.apimap.api.service.query.Page;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
 import io.apimap.api.utils.RequestUtil;
 import org.jetbrains.annotations.NotNull;
@@ -37,16 +39,19 @@ public class ApiVoteService {
     final protected IApiRepository apiRepository;
     final protected ApimapConfiguration apimapConfiguration;
     final protected IRESTConverter entityMapper;
+    final protected ResourceVersions resourceVersions;
 
     @SuppressFBWarnings
     public ApiVoteService(final IVoteRepository voteRepository,
                           final IApiRepository apiRepository,
                           final ApimapConfiguration apimapConfiguration,
-                          final IRESTConverter entityMapper) {
+                          final IRESTConverter entityMapper,
+                          final ResourceVersions resourceVersions) {
         this.voteRepository = voteRepository;
         this.apiRepository = apiRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
+        this.resourceVersions = resourceVersions;
     }
 
     @NotNull
@@ -76,7 +81,8 @@ public class ApiVoteService {
                         .withBody((JsonApiRestResponseWrapper<VoteDataRestEntity>) version)
                         .created(false)
                 )
-                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .doFinally(signal -> resourceVersions.apiModified(context.getApiName()));
     }
 
     @NotNull
@@ -85,18 +91,33 @@ public class ApiVoteService {
 
         final URI uri = request.uri();
         final ApiContext context = RequestUtil.apiContextFromRequest(request);
+        final Page page = RequestUtil.pageFromRequest(request);
+        final String etag = resourceVersions.apiTag(context.getApiName());
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return apiRepository
                 .get(context.getApiName())
-                .flatMapMany(api -> voteRepository.all(((IApi) api).getId(), context.getApiVersion()))
+                .flatMapMany(api -> page == null
+                        ? voteRepository.all(((IApi) api).getId(), context.getApiVersion())
+                        : voteRepository.all(((IApi) api).getId(), context.getApiVersion(), page))
                 .collectList()
-                .flatMap(votes -> entityMapper.encodeVotes(uri, (List) votes))
-                .flatMap(metadata -> ResponseBuilder
-                        .builder(startTime, apimapConfiguration)
-                        .withResourceURI(uri)
-                        .withBody((JsonApiRestResponseWrapper<?>) metadata)
-                        .okResource()
-                )
+                .flatMap(votes -> {
+                    final Page.Slice<IVote> slice = Page.sliceOf(page, (List<IVote>) votes, IVote::getId);
+
+                    return entityMapper
+                            .encodeVotes(uri, slice.getContent())
+                            .flatMap(metadata -> ResponseBuilder
+                                    .builder(startTime, apimapConfiguration)
+                                    .withResourceURI(uri)
+                                    .withBody((JsonApiRestResponseWrapper<?>) metadata)
+                                    .withPage(slice)
+                                    .withETag(etag)
+                                    .okResource()
+                            );
+                })
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
 }
@@ -32,6 +32,7 @@ import io.apimap.api.repository.repository.IMetadataRepository;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.service.context.ClassificationContext;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
 import io.apimap.api.utils.ClassificationTreeBuilder;
 import io.apimap.api.utils.RequestUtil;
@@ -56,6 +57,7 @@ public class ClassificationResourceService {
     final protected IMetadataRepository metadataRepository;
     final protected ClassificationTreeBuilder classificationTreeBuilder;
     final protected SearchRepository searchRepository;
+    final protected ResourceVersions resourceVersions;
 
     @SuppressFBWarnings
     public ClassificationResourceService(final IClassificationRepository classificationRepository,
@@ -64,7 +66,8 @@ public class ClassificationResourceService {
                                          final ITaxonomyRepository taxonomyRepository,
                                          final ApimapConfiguration apimapConfiguration,
                                          final SearchRepository searchRepository,
-                                         IRESTConverter entityMapper) {
+                                         IRESTConverter entityMapper,
+                                         final ResourceVersions resourceVersions) {
         this.classificationRepository = classificationRepository;
         this.apiRepository = apiRepository;
         this.metadataRepository = metadataRepository;
@@ -72,6 +75,7 @@ public class ClassificationResourceService {
         this.entityMapper = entityMapper;
         this.classificationTreeBuilder = new ClassificationTreeBuilder(this.classificationRepository, this.apiRepository, this.metadataRepository, taxonomyRepository);
         this.searchRepository = searchRepository;
+        this.resourceVersions = resourceVersions;
     }
 
     @NotNull
@@ -83,6 +87,12 @@ public class ClassificationResourceService {
 
         if (context.isEmpty()) return ServerResponse.noContent().build();
 
+        final String etag = resourceVersions.classificationTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
+
         return searchRepository
                 .find(context.getFilters(), context.getQuery())
                 .collectList()
@@ -92,6 +102,7 @@ public class ClassificationResourceService {
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) classifications)
+                        .withETag(etag)
                         .okCollection())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.noContent().build()));
     }
@@ -105,6 +116,12 @@ public class ClassificationResourceService {
 
         if (context.isEmpty()) return ServerResponse.noContent().build();
 
+        final String etag = resourceVersions.classificationTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
+
         return classificationRepository
                 .allByURN(context.getClassificationURN())
                 .flatMap(classification -> metadataRepository
@@ -122,6 +139,7 @@ public class ClassificationResourceService {
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) classifications)
+                        .withETag(etag)
                         .okCollection())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.noContent().build()));
     }
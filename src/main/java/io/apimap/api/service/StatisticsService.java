@@ -24,44 +24,47 @@ import io.apimap.api.configuration.ApimapConfiguration;
 import io.apimap.api.repository.IRESTConverter;
 import io.apimap.api.repository.generic.StatisticsCollection;
 import io.apimap.api.repository.generic.StatisticsValue;
-import io.apimap.api.repository.interfaces.IApi;
-import io.apimap.api.repository.interfaces.IMetadata;
 import io.apimap.api.repository.repository.IApiRepository;
-import io.apimap.api.repository.repository.IMetadataRepository;
+import io.apimap.api.repository.repository.IStatisticsRepository;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.StatisticsCollectionCollectionRootRestEntity;
 import io.apimap.api.rest.StatisticsCollectionRootRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
+import io.apimap.api.service.query.TimeBuckets;
 import io.apimap.api.service.response.ResponseBuilder;
+import io.apimap.api.utils.RequestUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.GroupedFlux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.stream.Collectors;
 
 @Service
 public class StatisticsService {
     final protected IApiRepository apiRepository;
     final protected ITaxonomyRepository taxonomyRepository;
-    final protected IMetadataRepository metadataRepository;
+    final protected IStatisticsRepository statisticsRepository;
     final protected ApimapConfiguration apimapConfiguration;
     final protected IRESTConverter entityMapper;
 
     @SuppressFBWarnings
     public StatisticsService(final IApiRepository apiRepository,
                              final ITaxonomyRepository taxonomyRepository,
-                             final IMetadataRepository metadataRepository,
+                             final IStatisticsRepository statisticsRepository,
                              final ApimapConfiguration apimapConfiguration,
                              final IRESTConverter entityMapper) {
         this.apiRepository = apiRepository;
         this.taxonomyRepository = taxonomyRepository;
-        this.metadataRepository = metadataRepository;
+        this.statisticsRepository = statisticsRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
     }
@@ -77,7 +80,7 @@ public class StatisticsService {
         collections.add(new StatisticsCollection("taxonomies", "Number of taxonomies"));
         collections.add(new StatisticsCollection("interface-specification", "Interface specification"));
         collections.add(new StatisticsCollection("architecture-layer", "Architecture layer"));
-        collections.add(new StatisticsCollection("apis-history", "Creation date of APIs"));
+        collections.add(new StatisticsCollection("apis-history", "Number of APIs created per day, week or month"));
 
         return Flux
                 .fromIterable(collections)
@@ -135,14 +138,9 @@ public class StatisticsService {
 
         final URI uri = request.uri();
 
-        return metadataRepository
-                .all()
-                .groupBy(metadata -> ((IMetadata) metadata).getInterfaceSpecification())
-                .flatMap(group -> ((GroupedFlux) group)
-                        .count()
-                        .flatMapMany(value -> Mono.just(new StatisticsValue(((GroupedFlux) group).key().toString(), String.valueOf(value))))
-                )
-                .collectList()
+        return statisticsRepository
+                .metadataCounts()
+                .map(counts -> metadataValues(counts, IStatisticsRepository.INTERFACE_SPECIFICATION))
                 .flatMap(collection -> entityMapper.encodeStatistics(uri, (List<StatisticsValue>) collection))
                 .flatMap(collection -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -158,14 +156,9 @@ public class StatisticsService {
 
         final URI uri = request.uri();
 
-        return metadataRepository
-                .all()
-                .groupBy(metadata -> ((IMetadata) metadata).getArchitectureLayer())
-                .flatMap(group -> ((GroupedFlux) group)
-                        .count()
-                        .flatMapMany(value -> Mono.just(new StatisticsValue(((GroupedFlux) group).key().toString(), String.valueOf(value))))
-                )
-                .collectList()
+        return statisticsRepository
+                .metadataCounts()
+                .map(counts -> metadataValues(counts, IStatisticsRepository.ARCHITECTURE_LAYER))
                 .flatMap(collection -> entityMapper.encodeStatistics(uri, (List<StatisticsValue>) collection))
                 .flatMap(collection -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -181,10 +174,16 @@ public class StatisticsService {
 
         final URI uri = request.uri();
 
+        final TimeBuckets buckets = RequestUtil.timeBucketsFromRequest(request);
+
         return apiRepository
-                .all()
-                .flatMap(api -> Mono.just(new StatisticsValue(((IApi) api).getName(), ((IApi) api).getCreated().toString())))
-                .collectList()
+                .numberOfApisCreated(buckets.getStart(), buckets.getEnd())
+                .map(perDay -> buckets
+                        .count((NavigableMap<LocalDate, Long>) perDay)
+                        .entrySet()
+                        .stream()
+                        .map(bucket -> new StatisticsValue(bucket.getKey().toString(), String.valueOf(bucket.getValue())))
+                        .collect(Collectors.toList()))
                 .flatMap(collection -> entityMapper.encodeStatistics(uri, (List<StatisticsValue>) collection))
                 .flatMap(collection -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -193,4 +192,14 @@ public class StatisticsService {
                         .okCollection())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
+
+    protected static List<StatisticsValue> metadataValues(final Map<String, Map<String, Long>> counts, final String field) {
+        return counts
+                .getOrDefault(field, Map.of())
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new StatisticsValue(entry.getKey(), String.valueOf(entry.getValue())))
+                .collect(Collectors.toList());
+    }
 }
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.ApimapConfiguration;
+import io.apimap.api.configuration.CacheConfiguration;
 import io.apimap.api.repository.IRESTConverter;
 import io.apimap.api.repository.interfaces.ITaxonomyCollection;
 import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersion;
@@ -31,27 +32,36 @@ import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersionURN;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.TaxonomyCollectionDataRestEntity;
 import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.rest.TaxonomyTreeDataRestEntity;
+import io.apimap.api.rest.TaxonomyTreeRootRestEntity;
 import io.apimap.api.rest.TaxonomyVersionCollectionDataRestEntity;
 import io.apimap.api.rest.TaxonomyVersionCollectionRootRestEntity;
 import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
+import io.apimap.api.security.TokenVerifier;
 import io.apimap.api.service.context.TaxonomyContext;
+import io.apimap.api.service.response.ResourceVersions;
 import io.apimap.api.service.response.ResponseBuilder;
+import io.apimap.api.utils.BoundedCache;
 import io.apimap.api.utils.RequestUtil;
 import io.apimap.api.utils.URIUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 public class TaxonomyResourceService {
@@ -59,14 +69,32 @@ public class TaxonomyResourceService {
     final protected ITaxonomyRepository taxonomyRepository;
     final protected ApimapConfiguration apimapConfiguration;
     final protected IRESTConverter entityMapper;
+    final protected CacheConfiguration cacheConfiguration;
+    final protected ResourceVersions resourceVersions;
+    final protected TokenVerifier tokenVerifier;
+
+    // Built URN trees per nid#version#request URI
+    final protected BoundedCache<String, ArrayList<TaxonomyTreeDataRestEntity>> trees;
 
     @SuppressFBWarnings
     public TaxonomyResourceService(final IRESTConverter entityMapper,
                                    final ITaxonomyRepository taxonomyRepository,
-                                   final ApimapConfiguration apimapConfiguration) {
+                                   final ApimapConfiguration apimapConfiguration,
+                                   final CacheConfiguration cacheConfiguration,
+                                   final MeterRegistry meterRegistry,
+                                   final ResourceVersions resourceVersions,
+                                   final TokenVerifier tokenVerifier) {
         this.taxonomyRepository = taxonomyRepository;
         this.apimapConfiguration = apimapConfiguration;
         this.entityMapper = entityMapper;
+        this.cacheConfiguration = cacheConfiguration;
+        this.resourceVersions = resourceVersions;
+        this.tokenVerifier = tokenVerifier;
+        this.trees = new BoundedCache<>(
+                "taxonomy.trees",
+                cacheConfiguration.getTaxonomy().getMaximumSize(),
+                cacheConfiguration.getTaxonomy().getTimeToLive(),
+                meterRegistry);
     }
 
     /*
@@ -78,6 +106,11 @@ public class TaxonomyResourceService {
         final long startTime = System.currentTimeMillis();
 
         final URI uri = request.uri();
+        final String etag = resourceVersions.taxonomyTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return taxonomyRepository
                 .allTaxonomyCollection()
@@ -90,6 +123,7 @@ public class TaxonomyResourceService {
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) collection)
+                        .withETag(etag)
                         .okCollection())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.noContent().build()));
     }
@@ -105,6 +139,7 @@ public class TaxonomyResourceService {
                 .bodyToMono(ParameterizedTypeReference.forType(type))
                 .flatMap(collection -> entityMapper.decodeTaxonomyCollection((JsonApiRestRequestWrapper<TaxonomyCollectionDataRestEntity>) collection))
                 .flatMap(collection -> taxonomyRepository.addTaxonomyCollection(collection))
+                .doFinally(signal -> resourceVersions.taxonomyModified())
                 .flatMap(collection -> entityMapper.encodeTaxonomyCollection(uri, (ITaxonomyCollection) collection))
                 .flatMap(collection -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -127,6 +162,10 @@ public class TaxonomyResourceService {
                 .flatMap(collection -> taxonomyRepository.deleteTaxonomyCollection(((ITaxonomyCollection) collection).getNid())
                         .zipWith(taxonomyRepository.deleteTaxonomyCollectionVersions(((ITaxonomyCollection) collection).getNid()), (previous, current) -> (Boolean) previous && ((Boolean) current).booleanValue())
                         .zipWith(taxonomyRepository.deleteTaxonomyCollectionVersionURNs(((ITaxonomyCollection) collection).getNid()), (previous, current) -> (Boolean) previous && ((Boolean) current).booleanValue()))
+                .doFinally(signal -> {
+                    invalidateTrees(context.getNid());
+                    tokenVerifier.taxonomyModified(context.getNid());
+                })
                 .filter(value -> (Boolean) value)
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -140,6 +179,11 @@ public class TaxonomyResourceService {
 
         final URI uri = request.uri();
         final TaxonomyContext context = RequestUtil.taxonomyContextFromRequest(request);
+        final String etag = resourceVersions.taxonomyTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return taxonomyRepository
                 .getTaxonomyCollection(context.getNid())
@@ -154,6 +198,7 @@ public class TaxonomyResourceService {
                                 .append(((JsonApiRestResponseWrapper<TaxonomyCollectionDataRestEntity>) collection).getData().getNid())
                                 .append("version")
                                 .uriValue())
+                        .withETag(etag)
                         .okResource())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
@@ -168,6 +213,11 @@ public class TaxonomyResourceService {
 
         final URI uri = request.uri();
         final TaxonomyContext context = RequestUtil.taxonomyContextFromRequest(request);
+        final String etag = resourceVersions.taxonomyTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return taxonomyRepository
                 .getTaxonomyCollection(context.getNid())
@@ -179,6 +229,7 @@ public class TaxonomyResourceService {
                         .withBody((JsonApiRestResponseWrapper<TaxonomyVersionCollectionDataRestEntity>) version)
                         .addRelatedRef(JsonApiRestResponseWrapper.VERSION_COLLECTION, URIUtil.taxonomyCollectionFromURI(request.uri()).append(((JsonApiRestResponseWrapper<TaxonomyVersionCollectionDataRestEntity>) version).getData().getNid()).append("version").uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.URN_COLLECTION, URIUtil.taxonomyCollectionFromURI(request.uri()).append(((JsonApiRestResponseWrapper<TaxonomyVersionCollectionDataRestEntity>) version).getData().getNid()).append("version").append(((JsonApiRestResponseWrapper<TaxonomyVersionCollectionDataRestEntity>) version).getData().getVersion()).append("urn").uriValue())
+                        .withETag(etag)
                         .okResource())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
@@ -189,6 +240,11 @@ public class TaxonomyResourceService {
 
         final URI uri = request.uri();
         final TaxonomyContext context = RequestUtil.taxonomyContextFromRequest(request);
+        final String etag = resourceVersions.taxonomyTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return taxonomyRepository
                 .getTaxonomyCollection(context.getNid())
@@ -201,6 +257,7 @@ public class TaxonomyResourceService {
                         .withBody((JsonApiRestResponseWrapper<TaxonomyVersionCollectionRootRestEntity>) version)
                         .addRelatedRef(JsonApiRestResponseWrapper.VERSION_COLLECTION, URIUtil.taxonomyCollectionFromURI(request.uri()).append(context.getNid()).append("version").uriValue())
                         .addRelatedRef(JsonApiRestResponseWrapper.URN_COLLECTION, URIUtil.taxonomyCollectionFromURI(request.uri()).append(context.getNid()).append("version").append(context.getVersion()).append("urn").uriValue())
+                        .withETag(etag)
                         .okCollection())
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
@@ -223,6 +280,7 @@ public class TaxonomyResourceService {
                     return Mono.just(version);
                 })
                 .flatMap(version -> taxonomyRepository.addTaxonomyCollectionVersion(version))
+                .doFinally(signal -> invalidateTrees(context.getNid()))
                 .flatMap(version -> entityMapper.encodeTaxonomyCollectionVersion(uri, (ITaxonomyCollectionVersion) version))
                 .flatMap(version -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -245,6 +303,7 @@ public class TaxonomyResourceService {
                 .flatMap(taxonomy -> taxonomyRepository.deleteTaxonomyCollectionVersionURNs(((ITaxonomyCollection) taxonomy).getNid(), context.getVersion())
                         .zipWith(taxonomyRepository.deleteTaxonomyCollectionVersion(((ITaxonomyCollection) taxonomy).getNid(), context.getVersion()), (previous, current) -> (Boolean) previous && ((Boolean) current).booleanValue())
                 )
+                .doFinally(signal -> invalidateTrees(context.getNid()))
                 .filter(value -> (Boolean) value)
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -262,26 +321,56 @@ public class TaxonomyResourceService {
 
         final TaxonomyContext context = RequestUtil.taxonomyContextFromRequest(request);
         final URI uri = request.uri();
+        final String etag = resourceVersions.taxonomyTag();
 
-        return taxonomyRepository
-                .allTaxonomyCollectionVersionURNCollection(context.getNid(), context.getVersion())
-                .collectList()
-                .flatMap(urns -> entityMapper.encodeTaxonomyCollectionVersionURNs(uri, (List<ITaxonomyCollectionVersionURN>) urns))
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
+
+        return taxonomyTree(context, uri)
+                .map(tree -> new JsonApiRestResponseWrapper<>(new TaxonomyTreeRootRestEntity(tree)))
                 .flatMap(version -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) version)
+                        .withETag(etag)
                         .okCollection()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
     }
 
+    /*
+    The URN tree of a taxonomy version, served from the tree cache until the taxonomy changes
+     */
+    protected Mono<ArrayList<TaxonomyTreeDataRestEntity>> taxonomyTree(final TaxonomyContext context, final URI uri) {
+        final Supplier<Mono<ArrayList<TaxonomyTreeDataRestEntity>>> loader = () -> ((Flux<ITaxonomyCollectionVersionURN>) taxonomyRepository
+                .allTaxonomyCollectionVersionURNCollection(context.getNid(), context.getVersion()))
+                .collectList()
+                .map(urns -> (ArrayList<TaxonomyTreeDataRestEntity>) entityMapper.encodeTaxonomyTree(uri, urns));
+
+        if (!cacheConfiguration.getTaxonomy().isEnabled()) {
+            return loader.get();
+        }
+
+        return trees.get(context.getNid() + "#" + context.getVersion() + "#" + uri, loader);
+    }
+
+    protected void invalidateTrees(final String nid) {
+        trees.invalidateIf(key -> key.startsWith(nid + "#"));
+        resourceVersions.taxonomyModified();
+    }
+
     @NotNull
     public Mono<ServerResponse> getURN(final ServerRequest request) {
         final long startTime = System.currentTimeMillis();
 
         final TaxonomyContext context = RequestUtil.taxonomyContextFromRequest(request);
         final URI uri = request.uri();
+        final String etag = resourceVersions.taxonomyTag();
+
+        if (RequestUtil.isNotModified(request, etag)) {
+            return ResponseBuilder.builder(startTime, apimapConfiguration).withETag(etag).notModified();
+        }
 
         return taxonomyRepository
                 .getTaxonomyCollectionVersionURN(context.getUrn(), context.getVersion(), TaxonomyDataRestEntity.ReferenceType.UNKNOWN)
@@ -290,6 +379,7 @@ public class TaxonomyResourceService {
                         .builder(startTime, apimapConfiguration)
                         .withResourceURI(uri)
                         .withBody((JsonApiRestResponseWrapper<?>) version)
+                        .withETag(etag)
                         .okResource()
                 )
                 .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
@@ -305,6 +395,7 @@ public class TaxonomyResourceService {
         return taxonomyRepository
                 .getTaxonomyCollectionVersionURN(context.getUrn(), context.getVersion(), TaxonomyDataRestEntity.ReferenceType.UNKNOWN)
                 .flatMap(urn -> taxonomyRepository.deleteTaxonomyCollectionVersionURN(((ITaxonomyCollectionVersionURN) urn).getUrn(), ((ITaxonomyCollectionVersionURN) urn).getVersion()))
+                .doFinally(signal -> invalidateTrees(context.getNid()))
                 .filter(value -> (Boolean) value)
                 .flatMap(result -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
@@ -326,6 +417,7 @@ public class TaxonomyResourceService {
                 .filter(Objects::nonNull)
                 .flatMap(urn -> entityMapper.decodeTaxonomyCollectionVersionURN(context, (JsonApiRestRequestWrapper<TaxonomyDataRestEntity>) urn))
                 .flatMap(urn -> taxonomyRepository.addTaxonomyCollectionVersionURN(urn))
+                .doFinally(signal -> invalidateTrees(context.getNid()))
                 .flatMap(urn -> entityMapper.encodeTaxonomyCollectionVersionURN(uri, (ITaxonomyCollectionVersionURN) urn))
                 .flatMap(urn -> ResponseBuilder
                         .builder(startTime, apimapConfiguration)
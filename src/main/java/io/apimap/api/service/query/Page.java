@@ -0,0 +1,244 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.query;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.bson.conversions.Bson;
+import org.dizitart.no2.FindOptions;
+import org.dizitart.no2.SortOrder;
+import org.dizitart.no2.objects.ObjectFilter;
+import org.dizitart.no2.objects.filters.ObjectFilters;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+A keyset page of a collection, requested with page[size] and page[cursor].
+
+Collections are ordered by their unique and indexed id. The cursor holds the id the page starts
+after, or ends before when following a prev link. Repositories return at most getLimit() entities
+walking away from the cursor, ascending for forward pages and descending for backward pages,
+slice() turns that into the page content and the cursors of the neighbouring pages.
+ */
+public class Page {
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 1000;
+
+    protected static final String AFTER = "a:";
+    protected static final String BEFORE = "b:";
+
+    protected final int size;
+    protected final String after;
+    protected final String before;
+
+    protected Page(final int size, final String after, final String before) {
+        this.size = size;
+        this.after = after;
+        this.before = before;
+    }
+
+    public static Page first(final int size) {
+        return new Page(size, null, null);
+    }
+
+    /*
+    Throws BAD_REQUEST for sizes outside 1..MAX_SIZE and for cursors not created by this class
+     */
+    public static Page of(final Integer size, final String cursor) {
+        final int pageSize = size == null ? DEFAULT_SIZE : size;
+
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be between 1 and " + MAX_SIZE);
+        }
+
+        if (cursor == null || cursor.isEmpty()) {
+            return first(pageSize);
+        }
+
+        final String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+        }
+
+        if (value.startsWith(AFTER) && value.length() > AFTER.length()) {
+            return new Page(pageSize, value.substring(AFTER.length()), null);
+        }
+
+        if (value.startsWith(BEFORE) && value.length() > BEFORE.length()) {
+            return new Page(pageSize, null, value.substring(BEFORE.length()));
+        }
+
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+    }
+
+    protected static String cursor(final String prefix, final String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((prefix + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /*
+    One more than the page size, the extra entity tells if there is a page beyond this one
+     */
+    public int getLimit() {
+        return size + 1;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public String getBefore() {
+        return before;
+    }
+
+    public boolean isBackward() {
+        return before != null;
+    }
+
+    /* Nitrite */
+
+    public ObjectFilter objectFilter(final String field) {
+        if (after != null) return ObjectFilters.gt(field, after);
+        if (before != null) return ObjectFilters.lt(field, before);
+        return null;
+    }
+
+    public ObjectFilter objectFilter(final String field, final ObjectFilter filter) {
+        final ObjectFilter range = objectFilter(field);
+        if (range == null) return filter;
+        if (filter == null) return range;
+        return ObjectFilters.and(filter, range);
+    }
+
+    public FindOptions findOptions(final String field) {
+        return FindOptions
+                .sort(field, isBackward() ? SortOrder.Descending : SortOrder.Ascending)
+                .thenLimit(0, getLimit());
+    }
+
+    /* MongoDB */
+
+    public Bson mongoObjectFilter(final String field) {
+        if (after != null) return Filters.gt(field, after);
+        if (before != null) return Filters.lt(field, before);
+        return null;
+    }
+
+    public Bson mongoSort(final String field) {
+        return isBackward() ? Sorts.descending(field) : Sorts.ascending(field);
+    }
+
+    public Query mongoQuery(final Query query, final String field) {
+        if (after != null) query.addCriteria(Criteria.where(field).gt(after));
+        if (before != null) query.addCriteria(Criteria.where(field).lt(before));
+
+        return query
+                .with(Sort.by(isBackward() ? Sort.Direction.DESC : Sort.Direction.ASC, field))
+                .limit(getLimit());
+    }
+
+    /* Result */
+
+    /*
+    The whole list as one slice without cursors when the request is not paged
+     */
+    public static <T> Slice<T> sliceOf(final Page page, final List<T> entities, final Function<T, String> id) {
+        return page == null ? new Slice<>(entities, null, null) : page.slice(entities, id);
+    }
+
+    public <T> Slice<T> slice(final List<T> entities, final Function<T, String> id) {
+        final boolean more = entities.size() > size;
+        final List<T> content = new ArrayList<>(more ? entities.subList(0, size) : entities);
+
+        if (isBackward()) {
+            Collections.reverse(content);
+        }
+
+        if (content.isEmpty()) {
+            return new Slice<>(content, null, null);
+        }
+
+        final boolean hasNext = isBackward() || more;
+        final boolean hasPrevious = isBackward() ? more : after != null;
+
+        return new Slice<>(
+                content,
+                hasNext ? cursor(AFTER, id.apply(content.get(content.size() - 1))) : null,
+                hasPrevious ? cursor(BEFORE, id.apply(content.get(0))) : null
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "size=" + size +
+                ", after='" + after + '\'' +
+                ", before='" + before + '\'' +
+                '}';
+    }
+
+    public static class Slice<T> {
+        protected final List<T> content;
+        protected final String next;
+        protected final String previous;
+
+        @SuppressFBWarnings
+        public Slice(final List<T> content, final String next, final String previous) {
+            this.content = content;
+            this.next = next;
+            this.previous = previous;
+        }
+
+        @SuppressFBWarnings
+        public List<T> getContent() {
+            return content;
+        }
+
+        /*
+        Cursor of the following page, null on the last page
+         */
+        public String getNext() {
+            return next;
+        }
+
+        /*
+        Cursor of the preceding page, null on the first page
+         */
+        public String getPrevious() {
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.query;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/*
+Consecutive days, weeks or months of a histogram, requested with granularity, from and to.
+
+From and to are inclusive UTC dates, widened to whole buckets. Weeks start on Monday. Without from
+the histogram ends with DEFAULT_BUCKETS buckets up to to, which defaults to today. Repositories count
+per day between getStart() and getEnd(), count() adds the days up per bucket.
+ */
+public class TimeBuckets {
+    public static final int DEFAULT_BUCKETS = 12;
+    public static final int MAX_BUCKETS = 366;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        public LocalDate start(final LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+
+        public LocalDate plus(final LocalDate date, final long buckets) {
+            switch (this) {
+                case WEEK:
+                    return date.plusWeeks(buckets);
+                case MONTH:
+                    return date.plusMonths(buckets);
+                default:
+                    return date.plusDays(buckets);
+            }
+        }
+    }
+
+    protected final Granularity granularity;
+    protected final LocalDate start;
+    protected final LocalDate end;
+
+    protected TimeBuckets(final Granularity granularity, final LocalDate start, final LocalDate end) {
+        this.granularity = granularity;
+        this.start = start;
+        this.end = end;
+    }
+
+    /*
+    Throws BAD_REQUEST for unknown granularities, dates other than yyyy-MM-dd, from after to
+    and ranges of more than MAX_BUCKETS buckets
+     */
+    public static TimeBuckets of(final String granularity, final String from, final String to, final Clock clock) {
+        final Granularity bucket;
+        try {
+            bucket = granularity == null ? Granularity.MONTH : Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularity must be day, week or month");
+        }
+
+        final LocalDate last = bucket.start(to == null ? LocalDate.now(clock.withZone(ZoneOffset.UTC)) : date(to));
+        final LocalDate first = from == null ? bucket.plus(last, 1 - DEFAULT_BUCKETS) : bucket.start(date(from));
+
+        if (first.isAfter(last)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The from date must not be after the to date");
+        }
+
+        if (!bucket.plus(first, MAX_BUCKETS).isAfter(last)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BUCKETS + " buckets can be requested");
+        }
+
+        return new TimeBuckets(bucket, first, bucket.plus(last, 1));
+    }
+
+    protected static LocalDate date(final String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dates must be formatted as yyyy-MM-dd");
+        }
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    /*
+    The first day of the first bucket
+     */
+    public Instant getStart() {
+        return start.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /*
+    The day after the last bucket, exclusive
+     */
+    public Instant getEnd() {
+        return end.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /*
+    Every bucket in order by its first day, with the sum of the days in it
+     */
+    public Map<LocalDate, Long> count(final NavigableMap<LocalDate, Long> perDay) {
+        final Map<LocalDate, Long> buckets = new LinkedHashMap<>();
+
+        for (LocalDate bucket = start; bucket.isBefore(end); bucket = granularity.plus(bucket, 1)) {
+            final long count = perDay
+                    .subMap(bucket, true, granularity.plus(bucket, 1), false)
+                    .values()
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+
+            buckets.put(bucket, count);
+        }
+
+        return buckets;
+    }
+}
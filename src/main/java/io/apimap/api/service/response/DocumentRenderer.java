@@ -0,0 +1,158 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.response;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.IDocument;
+import io.apimap.api.utils.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/*
+Renders README and CHANGELOG Markdown to HTML. Documents are rendered when they are written and the HTML
+is stored with them, reads are served from a size bounded cache of rendered documents keyed by API id,
+version and document type.
+
+Parsing and hashing documents larger than OFFLOAD_SIZE characters runs on the bounded elastic scheduler
+instead of the event loop.
+ */
+@Component
+public class DocumentRenderer {
+    public static final int OFFLOAD_SIZE = 16 * 1024;
+
+    // Parser and renderer are immutable and safe to share between threads
+    protected static final Parser PARSER = Parser.builder().build();
+    protected static final HtmlRenderer RENDERER = HtmlRenderer.builder().sanitizeUrls(true).escapeHtml(true).build();
+
+    protected final boolean conditionalRequests;
+
+    // Null when the cache is disabled
+    protected final BoundedCache<String, Rendered> documents;
+
+    @SuppressFBWarnings
+    public DocumentRenderer(final CacheConfiguration cacheConfiguration,
+                            final MeterRegistry meterRegistry) {
+        final CacheConfiguration.Settings settings = cacheConfiguration.getDocuments();
+
+        this.conditionalRequests = cacheConfiguration.isConditionalRequests();
+
+        if (settings.isEnabled()) {
+            this.documents = new BoundedCache<>("documents.html", settings.getMaximumSize(), settings.getTimeToLive(), meterRegistry);
+        } else {
+            this.documents = null;
+        }
+    }
+
+    /*
+    HTML of the given Markdown, used when a document is written
+     */
+    public Mono<String> render(final String markdown) {
+        final String body = markdown == null ? "" : markdown;
+        return offload(body.length(), () -> html(body));
+    }
+
+    /*
+    The rendered document, loaded from the loader and rendered again only if it was stored without HTML
+     */
+    public Mono<Rendered> rendered(final String apiId,
+                                   final String apiVersion,
+                                   final IDocument.DocumentType type,
+                                   final Supplier<Mono<IDocument>> loader) {
+        final Supplier<Mono<Rendered>> render = () -> loader.get().flatMap(this::rendered);
+
+        return documents == null ? render.get() : documents.get(key(apiId, apiVersion, type), render);
+    }
+
+    public void invalidate(final String apiId, final String apiVersion, final IDocument.DocumentType type) {
+        if (documents != null && apiId != null) documents.invalidate(key(apiId, apiVersion, type));
+    }
+
+    protected Mono<Rendered> rendered(final IDocument document) {
+        final String stored = document.getHtml();
+
+        if (stored != null) {
+            return offload(stored.length(), () -> new Rendered(stored, etag(stored)));
+        }
+
+        final int size = document.getContent() != null ? document.getContent().length : document.getBody() == null ? 0 : document.getBody().length();
+        return offload(size, () -> {
+            final String body = IDocument.decodeBody(document);
+            final String html = html(body == null ? "" : body);
+            return new Rendered(html, etag(html));
+        });
+    }
+
+    protected <T> Mono<T> offload(final int size, final Callable<T> callable) {
+        final Mono<T> result = Mono.fromCallable(callable);
+        return size > OFFLOAD_SIZE ? result.subscribeOn(Schedulers.boundedElastic()) : result;
+    }
+
+    /*
+    Strong ETag from the SHA-256 digest of the HTML, identical on every instance serving the same document
+     */
+    protected String etag(final String html) {
+        if (!conditionalRequests) return null;
+
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(html.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    protected static String html(final String markdown) {
+        return RENDERER.render(PARSER.parse(markdown));
+    }
+
+    protected static String key(final String apiId, final String apiVersion, final IDocument.DocumentType type) {
+        return apiId + "#" + apiVersion + "#" + type;
+    }
+
+    public static class Rendered {
+        protected final String html;
+        protected final String etag;
+
+        public Rendered(final String html, final String etag) {
+            this.html = html;
+            this.etag = etag;
+        }
+
+        public String getHtml() {
+            return html;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
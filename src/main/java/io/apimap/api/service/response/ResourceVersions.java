@@ -0,0 +1,122 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.response;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.CacheConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Modification counters used as ETags. Every write through the services moves the counters of the
+resources it touches, reads compare the counter against If-None-Match before querying anything.
+
+Counters are local to this instance. The tags include a random instance id, and a period of the
+response max age, so instances sharing a database never serve a stale copy for longer than the
+Cache-Control max age already allows.
+ */
+@Component
+public class ResourceVersions {
+    protected final boolean enabled;
+    protected final Clock clock;
+    protected final String instance;
+
+    // Values are taken from one sequence so a counter never returns to a value it had before
+    protected final AtomicLong sequence = new AtomicLong();
+    protected final AtomicLong catalog = new AtomicLong();
+    protected final AtomicLong taxonomy = new AtomicLong();
+    protected final Map<String, Long> apis = new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings
+    public ResourceVersions(final CacheConfiguration cacheConfiguration) {
+        this(cacheConfiguration.isConditionalRequests(), Clock.systemUTC());
+    }
+
+    public ResourceVersions(final boolean enabled, final Clock clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.instance = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    /* Tags, null when conditional requests are disabled */
+
+    public String catalogTag() {
+        return tag("c" + catalog.get());
+    }
+
+    public String taxonomyTag() {
+        return tag("t" + taxonomy.get());
+    }
+
+    /*
+    Classifications combine APIs with taxonomy titles
+     */
+    public String classificationTag() {
+        return tag("c" + catalog.get() + "t" + taxonomy.get());
+    }
+
+    public String apiTag(final String apiName) {
+        return tag("a" + apis.getOrDefault(apiName, 0L));
+    }
+
+    protected String tag(final String version) {
+        if (!enabled) return null;
+
+        final long period = clock.millis() / ResponseBuilder.MAX_AGE.toMillis();
+        return "\"" + instance + "-" + version + "-" + period + "\"";
+    }
+
+    /*
+    The catalog counter, also moved when conditional requests are disabled. Caches of values
+    computed from the whole catalog use it as part of their key.
+     */
+    public long catalogVersion() {
+        return catalog.get();
+    }
+
+    /* Writes */
+
+    /*
+    A write to the API, its versions, metadata, classifications, documents or votes
+     */
+    public void apiModified(final String apiName) {
+        final long value = sequence.incrementAndGet();
+        if (apiName != null) apis.put(apiName, value);
+        catalog.set(value);
+    }
+
+    /*
+    A write that may touch any API, such as an import
+     */
+    public void catalogModified() {
+        final long value = sequence.incrementAndGet();
+        apis.replaceAll((name, previous) -> value);
+        catalog.set(value);
+    }
+
+    public void taxonomyModified() {
+        taxonomy.set(sequence.incrementAndGet());
+    }
+}
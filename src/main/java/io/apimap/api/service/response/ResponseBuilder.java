@@ -25,12 +25,17 @@ import io.apimap.api.configuration.NodeConfiguration;
 import io.apimap.api.rest.jsonapi.JsonApiError;
 import io.apimap.api.rest.jsonapi.JsonApiRestResponseWrapper;
 import io.apimap.api.rest.jsonapi.JsonApiViews;
+import io.apimap.api.service.query.Page;
+import io.apimap.api.service.timing.RequestTiming;
+import io.apimap.api.utils.RequestUtil;
 import io.apimap.api.utils.URIUtil;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.json.Jackson2CodecSupport;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
@@ -40,7 +45,10 @@ import java.util.HashMap;
 
 public class ResponseBuilder {
 
-    public final Duration MAX_AGE = Duration.ofMinutes(15);
+    public static final Duration MAX_AGE = Duration.ofMinutes(15);
+
+    public static final String NEXT_PAGE = "next";
+    public static final String PREVIOUS_PAGE = "prev";
 
     protected long responseMetricsStartTime;
 
@@ -52,6 +60,12 @@ public class ResponseBuilder {
 
     protected ArrayList<HashMap> relatedReferences = new ArrayList<>();
 
+    protected String nextPageCursor;
+
+    protected String previousPageCursor;
+
+    protected String etag;
+
     public ResponseBuilder(long startTime, ApimapConfiguration apimapConfiguration) {
         this.responseMetricsStartTime = startTime;
         this.apimapConfiguration = apimapConfiguration;
@@ -73,12 +87,35 @@ public class ResponseBuilder {
     }
 
     public Mono<ServerResponse> text(String body, MediaType contentType){
-        return ServerResponse.ok()
+        final long start = System.nanoTime();
+
+        // Text with an ETag is cacheable and gets the same Cache-Control as resources
+        final ServerResponse.BodyBuilder builder = etag != null ? ok() : ServerResponse.ok()
                 .header("Access-Control-Allow-Origin", "*")
-                .header("Access-Control-Request-Method", "GET,POST,DELETE")
+                .header("Access-Control-Request-Method", "GET,POST,DELETE");
+
+        return assembled(start, builder
                 .contentType(contentType)
-                .body(Mono.just(body), String.class);
+                .body(Mono.just(body), String.class));
     }
+
+    /*
+    Body already compressed with the content encoding, the response varies with Accept-Encoding
+     */
+    public Mono<ServerResponse> encoded(byte[] body, String contentEncoding, MediaType contentType){
+        final long start = System.nanoTime();
+
+        final ServerResponse.BodyBuilder builder = etag != null ? ok() : ServerResponse.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Request-Method", "GET,POST,DELETE");
+
+        return assembled(start, builder
+                .header(HttpHeaders.CONTENT_ENCODING, contentEncoding)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType)
+                .body(Mono.just(body), byte[].class));
+    }
+
     public Mono<ServerResponse> badRequest() {
         JsonApiRestResponseWrapper wrapper = new JsonApiRestResponseWrapper();
         wrapper.addErorr(new JsonApiError(
@@ -122,11 +159,11 @@ public class ResponseBuilder {
     }
 
     public Mono<ServerResponse> noContent() {
-
-        return ServerResponse.noContent()
+        final long start = System.nanoTime();
+        return assembled(start, ServerResponse.noContent()
                 .header("Access-Control-Allow-Origin", "*")
                 .header("Access-Control-Request-Method", "GET,POST,DELETE")
-                .build();
+                .build());
     }
 
     public Mono<ServerResponse> notFound() {
@@ -158,40 +195,51 @@ public class ResponseBuilder {
     }
 
     public Mono<ServerResponse> okCollection() {
+        final long start = System.nanoTime();
         JsonApiRestResponseWrapper body = bodyWithMetadata(this.body);
         body.setSelf(resourceURI);
         this.relatedReferences.forEach(rel -> body.addRelatedRef((String) rel.get("rel"), (URI) rel.get("href")));
+        addPageReferences(body);
         body.appendDuration(responseMetricsStartTime, System.currentTimeMillis());
 
-        final CacheControl cacheControl = CacheControl.maxAge(MAX_AGE).cachePublic();
-
-        return ServerResponse.ok()
-                .header("Access-Control-Allow-Origin", "*")
-                .header("Access-Control-Request-Method", "GET,POST,DELETE")
-                .cacheControl(cacheControl)
+        return assembled(start, ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .hint(Jackson2CodecSupport.JSON_VIEW_HINT, JsonApiViews.Collection.class)
-                .body(Mono.just(body), JsonApiRestResponseWrapper.class);
+                .body(Mono.just(body), JsonApiRestResponseWrapper.class));
     }
 
-    public Mono<ServerResponse> okResource() {
+    /*
+    Streams the entities into the collection of the body, which must contain the placeholder as its only entity
+     */
+    public <T> Mono<ServerResponse> okCollection(Flux<T> entities, T placeholder) {
+        final long start = System.nanoTime();
         JsonApiRestResponseWrapper body = bodyWithMetadata(this.body);
         body.setSelf(resourceURI);
         this.relatedReferences.forEach(rel -> body.addRelatedRef((String) rel.get("rel"), (URI) rel.get("href")));
+        addPageReferences(body);
         body.appendDuration(responseMetricsStartTime, System.currentTimeMillis());
 
-        final CacheControl cacheControl = CacheControl.maxAge(MAX_AGE).cachePublic();
+        return assembled(start, ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new StreamingCollectionInserter<>(body, placeholder, entities, JsonApiViews.Collection.class, StreamingCollectionInserter.DEFAULT_CHUNK_SIZE)));
+    }
 
-        return ServerResponse.ok()
-                .header("Access-Control-Allow-Origin", "*")
-                .header("Access-Control-Request-Method", "GET,POST,DELETE")
-                .cacheControl(cacheControl)
+    public Mono<ServerResponse> okResource() {
+        final long start = System.nanoTime();
+        JsonApiRestResponseWrapper body = bodyWithMetadata(this.body);
+        body.setSelf(resourceURI);
+        this.relatedReferences.forEach(rel -> body.addRelatedRef((String) rel.get("rel"), (URI) rel.get("href")));
+        addPageReferences(body);
+        body.appendDuration(responseMetricsStartTime, System.currentTimeMillis());
+
+        return assembled(start, ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .hint(Jackson2CodecSupport.JSON_VIEW_HINT, JsonApiViews.Default.class)
-                .body(Mono.just(body), JsonApiRestResponseWrapper.class);
+                .body(Mono.just(body), JsonApiRestResponseWrapper.class));
     }
 
     public Mono<ServerResponse> created(Boolean includeToken) {
+        final long start = System.nanoTime();
         JsonApiRestResponseWrapper body = bodyWithMetadata(this.body);
 
         if (body != null) {
@@ -202,12 +250,12 @@ public class ResponseBuilder {
 
         Class hintClass = (Boolean.TRUE.equals(includeToken)) ? JsonApiViews.Extended.class : JsonApiViews.Default.class;
 
-        return ServerResponse.created(resourceURI)
+        return assembled(start, ServerResponse.created(resourceURI)
                 .header("Access-Control-Allow-Origin", "*")
                 .header("Access-Control-Request-Method", "GET,POST,DELETE")
                 .contentType(MediaType.APPLICATION_JSON)
                 .hint(Jackson2CodecSupport.JSON_VIEW_HINT, hintClass)
-                .body(Mono.justOrEmpty(body), JsonApiRestResponseWrapper.class);
+                .body(Mono.justOrEmpty(body), JsonApiRestResponseWrapper.class));
     }
 
     public ResponseBuilder withStartTime(long time) {
@@ -220,6 +268,44 @@ public class ResponseBuilder {
         return this;
     }
 
+    /*
+    Strong entity tag of the resource, null for none
+     */
+    public ResponseBuilder withETag(String etag) {
+        this.etag = etag;
+        return this;
+    }
+
+    public Mono<ServerResponse> notModified() {
+        final long start = System.nanoTime();
+        return assembled(start, ok(ServerResponse.status(HttpStatus.NOT_MODIFIED)).build());
+    }
+
+    /*
+    Adds the assembly of a response started at start to the RequestTiming of the request
+     */
+    protected Mono<ServerResponse> assembled(long start, Mono<ServerResponse> response) {
+        return RequestTiming.assembled(System.nanoTime() - start, response);
+    }
+
+    protected ServerResponse.BodyBuilder ok() {
+        return ok(ServerResponse.ok());
+    }
+
+    protected ServerResponse.BodyBuilder ok(ServerResponse.BodyBuilder builder) {
+        final CacheControl cacheControl = CacheControl.maxAge(MAX_AGE).cachePublic();
+
+        builder.header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Request-Method", "GET,POST,DELETE")
+                .cacheControl(cacheControl);
+
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+
+        return builder;
+    }
+
     public ResponseBuilder withResourceURI(URI uri) {
         this.resourceURI = uri;
         return this;
@@ -233,6 +319,25 @@ public class ResponseBuilder {
         return this;
     }
 
+    /*
+    Links to the neighbouring pages of a paged collection, built from the resource URI
+     */
+    public ResponseBuilder withPage(Page.Slice<?> slice) {
+        this.nextPageCursor = slice.getNext();
+        this.previousPageCursor = slice.getPrevious();
+        return this;
+    }
+
+    protected void addPageReferences(JsonApiRestResponseWrapper<?> body) {
+        if (nextPageCursor != null) {
+            body.addRelatedRef(NEXT_PAGE, URIUtil.fromURI(resourceURI).withQueryParameter(RequestUtil.PAGE_CURSOR_KEY, nextPageCursor).uriValue());
+        }
+
+        if (previousPageCursor != null) {
+            body.addRelatedRef(PREVIOUS_PAGE, URIUtil.fromURI(resourceURI).withQueryParameter(RequestUtil.PAGE_CURSOR_KEY, previousPageCursor).uriValue());
+        }
+    }
+
     protected JsonApiRestResponseWrapper bodyWithMetadata(JsonApiRestResponseWrapper<?> body) {
         if (body == null) {
             return body;
@@ -0,0 +1,162 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.BodyInserter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Writes a JSON:API collection document while the entities are still being read.
+
+The envelope is serialized with a single placeholder entity in its collection, the bytes before
+and after the placeholder are written around the streamed entities. Serialization uses the
+object mapper of the registered Jackson encoder, so the output is the same as for the fully
+materialized document.
+ */
+public class StreamingCollectionInserter<T> implements BodyInserter<Flux<T>, ReactiveHttpOutputMessage> {
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    protected static final byte[] SEPARATOR = {','};
+
+    protected final Object envelope;
+    protected final T placeholder;
+    protected final Flux<T> entities;
+    protected final Class<?> view;
+    protected final int chunkSize;
+
+    @SuppressFBWarnings
+    public StreamingCollectionInserter(final Object envelope,
+                                       final T placeholder,
+                                       final Flux<T> entities,
+                                       final Class<?> view,
+                                       final int chunkSize) {
+        this.envelope = envelope;
+        this.placeholder = placeholder;
+        this.entities = entities;
+        this.view = view;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Mono<Void> insert(final ReactiveHttpOutputMessage outputMessage, final Context context) {
+        final ObjectWriter writer = objectMapper(context).writerWithView(view);
+        return outputMessage.writeWith(body(writer, outputMessage.bufferFactory()));
+    }
+
+    protected Flux<DataBuffer> body(final ObjectWriter writer, final DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            final byte[] document;
+            final byte[] element;
+
+            try {
+                document = writer.writeValueAsBytes(envelope);
+                element = writer.writeValueAsBytes(placeholder);
+            } catch (JsonProcessingException e) {
+                return Flux.error(e);
+            }
+
+            final int index = indexOf(document, element);
+            if (index < 0) {
+                return Flux.error(new IllegalStateException("Collection placeholder not found in the serialized envelope"));
+            }
+
+            final AtomicBoolean first = new AtomicBoolean(true);
+            final AtomicInteger pending = new AtomicInteger();
+
+            final Flux<DataBuffer> content = entities
+                    .map(entity -> serialize(writer, entity, first.getAndSet(false)))
+                    .bufferUntil(bytes -> {
+                        if (pending.addAndGet(bytes.length) < chunkSize) return false;
+                        pending.set(0);
+                        return true;
+                    })
+                    .map(chunk -> join(bufferFactory, chunk));
+
+            return Flux.concat(
+                    Mono.fromSupplier(() -> bufferFactory.wrap(Arrays.copyOfRange(document, 0, index))),
+                    content,
+                    Mono.fromSupplier(() -> bufferFactory.wrap(Arrays.copyOfRange(document, index + element.length, document.length)))
+            );
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    protected byte[] serialize(final ObjectWriter writer, final T entity, final boolean first) {
+        try {
+            final byte[] bytes = writer.writeValueAsBytes(entity);
+            if (first) return bytes;
+
+            final byte[] separated = new byte[bytes.length + SEPARATOR.length];
+            System.arraycopy(SEPARATOR, 0, separated, 0, SEPARATOR.length);
+            System.arraycopy(bytes, 0, separated, SEPARATOR.length, bytes.length);
+            return separated;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected static DataBuffer join(final DataBufferFactory bufferFactory, final List<byte[]> chunk) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(chunk.stream().mapToInt(bytes -> bytes.length).sum());
+        chunk.forEach(buffer::write);
+        return buffer;
+    }
+
+    protected static int indexOf(final byte[] source, final byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /*
+    The mapper the non-streaming responses are written with
+     */
+    protected static ObjectMapper objectMapper(final Context context) {
+        return context.messageWriters()
+                .stream()
+                .filter(EncoderHttpMessageWriter.class::isInstance)
+                .map(writer -> ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .filter(Jackson2JsonEncoder.class::isInstance)
+                .map(encoder -> ((Jackson2JsonEncoder) encoder).getObjectMapper())
+                .findFirst()
+                .orElseGet(() -> Jackson2ObjectMapperBuilder.json().build());
+    }
+}
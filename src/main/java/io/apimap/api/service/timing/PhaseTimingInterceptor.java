@@ -0,0 +1,54 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+Adds the time spent in calls returning a Mono or Flux to a phase of the request that subscribes to them.
+Only the call itself is timed, which is where the converters do their work.
+ */
+public class PhaseTimingInterceptor implements MethodInterceptor {
+    protected final RequestTiming.Phase phase;
+
+    public PhaseTimingInterceptor(final RequestTiming.Phase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final long start = System.nanoTime();
+        final Object result = invocation.proceed();
+        final long nanos = System.nanoTime() - start;
+
+        if (result instanceof Mono) {
+            return RequestTiming.add(phase, nanos, (Mono<?>) result);
+        }
+
+        if (result instanceof Flux) {
+            return RequestTiming.add(phase, nanos, (Flux<?>) result);
+        }
+
+        return result;
+    }
+}
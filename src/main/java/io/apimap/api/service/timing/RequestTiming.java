@@ -0,0 +1,159 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.timing;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+Nanoseconds spent in each phase of a request, kept in the Reactor Context and in the
+exchange attributes under KEY by RequestTimingWebFilter.
+
+Phases that run concurrently, like parallel repository calls, add up and may exceed the wall-clock time.
+ */
+public class RequestTiming {
+    public static final String KEY = "apimap.request.timing";
+
+    public enum Phase {
+        // Path variables, filters and pages read by RequestUtil
+        PARSE,
+        // Calls to the storage repositories
+        STORAGE,
+        // IRESTConverter encoding and decoding
+        MAPPING,
+        // ResponseBuilder assembly
+        RESPONSE,
+        // From the assembled response until the response is committed
+        SERIALIZATION,
+        // From commit until the response is written
+        WRITE;
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    protected final long start;
+    protected final AtomicLongArray phases = new AtomicLongArray(Phase.values().length);
+
+    protected volatile long responseAssembled;
+    protected volatile long committed;
+
+    public RequestTiming() {
+        this(System.nanoTime());
+    }
+
+    public RequestTiming(final long start) {
+        this.start = start;
+    }
+
+    public static Optional<RequestTiming> from(final ServerRequest request) {
+        return request.attribute(KEY).map(RequestTiming.class::cast);
+    }
+
+    public static Optional<RequestTiming> from(final ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+
+    public static void add(final ServerRequest request, final Phase phase, final long nanos) {
+        from(request).ifPresent(timing -> timing.add(phase, nanos));
+    }
+
+    /*
+    Adds work already done when the returned publisher is subscribed, with the timing of the subscriber
+     */
+    public static <T> Mono<T> add(final Phase phase, final long nanos, final Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(timing -> timing.add(phase, nanos));
+            return mono;
+        });
+    }
+
+    public static <T> Flux<T> add(final Phase phase, final long nanos, final Flux<T> flux) {
+        return Flux.deferContextual(context -> {
+            from(context).ifPresent(timing -> timing.add(phase, nanos));
+            return flux;
+        });
+    }
+
+    /*
+    ResponseBuilder assembly, what follows until commit is serialization
+     */
+    public static <T> Mono<T> assembled(final long nanos, final Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(timing -> {
+                timing.add(Phase.RESPONSE, nanos);
+                timing.responseAssembled = System.nanoTime();
+            });
+            return mono;
+        });
+    }
+
+    public void add(final Phase phase, final long nanos) {
+        phases.addAndGet(phase.ordinal(), nanos);
+    }
+
+    public long get(final Phase phase) {
+        return phases.get(phase.ordinal());
+    }
+
+    public void committed(final long now) {
+        committed = now;
+        if (responseAssembled > 0) {
+            add(Phase.SERIALIZATION, now - responseAssembled);
+        }
+    }
+
+    public void completed(final long now) {
+        if (committed > 0) {
+            add(Phase.WRITE, now - committed);
+        }
+    }
+
+    /*
+     * parse;dur=0.012, storage;dur=1.250, ..., total;dur=1.730 in milliseconds
+     */
+    public String serverTiming(final long now) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (Phase phase : Phase.values()) {
+            if (get(phase) > 0) {
+                appendMetric(builder, phase.value(), get(phase));
+            }
+        }
+
+        appendMetric(builder, "total", now - start);
+        return builder.toString();
+    }
+
+    protected static void appendMetric(final StringBuilder builder, final String name, final long nanos) {
+        if (builder.length() > 0) {
+            builder.append(", ");
+        }
+
+        builder.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
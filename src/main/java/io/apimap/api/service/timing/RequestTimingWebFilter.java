@@ -0,0 +1,101 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.timing;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.MetricsConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+Starts the RequestTiming of every request and records its phases as apimap.request.phases
+per route and phase, optionally returned to the client as a Server-Timing header
+ */
+@Component
+@ConditionalOnProperty(value = "metrics.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingWebFilter implements WebFilter {
+    public static final String PHASES = "apimap.request.phases";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    protected final MeterRegistry meterRegistry;
+    protected final MetricsConfiguration.Timing settings;
+
+    @SuppressFBWarnings
+    public RequestTimingWebFilter(final MeterRegistry meterRegistry,
+                                  final MetricsConfiguration metricsConfiguration) {
+        this.meterRegistry = meterRegistry;
+        this.settings = metricsConfiguration.getTiming();
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final RequestTiming timing = new RequestTiming();
+        exchange.getAttributes().put(RequestTiming.KEY, timing);
+
+        exchange.getResponse().beforeCommit(() -> {
+            final long now = System.nanoTime();
+            timing.committed(now);
+
+            if (settings.isServerTimingHeader()) {
+                exchange.getResponse().getHeaders().add(SERVER_TIMING_HEADER, timing.serverTiming(now));
+            }
+
+            return Mono.empty();
+        });
+
+        return chain
+                .filter(exchange)
+                .contextWrite(context -> context.put(RequestTiming.KEY, timing))
+                .doFinally(signal -> {
+                    timing.completed(System.nanoTime());
+                    record(exchange, timing);
+                });
+    }
+
+    protected void record(final ServerWebExchange exchange, final RequestTiming timing) {
+        final String method = exchange.getRequest().getMethodValue();
+        final String route = route(exchange);
+
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            Timer.builder(PHASES)
+                    .description("Time spent per phase of a request")
+                    .tag("method", method)
+                    .tag("uri", route)
+                    .tag("phase", phase.value())
+                    .register(meterRegistry)
+                    .record(timing.get(phase), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    protected static String route(final ServerWebExchange exchange) {
+        final Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.service.timing;
+
+import io.apimap.api.repository.IRESTConverter;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+Times the IRESTConverter of the active backend as the mapping phase of a request
+ */
+@Component
+@ConditionalOnProperty(value = "metrics.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class TimedConverterPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (!(bean instanceof IRESTConverter)) {
+            return bean;
+        }
+
+        final ProxyFactory factory = new ProxyFactory(bean);
+        factory.addAdvice(new PhaseTimingInterceptor(RequestTiming.Phase.MAPPING));
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.TracingConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+Appends each span as a line of JSON to tracing.file
+ */
+@Component
+@ConditionalOnProperty(value = "tracing.exporter", havingValue = "file")
+public class FileSpanExporter implements SpanExporter, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    protected final Path file;
+    protected BufferedWriter writer;
+
+    @SuppressFBWarnings
+    public FileSpanExporter(final TracingConfiguration tracingConfiguration) {
+        this.file = Paths.get(tracingConfiguration.getFile());
+        LOGGER.info("Writing spans to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void export(final List<Span> spans) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            for (Span span : spans) {
+                writer.write(span.toJson());
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write spans to {}: {}", file, e.getMessage());
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        close();
+    }
+
+    protected void close() {
+        if (writer == null) return;
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close {}: {}", file, e.getMessage());
+        }
+        writer = null;
+    }
+}
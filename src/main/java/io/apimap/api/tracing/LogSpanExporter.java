@@ -0,0 +1,45 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+Logs each span as a line of JSON to the io.apimap.api.tracing.spans logger
+ */
+@Component
+@ConditionalOnProperty(value = "tracing.exporter", havingValue = "log", matchIfMissing = true)
+public class LogSpanExporter implements SpanExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger("io.apimap.api.tracing.spans");
+
+    @Override
+    public void export(final List<Span> spans) {
+        if (!LOGGER.isInfoEnabled()) return;
+
+        for (Span span : spans) {
+            LOGGER.info(span.toJson());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import com.mongodb.RequestContext;
+import com.mongodb.reactivestreams.client.ReactiveContextProvider;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+Gives the MongoDB driver the Reactor Context of the subscriber that issued a command,
+so command listeners can find the span of the repository call
+ */
+public class ReactorRequestContext implements RequestContext {
+    public static final ReactiveContextProvider PROVIDER = subscriber -> new ReactorRequestContext(
+            subscriber instanceof CoreSubscriber ? ((CoreSubscriber<?>) subscriber).currentContext() : Context.empty());
+
+    protected ContextView context;
+
+    public ReactorRequestContext(final ContextView context) {
+        this.context = context;
+    }
+
+    @Override
+    public <T> T get(final Object key) {
+        return context.get(key);
+    }
+
+    @Override
+    public boolean hasKey(final Object key) {
+        return context.hasKey(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return context.isEmpty();
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        context = Context.of(context).put(key, value);
+    }
+
+    @Override
+    public void delete(final Object key) {
+        context = Context.of(context).delete(key);
+    }
+
+    @Override
+    public int size() {
+        return context.size();
+    }
+
+    @Override
+    public Stream<Map.Entry<Object, Object>> stream() {
+        return context.stream();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+A timed operation within a trace, identified as in W3C Trace Context so traces can be
+continued from and by other services through the traceparent header
+ */
+public class Span {
+    protected static final String VERSION = "00";
+    protected static final String SAMPLED = "01";
+    protected static final String NOT_SAMPLED = "00";
+
+    protected final String traceId;
+    protected final String spanId;
+    protected final String parentId;
+    protected String name;
+    protected final boolean sampled;
+    protected final long startEpochMicros;
+    protected final long startNanos;
+
+    protected final Map<String, String> tags = new LinkedHashMap<>();
+    protected long durationNanos = -1;
+    protected String error;
+
+    protected Span(final String traceId, final String parentId, final String name, final boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = randomId(16);
+        this.parentId = parentId;
+        this.name = name;
+        this.sampled = sampled;
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+    }
+
+    public static Span root(final String name, final boolean sampled) {
+        return new Span(randomId(32), null, name, sampled);
+    }
+
+    /*
+    Continues the trace of a traceparent header, or returns null if it is missing or malformed
+     */
+    public static Span continued(final String name, final String traceparent) {
+        if (traceparent == null) return null;
+
+        final String[] fields = traceparent.trim().split("-");
+        if (fields.length < 4
+                || !fields[0].equals(VERSION)
+                || !isHex(fields[1], 32)
+                || !isHex(fields[2], 16)
+                || !isHex(fields[3], 2)) {
+            return null;
+        }
+
+        final boolean sampled = (Integer.parseInt(fields[3], 16) & 1) == 1;
+        return new Span(fields[1], fields[2], name, sampled);
+    }
+
+    public Span child(final String name) {
+        return new Span(traceId, spanId, name, sampled);
+    }
+
+    public synchronized Span rename(final String name) {
+        this.name = name;
+        return this;
+    }
+
+    public synchronized Span tag(final String key, final String value) {
+        if (value != null) tags.put(key, value);
+        return this;
+    }
+
+    public synchronized Span error(final Throwable throwable) {
+        this.error = throwable.getClass().getName() + (throwable.getMessage() == null ? "" : ": " + throwable.getMessage());
+        return this;
+    }
+
+    /*
+    Returns false if the span had already ended
+     */
+    public synchronized boolean end() {
+        if (durationNanos >= 0) return false;
+
+        durationNanos = System.nanoTime() - startNanos;
+        return true;
+    }
+
+    public String traceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + (sampled ? SAMPLED : NOT_SAMPLED);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public synchronized String getName() {
+        return name;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public synchronized long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public synchronized Map<String, String> getTags() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    /*
+    One line of JSON, the format of the included exporters
+     */
+    public synchronized String toJson() {
+        final StringBuilder json = new StringBuilder(256)
+                .append("{\"traceId\":\"").append(traceId)
+                .append("\",\"spanId\":\"").append(spanId).append('"');
+
+        if (parentId != null) json.append(",\"parentId\":\"").append(parentId).append('"');
+
+        json.append(",\"name\":");
+        quote(json, name);
+        json.append(",\"start\":").append(startEpochMicros)
+                .append(",\"duration\":").append(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+
+        if (!tags.isEmpty()) {
+            json.append(",\"tags\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!first) json.append(',');
+                quote(json, tag.getKey());
+                json.append(':');
+                quote(json, tag.getValue());
+                first = false;
+            }
+            json.append('}');
+        }
+
+        if (error != null) {
+            json.append(",\"error\":");
+            quote(json, error);
+        }
+
+        return json.append('}').toString();
+    }
+
+    protected static void quote(final StringBuilder json, final String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    protected static String randomId(final int length) {
+        final StringBuilder id = new StringBuilder(length);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (id.length() < length) {
+            final String part = Long.toHexString(random.nextLong());
+            for (int i = part.length(); i < 16 && id.length() < length; i++) {
+                id.append('0');
+            }
+            id.append(part, 0, Math.min(part.length(), length - id.length()));
+        }
+        return id.toString();
+    }
+
+    protected static boolean isHex(final String value, final int length) {
+        if (value.length() != length) return false;
+
+        boolean zero = true;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+            if (c != '0') zero = false;
+        }
+
+        // All zero ids are invalid
+        return !zero;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.TracingConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/*
+Creates spans and hands the finished ones to the SpanExporter beans on a separate thread.
+
+The current span is kept in the Reactor Context under KEY, so it follows the subscription through
+flatMap fan-outs and thread hops. A span is the parent of everything subscribed inside the publisher it traces.
+ */
+@Component
+public class Tracer implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Tracer.class);
+
+    public static final String KEY = "apimap.trace.span";
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String DROPPED = "apimap.tracing.dropped";
+
+    protected static final int BATCH_SIZE = 512;
+
+    protected final TracingConfiguration settings;
+    protected final List<SpanExporter> exporters;
+    protected final BlockingQueue<Span> queue;
+    protected final Counter dropped;
+    protected final Thread thread;
+
+    protected volatile boolean running = true;
+
+    @SuppressFBWarnings
+    public Tracer(final TracingConfiguration tracingConfiguration,
+                  final ObjectProvider<SpanExporter> exporters,
+                  final MeterRegistry meterRegistry) {
+        this.settings = tracingConfiguration;
+        this.exporters = exporters.orderedStream().collect(Collectors.toList());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, tracingConfiguration.getQueueSize()));
+        this.dropped = Counter.builder(DROPPED)
+                .description("Finished spans dropped because the export queue was full")
+                .register(meterRegistry);
+
+        if (settings.isEnabled()) {
+            this.thread = new Thread(this::exportLoop, "apimap-tracing");
+            this.thread.setDaemon(true);
+            this.thread.start();
+
+            LOGGER.info("Tracing {} of the requests to {} exporter(s)", settings.getSampleRate(), this.exporters.size());
+        } else {
+            this.thread = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    public static Optional<Span> current(final ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+
+    /*
+    Starts the root span of a request, continuing the trace of the caller if it sent one
+     */
+    public Span start(final String name, final String traceparent) {
+        final Span continued = Span.continued(name, traceparent);
+        if (continued != null) return continued;
+
+        return Span.root(name, ThreadLocalRandom.current().nextDouble() < settings.getSampleRate());
+    }
+
+    /*
+    Traces the mono as a child of the current span, tags are given as key, value pairs
+     */
+    public <T> Mono<T> trace(final String name, final Mono<T> mono, final String... tags) {
+        if (!isEnabled()) return mono;
+
+        return Mono.deferContextual(context -> {
+            final Optional<Span> parent = current(context);
+            if (parent.isEmpty() || !parent.get().isSampled()) return mono;
+
+            final Span span = child(parent.get(), name, tags);
+            return mono
+                    .doOnError(span::error)
+                    .doFinally(signal -> finish(span, signal))
+                    .contextWrite(inner -> inner.put(KEY, span));
+        });
+    }
+
+    /*
+    Traces the flux as a child of the current span, tags are given as key, value pairs
+     */
+    public <T> Flux<T> trace(final String name, final Flux<T> flux, final String... tags) {
+        if (!isEnabled()) return flux;
+
+        return Flux.deferContextual(context -> {
+            final Optional<Span> parent = current(context);
+            if (parent.isEmpty() || !parent.get().isSampled()) return flux;
+
+            final Span span = child(parent.get(), name, tags);
+            return flux
+                    .doOnError(span::error)
+                    .doFinally(signal -> finish(span, signal))
+                    .contextWrite(inner -> inner.put(KEY, span));
+        });
+    }
+
+    /*
+    Traces each handler of a router as a child of the request span
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> handlerFilter(final String router) {
+        return (request, next) -> trace(router + " " + route(request), next.handle(request), "router", router);
+    }
+
+    public static String route(final ServerRequest request) {
+        return request
+                .attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                .filter(PathPattern.class::isInstance)
+                .map(pattern -> ((PathPattern) pattern).getPatternString())
+                .orElse("UNKNOWN");
+    }
+
+    public void finish(final Span span, final SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            span.tag("cancelled", "true");
+        }
+
+        finish(span);
+    }
+
+    public void finish(final Span span) {
+        if (!span.end() || !span.isSampled() || thread == null) return;
+
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (thread == null) return;
+
+        running = false;
+        thread.interrupt();
+        thread.join(1000);
+
+        // Whatever was finished before the shutdown
+        final List<Span> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        export(remaining);
+    }
+
+    protected Span child(final Span parent, final String name, final String... tags) {
+        final Span span = parent.child(name);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            span.tag(tags[i], tags[i + 1]);
+        }
+        return span;
+    }
+
+    protected void exportLoop() {
+        final List<Span> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                export(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    protected void export(final List<Span> spans) {
+        if (spans.isEmpty()) return;
+
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(spans);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Span exporter {} failed: {}", exporter.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import com.mongodb.RequestContext;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Traces each MongoDB command as a child of the span in the Reactor Context of its subscriber,
+requires the client to be created with ReactorRequestContext.PROVIDER
+ */
+public class TracingCommandListener implements CommandListener {
+    protected final Tracer tracer;
+    protected final Map<Integer, Span> inFlight = new ConcurrentHashMap<>();
+
+    public TracingCommandListener(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void commandStarted(final CommandStartedEvent event) {
+        final RequestContext context = event.getRequestContext();
+        if (context == null || !context.hasKey(Tracer.KEY)) return;
+
+        final Span parent = context.get(Tracer.KEY);
+        if (!parent.isSampled()) return;
+
+        // Most commands name their collection, as in {"find": "api", ...}
+        final BsonValue target = event.getCommand().get(event.getCommandName());
+        final String collection = target != null && target.isString() ? target.asString().getValue() : null;
+
+        final Span span = parent
+                .child("mongodb." + event.getCommandName())
+                .tag("db.system", "mongodb")
+                .tag("db.name", event.getDatabaseName())
+                .tag("db.operation", event.getCommandName())
+                .tag("db.collection", collection)
+                .tag("net.peer", event.getConnectionDescription().getServerAddress().toString());
+
+        inFlight.put(event.getRequestId(), span);
+    }
+
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        final Span span = inFlight.remove(event.getRequestId());
+        if (span != null) {
+            tracer.finish(span);
+        }
+    }
+
+    @Override
+    public void commandFailed(final CommandFailedEvent event) {
+        final Span span = inFlight.remove(event.getRequestId());
+        if (span != null) {
+            tracer.finish(span.error(event.getThrowable()));
+        }
+    }
+}
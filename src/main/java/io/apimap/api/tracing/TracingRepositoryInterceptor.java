@@ -0,0 +1,56 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+Traces every repository call returning a Mono or Flux as a span named repository.method
+ */
+public class TracingRepositoryInterceptor implements MethodInterceptor {
+    protected final Tracer tracer;
+    protected final String backend;
+    protected final String repository;
+
+    public TracingRepositoryInterceptor(final Tracer tracer, final String backend, final String repository) {
+        this.tracer = tracer;
+        this.backend = backend;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final Object result = invocation.proceed();
+        final String name = repository + "." + invocation.getMethod().getName();
+
+        if (result instanceof Mono) {
+            return tracer.trace(name, (Mono<?>) result, "backend", backend, "repository", repository);
+        }
+
+        if (result instanceof Flux) {
+            return tracer.trace(name, (Flux<?>) result, "backend", backend, "repository", repository);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.tracing;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/*
+Starts the root span of every request, continuing the trace of an incoming traceparent header.
+The traceparent of the span is returned to the client so a response can be matched with its trace.
+ */
+@Component
+@ConditionalOnProperty(value = "tracing.enabled", havingValue = "true")
+public class TracingWebFilter implements WebFilter {
+    protected final Tracer tracer;
+
+    @SuppressFBWarnings
+    public TracingWebFilter(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final String method = request.getMethodValue();
+
+        final Span span = tracer
+                .start("HTTP " + method, request.getHeaders().getFirst(Tracer.TRACEPARENT_HEADER))
+                .tag("http.method", method)
+                .tag("http.path", request.getPath().value());
+
+        exchange.getResponse().getHeaders().set(Tracer.TRACEPARENT_HEADER, span.traceparent());
+
+        return chain
+                .filter(exchange)
+                .doOnError(span::error)
+                .doFinally(signal -> {
+                    final Integer status = exchange.getResponse().getRawStatusCode();
+                    final String route = route(exchange);
+
+                    span.rename(method + " " + route)
+                            .tag("http.route", route)
+                            .tag("http.status", status == null ? null : String.valueOf(status));
+                    tracer.finish(span, signal);
+                })
+                .contextWrite(context -> context.put(Tracer.KEY, span));
+    }
+
+    protected static String route(final ServerWebExchange exchange) {
+        final Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,216 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.utils;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.jfr.CacheLookupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+Size bounded, least recently used cache with a time to live per entry.
+Empty lookups are cached as well, invalidation discards loads started before it.
+ */
+public class BoundedCache<K, V> {
+    protected final String name;
+    protected final int maximumSize;
+    protected final long timeToLive;
+    protected final Clock clock;
+    protected final LinkedHashMap<K, Entry<V>> entries;
+
+    protected final Counter hits;
+    protected final Counter misses;
+    protected final Counter sizeEvictions;
+    protected final Counter expiredEvictions;
+    protected final Counter invalidations;
+
+    protected long generation;
+
+    public BoundedCache(final String name,
+                        final int maximumSize,
+                        final Duration timeToLive,
+                        final MeterRegistry meterRegistry) {
+        this(name, maximumSize, timeToLive, meterRegistry, Clock.systemUTC());
+    }
+
+    @SuppressFBWarnings
+    public BoundedCache(final String name,
+                        final int maximumSize,
+                        final Duration timeToLive,
+                        final MeterRegistry meterRegistry,
+                        final Clock clock) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maximumSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("apimap.cache.hits")
+                .description("Cache lookups answered from the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        this.misses = Counter.builder("apimap.cache.misses")
+                .description("Cache lookups passed on to the loader")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        this.sizeEvictions = evictions(name, "size", meterRegistry);
+        this.expiredEvictions = evictions(name, "expired", meterRegistry);
+        this.invalidations = evictions(name, "invalidated", meterRegistry);
+
+        Gauge.builder("apimap.cache.size", this, BoundedCache::size)
+                .description("Entries held by the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /*
+    Returns the cached value, or subscribes to the loader and caches its result
+     */
+    public Mono<V> get(final K key, final Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            final CacheLookupEvent event = new CacheLookupEvent();
+            final long loadGeneration = generation();
+            event.begin();
+
+            final Entry<V> entry = lookup(key);
+            if (entry != null) {
+                commit(event, true);
+                return Mono.justOrEmpty(entry.value);
+            }
+
+            return loader.get()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(value -> put(key, value.orElse(null), loadGeneration))
+                    .doFinally(signal -> commit(event, false))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    public synchronized void invalidate(final K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void invalidateIf(final Predicate<K> predicate) {
+        generation++;
+
+        final Iterator<K> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (predicate.test(keys.next())) {
+                keys.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    protected synchronized long generation() {
+        return generation;
+    }
+
+    protected synchronized Entry<V> lookup(final K key) {
+        final Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.expires < clock.millis()) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry;
+    }
+
+    protected synchronized void put(final K key, final V value, final long loadGeneration) {
+        // Skip results loaded before an invalidation, they may already be stale
+        if (loadGeneration != generation) {
+            return;
+        }
+
+        entries.put(key, new Entry<>(value, clock.millis() + timeToLive));
+    }
+
+    protected void commit(final CacheLookupEvent event, final boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = name;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    protected static Counter evictions(final String name, final String cause, final MeterRegistry meterRegistry) {
+        return Counter.builder("apimap.cache.evictions")
+                .description("Entries removed from the cache")
+                .tag("cache", name)
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    protected static class Entry<V> {
+        protected final V value;
+        protected final long expires;
+
+        protected Entry(final V value, final long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
@@ -27,12 +27,23 @@ import io.apimap.api.service.context.AuthorizationContext;
 import io.apimap.api.service.context.ClassificationContext;
 import io.apimap.api.service.context.TaxonomyContext;
 import io.apimap.api.service.query.*;
+import io.apimap.api.service.timing.RequestTiming;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayOutputStream;
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 public class RequestUtil {
 
@@ -41,6 +52,11 @@ public class RequestUtil {
     public static final String FILTER_NAME_KEY = "filter[name]";
     public static final String QUERY_STRING = "query[value]";
     public static final String QUERY_FIELD = "query[field]";
+    public static final String PAGE_SIZE_KEY = "page[size]";
+    public static final String PAGE_CURSOR_KEY = "page[cursor]";
+    public static final String GRANULARITY_KEY = "granularity";
+    public static final String FROM_KEY = "from";
+    public static final String TO_KEY = "to";
     public static final int MAX_QUERY_VALUE_LENGTH = 100;
     public static final int MAX_QUERY_FIELD_LENGTH = 20;
     private RequestUtil() {
@@ -98,6 +114,39 @@ public class RequestUtil {
         return returnValue;
     }
 
+    /*
+    The requested page, null when the request has neither page[size] nor page[cursor]
+     */
+    public static Page pageFromRequest(final ServerRequest request) {
+        final Optional<String> size = request.queryParam(PAGE_SIZE_KEY);
+        final Optional<String> cursor = request.queryParam(PAGE_CURSOR_KEY);
+
+        if (size.isEmpty() && cursor.isEmpty()) {
+            return null;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            return Page.of(size.map(Integer::valueOf).orElse(null), cursor.orElse(null));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page size");
+        } finally {
+            RequestTiming.add(request, RequestTiming.Phase.PARSE, System.nanoTime() - start);
+        }
+    }
+
+    /*
+    The requested histogram buckets, monthly up to today without any parameters
+     */
+    public static TimeBuckets timeBucketsFromRequest(final ServerRequest request) {
+        return TimeBuckets.of(
+                request.queryParam(GRANULARITY_KEY).orElse(null),
+                request.queryParam(FROM_KEY).orElse(null),
+                request.queryParam(TO_KEY).orElse(null),
+                Clock.systemUTC()
+        );
+    }
+
     public static AuthorizationContext authorizationContextFromRequest(final ServerRequest request) {
         return new AuthorizationContext(
                 RequestUtil.bearerTokenFromRequest(request)
@@ -105,28 +154,40 @@ public class RequestUtil {
     }
 
     public static ClassificationContext classificationContextFromRequest(final ServerRequest request) {
-        return new ClassificationContext(
+        final long start = System.nanoTime();
+        final ClassificationContext context = new ClassificationContext(
                 classificationFromRequest(request),
                 requestFilters(request),
                 requestQuery(request)
         );
+
+        RequestTiming.add(request, RequestTiming.Phase.PARSE, System.nanoTime() - start);
+        return context;
     }
 
     public static TaxonomyContext taxonomyContextFromRequest(final ServerRequest request) {
-        return new TaxonomyContext(
+        final long start = System.nanoTime();
+        final TaxonomyContext context = new TaxonomyContext(
                 taxonomyNidFromRequest(request),
                 taxonomyVersionFromRequest(request),
                 taxonomyUrnFromRequest(request)
         );
+
+        RequestTiming.add(request, RequestTiming.Phase.PARSE, System.nanoTime() - start);
+        return context;
     }
 
     public static ApiContext apiContextFromRequest(final ServerRequest request) {
-        return new ApiContext(
+        final long start = System.nanoTime();
+        final ApiContext context = new ApiContext(
                 apiNameFromRequest(request),
                 apiVersionFromRequest(request),
                 requestFilters(request),
                 requestQuery(request)
         );
+
+        RequestTiming.add(request, RequestTiming.Phase.PARSE, System.nanoTime() - start);
+        return context;
     }
 
     public static String classificationFromRequest(final ServerRequest request) {
@@ -177,12 +238,94 @@ public class RequestUtil {
         }
     }
 
+    /*
+    True if If-None-Match lists the tag or *, weak tags match their strong counterpart
+     */
+    public static boolean isNotModified(final ServerRequest request, final String etag) {
+        if (etag == null) {
+            return false;
+        }
+
+        return request.headers().header("If-None-Match")
+                .stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .map(value -> value.startsWith("W/") ? value.substring(2) : value)
+                .anyMatch(value -> value.equals("*") || value.equals(etag));
+    }
+
+    /*
+    True if Accept-Encoding allows the encoding, either by name or through *, with a non zero quality
+     */
+    public static boolean acceptsEncoding(final ServerRequest request, final String encoding) {
+        return request.headers().header("Accept-Encoding")
+                .stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(value -> value.trim().split(";"))
+                .filter(parts -> parts[0].trim().equalsIgnoreCase(encoding) || parts[0].trim().equals("*"))
+                .anyMatch(parts -> Arrays.stream(parts)
+                        .skip(1)
+                        .map(String::trim)
+                        .noneMatch(parameter -> parameter.matches("q=0(\\.0*)?")));
+    }
+
+    /*
+    Reads the request body as it arrives and fails with 413 as soon as more than maximumSize bytes
+    have been received, or straight away when Content-Length is already too large. Empty when the body is.
+     */
+    public static Mono<byte[]> boundedBody(final ServerRequest request, final long maximumSize) {
+        final long declared = request.headers().contentLength().orElse(-1);
+
+        if (declared > maximumSize) {
+            return Mono.error(payloadTooLarge(maximumSize));
+        }
+
+        return Mono.defer(() -> {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream(declared > 0 ? (int) Math.min(declared, 1 << 20) : 1024);
+
+            return request.body(BodyExtractors.toDataBuffers())
+                    .<byte[]>handle((buffer, sink) -> {
+                        try {
+                            if ((long) body.size() + buffer.readableByteCount() > maximumSize) {
+                                sink.error(payloadTooLarge(maximumSize));
+                                return;
+                            }
+
+                            final byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            body.write(bytes, 0, bytes.length);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromSupplier(() -> body.size() > 0 ? body.toByteArray() : null));
+        });
+    }
+
+    protected static ResponseStatusException payloadTooLarge(final long maximumSize) {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Maximum upload size is " + maximumSize + " byte(s)");
+    }
+
     public static String bearerTokenFromRequest(final ServerRequest request) {
         if(request != null) {
-            String authorizationHeader = request.headers().firstHeader("Authorization");
-            if (authorizationHeader != null && authorizationHeader.toLowerCase().startsWith("bearer ")) {
-                return authorizationHeader.substring(7);
-            }
+            return bearerToken(request.headers().firstHeader("Authorization"));
+        }
+
+        return null;
+    }
+
+    public static String bearerTokenFromRequest(final ServerHttpRequest request) {
+        if(request != null) {
+            return bearerToken(request.getHeaders().getFirst("Authorization"));
+        }
+
+        return null;
+    }
+
+    protected static String bearerToken(final String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.toLowerCase().startsWith("bearer ")) {
+            return authorizationHeader.substring(7);
         }
 
         return null;
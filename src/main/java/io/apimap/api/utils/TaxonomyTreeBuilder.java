@@ -24,14 +24,22 @@ import io.apimap.api.rest.TaxonomyTreeDataRestEntity;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class TaxonomyTreeBuilder {
+    protected static final String SCHEME = "taxonomy://";
+
     protected ArrayList<TaxonomyTreeDataRestEntity> tree;
 
+    // Children of every node keyed by lower case path segment, the root holds the top level nodes
+    protected Node root;
+
     public TaxonomyTreeBuilder() {
         this.tree = new ArrayList<>();
+        this.root = new Node(null, tree);
     }
 
     public static TaxonomyTreeBuilder empty() {
@@ -44,21 +52,88 @@ public class TaxonomyTreeBuilder {
 
     public void setTree(ArrayList<TaxonomyTreeDataRestEntity> tree) {
         this.tree = new ArrayList<>(tree);
+        this.root = new Node(null, this.tree);
+        index(root);
     }
 
+    /*
+    Inserts the node, creating empty parent nodes for missing path segments.
+    Each segment is a single hash lookup, the cost is linear in the depth of the node.
+     */
     public boolean insert(TaxonomyTreeDataRestEntity newEntity) {
         if (newEntity.getReferenceType() == TaxonomyDataRestEntity.ReferenceType.REFERENCE) {
             return false;
         }
 
-        List<String> urlParts = splitURLParts(newEntity.getUrl());
-        recursiveInsert(tree, newEntity, createInitialURL(urlParts), new ArrayList<>(splitURLParts(newEntity.getUrl())));
+        final List<String> urlParts = splitURLParts(newEntity.getUrl());
+        final StringBuilder url = new StringBuilder(SCHEME);
+
+        Node parent = root;
+        for (int i = 0; i < urlParts.size(); i++) {
+            final String segment = urlParts.get(i);
+            final boolean last = i == urlParts.size() - 1;
+
+            if (i > 0) url.append('/');
+            url.append(segment);
+
+            Node node = parent.children.get(segment);
+
+            if (node == null) {
+                node = new Node(last ? createNode(newEntity) : createEmptyNode(url.toString()));
+                parent.add(segment, node);
+            } else if (last) {
+                node.entity.setDescription(newEntity.getDescription());
+                node.entity.setTitle(newEntity.getTitle());
+                node.entity.setUri(newEntity.getUri());
+                node.entity.setUrl(newEntity.getUrl());
+                node.entity.setUrn(newEntity.getUrn());
+                node.entity.setReferenceType(newEntity.getReferenceType());
+            }
+
+            parent = node;
+        }
 
         return true;
     }
 
+    protected TaxonomyTreeDataRestEntity createNode(TaxonomyTreeDataRestEntity node) {
+        return new TaxonomyTreeDataRestEntity(
+                node.getUrn(),
+                node.getTitle(),
+                node.getUrl(),
+                node.getDescription(),
+                node.getUri(),
+                "1",
+                node.getReferenceType(),
+                new ArrayList<>()
+        );
+    }
+
+    protected TaxonomyTreeDataRestEntity createEmptyNode(String url) {
+        return new TaxonomyTreeDataRestEntity(
+                null,
+                null,
+                url,
+                null,
+                null,
+                "1",
+                TaxonomyDataRestEntity.ReferenceType.UNKNOWN,
+                new ArrayList<>()
+        );
+    }
+
+    protected void index(Node parent) {
+        for (TaxonomyTreeDataRestEntity entity : parent.entities) {
+            final List<String> urlParts = splitURLParts(entity.getUrl());
+            final Node node = new Node(entity);
+
+            parent.children.put(urlParts.get(urlParts.size() - 1), node);
+            index(node);
+        }
+    }
+
     protected String createInitialURL(List<String> urlParts) {
-        return "taxonomy://" + urlParts.get(0);
+        return SCHEME + urlParts.get(0);
     }
 
     protected void replaceExistingNodeInformation(TaxonomyTreeDataRestEntity node, TaxonomyTreeDataRestEntity newEntity) {
@@ -72,6 +147,10 @@ public class TaxonomyTreeBuilder {
         }
     }
 
+    /*
+    Previous list based insert, kept for subclasses. It does not update the segment index,
+    use setTree to rebuild it before calling insert on the same tree.
+     */
     protected void recursiveInsert(ArrayList<TaxonomyTreeDataRestEntity> tree, TaxonomyTreeDataRestEntity node, String url, ArrayList<String> paths) {
         Optional<TaxonomyTreeDataRestEntity> deficientNode = tree
                 .stream()
@@ -146,4 +225,24 @@ public class TaxonomyTreeBuilder {
 
         return new ArrayList<>(Arrays.asList(url.split("/")));
     }
-}
\ No newline at end of file
+
+    protected static class Node {
+        protected final TaxonomyTreeDataRestEntity entity;
+        protected final List<TaxonomyTreeDataRestEntity> entities;
+        protected final Map<String, Node> children = new HashMap<>();
+
+        protected Node(TaxonomyTreeDataRestEntity entity) {
+            this(entity, entity.getEntities());
+        }
+
+        protected Node(TaxonomyTreeDataRestEntity entity, List<TaxonomyTreeDataRestEntity> entities) {
+            this.entity = entity;
+            this.entities = entities;
+        }
+
+        protected void add(String segment, Node node) {
+            children.put(segment, node);
+            entities.add(node.entity);
+        }
+    }
+}
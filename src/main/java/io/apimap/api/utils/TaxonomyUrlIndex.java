@@ -0,0 +1,207 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.utils;
+
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersionURN;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+In-memory trie of taxonomy URNs keyed by the path segments of their URL,
+taxonomy://First/Second is stored as First -> Second.
+
+The index is loaded from the repository on first use and reloaded after the time to live,
+writes made through the repository are applied to it directly.
+ */
+public class TaxonomyUrlIndex<T extends ITaxonomyCollectionVersionURN> {
+    protected static final String SCHEME = "taxonomy://";
+
+    protected final long timeToLive;
+    protected final Clock clock;
+
+    protected Node<T> root;
+    protected final Map<String, T> entities = new HashMap<>();
+    protected long loaded;
+    protected long generation;
+    protected Mono<Boolean> loading;
+
+    public TaxonomyUrlIndex(final Duration timeToLive) {
+        this(timeToLive, Clock.systemUTC());
+    }
+
+    public TaxonomyUrlIndex(final Duration timeToLive, final Clock clock) {
+        this.timeToLive = timeToLive.toMillis();
+        this.clock = clock;
+    }
+
+    /*
+    All URNs with a URL at or below the given URL
+     */
+    public Flux<T> below(final String url, final Supplier<Flux<T>> loader) {
+        return load(loader).flatMapIterable(ready -> collect(url));
+    }
+
+    public synchronized void put(final T entity) {
+        generation++;
+        if (root == null) return;
+
+        removeEntity(entity.getId());
+        insertEntity(entity);
+    }
+
+    public synchronized void remove(final Predicate<T> predicate) {
+        generation++;
+        if (root == null) return;
+
+        final List<String> ids = new ArrayList<>();
+        entities.forEach((id, entity) -> {
+            if (predicate.test(entity)) ids.add(id);
+        });
+        ids.forEach(this::removeEntity);
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        root = null;
+        entities.clear();
+    }
+
+    protected synchronized Mono<Boolean> load(final Supplier<Flux<T>> loader) {
+        if (root != null && clock.millis() - loaded < timeToLive) {
+            return Mono.just(Boolean.TRUE);
+        }
+
+        if (loading == null) {
+            final long loadGeneration = generation;
+            loading = loader.get()
+                    .collectList()
+                    .map(list -> loaded(list, loadGeneration))
+                    .doFinally(signal -> loadingFinished())
+                    .cache();
+        }
+
+        return loading;
+    }
+
+    protected synchronized Boolean loaded(final List<T> list, final long loadGeneration) {
+        // A write during the load may be missing from the list, keep serving it but load again next time
+        root = new Node<>();
+        entities.clear();
+        list.forEach(this::insertEntity);
+        loaded = loadGeneration == generation ? clock.millis() : 0;
+        return Boolean.TRUE;
+    }
+
+    protected synchronized void loadingFinished() {
+        loading = null;
+    }
+
+    protected synchronized List<T> collect(final String url) {
+        final List<T> result = new ArrayList<>();
+        if (root == null) return result;
+
+        Node<T> node = root;
+        for (String segment : segments(url)) {
+            node = node.children.get(segment);
+            if (node == null) return result;
+        }
+
+        final Deque<Node<T>> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            final Node<T> current = pending.pop();
+            result.addAll(current.entities.values());
+            current.children.values().forEach(pending::push);
+        }
+
+        return result;
+    }
+
+    protected void insertEntity(final T entity) {
+        if (entity.getUrl() == null) return;
+
+        Node<T> node = root;
+        for (String segment : segments(entity.getUrl())) {
+            node = node.children.computeIfAbsent(segment, key -> new Node<>());
+        }
+
+        node.entities.put(entity.getId(), entity);
+        entities.put(entity.getId(), entity);
+    }
+
+    protected void removeEntity(final String id) {
+        final T entity = entities.remove(id);
+        if (entity == null) return;
+
+        final List<String> segments = segments(entity.getUrl());
+        final List<Node<T>> path = new ArrayList<>(segments.size() + 1);
+
+        Node<T> node = root;
+        path.add(node);
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) return;
+            path.add(node);
+        }
+
+        node.entities.remove(id);
+
+        // Drop branches left without URNs
+        for (int i = segments.size(); i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).children.remove(segments.get(i - 1));
+        }
+    }
+
+    /*
+     * taxonomy://First/Second/ -> [First, Second]
+     */
+    protected static List<String> segments(String url) {
+        if (url.startsWith(SCHEME)) {
+            url = url.substring(SCHEME.length());
+        }
+
+        final List<String> segments = new ArrayList<>();
+        for (String segment : url.split("/")) {
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+        return segments;
+    }
+
+    protected static class Node<T> {
+        protected final Map<String, Node<T>> children = new HashMap<>();
+        protected final Map<String, T> entities = new LinkedHashMap<>();
+
+        protected boolean isEmpty() {
+            return children.isEmpty() && entities.isEmpty();
+        }
+    }
+}
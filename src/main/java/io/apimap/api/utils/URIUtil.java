@@ -24,6 +24,7 @@ import org.jetbrains.annotations.NotNull;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
@@ -100,6 +101,42 @@ public class URIUtil {
         return this;
     }
 
+    /*
+    Sets the query parameter, replacing any existing values of it
+     */
+    public URIUtil withQueryParameter(String name, String value) {
+        try {
+            final StringBuilder query = new StringBuilder();
+
+            if (this.uri.getRawQuery() != null) {
+                for (String parameter : this.uri.getRawQuery().split("&")) {
+                    final String[] parts = parameter.split("=", 2);
+                    final String parameterName = URLDecoder.decode(parts[0], StandardCharsets.UTF_8);
+
+                    if (parameter.isEmpty() || parameterName.equals(name)) {
+                        continue;
+                    }
+
+                    query.append(URLEncoder.encode(parameterName, StandardCharsets.UTF_8));
+                    if (parts.length > 1) {
+                        query.append('=').append(URLEncoder.encode(URLDecoder.decode(parts[1], StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+                    }
+                    query.append('&');
+                }
+            }
+
+            query.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+
+            this.uri = new java.net.URI(this.uri.getScheme() + "://" + this.uri.getRawAuthority() + this.uri.getRawPath() + "?" + query);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return this;
+        }
+
+        return this;
+    }
+
     public String stringValue() {
         return this.uri.toString();
     }
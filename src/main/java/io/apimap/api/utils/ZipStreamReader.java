@@ -0,0 +1,213 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/*
+Reads a ZIP archive of JSON array entries, as written by ZipStreamWriter, from a stream of buffers.
+Documents are parsed one at a time and emitted in batches, the archive is never held in memory.
+ */
+public class ZipStreamReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipStreamReader.class);
+
+    protected static final int PIPE_SIZE = 64 * 1024;
+
+    protected final ObjectMapper mapper;
+    protected final int batchSize;
+
+    protected ZipInputStream zipInputStream;
+    protected String entryName;
+    protected JsonParser parser;
+
+    @SuppressFBWarnings
+    protected ZipStreamReader(final InputStream inputStream,
+                              final ObjectMapper mapper,
+                              final int batchSize) {
+        this.zipInputStream = new ZipInputStream(inputStream);
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+    }
+
+    public static Flux<Batch> read(final Flux<DataBuffer> body,
+                                   final ObjectMapper mapper,
+                                   final int batchSize) {
+        return Flux.defer(() -> {
+            final PipedOutputStream outputStream = new PipedOutputStream();
+            final PipedInputStream inputStream;
+
+            try {
+                inputStream = new PipedInputStream(outputStream, PIPE_SIZE);
+            } catch (IOException e) {
+                return Flux.error(new UncheckedIOException(e));
+            }
+
+            // Set once the parser is done, the upload may still be writing the end of the archive to the closed pipe
+            final AtomicBoolean parsed = new AtomicBoolean();
+
+            // Writing to the pipe blocks while the reader catches up, keep it off the request thread
+            final Disposable upload = DataBufferUtils
+                    .write(body.publishOn(Schedulers.boundedElastic(), 4), outputStream)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> {
+                        try {
+                            outputStream.close();
+                        } catch (IOException e) {
+                            LOGGER.debug("Failed to close upload pipe", e);
+                        }
+                    })
+                    .subscribe(DataBufferUtils.releaseConsumer(), e -> {
+                        if (parsed.get()) {
+                            LOGGER.debug("Stopped writing the uploaded archive after it was read", e);
+                        } else {
+                            LOGGER.warn("Failed to read uploaded archive", e);
+                        }
+                    });
+
+            return Flux.<Batch, ZipStreamReader>generate(
+                            () -> new ZipStreamReader(inputStream, mapper, batchSize),
+                            (reader, sink) -> {
+                                try {
+                                    final Batch batch = reader.next();
+                                    if (batch == null) {
+                                        sink.complete();
+                                    } else {
+                                        sink.next(batch);
+                                    }
+                                } catch (IOException e) {
+                                    sink.error(new UncheckedIOException(e));
+                                }
+                                return reader;
+                            },
+                            reader -> {
+                                parsed.set(true);
+                                reader.close();
+                            })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doFinally(signal -> upload.dispose());
+        });
+    }
+
+    /*
+    Returns the next batch of documents, or null when the archive has no more documents
+     */
+    protected Batch next() throws IOException {
+        while (true) {
+            if (parser == null && !nextEntry()) {
+                return null;
+            }
+
+            final List<JsonNode> documents = new ArrayList<>(batchSize);
+            while (documents.size() < batchSize) {
+                final JsonToken token = parser.nextToken();
+
+                if (token == JsonToken.END_ARRAY) {
+                    parser.close();
+                    parser = null;
+                    break;
+                }
+
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Unexpected content in '" + entryName + "', expected an array of objects");
+                }
+
+                documents.add(parser.readValueAsTree());
+            }
+
+            if (!documents.isEmpty()) {
+                return new Batch(entryName, documents);
+            }
+        }
+    }
+
+    protected boolean nextEntry() throws IOException {
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            parser = mapper.getFactory().createParser(zipInputStream);
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Unexpected content in '" + entry.getName() + "', expected an array");
+            }
+
+            entryName = entry.getName();
+            return true;
+        }
+
+        return false;
+    }
+
+    protected void close() {
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+            zipInputStream.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close archive", e);
+        }
+    }
+
+    public static class Batch {
+        protected final String entryName;
+        protected final List<JsonNode> documents;
+
+        @SuppressFBWarnings
+        public Batch(final String entryName, final List<JsonNode> documents) {
+            this.entryName = entryName;
+            this.documents = documents;
+        }
+
+        public String getEntryName() {
+            return entryName;
+        }
+
+        @SuppressFBWarnings
+        public List<JsonNode> getDocuments() {
+            return documents;
+        }
+    }
+}
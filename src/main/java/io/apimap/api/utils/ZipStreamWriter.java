@@ -0,0 +1,237 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+ */
+
+package io.apimap.api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+Writes a ZIP archive of JSON array entries as a stream of fixed size buffers.
+Entries are written one document at a time, only the buffers not yet handed
+downstream are kept in memory. Not thread safe, entries must be written in sequence.
+ */
+public class ZipStreamWriter {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    protected static final byte[] ARRAY_START = "[".getBytes(StandardCharsets.UTF_8);
+    protected static final byte[] ARRAY_SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    protected static final byte[] ARRAY_END = "]".getBytes(StandardCharsets.UTF_8);
+
+    protected final ObjectMapper mapper;
+    protected final MeterRegistry meterRegistry;
+    protected final ChunkedOutputStream outputStream;
+    protected final ArchiveOutputStream zipOutputStream;
+
+    @SuppressFBWarnings
+    public ZipStreamWriter(final DataBufferFactory bufferFactory,
+                           final ObjectMapper mapper,
+                           final MeterRegistry meterRegistry,
+                           final int chunkSize) {
+        this.mapper = mapper;
+        this.meterRegistry = meterRegistry;
+        this.outputStream = new ChunkedOutputStream(bufferFactory, chunkSize);
+        this.zipOutputStream = new ArchiveOutputStream(outputStream);
+    }
+
+    /*
+    Writes the elements as a JSON array into a new ZIP entry
+     */
+    public Flux<DataBuffer> entry(final String name, final Flux<?> elements) {
+        final Counter documents = Counter.builder("apimap.export.documents")
+                .description("Documents written to the ZIP export")
+                .tag("entry", name)
+                .register(meterRegistry);
+
+        final Counter bytes = Counter.builder("apimap.export.bytes")
+                .description("Uncompressed bytes written to the ZIP export")
+                .tag("entry", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        final Timer duration = Timer.builder("apimap.export.duration")
+                .description("Time spent writing a ZIP export entry")
+                .tag("entry", name)
+                .register(meterRegistry);
+
+        return Flux.defer(() -> {
+            final AtomicBoolean first = new AtomicBoolean(true);
+            final Timer.Sample sample = Timer.start(meterRegistry);
+
+            return Flux.concat(
+                    write(() -> {
+                        zipOutputStream.putNextEntry(new ZipEntry(name));
+                        zipOutputStream.write(ARRAY_START);
+                    }),
+                    elements.concatMap(element -> write(() -> {
+                        final byte[] content = mapper.writeValueAsBytes(element);
+                        if (!first.compareAndSet(true, false)) {
+                            zipOutputStream.write(ARRAY_SEPARATOR);
+                        }
+                        zipOutputStream.write(content);
+
+                        documents.increment();
+                        bytes.increment(content.length);
+                    })),
+                    write(() -> {
+                        zipOutputStream.write(ARRAY_END);
+                        zipOutputStream.closeEntry();
+                    })
+            ).doFinally(signal -> sample.stop(duration));
+        });
+    }
+
+    /*
+    Writes the ZIP central directory and flushes the remaining buffered content
+     */
+    public Flux<DataBuffer> finish() {
+        return write(() -> {
+            zipOutputStream.finish();
+            outputStream.flushChunk();
+        });
+    }
+
+    /*
+    Closes the archive and releases buffers not yet handed downstream, must be called when the
+    export completes, is cancelled or fails
+     */
+    public void release() {
+        zipOutputStream.abort();
+        outputStream.release();
+    }
+
+    /*
+    Runs the write and emits the buffers filled by it
+     */
+    protected Flux<DataBuffer> write(final ZipWrite write) {
+        return Flux.defer(() -> {
+            try {
+                write.apply();
+            } catch (IOException e) {
+                return Flux.error(new UncheckedIOException(e));
+            }
+            return Flux.fromIterable(outputStream.drain());
+        });
+    }
+
+    /*
+    ZipOutputStream that always frees its native deflater, even when closing an unfinished archive fails
+     */
+    protected static class ArchiveOutputStream extends ZipOutputStream {
+        protected ArchiveOutputStream(final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        protected void abort() {
+            try {
+                close();
+            } catch (IOException ignored) {
+                // Nothing is sent after an abort
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface ZipWrite {
+        void apply() throws IOException;
+    }
+
+    protected static class ChunkedOutputStream extends OutputStream {
+        protected final DataBufferFactory bufferFactory;
+        protected final int chunkSize;
+        protected final List<DataBuffer> completed = new ArrayList<>();
+        protected DataBuffer current;
+
+        protected ChunkedOutputStream(final DataBufferFactory bufferFactory, final int chunkSize) {
+            this.bufferFactory = bufferFactory;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (current == null) {
+                    current = bufferFactory.allocateBuffer(chunkSize);
+                }
+
+                final int length = Math.min(len, chunkSize - current.writePosition());
+                current.write(b, off, length);
+                off += length;
+                len -= length;
+
+                if (current.writePosition() >= chunkSize) {
+                    completed.add(current);
+                    current = null;
+                }
+            }
+        }
+
+        protected void flushChunk() {
+            if (current != null && current.readableByteCount() > 0) {
+                completed.add(current);
+                current = null;
+            }
+        }
+
+        protected List<DataBuffer> drain() {
+            final List<DataBuffer> buffers = new ArrayList<>(completed);
+            completed.clear();
+            return buffers;
+        }
+
+        protected void release() {
+            completed.forEach(DataBufferUtils::release);
+            completed.clear();
+
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            // Buffers are handed downstream or released explicitly
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.apimap.api.accesslog;
+
+import io.apimap.api.configuration.AccessLogConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class AccessLogBufferTest {
+    private static final URI LOCATION = URI.create("http://localhost/api");
+
+    @Test
+    void recordsAreDrainedInOrderAndSlotsReused() {
+        final AccessLogBuffer buffer = new AccessLogBuffer(4);
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertThat(buffer.offer("GET", LOCATION, 200 + i, i)).isTrue();
+            }
+            Assertions.assertThat(buffer.offer("GET", LOCATION, 500, 0)).isFalse();
+            Assertions.assertThat(buffer.size()).isEqualTo(4);
+
+            final List<Integer> statuses = new ArrayList<>();
+            Assertions.assertThat(buffer.drain(record -> statuses.add(record.getStatus()), 10)).isEqualTo(4);
+            Assertions.assertThat(statuses).containsExactly(200, 201, 202, 203);
+            Assertions.assertThat(buffer.size()).isZero();
+        }
+    }
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        Assertions.assertThat(new AccessLogBuffer(1000).capacity()).isEqualTo(1024);
+        Assertions.assertThat(new AccessLogBuffer(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileThereIsRoom() throws Exception {
+        final AccessLogBuffer buffer = new AccessLogBuffer(1 << 14);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch done = new CountDownLatch(4);
+
+        for (int thread = 0; thread < 4; thread++) {
+            final int offset = thread * 1000;
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    buffer.offer("GET", LOCATION, 200, offset + i);
+                }
+                done.countDown();
+            });
+        }
+
+        Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        final Set<Long> durations = new HashSet<>();
+        buffer.drain(record -> durations.add(record.getDurationNanos()), Integer.MAX_VALUE);
+        Assertions.assertThat(durations).hasSize(4000);
+    }
+
+    @Test
+    void statusClassesAreSampled() throws Exception {
+        final AccessLogConfiguration configuration = new AccessLogConfiguration();
+        configuration.setSampleRates(Map.of("2xx", 0.0));
+        configuration.setFlushInterval(Duration.ofHours(1));
+
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final AccessLog accessLog = new AccessLog(configuration, meterRegistry);
+
+        accessLog.record("GET", LOCATION, 200, 0);
+        accessLog.record("GET", LOCATION, 404, 0);
+        accessLog.destroy();
+
+        Assertions.assertThat(meterRegistry.get(AccessLog.DROPPED).tag("cause", "sampled").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(AccessLog.WRITTEN).counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,95 @@
+package io.apimap.api.dataset;
+
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.repository.interfaces.IApiVersion;
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersionURN;
+import io.apimap.api.repository.mongodb.MongoRESTConverter;
+import io.apimap.api.repository.nitrite.NitriteRESTConverter;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class DatasetTest {
+
+    /** Small catalog with the default skew */
+    private static DatasetConfiguration settings(long seed) {
+        final DatasetConfiguration settings = new DatasetConfiguration();
+        settings.setSeed(seed);
+        settings.setApis(2000);
+        settings.setTaxonomyUrns(500);
+        settings.setTaxonomyFanOut(10);
+        return settings;
+    }
+
+    private static <T> List<String> values(List<T> entities, Function<T, String> value) {
+        return entities.stream().map(value).collect(Collectors.toList());
+    }
+
+    @Test
+    void sameSeedGivesSameCatalogForBothBackends() {
+        final Dataset.Batch nitrite = new Dataset(new NitriteRESTConverter(), settings(7)).apis(0, 2000);
+        final Dataset.Batch mongo = new Dataset(new MongoRESTConverter(), settings(7)).apis(0, 2000);
+        final Dataset.Batch other = new Dataset(new NitriteRESTConverter(), settings(8)).apis(0, 2000);
+
+        Assertions.assertThat(values(nitrite.getApis(), api -> api.getId() + api.getName() + api.getCreated() + api.getToken()))
+                .isEqualTo(values(mongo.getApis(), api -> api.getId() + api.getName() + api.getCreated() + api.getToken()));
+        Assertions.assertThat(values(nitrite.getMetadata(), metadata -> metadata.getId() + metadata.getReleaseStatus() + metadata.getBusinessUnit()))
+                .isEqualTo(values(mongo.getMetadata(), metadata -> metadata.getId() + metadata.getReleaseStatus() + metadata.getBusinessUnit()));
+        Assertions.assertThat(values(nitrite.getVotes(), vote -> vote.getId() + vote.getRating()))
+                .isEqualTo(values(mongo.getVotes(), vote -> vote.getId() + vote.getRating()));
+
+        Assertions.assertThat(values(nitrite.getMetadata(), IMetadata::getReleaseStatus))
+                .isNotEqualTo(values(other.getMetadata(), IMetadata::getReleaseStatus));
+    }
+
+    @Test
+    void rangesMatchTheWholeCatalog() {
+        final Dataset dataset = new Dataset(new NitriteRESTConverter(), settings(7));
+
+        final Dataset.Batch whole = dataset.apis(0, 2000);
+        final Dataset.Batch tail = dataset.apis(1000, 2000);
+
+        Assertions.assertThat(values(tail.getVersions(), IApiVersion::getId))
+                .isEqualTo(values(whole.getVersions(), IApiVersion::getId).subList(whole.getVersions().size() - tail.getVersions().size(), whole.getVersions().size()));
+    }
+
+    @Test
+    void valuesAreSkewed() {
+        final Dataset.Batch batch = new Dataset(new NitriteRESTConverter(), settings(7)).apis(0, 2000);
+
+        final Map<String, Long> releaseStatus = batch.getMetadata()
+                .stream()
+                .collect(Collectors.groupingBy(IMetadata::getReleaseStatus, Collectors.counting()));
+
+        Assertions.assertThat(releaseStatus.get(Dataset.RELEASE_STATUS[0]))
+                .isGreaterThan(releaseStatus.get(Dataset.RELEASE_STATUS[Dataset.RELEASE_STATUS.length - 1]) * 3);
+
+        // Every API has a first version, fewer have a second
+        Assertions.assertThat(batch.getVersions().stream().filter(version -> version.getVersion().equals(Dataset.apiVersion(0))).count())
+                .isEqualTo(2000);
+        Assertions.assertThat(batch.getVersions().stream().filter(version -> version.getVersion().equals(Dataset.apiVersion(1))).count())
+                .isBetween(1L, 1999L);
+
+        Assertions.assertThat(batch.getClassifications())
+                .allMatch(classification -> classification.getTaxonomyUrn().startsWith("urn:dataset:"));
+        Assertions.assertThat(batch.getVotes())
+                .allMatch(vote -> vote.getRating() >= 1 && vote.getRating() <= 5);
+    }
+
+    @Test
+    void taxonomyIsATree() {
+        final List<ITaxonomyCollectionVersionURN> urns = new Dataset(new NitriteRESTConverter(), settings(7)).taxonomyUrns();
+        final Map<String, String> urls = urns.stream()
+                .collect(Collectors.toMap(ITaxonomyCollectionVersionURN::getUrn, ITaxonomyCollectionVersionURN::getUrl));
+
+        Assertions.assertThat(urns).hasSize(500);
+        Assertions.assertThat(urls.get(Dataset.urn("dataset", 1))).isEqualTo("taxonomy://Category 1");
+        Assertions.assertThat(urls.get(Dataset.urn("dataset", 11))).isEqualTo("taxonomy://Category 1/Category 11");
+        Assertions.assertThat(urls.get(Dataset.urn("dataset", 111))).isEqualTo("taxonomy://Category 1/Category 11/Category 111");
+    }
+}
@@ -0,0 +1,72 @@
+package io.apimap.api.jfr;
+
+import io.apimap.api.configuration.MetricsConfiguration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+class FlightRecorderEndpointTest {
+    @TempDir
+    Path directory;
+
+    FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        final MetricsConfiguration configuration = new MetricsConfiguration();
+        configuration.getFlightRecorder().setDirectory(directory.toString());
+        endpoint = new FlightRecorderEndpoint(configuration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @Test
+    void nothingToDumpWithoutARecording() throws Exception {
+        Assertions.assertThat(endpoint.status()).containsEntry("state", "NONE");
+        Assertions.assertThat(endpoint.dump(FlightRecorderEndpoint.DUMP).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void dumpsTheEventsOfARecording() throws Exception {
+        Assertions.assertThat(endpoint.start(null, null)).containsEntry("state", "RUNNING");
+
+        final RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        event.backend = "nitrite";
+        event.repository = "api";
+        event.method = "get";
+        event.outcome = "success";
+        event.rows = 1;
+        event.commit();
+
+        Assertions.assertThat(endpoint.stop()).containsEntry("state", "STOPPED");
+
+        final WebEndpointResponse<Resource> response = endpoint.dump(FlightRecorderEndpoint.DUMP);
+        Assertions.assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(response.getBody().getFile().toPath());
+        Assertions.assertThat(events)
+                .filteredOn(recorded -> recorded.getEventType().getName().equals("io.apimap.RepositoryCall"))
+                .singleElement()
+                .satisfies(recorded -> Assertions.assertThat(recorded.getString("method")).isEqualTo("get"));
+    }
+
+    @Test
+    void onlyTheDumpSelectorIsAccepted() throws Exception {
+        endpoint.start("default", null);
+
+        Assertions.assertThat(endpoint.dump("other").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,64 @@
+package io.apimap.api.load;
+
+import io.apimap.api.configuration.DatasetConfiguration;
+import io.apimap.api.dataset.Dataset;
+import io.apimap.api.dataset.DatasetGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a generated catalog through the repositories and keeps the names the load routes pick from
+ */
+public class LoadCatalog {
+    public static final String NID = "apimap";
+    public static final String API_VERSION = Dataset.apiVersion(0);
+    public static final int TAXONOMY_SIZE = 100;
+
+    public static final String[] RELEASE_STATUS = Dataset.RELEASE_STATUS;
+
+    private final List<String> apiNames = new ArrayList<>();
+    private final List<String> urns = new ArrayList<>();
+
+    public static LoadCatalog seed(DatasetGenerator generator, LoadProfile profile) {
+        final LoadCatalog catalog = new LoadCatalog();
+
+        generator.generate(settings(profile)).block();
+
+        for (int i = 0; i < profile.getApis(); i++) {
+            catalog.apiNames.add(Dataset.apiName(i));
+        }
+
+        for (int i = 1; i <= TAXONOMY_SIZE; i++) {
+            catalog.urns.add(Dataset.urn(NID, i));
+        }
+
+        return catalog;
+    }
+
+    /**
+     * The same profile always gives the same catalog
+     */
+    public static DatasetConfiguration settings(LoadProfile profile) {
+        final DatasetConfiguration settings = new DatasetConfiguration();
+        settings.setSeed(profile.getSeed());
+        settings.setApis(profile.getApis());
+        settings.setTaxonomyNid(NID);
+        settings.setTaxonomyUrns(TAXONOMY_SIZE);
+        settings.setTaxonomyFanOut(10);
+        return settings;
+    }
+
+    public String apiName(Random random) {
+        return apiNames.get(random.nextInt(apiNames.size()));
+    }
+
+    public String urn(Random random) {
+        return urns.get(random.nextInt(urns.size()));
+    }
+
+    public List<String> getApiNames() {
+        return apiNames;
+    }
+}
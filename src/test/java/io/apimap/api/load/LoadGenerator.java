@@ -0,0 +1,102 @@
+package io.apimap.api.load;
+
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open model load: requests start at a fixed rate whether or not earlier requests have completed.
+ * Latency is measured from the intended start of each request, so a stalled server is reported
+ * as high latency instead of as a lower request rate.
+ */
+public class LoadGenerator {
+    private final WebClient client;
+    private final LoadProfile profile;
+    private final List<LoadRoute> weightedRoutes = new ArrayList<>();
+
+    public LoadGenerator(WebClient client, LoadProfile profile, Map<String, LoadRoute> routes) {
+        this.client = client;
+        this.profile = profile;
+
+        profile.getMix().forEach((name, weight) -> {
+            final LoadRoute route = routes.get(name);
+            if (route == null) {
+                throw new IllegalArgumentException("Unknown load route '" + name + "', known routes are " + routes.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                weightedRoutes.add(route);
+            }
+        });
+
+        if (weightedRoutes.isEmpty()) {
+            throw new IllegalArgumentException("The load mix has no routes");
+        }
+    }
+
+    public LoadRecorder run(Duration duration, long seed) {
+        final LoadRecorder recorder = new LoadRecorder();
+        final Random random = new Random(seed);
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        final long period = Math.max(1, TimeUnit.SECONDS.toNanos(1) / profile.getRate());
+        final long requests = Math.max(1, duration.toNanos() / period);
+        final long start = System.nanoTime();
+
+        Flux.interval(Duration.ofNanos(period))
+                .take(requests)
+                .onBackpressureBuffer()
+                .map(tick -> {
+                    // Routes and parameters are picked in arrival order so a seed gives the same request sequence
+                    final LoadRoute route = weightedRoutes.get(random.nextInt(weightedRoutes.size()));
+                    return new Arrival(route, route.request(client, random), start + (tick + 1) * period);
+                })
+                .flatMap(arrival -> send(arrival, inFlight, recorder), profile.getMaxInFlight() + 1)
+                .blockLast();
+
+        return recorder;
+    }
+
+    private Mono<Integer> send(Arrival arrival, AtomicInteger inFlight, LoadRecorder recorder) {
+        if (inFlight.incrementAndGet() > profile.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            recorder.dropped(arrival.route.getName());
+            return Mono.empty();
+        }
+
+        return arrival.request
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                .timeout(profile.getTimeout())
+                .doOnNext(status -> {
+                    if (status >= 400) {
+                        recorder.error(arrival.route.getName(), System.nanoTime() - arrival.intendedStart);
+                    } else {
+                        recorder.success(arrival.route.getName(), System.nanoTime() - arrival.intendedStart);
+                    }
+                })
+                .onErrorResume(e -> {
+                    recorder.error(arrival.route.getName(), System.nanoTime() - arrival.intendedStart);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private static class Arrival {
+        private final LoadRoute route;
+        private final WebClient.RequestHeadersSpec<?> request;
+        private final long intendedStart;
+
+        private Arrival(LoadRoute route, WebClient.RequestHeadersSpec<?> request, long intendedStart) {
+            this.route = route;
+            this.request = request;
+            this.intendedStart = intendedStart;
+        }
+    }
+}
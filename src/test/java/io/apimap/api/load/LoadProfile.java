@@ -0,0 +1,113 @@
+package io.apimap.api.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties so runs can be tuned from the command line:
+ * gradlew loadTest -Dload.rate=200 -Dload.duration=PT2M -Dload.mix=catalog=50,search=30,write=20
+ */
+public class LoadProfile {
+    public static final String DEFAULT_MIX = "catalog=30,search=25,classification=20,taxonomy=15,write=10";
+
+    // Requests started per second, independent of how fast responses come back
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration timeout;
+    // Arrivals beyond this many outstanding requests are dropped and reported
+    private final int maxInFlight;
+    private final int apis;
+    private final long seed;
+    private final Map<String, Integer> mix;
+
+    public LoadProfile(int rate, Duration warmup, Duration duration, Duration timeout, int maxInFlight, int apis, long seed, Map<String, Integer> mix) {
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.apis = apis;
+        this.seed = seed;
+        this.mix = mix;
+    }
+
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.rate", 50),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                Duration.parse(System.getProperty("load.duration", "PT30S")),
+                Duration.parse(System.getProperty("load.timeout", "PT10S")),
+                Integer.getInteger("load.maxInFlight", 256),
+                Integer.getInteger("load.apis", 200),
+                Long.getLong("load.seed", 42L),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX))
+        );
+    }
+
+    /**
+     * catalog=30,search=25 -> {catalog: 30, search: 25}
+     */
+    public static Map<String, Integer> parseMix(String value) {
+        final Map<String, Integer> mix = new LinkedHashMap<>();
+
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .forEach(entry -> {
+                    final String[] parts = entry.split("=");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Invalid load mix entry '" + entry + "', expected <route>=<weight>");
+                    }
+                    mix.put(parts[0].trim(), Integer.valueOf(parts[1].trim()));
+                });
+
+        return mix;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getApis() {
+        return apis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadProfile{" +
+                "rate=" + rate +
+                ", warmup=" + warmup +
+                ", duration=" + duration +
+                ", maxInFlight=" + maxInFlight +
+                ", apis=" + apis +
+                ", mix=" + mix +
+                '}';
+    }
+}
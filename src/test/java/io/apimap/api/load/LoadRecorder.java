@@ -0,0 +1,71 @@
+package io.apimap.api.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms and error counts per route, latencies are recorded in microseconds
+ */
+public class LoadRecorder {
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+
+    public void success(String route, long latencyNanos) {
+        statistics(route).record(latencyNanos, false);
+    }
+
+    public void error(String route, long latencyNanos) {
+        statistics(route).record(latencyNanos, true);
+    }
+
+    public void dropped(String route) {
+        statistics(route).dropped.incrementAndGet();
+    }
+
+    public Map<String, RouteStatistics> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    private RouteStatistics statistics(String route) {
+        return routes.computeIfAbsent(route, key -> new RouteStatistics());
+    }
+
+    public static class RouteStatistics {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private void record(long latencyNanos, boolean error) {
+            histogram.recordValue(Math.min(HIGHEST_TRACKABLE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+            if (error) errors.incrementAndGet();
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public long getRequests() {
+            return histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        public double getErrorRate() {
+            final long requests = getRequests() + getDropped();
+            return requests == 0 ? 0 : (double) (getErrors() + getDropped()) / requests;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.apimap.api.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Per route percentiles and error rates, as a text table and as JSON for comparing runs
+ */
+public class LoadReport {
+    private final String backend;
+    private final LoadProfile profile;
+    private final LoadRecorder recorder;
+
+    public LoadReport(String backend, LoadProfile profile, LoadRecorder recorder) {
+        this.backend = backend;
+        this.profile = profile;
+        this.recorder = recorder;
+    }
+
+    public String table() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Load test against ").append(backend).append(", ").append(profile).append('\n');
+        builder.append(String.format(Locale.ROOT, "%-16s %10s %10s %10s %10s %10s %10s %10s%n",
+                "route", "requests", "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+
+        recorder.getRoutes().forEach((route, statistics) -> {
+            final Histogram histogram = statistics.getHistogram();
+            builder.append(String.format(Locale.ROOT, "%-16s %10d %10d %10d %10.2f %10.2f %10.2f %10.2f%n",
+                    route,
+                    statistics.getRequests(),
+                    statistics.getErrors(),
+                    statistics.getDropped(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        });
+
+        return builder.toString();
+    }
+
+    public String json() {
+        final StringJoiner routes = new StringJoiner(",\n", "{\n", "\n  }");
+
+        for (Map.Entry<String, LoadRecorder.RouteStatistics> entry : recorder.getRoutes().entrySet()) {
+            final LoadRecorder.RouteStatistics statistics = entry.getValue();
+            final Histogram histogram = statistics.getHistogram();
+
+            routes.add(String.format(Locale.ROOT,
+                    "    \"%s\": {\"requests\": %d, \"errors\": %d, \"dropped\": %d, \"errorRate\": %.6f, \"p50Micros\": %d, \"p99Micros\": %d, \"p999Micros\": %d, \"maxMicros\": %d}",
+                    entry.getKey(),
+                    statistics.getRequests(),
+                    statistics.getErrors(),
+                    statistics.getDropped(),
+                    statistics.getErrorRate(),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue()));
+        }
+
+        return String.format(Locale.ROOT,
+                "{\n  \"backend\": \"%s\",\n  \"rate\": %d,\n  \"duration\": \"%s\",\n  \"apis\": %d,\n  \"routes\": %s\n}\n",
+                backend, profile.getRate(), profile.getDuration(), profile.getApis(), routes);
+    }
+
+    /**
+     * Writes <backend>.txt and <backend>.json to the directory
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(backend + ".txt"), table(), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve(backend + ".json"), json(), StandardCharsets.UTF_8);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
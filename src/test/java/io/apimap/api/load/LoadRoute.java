@@ -0,0 +1,76 @@
+package io.apimap.api.load;
+
+import io.apimap.api.rest.MetadataDataRestEntity;
+import io.apimap.api.rest.VoteDataRestEntity;
+import io.apimap.api.rest.jsonapi.JsonApiRestRequestWrapper;
+import io.apimap.api.utils.RequestUtil;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * A request type in the load mix, the request is built from the seeded catalog
+ */
+public class LoadRoute {
+    private final String name;
+    private final BiFunction<WebClient, Random, WebClient.RequestHeadersSpec<?>> request;
+
+    public LoadRoute(String name, BiFunction<WebClient, Random, WebClient.RequestHeadersSpec<?>> request) {
+        this.name = name;
+        this.request = request;
+    }
+
+    /**
+     * Routes known to the load mix by name
+     */
+    public static Map<String, LoadRoute> routes(LoadCatalog catalog) {
+        final Map<String, LoadRoute> routes = new LinkedHashMap<>();
+
+        routes.put("catalog", new LoadRoute("catalog", (client, random) -> client.get()
+                .uri("/api")
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("catalog-page", new LoadRoute("catalog-page", (client, random) -> client.get()
+                .uri(builder -> builder.path("/api").queryParam(RequestUtil.PAGE_SIZE_KEY, 100).build())
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("search", new LoadRoute("search", (client, random) -> client.get()
+                .uri(builder -> builder
+                        .path("/classification")
+                        .queryParam(RequestUtil.FILTER_METADATA_KEY + "[" + MetadataDataRestEntity.RELEASE_STATUS_KEY + "]", "{releaseStatus}")
+                        .build(LoadCatalog.RELEASE_STATUS[random.nextInt(LoadCatalog.RELEASE_STATUS.length)]))
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("classification", new LoadRoute("classification", (client, random) -> client.get()
+                .uri("/classification/{urn}", catalog.urn(random))
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("taxonomy", new LoadRoute("taxonomy", (client, random) -> client.get()
+                .uri("/taxonomy/{nid}/version/{version}/urn", LoadCatalog.NID, "latest")
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("api", new LoadRoute("api", (client, random) -> client.get()
+                .uri("/api/{name}/version/{version}", catalog.apiName(random), LoadCatalog.API_VERSION)
+                .accept(MediaType.APPLICATION_JSON)));
+
+        routes.put("write", new LoadRoute("write", (client, random) -> client.post()
+                .uri("/api/{name}/version/{version}/vote", catalog.apiName(random), LoadCatalog.API_VERSION)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(new JsonApiRestRequestWrapper<>(new VoteDataRestEntity(1 + random.nextInt(5))))));
+
+        return routes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WebClient.RequestHeadersSpec<?> request(WebClient client, Random random) {
+        return request.apply(client, random);
+    }
+}
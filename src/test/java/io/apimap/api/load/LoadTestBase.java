@@ -0,0 +1,56 @@
+package io.apimap.api.load;
+
+import io.apimap.api.dataset.DatasetGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a generated catalog and drives the configured load mix against the running application,
+ * reports are written to build/reports/load unless load.reports is set.
+ *
+ * Excluded from the test task, run with: gradlew loadTest
+ */
+@Tag("load")
+public abstract class LoadTestBase {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestBase.class);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    DatasetGenerator datasetGenerator;
+
+    protected abstract String backend();
+
+    @Test
+    public void load() throws IOException {
+        final LoadProfile profile = LoadProfile.fromSystemProperties();
+        final WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .build();
+
+        final LoadCatalog catalog = LoadCatalog.seed(datasetGenerator, profile);
+        final LoadGenerator generator = new LoadGenerator(client, profile, LoadRoute.routes(catalog));
+
+        generator.run(profile.getWarmup(), profile.getSeed() + 1);
+        final LoadRecorder recorder = generator.run(profile.getDuration(), profile.getSeed());
+
+        final LoadReport report = new LoadReport(backend(), profile, recorder);
+        final Path reports = Path.of(System.getProperty("load.reports", "build/reports/load"));
+        report.write(reports);
+        LOGGER.info("Load report for {} written to {}\n{}", backend(), reports.toAbsolutePath(), report.table());
+
+        assertThat(catalog.getApiNames()).hasSize(profile.getApis());
+        assertThat(recorder.getRoutes()).isNotEmpty();
+    }
+}
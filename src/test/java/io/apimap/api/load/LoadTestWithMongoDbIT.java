@@ -0,0 +1,19 @@
+package io.apimap.api.load;
+
+import io.apimap.api.integration.dbconfig.MongoDbTestConfig;
+import org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Load test against an embedded MongoDB database
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"nitrite.enabled=false", "mongodb.enabled=true"})
+@Import({MongoDbTestConfig.class, EmbeddedMongoAutoConfiguration.class})
+public class LoadTestWithMongoDbIT extends LoadTestBase {
+
+    @Override
+    protected String backend() {
+        return "mongodb";
+    }
+}
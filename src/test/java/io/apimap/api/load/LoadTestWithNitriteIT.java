@@ -0,0 +1,18 @@
+package io.apimap.api.load;
+
+import io.apimap.api.integration.dbconfig.NitriteTestConfig;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Load test against an in-memory NitriteDB
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(NitriteTestConfig.class)
+public class LoadTestWithNitriteIT extends LoadTestBase {
+
+    @Override
+    protected String backend() {
+        return "nitrite";
+    }
+}
@@ -0,0 +1,306 @@
+package io.apimap.api.repository.buffer;
+
+import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.configuration.VoteConfiguration;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.IVote;
+import io.apimap.api.repository.nitrite.NitriteRESTConverter;
+import io.apimap.api.repository.nitrite.NitriteScheduler;
+import io.apimap.api.repository.nitrite.NitriteVoteRepository;
+import io.apimap.api.repository.nitrite.entities.Vote;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.service.query.Page;
+import io.apimap.api.service.response.ResourceVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.dizitart.no2.objects.ObjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+class WriteBehindVoteRepositoryTest {
+    private static final String API_ID = "api";
+    private static final String API_NAME = "name";
+
+    @TempDir
+    Path directory;
+
+    VoteConfiguration configuration;
+    SimpleMeterRegistry meterRegistry;
+    NitriteRESTConverter converter;
+    IApiRepository apiRepository;
+    ResourceVersions resourceVersions;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new VoteConfiguration();
+        configuration.getWriteBehind().setJournal(directory.resolve("votes.journal").toString());
+        configuration.getWriteBehind().setBatchSize(3);
+        configuration.getWriteBehind().setCapacity(5);
+        configuration.getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        configuration.getWriteBehind().setEnqueueTimeout(Duration.ofMillis(50));
+
+        meterRegistry = new SimpleMeterRegistry();
+        converter = new NitriteRESTConverter();
+        apiRepository = Mockito.mock(IApiRepository.class);
+        resourceVersions = new ResourceVersions(true, Clock.systemUTC());
+
+        final IApi api = Mockito.mock(IApi.class);
+        Mockito.when(api.getName()).thenReturn(API_NAME);
+        Mockito.when(apiRepository.allByApiIds(List.of(API_ID))).thenReturn(Flux.just(api));
+    }
+
+    /**
+     * Adds one vote per rating to version 1
+     */
+    private void vote(WriteBehindVoteRepository<? super Vote> repository, int... ratings) {
+        for (int rating : ratings) {
+            repository.add(new Vote(API_ID, "1", rating)).block();
+        }
+    }
+
+    @Test
+    void votesAreStoredInBatches() throws Exception {
+        final RecordingRepository delegate = new RecordingRepository();
+        final WriteBehindVoteRepository<IVote> repository = new WriteBehindVoteRepository<>(delegate, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+
+        vote(repository, 1, 2, 3, 4);
+        repository.flush(false);
+
+        Assertions.assertThat(delegate.batches).hasSize(1);
+        Assertions.assertThat(ratings(delegate.batches.get(0))).containsExactly(1, 2, 3);
+        Assertions.assertThat(repository.waiting.get()).isEqualTo(1);
+
+        repository.destroy();
+
+        Assertions.assertThat(delegate.batches).hasSize(2);
+        Assertions.assertThat(ratings(delegate.batches.get(1))).containsExactly(4);
+        Assertions.assertThat(meterRegistry.get("apimap.votes.batch.size").summary().count()).isEqualTo(2L);
+    }
+
+    @Test
+    void pendingVotesAreReplayedAfterARestart() throws Exception {
+        final RecordingRepository failing = new RecordingRepository();
+        failing.failing = true;
+
+        final WriteBehindVoteRepository<IVote> crashed = new WriteBehindVoteRepository<>(failing, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+        vote(crashed, 5, 4);
+        crashed.flush(true);
+        crashed.flusher.shutdownNow();
+
+        Assertions.assertThat(failing.batches).isEmpty();
+
+        final RecordingRepository delegate = new RecordingRepository();
+        final WriteBehindVoteRepository<IVote> restarted = new WriteBehindVoteRepository<>(delegate, converter, apiRepository, resourceVersions, configuration, new SimpleMeterRegistry());
+
+        Assertions.assertThat(restarted.waiting.get()).isEqualTo(2);
+
+        restarted.destroy();
+
+        Assertions.assertThat(delegate.batches).hasSize(1);
+        Assertions.assertThat(ratings(delegate.batches.get(0))).containsExactly(5, 4);
+        Assertions.assertThat(delegate.batches.get(0)).allSatisfy(vote -> {
+            Assertions.assertThat(vote.getApiId()).isEqualTo(API_ID);
+            Assertions.assertThat(vote.getApiVersion()).isEqualTo("1");
+            Assertions.assertThat(vote.getCreated()).isNotNull();
+        });
+    }
+
+    @Test
+    void votesAreRejectedWhenTheQueueIsFull() throws Exception {
+        final RecordingRepository failing = new RecordingRepository();
+        failing.failing = true;
+
+        final WriteBehindVoteRepository<IVote> repository = new WriteBehindVoteRepository<>(failing, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+        vote(repository, 1, 2, 3, 4, 5);
+
+        Assertions.assertThatThrownBy(() -> vote(repository, 1))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> Assertions.assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        Assertions.assertThat(meterRegistry.get("apimap.votes.rejected").counter().count()).isEqualTo(1.0);
+
+        failing.failing = false;
+        repository.destroy();
+
+        Assertions.assertThat(failing.batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void journalIsCompactedOnceStoredVotesPileUp() throws Exception {
+        configuration.getWriteBehind().setCompactAfter(3);
+
+        final RecordingRepository delegate = new RecordingRepository();
+        final WriteBehindVoteRepository<IVote> repository = new WriteBehindVoteRepository<>(delegate, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+
+        vote(repository, 1, 2, 3, 4);
+        repository.flush(false);
+
+        final Path journal = directory.resolve("votes.journal");
+        Assertions.assertThat(Files.readAllLines(journal)).hasSize(1);
+        Assertions.assertThat(repository.journal.pending()).extracting(IVote::getRating).containsExactly(4);
+
+        repository.destroy();
+        Assertions.assertThat(Files.size(journal)).isZero();
+    }
+
+    @Test
+    void votesAreRejectedAfterShutdown() throws Exception {
+        final RecordingRepository delegate = new RecordingRepository();
+        final WriteBehindVoteRepository<IVote> repository = new WriteBehindVoteRepository<>(delegate, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+
+        repository.destroy();
+
+        Assertions.assertThatThrownBy(() -> vote(repository, 1))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> Assertions.assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        Assertions.assertThat(Files.size(directory.resolve("votes.journal"))).isZero();
+    }
+
+    @Test
+    void journalMustBeConfigured() {
+        configuration.getWriteBehind().setJournal("");
+
+        Assertions.assertThatThrownBy(() -> new WriteBehindVoteRepository<>(new RecordingRepository(), converter, apiRepository, resourceVersions, configuration, meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void etagsMoveWhenVotesAreStored() throws Exception {
+        final WriteBehindVoteRepository<IVote> repository = new WriteBehindVoteRepository<>(new RecordingRepository(), converter, apiRepository, resourceVersions, configuration, meterRegistry);
+
+        vote(repository, 5);
+        final String queued = resourceVersions.apiTag(API_NAME);
+
+        repository.flush(true);
+
+        Assertions.assertThat(resourceVersions.apiTag(API_NAME)).isNotEqualTo(queued);
+        repository.destroy();
+    }
+
+    @Test
+    void batchesFailingAfterAPartialInsertAreRetried() throws Exception {
+        final NitriteConfiguration nitriteConfiguration = new NitriteConfiguration();
+        final NitriteScheduler scheduler = new NitriteScheduler(nitriteConfiguration, new SimpleMeterRegistry());
+
+        try {
+            final PartialInsertRepository delegate = new PartialInsertRepository(nitriteConfiguration, scheduler);
+            final WriteBehindVoteRepository<Vote> repository = new WriteBehindVoteRepository<>(delegate, converter, apiRepository, resourceVersions, configuration, meterRegistry);
+
+            vote(repository, 5, 4, 3);
+            repository.flush(true);
+
+            Assertions.assertThat(repository.waiting.get()).isEqualTo(3);
+            Assertions.assertThat(delegate.all(API_ID, "1").collectList().block()).isEmpty();
+
+            repository.flush(true);
+
+            Assertions.assertThat(repository.waiting.get()).isZero();
+            Assertions.assertThat(delegate.all(API_ID, "1").collectList().block()).hasSize(3);
+            Assertions.assertThat(delegate.rating(API_ID, "1").block()).isEqualTo(4);
+
+            // Storing the same votes again changes nothing
+            Assertions.assertThat(delegate.addAll(delegate.all(API_ID, "1").collectList().block()).block()).isZero();
+            Assertions.assertThat(delegate.rating(API_ID, "1").block()).isEqualTo(4);
+
+            repository.destroy();
+        } finally {
+            scheduler.destroy();
+        }
+    }
+
+    private static List<Integer> ratings(List<IVote> votes) {
+        return votes.stream().map(IVote::getRating).collect(Collectors.toList());
+    }
+
+    /**
+     * Records the batches given to addAll, or fails them all while failing is set
+     */
+    private static class RecordingRepository implements IVoteRepository<IVote> {
+        final List<List<IVote>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failing = false;
+
+        @Override
+        public Mono<Long> addAll(List<IVote> entities) {
+            if (failing) return Mono.error(new IllegalStateException("Storage unavailable"));
+            batches.add(new ArrayList<>(entities));
+            return Mono.just((long) entities.size());
+        }
+
+        @Override
+        public Flux<IVote> all(String apiId, String apiVersion) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Flux<IVote> all(String apiId, String apiVersion, Page page) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Mono<IVote> add(IVote entity) {
+            return Mono.just(entity);
+        }
+
+        @Override
+        public Mono<Integer> rating(String apiId, String apiVersion) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Map<String, Integer>> ratings(String apiId, List<String> apiVersions) {
+            return Mono.just(Map.of());
+        }
+
+        @Override
+        public Mono<Boolean> delete(String apiId, String apiVersion) {
+            return Mono.just(true);
+        }
+
+        @Override
+        public Mono<Long> rebuildSummaries() {
+            return Mono.just(0L);
+        }
+
+        @Override
+        public Mono<Boolean> hasSummaries() {
+            return Mono.just(true);
+        }
+    }
+
+    /**
+     * Stores the first vote of the first batch and then fails, like a storage going away halfway
+     */
+    private static class PartialInsertRepository extends NitriteVoteRepository {
+        boolean failed = false;
+
+        PartialInsertRepository(NitriteConfiguration nitriteConfiguration, NitriteScheduler scheduler) {
+            super(nitriteConfiguration, scheduler);
+        }
+
+        @Override
+        protected <T> Long insertAll(ObjectRepository<T> repository, List<T> entities, T[] type) {
+            if (failed) return super.insertAll(repository, entities, type);
+
+            failed = true;
+            repository.insert(entities.get(0));
+            throw new IllegalStateException("Storage unavailable");
+        }
+    }
+}
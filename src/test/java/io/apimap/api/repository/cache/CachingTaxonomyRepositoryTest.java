@@ -0,0 +1,104 @@
+package io.apimap.api.repository.cache;
+
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.ITaxonomyCollection;
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersion;
+import io.apimap.api.repository.interfaces.ITaxonomyCollectionVersionURN;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(SpringExtension.class)
+class CachingTaxonomyRepositoryTest {
+    private static final String URN = "urn:apimap:1";
+    private static final String VERSION = "1";
+
+    @Mock
+    ITaxonomyRepository<ITaxonomyCollection, ITaxonomyCollectionVersion, ITaxonomyCollectionVersionURN> mockTaxonomyRepository;
+
+    @Mock
+    ITaxonomyCollectionVersionURN mockURN;
+
+    SimpleMeterRegistry meterRegistry;
+
+    CachingTaxonomyRepository<ITaxonomyCollection, ITaxonomyCollectionVersion, ITaxonomyCollectionVersionURN> repository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingTaxonomyRepository<>(mockTaxonomyRepository, new CacheConfiguration(), meterRegistry);
+
+        Mockito.when(mockURN.getUrn()).thenReturn(URN);
+        Mockito.when(mockURN.getVersion()).thenReturn(VERSION);
+        Mockito.when(mockURN.getNid()).thenReturn("apimap");
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromCache() {
+        Mockito.when(mockTaxonomyRepository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN))
+                .thenReturn(Mono.just(mockURN));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(repository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block())
+                    .isSameAs(mockURN);
+        }
+
+        Mockito.verify(mockTaxonomyRepository, Mockito.times(1))
+                .getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN);
+
+        Assertions.assertThat(meterRegistry.get("apimap.cache.hits").tag("cache", "taxonomy.urns").counter().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("apimap.cache.misses").tag("cache", "taxonomy.urns").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesEvictCachedLookups() {
+        Mockito.when(mockTaxonomyRepository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN))
+                .thenReturn(Mono.empty(), Mono.just(mockURN));
+        Mockito.when(mockTaxonomyRepository.addTaxonomyCollectionVersionURN(mockURN))
+                .thenReturn(Mono.just(mockURN));
+
+        Assertions.assertThat(repository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block())
+                .isNull();
+        Assertions.assertThat(repository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block())
+                .isNull();
+
+        repository.addTaxonomyCollectionVersionURN(mockURN).block();
+
+        Assertions.assertThat(repository.getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block())
+                .isSameAs(mockURN);
+
+        Mockito.verify(mockTaxonomyRepository, Mockito.times(2))
+                .getTaxonomyCollectionVersionURN(URN, VERSION, TaxonomyDataRestEntity.ReferenceType.UNKNOWN);
+
+        Assertions.assertThat(meterRegistry.get("apimap.cache.evictions").tag("cache", "taxonomy.urns").tag("cause", "invalidated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesEvictLatestLookups() {
+        Mockito.when(mockTaxonomyRepository.getTaxonomyCollectionVersionURN(URN, "latest", TaxonomyDataRestEntity.ReferenceType.UNKNOWN))
+                .thenReturn(Mono.just(mockURN));
+        Mockito.when(mockTaxonomyRepository.update(mockURN, URN, VERSION))
+                .thenReturn(Mono.just(mockURN));
+        Mockito.when(mockTaxonomyRepository.deleteTaxonomyCollectionVersion("apimap", VERSION))
+                .thenReturn(Mono.just(true));
+
+        repository.getTaxonomyCollectionVersionURN(URN, "latest", TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block();
+        repository.update(mockURN, URN, VERSION).block();
+
+        repository.getTaxonomyCollectionVersionURN(URN, "latest", TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block();
+        repository.deleteTaxonomyCollectionVersion("apimap", VERSION).block();
+
+        repository.getTaxonomyCollectionVersionURN(URN, "latest", TaxonomyDataRestEntity.ReferenceType.UNKNOWN).block();
+
+        Mockito.verify(mockTaxonomyRepository, Mockito.times(3))
+                .getTaxonomyCollectionVersionURN(URN, "latest", TaxonomyDataRestEntity.ReferenceType.UNKNOWN);
+    }
+}
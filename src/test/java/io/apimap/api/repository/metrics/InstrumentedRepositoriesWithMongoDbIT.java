@@ -0,0 +1,38 @@
+package io.apimap.api.repository.metrics;
+
+import io.apimap.api.integration.dbconfig.MongoDbTestConfig;
+import io.apimap.api.repository.mongodb.MongoDBApiRepository;
+import io.apimap.api.repository.mongodb.MongoDBMetadataRepository;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IMetadataRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Starts the application context against an embedded MongoDB database with repository metrics enabled,
+ * the storage repositories are then interface proxies and must be injected by interface
+ */
+@SpringBootTest(properties = {"nitrite.enabled=false", "mongodb.enabled=true", "metrics.repository.enabled=true"})
+@Import({MongoDbTestConfig.class, EmbeddedMongoAutoConfiguration.class})
+class InstrumentedRepositoriesWithMongoDbIT {
+
+    @Autowired
+    IApiRepository apiRepository;
+
+    @Autowired
+    IMetadataRepository metadataRepository;
+
+    @Test
+    void storageRepositoriesAreInstrumented() {
+        Assertions.assertThat(AopUtils.isAopProxy(apiRepository)).isTrue();
+        Assertions.assertThat(AopUtils.getTargetClass(apiRepository)).isEqualTo(MongoDBApiRepository.class);
+
+        Assertions.assertThat(AopUtils.isAopProxy(metadataRepository)).isTrue();
+        Assertions.assertThat(AopUtils.getTargetClass(metadataRepository)).isEqualTo(MongoDBMetadataRepository.class);
+    }
+}
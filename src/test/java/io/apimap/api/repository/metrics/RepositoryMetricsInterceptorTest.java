@@ -0,0 +1,90 @@
+package io.apimap.api.repository.metrics;
+
+import io.apimap.api.configuration.MetricsConfiguration;
+import io.apimap.api.repository.interfaces.IVote;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(SpringExtension.class)
+class RepositoryMetricsInterceptorTest {
+    private static final String API_ID = "api";
+    private static final String VERSION = "1.0.0";
+
+    @Mock
+    IVoteRepository<IVote> mockVoteRepository;
+
+    @Mock
+    IVote mockVote;
+
+    SimpleMeterRegistry meterRegistry;
+
+    IVoteRepository<IVote> repository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = RepositoryMetricsInterceptor.proxy(
+                mockVoteRepository,
+                new RepositoryMetricsInterceptor("nitrite", "vote", true, new MetricsConfiguration.Settings(), meterRegistry),
+                false);
+    }
+
+    @Test
+    void callsAreTimedWithTheirElements() {
+        Mockito.when(mockVoteRepository.all(API_ID, VERSION)).thenReturn(Flux.just(mockVote, mockVote, mockVote));
+
+        Assertions.assertThat(repository.all(API_ID, VERSION).collectList().block()).hasSize(3);
+        Assertions.assertThat(repository.all(API_ID, VERSION).next().block()).isSameAs(mockVote);
+
+        Assertions.assertThat(meterRegistry.get(RepositoryMetricsInterceptor.CALLS)
+                .tag("backend", "nitrite").tag("repository", "vote").tag("method", "all").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(RepositoryMetricsInterceptor.CALLS)
+                .tag("method", "all").tag("outcome", "cancelled")
+                .timer().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ELEMENTS)
+                .tag("method", "all")
+                .summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void errorsAreCounted() {
+        Mockito.when(mockVoteRepository.rating(API_ID, VERSION)).thenReturn(Mono.error(new IllegalStateException()));
+
+        Assertions.assertThatThrownBy(() -> repository.rating(API_ID, VERSION).block()).isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ERRORS)
+                .tag("method", "rating")
+                .counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(RepositoryMetricsInterceptor.CALLS)
+                .tag("method", "rating").tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void storageCallsAreCountedInTheContext() {
+        Mockito.when(mockVoteRepository.rating(API_ID, VERSION)).thenReturn(Mono.just(4));
+        Mockito.when(mockVoteRepository.all(API_ID, VERSION)).thenReturn(Flux.just(mockVote));
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        repository.rating(API_ID, VERSION)
+                .thenMany(repository.all(API_ID, VERSION))
+                .then(repository.rating(API_ID, VERSION))
+                .contextWrite(context -> context.put(RepositoryMetricsInterceptor.STORAGE_CALLS_KEY, calls))
+                .block();
+
+        Assertions.assertThat(calls.get()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,76 @@
+package io.apimap.api.repository.mongodb;
+
+import io.apimap.api.integration.dbconfig.MongoDbTestConfig;
+import io.apimap.api.repository.mongodb.documents.Vote;
+import io.apimap.api.repository.mongodb.documents.VoteSummary;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+@SpringBootTest(properties = {"nitrite.enabled=false", "mongodb.enabled=true", "metrics.repository.enabled=false"})
+@Import({MongoDbTestConfig.class, EmbeddedMongoAutoConfiguration.class})
+class MongoDBVoteRepositoryWithMongoDbIT {
+    private static final String API_ID = "rebuilt";
+
+    @Autowired
+    MongoDBVoteRepository repository;
+
+    @Autowired
+    ReactiveMongoTemplate template;
+
+    /**
+     * Adds one vote per rating to the given version
+     */
+    private void vote(String apiVersion, int... ratings) {
+        for (int rating : ratings) {
+            repository.add(new Vote(API_ID, apiVersion, rating)).block();
+        }
+    }
+
+    private VoteSummary summary(String apiVersion) {
+        return template.findOne(MongoDBVoteRepository.summaryQuery(API_ID, apiVersion), VoteSummary.class).block();
+    }
+
+    @Test
+    void rebuildCountsVotesStoredWithoutSummary() {
+        vote("1", 5, 5);
+
+        // Stored like an instance from before the summaries existed
+        template.insert(new Vote(API_ID, "1", 2)).block();
+        Assertions.assertThat(repository.rating(API_ID, "1").block()).isEqualTo(5);
+
+        repository.rebuildSummaries().block();
+
+        Assertions.assertThat(summary("1").getCount()).isEqualTo(3L);
+        Assertions.assertThat(summary("1").getSum()).isEqualTo(12L);
+        Assertions.assertThat(repository.rating(API_ID, "1").block()).isEqualTo(4);
+
+        // Votes added after the rebuild keep counting
+        vote("1", 4);
+        Assertions.assertThat(summary("1").getCount()).isEqualTo(4L);
+    }
+
+    @Test
+    void summariesChangedSinceTheyWereReadAreNotOverwritten() {
+        vote("2", 3);
+
+        final VoteSummary read = summary("2");
+        final VoteSummary counted = new VoteSummary(API_ID, "2");
+        counted.add(3, 1);
+
+        // Another instance counts a vote between the read and the correction
+        vote("2", 1);
+
+        Assertions.assertThat(repository.correct(read, counted, 1).block()).isFalse();
+        Assertions.assertThat(summary("2").getCount()).isEqualTo(2L);
+
+        // With another attempt the summary is read and counted again
+        Assertions.assertThat(repository.correct(read, counted, 2).block()).isTrue();
+        Assertions.assertThat(summary("2").getCount()).isEqualTo(2L);
+        Assertions.assertThat(repository.rating(API_ID, "2").block()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,63 @@
+package io.apimap.api.repository.nitrite;
+
+import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.repository.nitrite.entities.Api;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+class NitriteApiRepositoryTest {
+    private static final Instant FIRST_DAY = Instant.parse("2022-01-01T12:00:00Z");
+    private static final Instant SECOND_DAY = Instant.parse("2022-01-02T12:00:00Z");
+
+    NitriteScheduler scheduler;
+    NitriteApiRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        final NitriteConfiguration configuration = new NitriteConfiguration();
+        scheduler = new NitriteScheduler(configuration, new SimpleMeterRegistry());
+        repository = new NitriteApiRepository(configuration, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    /**
+     * API created at the given time
+     */
+    private static Api api(String name, Instant created) {
+        final Api api = new Api(name, "https://git.example.com/" + name);
+        api.setCreated(created);
+        return api;
+    }
+
+    @Test
+    void creationsFollowBatchesFailingPartway() {
+        final Api existing = api("existing", FIRST_DAY);
+        repository.addAll(List.of(existing)).block();
+
+        // The second API already exists, the first is stored before the batch fails
+        Assertions.assertThatThrownBy(() -> repository.addAll(List.of(
+                        api("stored", SECOND_DAY),
+                        existing,
+                        api("skipped", SECOND_DAY))).block())
+                .isInstanceOf(ResponseStatusException.class);
+
+        Assertions.assertThat(repository.numberOfApisCreated(FIRST_DAY.minusSeconds(86400), SECOND_DAY.plusSeconds(86400)).block())
+                .isEqualTo(Map.of(
+                        LocalDate.parse("2022-01-01"), 1L,
+                        LocalDate.parse("2022-01-02"), 1L));
+        Assertions.assertThat(repository.numberOfApis().block()).isEqualTo(2L);
+    }
+}
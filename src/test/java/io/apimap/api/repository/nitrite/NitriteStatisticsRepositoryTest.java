@@ -0,0 +1,101 @@
+package io.apimap.api.repository.nitrite;
+
+import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.repository.nitrite.entities.Metadata;
+import io.apimap.api.repository.repository.IStatisticsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+class NitriteStatisticsRepositoryTest {
+    private static final String API_ID = "api";
+
+    NitriteScheduler scheduler;
+    NitriteMetadataRepository metadataRepository;
+    NitriteStatisticsRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        final NitriteConfiguration configuration = new NitriteConfiguration();
+        final MetadataCounters counters = new MetadataCounters();
+
+        scheduler = new NitriteScheduler(configuration, new SimpleMeterRegistry());
+        metadataRepository = new NitriteMetadataRepository(configuration, scheduler, counters);
+        repository = new NitriteStatisticsRepository(counters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    /**
+     * Metadata of one API version with the given interface specification and architecture layer
+     */
+    private static Metadata metadata(String apiVersion, String interfaceSpecification, String architectureLayer) {
+        return new Metadata(API_ID, "description", apiVersion, "name", "Public", "OpenAPI",
+                architectureLayer, "unit", "1", "Production", interfaceSpecification, "system", List.of(), Instant.now());
+    }
+
+    @Test
+    void countsFollowMetadataWrites() {
+        metadataRepository.add(metadata("1", "REST", "Backend")).block();
+        metadataRepository.addAll(List.of(metadata("2", "REST", "Frontend"), metadata("3", "SOAP", null))).block();
+
+        Assertions.assertThat(repository.metadataCounts().block())
+                .containsEntry(IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of("REST", 2L, "SOAP", 1L))
+                .containsEntry(IStatisticsRepository.ARCHITECTURE_LAYER, Map.of("Backend", 1L, "Frontend", 1L));
+
+        metadataRepository.update(metadata("1", "GraphQL", "Backend")).block();
+        metadataRepository.delete(API_ID, "2").block();
+
+        Assertions.assertThat(repository.metadataCounts().block())
+                .containsEntry(IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of("GraphQL", 1L, "SOAP", 1L))
+                .containsEntry(IStatisticsRepository.ARCHITECTURE_LAYER, Map.of("Backend", 1L));
+
+        metadataRepository.delete(API_ID).block();
+
+        Assertions.assertThat(repository.metadataCounts().block())
+                .containsEntry(IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of())
+                .containsEntry(IStatisticsRepository.ARCHITECTURE_LAYER, Map.of());
+    }
+
+    @Test
+    void countsFollowBatchesFailingPartway() {
+        metadataRepository.add(metadata("1", "REST", "Backend")).block();
+
+        // The second version already exists, the first is stored before the batch fails
+        Assertions.assertThatThrownBy(() -> metadataRepository.addAll(List.of(
+                        metadata("2", "SOAP", "Frontend"),
+                        metadata("1", "REST", "Backend"),
+                        metadata("3", "GraphQL", "Frontend"))).block())
+                .isInstanceOf(ResponseStatusException.class);
+
+        final MetadataCounters stored = new MetadataCounters();
+        stored.reset(metadataRepository.all().collectList().block());
+
+        Assertions.assertThat(repository.metadataCounts().block()).isEqualTo(stored.snapshot());
+        Assertions.assertThat(repository.metadataCounts().block())
+                .containsEntry(IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of("REST", 1L, "SOAP", 1L));
+    }
+
+    @Test
+    void countsAreRebuiltFromStoredMetadata() {
+        metadataRepository.add(metadata("1", "REST", "Backend")).block();
+        metadataRepository.add(metadata("2", "REST", "Backend")).block();
+
+        final MetadataCounters counters = new MetadataCounters();
+        counters.reset(metadataRepository.all().collectList().block());
+
+        Assertions.assertThat(counters.snapshot())
+                .containsEntry(IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of("REST", 2L))
+                .containsEntry(IStatisticsRepository.ARCHITECTURE_LAYER, Map.of("Backend", 2L));
+    }
+}
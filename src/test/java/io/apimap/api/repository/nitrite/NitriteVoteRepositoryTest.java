@@ -0,0 +1,91 @@
+package io.apimap.api.repository.nitrite;
+
+import io.apimap.api.configuration.NitriteConfiguration;
+import io.apimap.api.repository.interfaces.IVoteSummary;
+import io.apimap.api.repository.nitrite.entities.Vote;
+import io.apimap.api.repository.nitrite.entities.VoteSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.dizitart.no2.objects.filters.ObjectFilters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class NitriteVoteRepositoryTest {
+    private static final String API_ID = "api";
+
+    NitriteScheduler scheduler;
+    NitriteVoteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        final NitriteConfiguration configuration = new NitriteConfiguration();
+        scheduler = new NitriteScheduler(configuration, new SimpleMeterRegistry());
+        repository = new NitriteVoteRepository(configuration, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    /**
+     * Adds one vote per rating to the given version
+     */
+    private void vote(String apiVersion, int... ratings) {
+        for (int rating : ratings) {
+            repository.add(new Vote(API_ID, apiVersion, rating)).block();
+        }
+    }
+
+    @Test
+    void summariesFollowAddedVotes() {
+        vote("1", 5, 4, 4, 1);
+
+        final VoteSummary summary = repository.getDatabase().getRepository(VoteSummary.class)
+                .find(ObjectFilters.eq("id", IVoteSummary.createId(API_ID, "1")))
+                .firstOrDefault();
+
+        Assertions.assertThat(summary.getCount()).isEqualTo(4L);
+        Assertions.assertThat(summary.getSum()).isEqualTo(14L);
+        Assertions.assertThat(summary.getHistogram()).containsExactlyInAnyOrderEntriesOf(Map.of("1", 1L, "4", 2L, "5", 1L));
+        Assertions.assertThat(repository.rating(API_ID, "1").block()).isEqualTo(3);
+    }
+
+    @Test
+    void ratingsAreLookedUpForAllVersions() {
+        vote("1", 5, 3);
+        vote("2", 2);
+
+        Assertions.assertThat(repository.ratings(API_ID, List.of("1", "2", "3")).block())
+                .containsExactly(Map.entry("1", 4), Map.entry("2", 2), Map.entry("3", IVoteSummary.NO_RATING));
+    }
+
+    @Test
+    void deletingVotesDeletesTheSummary() {
+        vote("1", 5);
+
+        repository.delete(API_ID, "1").block();
+
+        Assertions.assertThat(repository.rating(API_ID, "1").block()).isEqualTo(IVoteSummary.NO_RATING);
+    }
+
+    @Test
+    void rebuildCountsVotesWithoutSummaries() {
+        repository.getDatabase().getRepository(Vote.class).insert(
+                new Vote(API_ID, "1", 2),
+                new Vote(API_ID, "1", 4),
+                new Vote(API_ID, "2", 5)
+        );
+
+        Assertions.assertThat(repository.rating(API_ID, "1").block()).isEqualTo(IVoteSummary.NO_RATING);
+        Assertions.assertThat(repository.hasSummaries().block()).isFalse();
+        Assertions.assertThat(repository.rebuildSummaries().block()).isEqualTo(2L);
+        Assertions.assertThat(repository.hasSummaries().block()).isTrue();
+        Assertions.assertThat(repository.ratings(API_ID, List.of("1", "2")).block())
+                .containsExactly(Map.entry("1", 3), Map.entry("2", 5));
+    }
+}
@@ -0,0 +1,84 @@
+package io.apimap.api.security;
+
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@ExtendWith(SpringExtension.class)
+class TokenVerifierTest {
+    private static final String API_NAME = "MyApi";
+    private static final String API_TOKEN = UUID.randomUUID().toString();
+
+    @Mock
+    IApiRepository mockApiRepository;
+
+    @Mock
+    ITaxonomyRepository mockTaxonomyRepository;
+
+    @Mock
+    IApi mockApi;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TokenVerifier tokenVerifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenVerifier = new TokenVerifier(mockApiRepository, mockTaxonomyRepository, new CacheConfiguration(), meterRegistry);
+
+        Mockito.when(mockApi.getToken()).thenReturn(API_TOKEN);
+        Mockito.when(mockApiRepository.get(API_NAME)).thenReturn(Mono.just(mockApi));
+    }
+
+    @Test
+    void verifiedTokensAreCached() {
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isTrue();
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isTrue();
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, UUID.randomUUID().toString()).block()).isFalse();
+
+        Mockito.verify(mockApiRepository, Mockito.times(1)).get(API_NAME);
+
+        Assertions.assertThat(meterRegistry.get(TokenVerifier.CHECKS).tag("type", "api").tag("outcome", "granted").timer().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get(TokenVerifier.CHECKS).tag("type", "api").tag("outcome", "denied").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void modifiedApisAreLookedUpAgain() {
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isTrue();
+
+        tokenVerifier.apiModified(API_NAME);
+        Mockito.when(mockApiRepository.get(API_NAME)).thenReturn(Mono.empty());
+
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isFalse();
+        Mockito.verify(mockApiRepository, Mockito.times(2)).get(API_NAME);
+    }
+
+    @Test
+    void unknownApisAreNotCached() {
+        Mockito.when(mockApiRepository.get(API_NAME)).thenReturn(Mono.empty());
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isFalse();
+
+        Mockito.when(mockApiRepository.get(API_NAME)).thenReturn(Mono.just(mockApi));
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isTrue();
+    }
+
+    @Test
+    void apisWithoutTokenAcceptNothing() {
+        Mockito.when(mockApi.getToken()).thenReturn(null);
+
+        Assertions.assertThat(tokenVerifier.isValidApiToken(API_NAME, API_TOKEN).block()).isFalse();
+    }
+}
@@ -0,0 +1,117 @@
+package io.apimap.api.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.apimap.api.configuration.ApimapConfiguration;
+import io.apimap.api.repository.IRESTConverter;
+import io.apimap.api.repository.interfaces.IApi;
+import io.apimap.api.repository.interfaces.IApiVersion;
+import io.apimap.api.repository.interfaces.IMetadata;
+import io.apimap.api.repository.repository.IApiRepository;
+import io.apimap.api.repository.repository.IClassificationRepository;
+import io.apimap.api.repository.repository.IMetadataRepository;
+import io.apimap.api.repository.repository.ITaxonomyRepository;
+import io.apimap.api.repository.repository.IVoteRepository;
+import io.apimap.api.security.TokenVerifier;
+import io.apimap.api.service.response.ResourceVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple3;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(SpringExtension.class)
+class ApiResourceServiceTest {
+    @Mock
+    IApiRepository mockApiRepository;
+
+    @Mock
+    IMetadataRepository mockMetadataRepository;
+
+    @Mock
+    ITaxonomyRepository mockTaxonomyRepository;
+
+    @Mock
+    IClassificationRepository mockClassificationRepository;
+
+    @Mock
+    IVoteRepository mockVoteRepository;
+
+    @Mock
+    ApimapConfiguration mockApimapConfiguration;
+
+    @Mock
+    IRESTConverter irestConverter;
+
+    @Test
+    @SuppressFBWarnings
+    void latestApiVersionsWithMetadata() {
+        IApi api1 = Mockito.mock(IApi.class);
+        Mockito.when(api1.getId()).thenReturn("api1");
+
+        IApi api2 = Mockito.mock(IApi.class);
+        Mockito.when(api2.getId()).thenReturn("api2");
+
+        IApi api3 = Mockito.mock(IApi.class);
+        Mockito.when(api3.getId()).thenReturn("api3");
+
+        IApiVersion version1 = Mockito.mock(IApiVersion.class);
+        Mockito.when(version1.getApiId()).thenReturn("api1");
+        Mockito.when(version1.getVersion()).thenReturn("2");
+
+        IApiVersion version3 = Mockito.mock(IApiVersion.class);
+        Mockito.when(version3.getApiId()).thenReturn("api3");
+        Mockito.when(version3.getVersion()).thenReturn("1");
+
+        IMetadata metadata1 = Mockito.mock(IMetadata.class);
+        Mockito.when(metadata1.getApiId()).thenReturn("api1");
+
+        Mockito.when(mockApiRepository.getLatestApiVersions(anyList())).thenReturn(Flux.just(version1, version3));
+        Mockito.when(mockMetadataRepository.getAll(anyList())).thenReturn(Flux.just(metadata1));
+
+        ApiResourceService apiResourceService = new ApiResourceService(
+                mockApiRepository,
+                mockMetadataRepository,
+                mockTaxonomyRepository,
+                mockClassificationRepository,
+                mockApimapConfiguration,
+                irestConverter,
+                mockVoteRepository,
+                new SimpleMeterRegistry(),
+                new ResourceVersions(true, Clock.systemUTC()),
+                Mockito.mock(TokenVerifier.class));
+
+        List<Tuple3<Optional<IApi>, Optional<IMetadata>, Optional<IApiVersion>>> result = apiResourceService
+                .latestApiVersionsWithMetadata(List.of(api1, api2, api3))
+                .block();
+
+        Assertions.assertThat(result).hasSize(3);
+
+        Assertions.assertThat(result.get(0).getT1()).contains(api1);
+        Assertions.assertThat(result.get(0).getT2()).contains(metadata1);
+        Assertions.assertThat(result.get(0).getT3()).contains(version1);
+
+        Assertions.assertThat(result.get(1).getT1()).contains(api2);
+        Assertions.assertThat(result.get(1).getT2()).isEmpty();
+        Assertions.assertThat(result.get(1).getT3()).isEmpty();
+
+        Assertions.assertThat(result.get(2).getT1()).contains(api3);
+        Assertions.assertThat(result.get(2).getT2()).isEmpty();
+        Assertions.assertThat(result.get(2).getT3()).isEmpty();
+
+        Mockito.verify(mockApiRepository, Mockito.times(1)).getLatestApiVersions(anyList());
+        Mockito.verify(mockApiRepository, Mockito.never()).getLatestApiVersion(anyString());
+        Mockito.verify(mockMetadataRepository, Mockito.times(1)).getAll(anyList());
+        Mockito.verify(mockMetadataRepository, Mockito.never()).get(anyString(), anyString());
+    }
+}
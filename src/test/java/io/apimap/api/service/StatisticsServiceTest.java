@@ -3,11 +3,10 @@ package io.apimap.api.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.apimap.api.configuration.ApimapConfiguration;
-import io.apimap.api.repository.interfaces.IApi;
 import io.apimap.api.repository.IRESTConverter;
 import io.apimap.api.repository.generic.StatisticsValue;
 import io.apimap.api.repository.repository.IApiRepository;
-import io.apimap.api.repository.repository.IMetadataRepository;
+import io.apimap.api.repository.repository.IStatisticsRepository;
 import io.apimap.api.repository.repository.ITaxonomyRepository;
 import io.apimap.api.rest.StatisticsCollectionRootRestEntity;
 import io.apimap.api.rest.StatisticsDataRestEntity;
@@ -20,14 +19,16 @@ import org.mockito.Mockito;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -41,7 +42,7 @@ class StatisticsServiceTest {
     ITaxonomyRepository mockTaxonomyRepository;
 
     @Mock
-    IMetadataRepository mockMetadataRepository;
+    IStatisticsRepository mockStatisticsRepository;
 
     @Mock
     ApimapConfiguration mockApimapConfiguration;
@@ -55,32 +56,41 @@ class StatisticsServiceTest {
     @Test
     @SuppressFBWarnings
     void getApiCreatedStatistics() {
-        final String api1Name = "The first API";
-        final String api2Name = "The second API";
+        final LocalDate created = LocalDate.parse("2022-03-09");
 
-        final Instant apiCreated = Instant.now();
-
-        IApi api1 = Mockito.mock(IApi.class);
-        Mockito.when(api1.getName()).thenReturn(api1Name);
-        Mockito.when(api1.getCreated()).thenReturn(apiCreated);
-
-        IApi api2 = Mockito.mock(IApi.class);
-        Mockito.when(api2.getName()).thenReturn(api2Name);
-        Mockito.when(api2.getCreated()).thenReturn(apiCreated);
-
-        Flux content = Flux.just(api1, api2);
-
-        Mockito.when(mockAPIRepository.all()).thenReturn(content);
+        Mockito.when(mockAPIRepository.numberOfApisCreated(
+                Instant.parse("2022-03-07T00:00:00Z"),
+                Instant.parse("2022-03-28T00:00:00Z")
+        )).thenReturn(Mono.just(new TreeMap<>(Map.of(created, 2L, created.plusDays(12), 1L))));
 
         StatisticsService statisticsService = new StatisticsService(
                 mockAPIRepository,
                 mockTaxonomyRepository,
-                mockMetadataRepository,
+                mockStatisticsRepository,
                 mockApimapConfiguration,
                 irestConverter);
 
-        Mockito.when(serverRequest.uri()).thenReturn(URI.create("api-catalog-entry"));
+        Mockito.when(serverRequest.uri()).thenReturn(URI.create("apis-history"));
+        Mockito.when(serverRequest.queryParam("granularity")).thenReturn(Optional.of("week"));
+        Mockito.when(serverRequest.queryParam("from")).thenReturn(Optional.of("2022-03-09"));
+        Mockito.when(serverRequest.queryParam("to")).thenReturn(Optional.of("2022-03-21"));
+        encodeStatistics();
+
+        ServerResponse serverResponse = statisticsService.getApiCreatedStatistics(serverRequest).block();
 
+        JsonApiRestResponseWrapper<ArrayList<Map<String, Object>>> jsonApiRestResponseWrapper = ServerResponseExtractor.serverResponseAsObject(serverResponse, new ObjectMapper(), JsonApiRestResponseWrapper.class);
+
+        Assertions.assertThat(jsonApiRestResponseWrapper.getData()).containsExactly(
+                Map.of("id", "2022-03-07", "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", "2022-03-07", "value", "2")),
+                Map.of("id", "2022-03-14", "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", "2022-03-14", "value", "0")),
+                Map.of("id", "2022-03-21", "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", "2022-03-21", "value", "1"))
+        );
+    }
+
+    /**
+     * Encodes statistics values as entries with the key as id
+     */
+    private void encodeStatistics() {
         Mockito.when(irestConverter.encodeStatistics(any(), any())).thenAnswer(invocation -> {
             ArrayList<StatisticsDataRestEntity> items = (ArrayList<StatisticsDataRestEntity>) invocation.getArgument(1, List.class)
                     .stream()
@@ -95,16 +105,33 @@ class StatisticsServiceTest {
                     new JsonApiRestResponseWrapper<>(new StatisticsCollectionRootRestEntity(items))
             );
         });
+    }
+
+    @Test
+    @SuppressFBWarnings
+    void getInterfaceSpecificationStatistics() {
+        Mockito.when(mockStatisticsRepository.metadataCounts()).thenReturn(Mono.just(Map.of(
+                IStatisticsRepository.INTERFACE_SPECIFICATION, Map.of("SOAP", 1L, "REST", 3L),
+                IStatisticsRepository.ARCHITECTURE_LAYER, Map.of("Backend", 4L)
+        )));
+
+        StatisticsService statisticsService = new StatisticsService(
+                mockAPIRepository,
+                mockTaxonomyRepository,
+                mockStatisticsRepository,
+                mockApimapConfiguration,
+                irestConverter);
+
+        Mockito.when(serverRequest.uri()).thenReturn(URI.create("interface-specification"));
+        encodeStatistics();
 
-        Mono<ServerResponse> serverResponseMono = statisticsService.getApiCreatedStatistics(serverRequest);
-        ServerResponse serverResponse = serverResponseMono.block();
+        ServerResponse serverResponse = statisticsService.getInterfaceSpecificationStatistics(serverRequest).block();
 
         JsonApiRestResponseWrapper<ArrayList<Map<String, Object>>> jsonApiRestResponseWrapper = ServerResponseExtractor.serverResponseAsObject(serverResponse, new ObjectMapper(), JsonApiRestResponseWrapper.class);
-        ArrayList<Map<String, Object>> data = jsonApiRestResponseWrapper.getData();
 
-        Assertions.assertThat(data).containsExactly(
-                Map.of("id", api1Name, "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", api1Name, "value", apiCreated.toString())),
-                Map.of("id", api2Name, "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", api2Name, "value", apiCreated.toString()))
+        Assertions.assertThat(jsonApiRestResponseWrapper.getData()).containsExactly(
+                Map.of("id", "REST", "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", "REST", "value", "3")),
+                Map.of("id", "SOAP", "type", JsonApiRestResponseWrapper.STATISTICS_ENTRY, "attributes", Map.of("key", "SOAP", "value", "1"))
         );
     }
-}
\ No newline at end of file
+}
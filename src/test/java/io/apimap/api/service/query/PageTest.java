@@ -0,0 +1,58 @@
+package io.apimap.api.service.query;
+
+import io.apimap.api.utils.RequestUtil;
+import io.apimap.api.utils.URIUtil;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.function.Function;
+
+class PageTest {
+
+    @Test
+    void walksForwardAndBackward() {
+        final Page first = Page.of(2, null);
+        final Page.Slice<String> firstSlice = first.slice(List.of("a", "b", "c"), Function.identity());
+
+        Assertions.assertThat(firstSlice.getContent()).containsExactly("a", "b");
+        Assertions.assertThat(firstSlice.getPrevious()).isNull();
+        Assertions.assertThat(firstSlice.getNext()).isNotNull();
+
+        final Page second = Page.of(2, firstSlice.getNext());
+        Assertions.assertThat(second.getAfter()).isEqualTo("b");
+
+        final Page.Slice<String> secondSlice = second.slice(List.of("c"), Function.identity());
+        Assertions.assertThat(secondSlice.getContent()).containsExactly("c");
+        Assertions.assertThat(secondSlice.getNext()).isNull();
+
+        final Page back = Page.of(2, secondSlice.getPrevious());
+        Assertions.assertThat(back.isBackward()).isTrue();
+        Assertions.assertThat(back.getBefore()).isEqualTo("c");
+
+        // Backward pages are read in descending order
+        final Page.Slice<String> backSlice = back.slice(List.of("b", "a"), Function.identity());
+        Assertions.assertThat(backSlice.getContent()).containsExactly("a", "b");
+        Assertions.assertThat(backSlice.getPrevious()).isNull();
+        Assertions.assertThat(backSlice.getNext()).isEqualTo(firstSlice.getNext());
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        Assertions.assertThatThrownBy(() -> Page.of(0, null)).isInstanceOf(ResponseStatusException.class);
+        Assertions.assertThatThrownBy(() -> Page.of(Page.MAX_SIZE + 1, null)).isInstanceOf(ResponseStatusException.class);
+        Assertions.assertThatThrownBy(() -> Page.of(10, "not a cursor")).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void replacesCursorInLinks() {
+        final URI uri = URI.create("http://localhost:8080/api?page%5Bsize%5D=2&page%5Bcursor%5D=old&filter%5Bname%5D=hello%20world");
+
+        final URI next = URIUtil.fromURI(uri).withQueryParameter(RequestUtil.PAGE_CURSOR_KEY, "new").uriValue();
+
+        Assertions.assertThat(next.getPath()).isEqualTo("/api");
+        Assertions.assertThat(next.getQuery()).isEqualTo("page[size]=2&filter[name]=hello+world&page[cursor]=new");
+    }
+}
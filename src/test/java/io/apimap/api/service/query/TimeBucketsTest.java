@@ -0,0 +1,66 @@
+package io.apimap.api.service.query;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+
+class TimeBucketsTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2022-06-15T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void rangesAreWidenedToWholeBuckets() {
+        final TimeBuckets buckets = TimeBuckets.of("month", "2022-01-20", "2022-03-02", CLOCK);
+
+        Assertions.assertThat(buckets.getStart()).isEqualTo(Instant.parse("2022-01-01T00:00:00Z"));
+        Assertions.assertThat(buckets.getEnd()).isEqualTo(Instant.parse("2022-04-01T00:00:00Z"));
+    }
+
+    @Test
+    void daysAreAddedUpPerBucket() {
+        final TimeBuckets buckets = TimeBuckets.of("month", "2022-01-01", "2022-03-31", CLOCK);
+
+        final TreeMap<LocalDate, Long> perDay = new TreeMap<>(Map.of(
+                LocalDate.parse("2022-01-01"), 1L,
+                LocalDate.parse("2022-01-31"), 2L,
+                LocalDate.parse("2022-03-15"), 4L
+        ));
+
+        Assertions.assertThat(buckets.count(perDay)).containsExactly(
+                Map.entry(LocalDate.parse("2022-01-01"), 3L),
+                Map.entry(LocalDate.parse("2022-02-01"), 0L),
+                Map.entry(LocalDate.parse("2022-03-01"), 4L)
+        );
+    }
+
+    @Test
+    void defaultsEndWithTheCurrentBucket() {
+        final TimeBuckets months = TimeBuckets.of(null, null, null, CLOCK);
+
+        Assertions.assertThat(months.getGranularity()).isEqualTo(TimeBuckets.Granularity.MONTH);
+        Assertions.assertThat(months.getStart()).isEqualTo(Instant.parse("2021-07-01T00:00:00Z"));
+        Assertions.assertThat(months.getEnd()).isEqualTo(Instant.parse("2022-07-01T00:00:00Z"));
+
+        // 2022-06-15 is a Wednesday
+        final TimeBuckets weeks = TimeBuckets.of("WEEK", null, null, CLOCK);
+
+        Assertions.assertThat(weeks.getStart()).isEqualTo(Instant.parse("2022-03-28T00:00:00Z"));
+        Assertions.assertThat(weeks.getEnd()).isEqualTo(Instant.parse("2022-06-20T00:00:00Z"));
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        Assertions.assertThatThrownBy(() -> TimeBuckets.of("year", null, null, CLOCK)).isInstanceOf(ResponseStatusException.class);
+        Assertions.assertThatThrownBy(() -> TimeBuckets.of("day", "2022-13-01", null, CLOCK)).isInstanceOf(ResponseStatusException.class);
+        Assertions.assertThatThrownBy(() -> TimeBuckets.of("day", "2022-02-01", "2022-01-01", CLOCK)).isInstanceOf(ResponseStatusException.class);
+        Assertions.assertThatThrownBy(() -> TimeBuckets.of("day", "2020-01-01", "2022-01-01", CLOCK)).isInstanceOf(ResponseStatusException.class);
+
+        Assertions.assertThat(TimeBuckets.of("day", "2022-01-01", "2023-01-01", CLOCK).count(new TreeMap<>())).hasSize(TimeBuckets.MAX_BUCKETS);
+    }
+}
@@ -0,0 +1,138 @@
+package io.apimap.api.service.response;
+
+import io.apimap.api.configuration.CacheConfiguration;
+import io.apimap.api.repository.interfaces.IDocument;
+import io.apimap.api.repository.nitrite.entities.Document;
+import io.apimap.api.utils.CompressionUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class DocumentRendererTest {
+    private static final String API_ID = "api";
+    private static final String VERSION = "1";
+
+    DocumentRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new DocumentRenderer(new CacheConfiguration(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * A README with the given body, loaded once per call
+     */
+    private static Mono<IDocument> document(AtomicInteger loads, String body, String html) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            final Document document = new Document(API_ID, VERSION, body, Instant.now(), IDocument.DocumentType.README);
+            document.setHtml(html);
+            return document;
+        });
+    }
+
+    @Test
+    void rendersEscapedHtml() {
+        Assertions.assertThat(renderer.render("# Title\n<script>alert(1)</script>").block())
+                .contains("<h1>Title</h1>")
+                .doesNotContain("<script>");
+    }
+
+    @Test
+    void rendersLargeDocumentsOffTheEventLoop() {
+        final String markdown = "* item\n".repeat(DocumentRenderer.OFFLOAD_SIZE);
+        final String thread = renderer.render(markdown)
+                .map(html -> Thread.currentThread().getName())
+                .block();
+
+        Assertions.assertThat(thread).startsWith("boundedElastic");
+    }
+
+    @Test
+    void storedHtmlIsServedFromCache() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            final DocumentRenderer.Rendered rendered = renderer
+                    .rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(loads, "# Ignored", "<p>stored</p>"))
+                    .block();
+
+            Assertions.assertThat(rendered.getHtml()).isEqualTo("<p>stored</p>");
+        }
+
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void documentsWithoutHtmlAreRenderedOnRead() {
+        final DocumentRenderer.Rendered rendered = renderer
+                .rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(new AtomicInteger(), "*text*", null))
+                .block();
+
+        Assertions.assertThat(rendered.getHtml()).isEqualTo("<p><em>text</em></p>\n");
+    }
+
+    @Test
+    void compressedDocumentsAreRenderedOnRead() {
+        final String markdown = "*text*\n".repeat(100);
+        final Document document = new Document(API_ID, VERSION, null, Instant.now(), IDocument.DocumentType.README);
+        IDocument.encodeBody(document, markdown.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThat(document.getEncoding()).isEqualTo(CompressionUtil.GZIP);
+        Assertions.assertThat(document.getBody()).isNull();
+        Assertions.assertThat(IDocument.decodeBody(document)).isEqualTo(markdown);
+
+        final DocumentRenderer.Rendered rendered = renderer
+                .rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> Mono.just(document))
+                .block();
+
+        Assertions.assertThat(rendered.getHtml()).startsWith("<p><em>text</em>");
+    }
+
+    @Test
+    void smallBodiesAreStoredAsText() {
+        final Document document = new Document(API_ID, VERSION, null, Instant.now(), IDocument.DocumentType.README);
+        IDocument.encodeBody(document, "# A".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThat(document.getEncoding()).isNull();
+        Assertions.assertThat(document.getContent()).isNull();
+        Assertions.assertThat(IDocument.decodeBody(document)).isEqualTo("# A");
+    }
+
+    @Test
+    void etagsFollowTheContent() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        final String first = renderer.rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(loads, "one", null)).block().getEtag();
+        final String cached = renderer.rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(loads, "two", null)).block().getEtag();
+
+        renderer.invalidate(API_ID, VERSION, IDocument.DocumentType.README);
+
+        final String updated = renderer.rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(loads, "two", null)).block().getEtag();
+        final String other = new DocumentRenderer(new CacheConfiguration(), new SimpleMeterRegistry())
+                .rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(loads, "two", null)).block().getEtag();
+
+        Assertions.assertThat(first).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        Assertions.assertThat(cached).isEqualTo(first);
+        Assertions.assertThat(updated).isNotEqualTo(first);
+        Assertions.assertThat(other).isEqualTo(updated);
+    }
+
+    @Test
+    void disabledConditionalRequestsHaveNoEtag() {
+        final CacheConfiguration configuration = new CacheConfiguration();
+        configuration.setConditionalRequests(false);
+
+        final DocumentRenderer.Rendered rendered = new DocumentRenderer(configuration, new SimpleMeterRegistry())
+                .rendered(API_ID, VERSION, IDocument.DocumentType.README, () -> document(new AtomicInteger(), "text", null))
+                .block();
+
+        Assertions.assertThat(rendered.getEtag()).isNull();
+    }
+}
@@ -0,0 +1,77 @@
+package io.apimap.api.service.response;
+
+import io.apimap.api.utils.RequestUtil;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+class ResourceVersionsTest {
+
+    private static ServerRequest request(String ifNoneMatch) {
+        final MockServerHttpRequest request = MockServerHttpRequest
+                .method(HttpMethod.GET, "/api")
+                .header("If-None-Match", ifNoneMatch)
+                .build();
+
+        return ServerRequest.create(MockServerWebExchange.from(request), HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    @Test
+    void writesChangeTheAffectedTags() {
+        final ResourceVersions versions = new ResourceVersions(true, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+        final String api = versions.apiTag("first");
+        final String other = versions.apiTag("second");
+        final String catalog = versions.catalogTag();
+        final String taxonomy = versions.taxonomyTag();
+
+        versions.apiModified("first");
+
+        Assertions.assertThat(versions.apiTag("first")).isNotEqualTo(api);
+        Assertions.assertThat(versions.apiTag("second")).isEqualTo(other);
+        Assertions.assertThat(versions.catalogTag()).isNotEqualTo(catalog);
+        Assertions.assertThat(versions.taxonomyTag()).isEqualTo(taxonomy);
+
+        final String classification = versions.classificationTag();
+        versions.taxonomyModified();
+
+        Assertions.assertThat(versions.taxonomyTag()).isNotEqualTo(taxonomy);
+        Assertions.assertThat(versions.classificationTag()).isNotEqualTo(classification);
+    }
+
+    @Test
+    void tagsExpireWithTheMaxAge() {
+        final ResourceVersions versions = new ResourceVersions(true, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+        final ResourceVersions later = new ResourceVersions(true, Clock.fixed(Instant.EPOCH.plus(ResponseBuilder.MAX_AGE), ZoneOffset.UTC));
+
+        Assertions.assertThat(versions.catalogTag()).startsWith("\"").endsWith("-c0-0\"");
+        Assertions.assertThat(later.catalogTag()).endsWith("-c0-1\"");
+    }
+
+    @Test
+    void disabledVersionsHaveNoTags() {
+        final ResourceVersions versions = new ResourceVersions(false, Clock.systemUTC());
+
+        Assertions.assertThat(versions.catalogTag()).isNull();
+        Assertions.assertThat(versions.apiTag("first")).isNull();
+        Assertions.assertThat(RequestUtil.isNotModified(request("*"), versions.catalogTag())).isFalse();
+    }
+
+    @Test
+    void ifNoneMatchComparesWeakly() {
+        final String tag = new ResourceVersions(true, Clock.systemUTC()).catalogTag();
+
+        Assertions.assertThat(RequestUtil.isNotModified(request(tag), tag)).isTrue();
+        Assertions.assertThat(RequestUtil.isNotModified(request("\"other\", W/" + tag), tag)).isTrue();
+        Assertions.assertThat(RequestUtil.isNotModified(request("*"), tag)).isTrue();
+        Assertions.assertThat(RequestUtil.isNotModified(request("\"other\""), tag)).isFalse();
+    }
+}
@@ -0,0 +1,61 @@
+package io.apimap.api.service.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.apimap.api.rest.jsonapi.JsonApiViews;
+import io.apimap.api.service.ServerResponseExtractor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class StreamingCollectionInserterTest {
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static Map<String, Object> entity(String name) {
+        final Map<String, Object> entity = new LinkedHashMap<>();
+        entity.put("name", name);
+        entity.put("uri", "http://localhost/api/" + name);
+        return entity;
+    }
+
+    private static Map<String, Object> envelope(List<Map<String, Object>> data) {
+        final Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("data", data);
+        envelope.put("links", Map.of("self", "http://localhost/api"));
+        return envelope;
+    }
+
+    private String streamed(List<Map<String, Object>> entities) {
+        final Map<String, Object> placeholder = entity("placeholder");
+
+        final ServerResponse response = ServerResponse.ok()
+                .body(new StreamingCollectionInserter<>(envelope(new ArrayList<>(List.of(placeholder))), placeholder, Flux.fromIterable(entities), JsonApiViews.Collection.class, 64))
+                .block();
+
+        return ServerResponseExtractor.serverResponseAsString(response);
+    }
+
+    @Test
+    void writesSameBytesAsMaterializedDocument() throws Exception {
+        final List<Map<String, Object>> entities = IntStream.range(0, 100)
+                .mapToObj(i -> entity("api-" + i))
+                .collect(Collectors.toList());
+
+        Assertions.assertThat(streamed(entities))
+                .isEqualTo(mapper.writerWithView(JsonApiViews.Collection.class).writeValueAsString(envelope(entities)));
+    }
+
+    @Test
+    void writesEmptyCollection() throws Exception {
+        Assertions.assertThat(streamed(List.of()))
+                .isEqualTo(mapper.writerWithView(JsonApiViews.Collection.class).writeValueAsString(envelope(List.of())));
+    }
+}
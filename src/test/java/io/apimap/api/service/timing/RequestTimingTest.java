@@ -0,0 +1,63 @@
+package io.apimap.api.service.timing;
+
+import io.apimap.api.repository.repository.IVoteRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(SpringExtension.class)
+class RequestTimingTest {
+
+    @Mock
+    IVoteRepository mockVoteRepository;
+
+    @Test
+    void phasesAddUp() {
+        final RequestTiming timing = new RequestTiming(0);
+
+        timing.add(RequestTiming.Phase.STORAGE, 1_000_000);
+        timing.add(RequestTiming.Phase.STORAGE, 500_000);
+        timing.add(RequestTiming.Phase.PARSE, 20_000);
+
+        Assertions.assertThat(timing.get(RequestTiming.Phase.STORAGE)).isEqualTo(1_500_000);
+        Assertions.assertThat(timing.serverTiming(3_000_000)).isEqualTo("parse;dur=0.020, storage;dur=1.500, total;dur=3.000");
+    }
+
+    @Test
+    void serializationAndWriteFollowTheAssembledResponse() {
+        final RequestTiming timing = new RequestTiming();
+
+        RequestTiming.assembled(250_000, Mono.just("response"))
+                .contextWrite(context -> context.put(RequestTiming.KEY, timing))
+                .block();
+
+        final long assembled = timing.responseAssembled;
+        timing.committed(assembled + 2_000_000);
+        timing.completed(assembled + 5_000_000);
+
+        Assertions.assertThat(timing.get(RequestTiming.Phase.RESPONSE)).isEqualTo(250_000);
+        Assertions.assertThat(timing.get(RequestTiming.Phase.SERIALIZATION)).isEqualTo(2_000_000);
+        Assertions.assertThat(timing.get(RequestTiming.Phase.WRITE)).isEqualTo(3_000_000);
+    }
+
+    @Test
+    void interceptedCallsAreAddedToTheirPhase() {
+        Mockito.when(mockVoteRepository.rating("api", "1.0.0")).thenReturn(Mono.just(4));
+
+        final ProxyFactory factory = new ProxyFactory(mockVoteRepository);
+        factory.addAdvice(new PhaseTimingInterceptor(RequestTiming.Phase.MAPPING));
+        final IVoteRepository proxy = (IVoteRepository) factory.getProxy();
+
+        final RequestTiming timing = new RequestTiming();
+        final Mono<?> rating = proxy.rating("api", "1.0.0");
+
+        Assertions.assertThat(timing.get(RequestTiming.Phase.MAPPING)).isZero();
+        Assertions.assertThat(rating.contextWrite(context -> context.put(RequestTiming.KEY, timing)).block()).isEqualTo(4);
+        Assertions.assertThat(timing.get(RequestTiming.Phase.MAPPING)).isPositive();
+    }
+}
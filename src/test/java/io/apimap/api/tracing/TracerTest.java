@@ -0,0 +1,98 @@
+package io.apimap.api.tracing;
+
+import io.apimap.api.configuration.TracingConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class TracerTest {
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final List<Span> exported = new CopyOnWriteArrayList<>();
+
+    /** Tracer exporting into the exported list */
+    private Tracer tracer(boolean enabled) {
+        final TracingConfiguration configuration = new TracingConfiguration();
+        configuration.setEnabled(enabled);
+
+        final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("exporter", (SpanExporter) exported::addAll);
+
+        return new Tracer(configuration, beanFactory.getBeanProvider(SpanExporter.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void childSpansFollowTheContextAcrossFanOuts() throws Exception {
+        final Tracer tracer = tracer(true);
+        final Span root = tracer.start("request", TRACEPARENT);
+
+        final List<Integer> result = Flux.range(0, 3)
+                .flatMap(i -> tracer.trace("repository.get", Mono.just(i).publishOn(Schedulers.parallel())))
+                .collectList()
+                .contextWrite(context -> context.put(Tracer.KEY, root))
+                .block();
+
+        tracer.finish(root);
+        tracer.destroy();
+
+        Assertions.assertThat(result).hasSize(3);
+        Assertions.assertThat(exported)
+                .hasSize(4)
+                .allSatisfy(span -> Assertions.assertThat(span.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736"));
+        Assertions.assertThat(exported)
+                .filteredOn(span -> span.getName().equals("repository.get"))
+                .allSatisfy(span -> Assertions.assertThat(span.getParentId()).isEqualTo(root.getSpanId()));
+        Assertions.assertThat(root.getParentId()).isEqualTo("00f067aa0ba902b7");
+    }
+
+    @Test
+    void unsampledTracesAreNotExported() throws Exception {
+        final Tracer tracer = tracer(true);
+        final Span root = tracer.start("request", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        tracer.trace("repository.get", Mono.just(1))
+                .contextWrite(context -> context.put(Tracer.KEY, root))
+                .block();
+
+        tracer.finish(root);
+        tracer.destroy();
+
+        Assertions.assertThat(exported).isEmpty();
+        Assertions.assertThat(root.traceparent()).endsWith("-00");
+    }
+
+    @Test
+    void malformedTraceparentStartsANewTrace() {
+        final Tracer tracer = tracer(true);
+
+        Assertions.assertThat(tracer.start("request", "00-00000000000000000000000000000000-00f067aa0ba902b7-01").getParentId()).isNull();
+        Assertions.assertThat(tracer.start("request", "garbage").getParentId()).isNull();
+        Assertions.assertThat(tracer.start("request", null).traceparent()).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01");
+    }
+
+    @Test
+    void disabledTracerPassesPublishersThrough() {
+        final Tracer tracer = tracer(false);
+        final Mono<Integer> mono = Mono.just(1);
+
+        Assertions.assertThat(tracer.trace("repository.get", mono)).isSameAs(mono);
+    }
+
+    @Test
+    void spansAreWrittenAsJson() {
+        final Span span = Span.root("GET /api/{apiName}", true).tag("quote", "a\"b");
+        span.end();
+
+        Assertions.assertThat(span.toJson())
+                .startsWith("{\"traceId\":\"" + span.getTraceId() + "\"")
+                .contains("\"name\":\"GET /api/{apiName}\"")
+                .contains("\"tags\":{\"quote\":\"a\\\"b\"}");
+    }
+}
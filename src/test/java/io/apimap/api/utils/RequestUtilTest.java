@@ -0,0 +1,78 @@
+package io.apimap.api.utils;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RequestUtilTest {
+
+    private static ServerRequest request(MockServerHttpRequest request) {
+        return ServerRequest.create(MockServerWebExchange.from(request), HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    /**
+     * Body of count chunks of size bytes, counting the chunks the server pulled
+     */
+    private static Flux<DataBuffer> chunks(int count, int size, AtomicInteger pulled) {
+        return Flux.range(0, count)
+                .doOnNext(i -> pulled.incrementAndGet())
+                .map(i -> new DefaultDataBufferFactory().wrap("x".repeat(size).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static ServerRequest accepting(String acceptEncoding) {
+        return request(MockServerHttpRequest.method(HttpMethod.GET, "/api").header("Accept-Encoding", acceptEncoding).build());
+    }
+
+    @Test
+    void boundedBodyJoinsTheChunks() {
+        final ServerRequest request = request(MockServerHttpRequest.post("/api/first/README.md").body(chunks(3, 100, new AtomicInteger())));
+
+        Assertions.assertThat(RequestUtil.boundedBody(request, 300).block()).hasSize(300);
+    }
+
+    @Test
+    void boundedBodyStopsReadingPastTheLimit() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final ServerRequest request = request(MockServerHttpRequest.post("/api/first/README.md").body(chunks(100, 100, pulled)));
+
+        Assertions.assertThatThrownBy(() -> RequestUtil.boundedBody(request, 250).block())
+                .isInstanceOf(ResponseStatusException.class)
+                .matches(e -> ((ResponseStatusException) e).getStatus() == HttpStatus.PAYLOAD_TOO_LARGE);
+
+        Assertions.assertThat(pulled.get()).isEqualTo(3);
+    }
+
+    @Test
+    void boundedBodyRejectsLargeContentLengthWithoutReading() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final ServerRequest request = request(MockServerHttpRequest.post("/api/first/README.md")
+                .contentLength(10_000)
+                .body(chunks(100, 100, pulled)));
+
+        Assertions.assertThatThrownBy(() -> RequestUtil.boundedBody(request, 250).block())
+                .isInstanceOf(ResponseStatusException.class);
+
+        Assertions.assertThat(pulled.get()).isZero();
+    }
+
+    @Test
+    void acceptsEncodingHonoursQuality() {
+        Assertions.assertThat(RequestUtil.acceptsEncoding(accepting("gzip, deflate, br"), "gzip")).isTrue();
+        Assertions.assertThat(RequestUtil.acceptsEncoding(accepting("br;q=1.0, *;q=0.5"), "gzip")).isTrue();
+        Assertions.assertThat(RequestUtil.acceptsEncoding(accepting("gzip;q=0, br"), "gzip")).isFalse();
+        Assertions.assertThat(RequestUtil.acceptsEncoding(accepting("identity"), "gzip")).isFalse();
+        Assertions.assertThat(RequestUtil.acceptsEncoding(request(MockServerHttpRequest.method(HttpMethod.GET, "/api").build()), "gzip")).isFalse();
+    }
+}
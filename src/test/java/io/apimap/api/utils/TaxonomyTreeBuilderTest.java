@@ -0,0 +1,55 @@
+package io.apimap.api.utils;
+
+import io.apimap.api.rest.TaxonomyDataRestEntity;
+import io.apimap.api.rest.TaxonomyTreeDataRestEntity;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class TaxonomyTreeBuilderTest {
+
+    private static TaxonomyTreeDataRestEntity node(String url, String urn) {
+        return new TaxonomyTreeDataRestEntity(urn, urn, url, null, null, "1", TaxonomyDataRestEntity.ReferenceType.CLASSIFICATION, null);
+    }
+
+    @Test
+    void createsEmptyParentsAndFillsThemLater() {
+        final TaxonomyTreeBuilder builder = TaxonomyTreeBuilder.empty();
+
+        builder.insert(node("taxonomy://Root/Branch/Leaf", "urn:apimap:3"));
+        builder.insert(node("taxonomy://Root", "urn:apimap:1"));
+        builder.insert(node("taxonomy://Root/BranchTwo", "urn:apimap:4"));
+
+        final ArrayList<TaxonomyTreeDataRestEntity> tree = builder.getTree();
+        Assertions.assertThat(tree).hasSize(1);
+        Assertions.assertThat(tree.get(0).getUrn()).isEqualTo("urn:apimap:1");
+        Assertions.assertThat(tree.get(0).getEntities())
+                .extracting(TaxonomyTreeDataRestEntity::getUrl)
+                .containsExactly("taxonomy://root/branch", "taxonomy://Root/BranchTwo");
+        Assertions.assertThat(tree.get(0).getEntities().get(0).getReferenceType()).isEqualTo(TaxonomyDataRestEntity.ReferenceType.UNKNOWN);
+        Assertions.assertThat(tree.get(0).getEntities().get(0).getEntities())
+                .extracting(TaxonomyTreeDataRestEntity::getUrn)
+                .containsExactly("urn:apimap:3");
+    }
+
+    @Test
+    void insertsIntoExistingTree() {
+        final TaxonomyTreeBuilder first = TaxonomyTreeBuilder.empty();
+        first.insert(node("taxonomy://Root/Branch", "urn:apimap:2"));
+
+        final TaxonomyTreeBuilder second = TaxonomyTreeBuilder.empty();
+        second.setTree(first.getTree());
+        second.insert(node("taxonomy://Root/Branch/Leaf", "urn:apimap:3"));
+        second.insert(node("taxonomy://Other", "urn:apimap:5"));
+
+        final ArrayList<TaxonomyTreeDataRestEntity> tree = second.getTree();
+        Assertions.assertThat(tree)
+                .extracting(TaxonomyTreeDataRestEntity::getUrl)
+                .containsExactly("taxonomy://root", "taxonomy://Other");
+        Assertions.assertThat(tree.get(0).getEntities()).hasSize(1);
+        Assertions.assertThat(tree.get(0).getEntities().get(0).getEntities())
+                .extracting(TaxonomyTreeDataRestEntity::getUrn)
+                .containsExactly("urn:apimap:3");
+    }
+}
@@ -0,0 +1,63 @@
+package io.apimap.api.utils;
+
+import io.apimap.api.repository.nitrite.entities.TaxonomyCollectionVersionURN;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TaxonomyUrlIndexTest {
+
+    private static TaxonomyCollectionVersionURN urn(String url, String urn) {
+        return new TaxonomyCollectionVersionURN(url, urn, null, "apimap", "1", urn, null);
+    }
+
+    private static List<String> below(TaxonomyUrlIndex<TaxonomyCollectionVersionURN> index, String url, Flux<TaxonomyCollectionVersionURN> content) {
+        return index.below(url, () -> content)
+                .map(TaxonomyCollectionVersionURN::getUrn)
+                .collectList()
+                .block();
+    }
+
+    @Test
+    void returnsNodeAndDescendantsOnly() {
+        final TaxonomyUrlIndex<TaxonomyCollectionVersionURN> index = new TaxonomyUrlIndex<>(Duration.ofMinutes(10));
+        final Flux<TaxonomyCollectionVersionURN> content = Flux.just(
+                urn("taxonomy://Root", "urn:apimap:1"),
+                urn("taxonomy://Root/Branch", "urn:apimap:2"),
+                urn("taxonomy://Root/Branch/Leaf", "urn:apimap:3"),
+                urn("taxonomy://Root/BranchTwo", "urn:apimap:4"),
+                urn("taxonomy://Other", "urn:apimap:5")
+        );
+
+        Assertions.assertThat(below(index, "taxonomy://Root/Branch", content))
+                .containsExactlyInAnyOrder("urn:apimap:2", "urn:apimap:3");
+        Assertions.assertThat(below(index, "taxonomy://Root", content))
+                .containsExactlyInAnyOrder("urn:apimap:1", "urn:apimap:2", "urn:apimap:3", "urn:apimap:4");
+        Assertions.assertThat(below(index, "taxonomy://Missing", content))
+                .isEmpty();
+    }
+
+    @Test
+    void appliesWritesWithoutReloading() {
+        final TaxonomyUrlIndex<TaxonomyCollectionVersionURN> index = new TaxonomyUrlIndex<>(Duration.ofMinutes(10));
+        final AtomicInteger loads = new AtomicInteger();
+        final Flux<TaxonomyCollectionVersionURN> content = Flux.defer(() -> {
+            loads.incrementAndGet();
+            return Flux.just(urn("taxonomy://Root", "urn:apimap:1"));
+        });
+
+        Assertions.assertThat(below(index, "taxonomy://Root", content)).containsExactly("urn:apimap:1");
+
+        index.put(urn("taxonomy://Root/Branch", "urn:apimap:2"));
+        Assertions.assertThat(below(index, "taxonomy://Root", content)).containsExactlyInAnyOrder("urn:apimap:1", "urn:apimap:2");
+
+        index.remove(entity -> entity.getUrn().equals("urn:apimap:2"));
+        Assertions.assertThat(below(index, "taxonomy://Root/Branch", content)).isEmpty();
+
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+    }
+}
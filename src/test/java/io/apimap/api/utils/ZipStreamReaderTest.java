@@ -0,0 +1,77 @@
+package io.apimap.api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class ZipStreamReaderTest {
+
+    @Test
+    void readsEntriesWrittenByZipStreamWriter() {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ZipStreamWriter writer = new ZipStreamWriter(new DefaultDataBufferFactory(), mapper, new SimpleMeterRegistry(), 16);
+
+        final List<Map<String, String>> apis = List.of(
+                Map.of("name", "First API"),
+                Map.of("name", "Second API"),
+                Map.of("name", "Third API")
+        );
+
+        final Flux<DataBuffer> archive = Flux.concat(
+                writer.entry("apis.json", Flux.fromIterable(apis)),
+                writer.entry("metadata.json", Flux.empty()),
+                writer.entry("versions.json", Flux.just(Map.of("version", "1"))),
+                writer.finish());
+
+        final List<ZipStreamReader.Batch> batches = ZipStreamReader
+                .read(archive, mapper, 2)
+                .collectList()
+                .block();
+
+        Assertions.assertThat(batches)
+                .extracting(ZipStreamReader.Batch::getEntryName)
+                .containsExactly("apis.json", "apis.json", "versions.json");
+
+        Assertions.assertThat(batches.stream()
+                        .filter(batch -> batch.getEntryName().equals("apis.json"))
+                        .flatMap(batch -> batch.getDocuments().stream())
+                        .map(node -> node.get("name").asText())
+                        .collect(Collectors.toList()))
+                .containsExactly("First API", "Second API", "Third API");
+
+        Assertions.assertThat(batches.get(2).getDocuments().get(0).get("version").asText()).isEqualTo("1");
+    }
+
+    @Test
+    void uploadIsCancelledOnceTheArchiveIsRead() throws InterruptedException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ZipStreamWriter writer = new ZipStreamWriter(new DefaultDataBufferFactory(), mapper, new SimpleMeterRegistry(), 16);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+
+        // An upload that keeps sending after the last entry
+        final Flux<DataBuffer> archive = Flux.concat(
+                        writer.entry("apis.json", Flux.just(Map.of("name", "First API"))),
+                        writer.finish(),
+                        Flux.<DataBuffer>never())
+                .doOnCancel(cancelled::countDown);
+
+        final List<ZipStreamReader.Batch> batches = ZipStreamReader
+                .read(archive, mapper, 2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        Assertions.assertThat(batches).extracting(ZipStreamReader.Batch::getEntryName).containsExactly("apis.json");
+        Assertions.assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package io.apimap.api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+class ZipStreamWriterTest {
+
+    @Test
+    void entriesMatchSerializedCollections() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ZipStreamWriter writer = new ZipStreamWriter(new DefaultDataBufferFactory(), mapper, meterRegistry, 16);
+
+        final List<Map<String, String>> apis = List.of(
+                Map.of("name", "First API"),
+                Map.of("name", "Second API"),
+                Map.of("name", "Third API")
+        );
+
+        final List<DataBuffer> buffers = Flux.concat(
+                        writer.entry("apis.json", Flux.fromIterable(apis)),
+                        writer.entry("metadata.json", Flux.empty()),
+                        writer.finish())
+                .collectList()
+                .block();
+
+        Assertions.assertThat(buffers).allMatch(buffer -> buffer.readableByteCount() <= 16);
+
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        for (DataBuffer buffer : buffers) {
+            final byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            archive.write(bytes);
+            DataBufferUtils.release(buffer);
+        }
+
+        final Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zipInputStream.readAllBytes()));
+            }
+        }
+
+        Assertions.assertThat(entries).containsExactly(
+                Map.entry("apis.json", mapper.writeValueAsString(apis)),
+                Map.entry("metadata.json", "[]")
+        );
+
+        Assertions.assertThat(meterRegistry.get("apimap.export.documents").tag("entry", "apis.json").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void abortedExportsAreClosedAndTimed() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ZipStreamWriter writer = new ZipStreamWriter(new DefaultDataBufferFactory(), new ObjectMapper(), meterRegistry, 16);
+
+        final Flux<DataBuffer> export = Flux.concat(
+                        writer.entry("apis.json", Flux.concat(Flux.just(Map.of("name", "First API")), Flux.error(new IllegalStateException("Storage unavailable")))),
+                        writer.finish())
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .doFinally(signal -> writer.release());
+
+        Assertions.assertThatThrownBy(export::blockLast).isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(meterRegistry.get("apimap.export.duration").tag("entry", "apis.json").timer().count()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> writer.finish().blockLast()).hasCauseInstanceOf(IOException.class);
+    }
+}